@@ -49,9 +49,9 @@ public class Mem0ChatMemoryAutoConfiguration {
 
 	@Bean
 	@ConditionalOnBean(Mem0ServiceClient.class)
-	public VectorStore mem0MemoryStore(Mem0ServiceClient client) {
+	public VectorStore mem0MemoryStore(Mem0ServiceClient client, Mem0ChatMemoryProperties properties) {
 		// TODO 客户端初始化后，需要初始化一系列python中的配置
-		return Mem0MemoryStore.builder(client).build();
+		return Mem0MemoryStore.builder(client).writeBehind(properties.getClient().getWriteBehind()).build();
 	}
 
 }
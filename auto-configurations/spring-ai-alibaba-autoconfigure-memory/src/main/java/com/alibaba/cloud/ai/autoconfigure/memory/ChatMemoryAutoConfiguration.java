@@ -16,20 +16,29 @@
 
 package com.alibaba.cloud.ai.autoconfigure.memory;
 
+import com.alibaba.cloud.ai.memory.cache.ChatMemoryInvalidationChannel;
+import com.alibaba.cloud.ai.memory.cache.NearCacheChatMemoryMetrics;
+import com.alibaba.cloud.ai.memory.cache.NearCacheChatMemoryRepository;
+import com.alibaba.cloud.ai.memory.cache.RedisChatMemoryInvalidationChannel;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 
-@AutoConfiguration
+@AutoConfiguration(afterName = "org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration")
 @ConditionalOnClass({ ChatMemory.class, ChatMemoryRepository.class })
 @ConditionalOnProperty(prefix = ChatMemoryProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true",
 		matchIfMissing = false)
@@ -49,10 +58,42 @@ public class ChatMemoryAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	ChatMemory chatMemory(ChatMemoryRepository chatMemoryRepository, ChatMemoryProperties properties) {
-		return MessageWindowChatMemory.builder().chatMemoryRepository(chatMemoryRepository)
+	ChatMemory chatMemory(ChatMemoryRepository chatMemoryRepository, ChatMemoryProperties properties,
+			ObjectProvider<ChatMemoryInvalidationChannel> invalidationChannel,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		ChatMemoryRepository repository = chatMemoryRepository;
+		ChatMemoryProperties.NearCache nearCache = properties.getNearCache();
+		if (nearCache.isEnabled() && !(chatMemoryRepository instanceof InMemoryChatMemoryRepository)) {
+			NearCacheChatMemoryRepository cached = NearCacheChatMemoryRepository.builder()
+				.delegate(chatMemoryRepository)
+				.maxWeight(nearCache.getMaxWeight())
+				.expireAfterWrite(nearCache.getExpireAfterWrite())
+				.writeThrough(nearCache.isWriteThrough())
+				.invalidationChannel(invalidationChannel.getIfAvailable())
+				.build();
+			meterRegistry.ifAvailable(registry -> new NearCacheChatMemoryMetrics(cached, "chat-memory").bindTo(registry));
+			logger.info("Using near cache in front of {}", chatMemoryRepository.getClass().getSimpleName());
+			repository = cached;
+		}
+		return MessageWindowChatMemory.builder().chatMemoryRepository(repository)
 				.maxMessages(properties.getMaxMessages())
 				.build();
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(RedisConnectionFactory.class)
+	@ConditionalOnBean(RedisConnectionFactory.class)
+	@ConditionalOnProperty(prefix = ChatMemoryProperties.CONFIG_PREFIX + ".near-cache", name = "invalidation-topic")
+	static class RedisInvalidationConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		ChatMemoryInvalidationChannel chatMemoryInvalidationChannel(RedisConnectionFactory connectionFactory,
+				ChatMemoryProperties properties) {
+			return new RedisChatMemoryInvalidationChannel(connectionFactory,
+					properties.getNearCache().getInvalidationTopic());
+		}
+
+	}
+
 }
@@ -18,6 +18,8 @@ package com.alibaba.cloud.ai.autoconfigure.memory;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * @author yingzi
  * @since 2025/11/30
@@ -29,6 +31,8 @@ public class ChatMemoryProperties {
 
     private int maxMessages = 20;
 
+    private final NearCache nearCache = new NearCache();
+
     public int getMaxMessages() {
         return maxMessages;
     }
@@ -37,4 +41,79 @@ public class ChatMemoryProperties {
         this.maxMessages = maxMessages;
     }
 
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    /**
+     * Local cache in front of the chat memory repository.
+     */
+    public static class NearCache {
+
+        private boolean enabled = false;
+
+        /**
+         * Upper bound of the cache weight, roughly the number of cached characters.
+         */
+        private long maxWeight = 8 * 1024 * 1024;
+
+        /**
+         * Drop cached conversations this long after they were loaded or written.
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * Whether a successful save replaces the cached conversation instead of dropping
+         * it.
+         */
+        private boolean writeThrough = true;
+
+        /**
+         * Redis pub/sub channel used to drop conversations changed by other instances,
+         * when a RedisConnectionFactory is available.
+         */
+        private String invalidationTopic;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxWeight() {
+            return maxWeight;
+        }
+
+        public void setMaxWeight(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public boolean isWriteThrough() {
+            return writeThrough;
+        }
+
+        public void setWriteThrough(boolean writeThrough) {
+            this.writeThrough = writeThrough;
+        }
+
+        public String getInvalidationTopic() {
+            return invalidationTopic;
+        }
+
+        public void setInvalidationTopic(String invalidationTopic) {
+            this.invalidationTopic = invalidationTopic;
+        }
+
+    }
+
 }
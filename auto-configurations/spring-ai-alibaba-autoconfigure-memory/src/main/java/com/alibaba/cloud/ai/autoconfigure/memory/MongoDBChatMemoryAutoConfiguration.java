@@ -52,6 +52,7 @@ public class MongoDBChatMemoryAutoConfiguration {
 			.databaseName(properties.getDatabaseName())
 			.userName(properties.getUserName())
 			.password(properties.getPassword())
+			.timeToLive(properties.getTimeToLive())
 			.build();
 	}
 
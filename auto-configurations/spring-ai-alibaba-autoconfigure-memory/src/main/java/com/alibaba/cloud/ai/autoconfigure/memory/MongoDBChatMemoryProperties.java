@@ -18,6 +18,8 @@ package com.alibaba.cloud.ai.autoconfigure.memory;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for mongodb chat memory.
  */
@@ -56,6 +58,11 @@ public class MongoDBChatMemoryProperties {
 	 */
 	private String databaseName = "spring_ai";
 
+	/**
+	 * idle time after which a conversation expires, disabled when not set.
+	 */
+	private Duration timeToLive;
+
 	public String getHost() {
 		return host;
 	}
@@ -104,4 +111,12 @@ public class MongoDBChatMemoryProperties {
 		this.databaseName = databaseName;
 	}
 
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	public void setTimeToLive(Duration timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
 }
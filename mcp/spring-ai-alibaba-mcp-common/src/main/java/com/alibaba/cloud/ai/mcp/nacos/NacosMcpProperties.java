@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.mcp.nacos;
 
+import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
 import com.alibaba.nacos.api.PropertyKeyConst;
 import com.alibaba.nacos.api.utils.StringUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -67,6 +68,8 @@ public class NacosMcpProperties {
 
 	String ip;
 
+	int mcpServerSyncConcurrency = NacosMcpOperationService.DEFAULT_MCP_SERVER_SYNC_CONCURRENCY;
+
 	@Autowired
 	@JsonIgnore
 	private Environment environment;
@@ -127,6 +130,14 @@ public class NacosMcpProperties {
 		this.endpoint = endpoint;
 	}
 
+	public int getMcpServerSyncConcurrency() {
+		return mcpServerSyncConcurrency;
+	}
+
+	public void setMcpServerSyncConcurrency(int mcpServerSyncConcurrency) {
+		this.mcpServerSyncConcurrency = mcpServerSyncConcurrency;
+	}
+
 	public String getServerAddr() {
 		return serverAddr;
 	}
@@ -143,6 +154,8 @@ public class NacosMcpProperties {
 		properties.put(PropertyKeyConst.PASSWORD, Objects.toString(this.password, ""));
 		properties.put(PropertyKeyConst.ACCESS_KEY, Objects.toString(this.accessKey, ""));
 		properties.put(PropertyKeyConst.SECRET_KEY, Objects.toString(this.secretKey, ""));
+		properties.put(NacosMcpOperationService.MCP_SERVER_SYNC_CONCURRENCY,
+				String.valueOf(this.mcpServerSyncConcurrency));
 		String endpoint = Objects.toString(this.endpoint, "");
 		if (endpoint.contains(":")) {
 			int index = endpoint.indexOf(":");
@@ -19,6 +19,7 @@ package com.alibaba.cloud.ai.mcp.nacos.service;
 import com.alibaba.cloud.ai.mcp.nacos.service.model.NacosMcpServerEndpoint;
 import com.alibaba.nacos.api.NacosFactory;
 import com.alibaba.nacos.api.PropertyKeyConst;
+import com.alibaba.nacos.api.common.Constants;
 import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
 import com.alibaba.nacos.api.ai.model.mcp.McpEndpointSpec;
 import com.alibaba.nacos.api.ai.model.mcp.McpServerBasicInfo;
@@ -28,29 +29,52 @@ import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
 import com.alibaba.nacos.api.config.ConfigService;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
 import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.utils.StringUtils;
+import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.alibaba.nacos.common.utils.MD5Utils;
 import com.alibaba.nacos.maintainer.client.ai.AiMaintainerFactory;
 import com.alibaba.nacos.maintainer.client.ai.AiMaintainerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Arrays;
 import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Sunrisea
  */
-public class NacosMcpOperationService {
+public class NacosMcpOperationService implements DisposableBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(NacosMcpOperationService.class);
 
+	/**
+	 * Maximum number of server details fetched concurrently by one subscription sweep,
+	 * configured by {@code spring.ai.alibaba.mcp.nacos.mcp-server-sync-concurrency}.
+	 */
+	public static final String MCP_SERVER_SYNC_CONCURRENCY = "mcpServerSyncConcurrency";
+
+	public static final int DEFAULT_MCP_SERVER_SYNC_CONCURRENCY = 8;
+
 	private final AiMaintainerService aiMaintainerService;
 
 	private final NamingService namingService;
@@ -61,42 +85,148 @@ public class NacosMcpOperationService {
 
 	private final Map<String, List<NacosMcpSubscriber>> subscribers;
 
+	private final Map<String, String> serverDigests;
+
+	private final ExecutorService serverSyncExecutor;
+
+	private final ScheduledExecutorService serverChangeScheduler;
+
+	private final Map<String, EndpointSnapshot> endpointSnapshots;
+
+	/**
+	 * Fetches of the running sweep, cancelled on destroy.
+	 */
+	private volatile List<CompletableFuture<Void>> syncFutures = List.of();
+
 	public NacosMcpOperationService(Properties nacosProperties) throws NacosException {
-		this.aiMaintainerService = AiMaintainerFactory.createAiMaintainerService(nacosProperties);
-		this.namingService = NacosFactory.createNamingService(nacosProperties);
-		this.configService = NacosFactory.createConfigService(nacosProperties);
-		this.namespace = nacosProperties.getProperty(PropertyKeyConst.NAMESPACE, "public");
+		this(AiMaintainerFactory.createAiMaintainerService(nacosProperties),
+				NacosFactory.createNamingService(nacosProperties), NacosFactory.createConfigService(nacosProperties),
+				nacosProperties.getProperty(PropertyKeyConst.NAMESPACE, "public"),
+				resolveSyncConcurrency(nacosProperties));
+	}
+
+	NacosMcpOperationService(AiMaintainerService aiMaintainerService, NamingService namingService,
+			ConfigService configService, String namespace, int syncConcurrency) {
+		this.aiMaintainerService = aiMaintainerService;
+		this.namingService = namingService;
+		this.configService = configService;
+		this.namespace = namespace;
 		this.subscribers = new ConcurrentHashMap<>();
-		ScheduledExecutorService executorService = new ScheduledThreadPoolExecutor(1, r -> {
+		this.serverDigests = new ConcurrentHashMap<>();
+		this.endpointSnapshots = new ConcurrentHashMap<>();
+		AtomicInteger syncThreadIndex = new AtomicInteger();
+		this.serverSyncExecutor = new ThreadPoolExecutor(syncConcurrency, syncConcurrency, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread t = new Thread(r);
+					t.setName("nacos-mcp-server-sync-" + syncThreadIndex.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				});
+		((ThreadPoolExecutor) this.serverSyncExecutor).allowCoreThreadTimeOut(true);
+		this.serverChangeScheduler = new ScheduledThreadPoolExecutor(1, r -> {
 			Thread t = new Thread(r);
 			t.setName("nacos-mcp-operation-service");
 			t.setDaemon(true);
 			return t;
 		});
 
-		executorService.scheduleWithFixedDelay(this::getServerChange, 30, 30, TimeUnit.SECONDS);
+		this.serverChangeScheduler.scheduleWithFixedDelay(this::getServerChange, 30, 30, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Stops the subscription sweeps and the pool fetching server details. The fetches of
+	 * a running sweep are cancelled first, so the sweep waiting for them returns.
+	 */
+	@Override
+	public void destroy() {
+		this.syncFutures.forEach(future -> future.cancel(true));
+		this.serverChangeScheduler.shutdownNow();
+		this.serverSyncExecutor.shutdownNow();
 	}
 
 	public ConfigService getConfigService() {
 		return configService;
 	}
 
-	private void getServerChange() {
-		for (Map.Entry<String, List<NacosMcpSubscriber>> entry : subscribers.entrySet()) {
-			String mcpNameAndVersion = entry.getKey();
-			List<NacosMcpSubscriber> nacosMcpSubscribers = entry.getValue();
-			try {
-				McpServerDetailInfo mcpServerDetailInfo = this.getServerDetail(mcpNameAndVersion);
-				if (mcpServerDetailInfo == null) {
-					continue;
-				}
-				for (NacosMcpSubscriber nacosMcpSubscriber : nacosMcpSubscribers) {
+	private static int resolveSyncConcurrency(Properties nacosProperties) {
+		String value = nacosProperties.getProperty(MCP_SERVER_SYNC_CONCURRENCY);
+		if (value == null || value.isBlank()) {
+			return DEFAULT_MCP_SERVER_SYNC_CONCURRENCY;
+		}
+		try {
+			return Math.max(1, Integer.parseInt(value.trim()));
+		}
+		catch (NumberFormatException e) {
+			logger.warn("Invalid {}: {}, use default {}", MCP_SERVER_SYNC_CONCURRENCY, value,
+					DEFAULT_MCP_SERVER_SYNC_CONCURRENCY);
+			return DEFAULT_MCP_SERVER_SYNC_CONCURRENCY;
+		}
+	}
+
+	void getServerChange() {
+		try {
+			// Drop the digests of servers nobody subscribes to any more
+			serverDigests.keySet().retainAll(subscribers.keySet());
+			List<CompletableFuture<Void>> futures = new ArrayList<>(subscribers.size());
+			for (String mcpNameAndVersion : subscribers.keySet()) {
+				futures.add(CompletableFuture.runAsync(() -> syncServerChange(mcpNameAndVersion), serverSyncExecutor));
+			}
+			this.syncFutures = futures;
+			// Wait for the whole sweep, so that the next one is scheduled 30s after this
+			// one finished and sweeps never overlap. Unlike join(), get() returns when
+			// the service is destroyed and interrupts this thread
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (CancellationException | ExecutionException e) {
+			if (!serverChangeScheduler.isShutdown()) {
+				logger.error("getServerChange error", e);
+			}
+		}
+		catch (Exception e) {
+			logger.error("getServerChange error", e);
+		}
+		finally {
+			this.syncFutures = List.of();
+		}
+	}
+
+	private void syncServerChange(String mcpNameAndVersion) {
+		List<NacosMcpSubscriber> nacosMcpSubscribers = subscribers.get(mcpNameAndVersion);
+		if (nacosMcpSubscribers == null || nacosMcpSubscribers.isEmpty()) {
+			return;
+		}
+		try {
+			McpServerDetailInfo mcpServerDetailInfo = this.getServerDetail(mcpNameAndVersion);
+			if (mcpServerDetailInfo == null) {
+				serverDigests.remove(mcpNameAndVersion);
+				return;
+			}
+			String digest = MD5Utils.md5Hex(JacksonUtils.toJson(mcpServerDetailInfo), "UTF-8");
+			if (digest.equals(serverDigests.get(mcpNameAndVersion))) {
+				return;
+			}
+			for (NacosMcpSubscriber nacosMcpSubscriber : nacosMcpSubscribers) {
+				try {
 					nacosMcpSubscriber.receive(mcpServerDetailInfo);
 				}
+				catch (Exception e) {
+					logger.error("Notify mcp server change error, mcpNameAndVersion: {}", mcpNameAndVersion, e);
+				}
 			}
-			catch (Exception e) {
-				logger.error("getServerChange error", e);
+			serverDigests.put(mcpNameAndVersion, digest);
+		}
+		catch (NacosException e) {
+			if (e.getErrCode() == NacosException.NOT_FOUND) {
+				// The server was removed, deliver it again if it comes back
+				serverDigests.remove(mcpNameAndVersion);
 			}
+			logger.error("getServerChange error, mcpNameAndVersion: {}", mcpNameAndVersion, e);
+		}
+		catch (Exception e) {
+			logger.error("getServerChange error, mcpNameAndVersion: {}", mcpNameAndVersion, e);
 		}
 	}
 
@@ -159,19 +289,70 @@ public class NacosMcpOperationService {
 		if (mcpNameAndVersion == null || nacosMcpSubscriber == null) {
 			throw new IllegalArgumentException("mcpNameAndVersion and nacosMcpSubscriber must not be null");
 		}
-		this.subscribers.computeIfAbsent(mcpNameAndVersion, k -> new ArrayList<>()).add(nacosMcpSubscriber);
+		this.subscribers.computeIfAbsent(mcpNameAndVersion, k -> new CopyOnWriteArrayList<>()).add(nacosMcpSubscriber);
+		// Forget the last seen detail, so the new subscriber is notified by the next sweep
+		this.serverDigests.remove(mcpNameAndVersion);
+	}
+
+	/**
+	 * Removes a subscriber; once a server has no subscribers left it is no longer synced
+	 * and its last seen digest is dropped.
+	 */
+	public void unsubscribeNacosMcpServer(String mcpNameAndVersion, NacosMcpSubscriber nacosMcpSubscriber) {
+		if (mcpNameAndVersion == null || nacosMcpSubscriber == null) {
+			throw new IllegalArgumentException("mcpNameAndVersion and nacosMcpSubscriber must not be null");
+		}
+		this.subscribers.computeIfPresent(mcpNameAndVersion, (key, serverSubscribers) -> {
+			serverSubscribers.remove(nacosMcpSubscriber);
+			if (!serverSubscribers.isEmpty()) {
+				return serverSubscribers;
+			}
+			this.serverDigests.remove(key);
+			return null;
+		});
 	}
 
+	/**
+	 * Select one healthy endpoint of the referenced service by weight. Instances are kept
+	 * in a local snapshot maintained by a naming subscription, so only the first call
+	 * for a service needs a remote lookup.
+	 */
 	public McpEndpointInfo selectEndpoint(McpServiceRef mcpServiceRef) throws NacosException {
 		if (mcpServiceRef == null) {
 			throw new IllegalArgumentException("mcpServiceRef must not be null");
 		}
-		Instance instance = namingService.selectOneHealthyInstance(mcpServiceRef.getServiceName(),
-				mcpServiceRef.getGroupName());
-		McpEndpointInfo mcpEndpointInfo = new McpEndpointInfo();
-		mcpEndpointInfo.setAddress(instance.getIp());
-		mcpEndpointInfo.setPort(instance.getPort());
-		return mcpEndpointInfo;
+		String serviceName = mcpServiceRef.getServiceName();
+		String groupName = StringUtils.isBlank(mcpServiceRef.getGroupName()) ? Constants.DEFAULT_GROUP
+				: mcpServiceRef.getGroupName();
+		String key = groupName + Constants.SERVICE_INFO_SPLITER + serviceName;
+		EndpointSnapshot snapshot = endpointSnapshots.get(key);
+		if (snapshot == null) {
+			snapshot = subscribeEndpoints(key, serviceName, groupName);
+		}
+		McpEndpointInfo mcpEndpointInfo = snapshot.select();
+		if (mcpEndpointInfo != null) {
+			return mcpEndpointInfo;
+		}
+		// Nothing healthy in the local snapshot, let nacos decide (and report the error)
+		Instance instance = namingService.selectOneHealthyInstance(serviceName, groupName);
+		return EndpointSnapshot.toEndpointInfo(instance);
+	}
+
+	private synchronized EndpointSnapshot subscribeEndpoints(String key, String serviceName, String groupName)
+			throws NacosException {
+		EndpointSnapshot snapshot = endpointSnapshots.get(key);
+		if (snapshot != null) {
+			return snapshot;
+		}
+		namingService.subscribe(serviceName, groupName, event -> {
+			if (event instanceof NamingEvent namingEvent) {
+				endpointSnapshots.put(key, EndpointSnapshot.of(namingEvent.getInstances()));
+			}
+		});
+		// The listener may already have delivered a newer snapshot, keep that one
+		endpointSnapshots.putIfAbsent(key,
+				EndpointSnapshot.of(namingService.selectInstances(serviceName, groupName, true)));
+		return endpointSnapshots.get(key);
 	}
 
 	public String createMcpServer(String mcpName, McpServerBasicInfo serverSpec, McpToolSpecification toolSpec,
@@ -190,4 +371,83 @@ public class NacosMcpOperationService {
 		this.namingService.registerInstance(serviceName, groupName, instance);
 	}
 
+	/**
+	 * Reads all instances of the service once, without subscribing to it.
+	 */
+	public List<Instance> getAllInstances(String serviceName, String groupName) throws NacosException {
+		return this.namingService.getAllInstances(serviceName, groupName, false);
+	}
+
+	/**
+	 * Immutable view of the healthy instances of one service with their cumulative
+	 * weights, used for weighted random selection without touching the naming service.
+	 * Every selection returns a new {@link McpEndpointInfo}, so callers may modify it.
+	 */
+	private static final class EndpointSnapshot {
+
+		private final Endpoint[] endpoints;
+
+		private final double[] cumulativeWeights;
+
+		private EndpointSnapshot(Endpoint[] endpoints, double[] cumulativeWeights) {
+			this.endpoints = endpoints;
+			this.cumulativeWeights = cumulativeWeights;
+		}
+
+		static EndpointSnapshot of(List<Instance> instances) {
+			if (instances == null || instances.isEmpty()) {
+				return new EndpointSnapshot(new Endpoint[0], new double[0]);
+			}
+			List<Endpoint> endpoints = new ArrayList<>(instances.size());
+			double[] cumulativeWeights = new double[instances.size()];
+			double totalWeight = 0;
+			for (Instance instance : instances) {
+				if (!instance.isHealthy() || !instance.isEnabled() || instance.getWeight() <= 0) {
+					continue;
+				}
+				totalWeight += instance.getWeight();
+				cumulativeWeights[endpoints.size()] = totalWeight;
+				endpoints.add(new Endpoint(instance.getIp(), instance.getPort()));
+			}
+			return new EndpointSnapshot(endpoints.toArray(new Endpoint[0]),
+					Arrays.copyOf(cumulativeWeights, endpoints.size()));
+		}
+
+		static McpEndpointInfo toEndpointInfo(Instance instance) {
+			return new Endpoint(instance.getIp(), instance.getPort()).toEndpointInfo();
+		}
+
+		McpEndpointInfo select() {
+			int size = endpoints.length;
+			if (size == 0) {
+				return null;
+			}
+			if (size == 1) {
+				return endpoints[0].toEndpointInfo();
+			}
+			double random = ThreadLocalRandom.current().nextDouble(cumulativeWeights[size - 1]);
+			int index = Arrays.binarySearch(cumulativeWeights, random);
+			if (index < 0) {
+				index = -index - 1;
+			}
+			else {
+				// Exactly on a boundary belongs to the next instance
+				index = Math.min(index + 1, size - 1);
+			}
+			return endpoints[index].toEndpointInfo();
+		}
+
+	}
+
+	private record Endpoint(String address, int port) {
+
+		McpEndpointInfo toEndpointInfo() {
+			McpEndpointInfo mcpEndpointInfo = new McpEndpointInfo();
+			mcpEndpointInfo.setAddress(this.address);
+			mcpEndpointInfo.setPort(this.port);
+			return mcpEndpointInfo;
+		}
+
+	}
+
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.nacos.service;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpServiceRef;
+import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.maintainer.client.ai.AiMaintainerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the subscription sweep and endpoint selection of
+ * {@link NacosMcpOperationService}.
+ */
+class NacosMcpOperationServiceTest {
+
+	private final AiMaintainerService aiMaintainerService = mock(AiMaintainerService.class);
+
+	private final NamingService namingService = mock(NamingService.class);
+
+	private NacosMcpOperationService operationService;
+
+	@AfterEach
+	void tearDown() {
+		if (this.operationService != null) {
+			this.operationService.destroy();
+		}
+	}
+
+	@Test
+	void notifiesSubscribersOnlyWhenTheServerChanged() throws Exception {
+		when(this.aiMaintainerService.getMcpServerDetail("public", "demo", "1.0.0"))
+			.thenReturn(serverDetail("demo", "first"), serverDetail("demo", "first"), serverDetail("demo", "second"));
+		this.operationService = newOperationService(2);
+		List<String> received = new ArrayList<>();
+		this.operationService.subscribeNacosMcpServer("demo::1.0.0",
+				serverDetail -> received.add(serverDetail.getDescription()));
+
+		this.operationService.getServerChange();
+		this.operationService.getServerChange();
+		assertThat(received).containsExactly("first");
+
+		this.operationService.getServerChange();
+		assertThat(received).containsExactly("first", "second");
+	}
+
+	@Test
+	void fetchesSubscribedServersConcurrently() throws Exception {
+		int servers = 4;
+		CountDownLatch allFetching = new CountDownLatch(servers);
+		AtomicInteger overlapping = new AtomicInteger();
+		when(this.aiMaintainerService.getMcpServerDetail(eq("public"), anyString(), eq("1.0.0")))
+			.thenAnswer(invocation -> {
+				allFetching.countDown();
+				// Only returns early when every fetch of the sweep is running at once
+				if (allFetching.await(5, TimeUnit.SECONDS)) {
+					overlapping.incrementAndGet();
+				}
+				return serverDetail(invocation.getArgument(1), "detail");
+			});
+		this.operationService = newOperationService(servers);
+		AtomicInteger notified = new AtomicInteger();
+		for (int i = 0; i < servers; i++) {
+			this.operationService.subscribeNacosMcpServer("server" + i + "::1.0.0",
+					serverDetail -> notified.incrementAndGet());
+		}
+
+		this.operationService.getServerChange();
+
+		assertThat(overlapping).hasValue(servers);
+		assertThat(notified).hasValue(servers);
+	}
+
+	@Test
+	void destroyReleasesARunningSweep() throws Exception {
+		CountDownLatch fetching = new CountDownLatch(1);
+		when(this.aiMaintainerService.getMcpServerDetail("public", "demo", "1.0.0")).thenAnswer(invocation -> {
+			fetching.countDown();
+			Thread.sleep(TimeUnit.MINUTES.toMillis(5));
+			return serverDetail("demo", "detail");
+		});
+		this.operationService = newOperationService(1);
+		this.operationService.subscribeNacosMcpServer("demo::1.0.0", serverDetail -> {
+		});
+		Thread sweep = new Thread(this.operationService::getServerChange);
+		sweep.start();
+		assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+
+		this.operationService.destroy();
+
+		sweep.join(TimeUnit.SECONDS.toMillis(5));
+		assertThat(sweep.isAlive()).isFalse();
+	}
+
+	@Test
+	void selectsHealthyEndpointsByWeight() throws Exception {
+		when(this.namingService.selectInstances("demo-service", "DEFAULT_GROUP", true)).thenReturn(
+				List.of(instance("10.0.0.1", 1, true), instance("10.0.0.2", 3, true), instance("10.0.0.3", 100, false),
+						instance("10.0.0.4", 0, true)));
+		this.operationService = newOperationService(1);
+
+		Map<String, Integer> selected = new HashMap<>();
+		for (int i = 0; i < 4000; i++) {
+			McpEndpointInfo endpoint = this.operationService.selectEndpoint(serviceRef());
+			selected.merge(endpoint.getAddress(), 1, Integer::sum);
+		}
+
+		assertThat(selected).containsOnlyKeys("10.0.0.1", "10.0.0.2");
+		assertThat(selected.get("10.0.0.2")).isBetween(2700, 3300);
+		verify(this.namingService, times(1)).selectInstances("demo-service", "DEFAULT_GROUP", true);
+	}
+
+	@Test
+	void selectedEndpointsAreNotShared() throws Exception {
+		when(this.namingService.selectInstances("demo-service", "DEFAULT_GROUP", true))
+			.thenReturn(List.of(instance("10.0.0.1", 1, true)));
+		this.operationService = newOperationService(1);
+
+		McpEndpointInfo first = this.operationService.selectEndpoint(serviceRef());
+		first.setAddress("changed");
+		first.setPath("/changed");
+
+		McpEndpointInfo second = this.operationService.selectEndpoint(serviceRef());
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getAddress()).isEqualTo("10.0.0.1");
+		assertThat(second.getPath()).isNull();
+	}
+
+	@Test
+	void namingEventRefreshesTheSnapshot() throws Exception {
+		when(this.namingService.selectInstances("demo-service", "DEFAULT_GROUP", true))
+			.thenReturn(List.of(instance("10.0.0.1", 1, true)));
+		this.operationService = newOperationService(1);
+		assertThat(this.operationService.selectEndpoint(serviceRef()).getAddress()).isEqualTo("10.0.0.1");
+
+		ArgumentCaptor<EventListener> listener = ArgumentCaptor.forClass(EventListener.class);
+		verify(this.namingService).subscribe(eq("demo-service"), eq("DEFAULT_GROUP"), listener.capture());
+		listener.getValue()
+			.onEvent(new NamingEvent("demo-service", "DEFAULT_GROUP", "",
+					List.of(instance("10.0.0.1", 1, false), instance("10.0.0.2", 1, true))));
+
+		for (int i = 0; i < 100; i++) {
+			McpEndpointInfo endpoint = this.operationService.selectEndpoint(serviceRef());
+			assertThat(endpoint.getAddress()).isEqualTo("10.0.0.2");
+			assertThat(endpoint.getPort()).isEqualTo(8080);
+		}
+		verify(this.namingService, times(1)).selectInstances("demo-service", "DEFAULT_GROUP", true);
+	}
+
+	private NacosMcpOperationService newOperationService(int syncConcurrency) {
+		return new NacosMcpOperationService(this.aiMaintainerService, this.namingService,
+				mock(ConfigService.class), "public", syncConcurrency);
+	}
+
+	private static McpServiceRef serviceRef() {
+		McpServiceRef serviceRef = new McpServiceRef();
+		serviceRef.setServiceName("demo-service");
+		serviceRef.setGroupName("DEFAULT_GROUP");
+		return serviceRef;
+	}
+
+	private static Instance instance(String ip, double weight, boolean healthy) {
+		Instance instance = new Instance();
+		instance.setIp(ip);
+		instance.setPort(8080);
+		instance.setWeight(weight);
+		instance.setHealthy(healthy);
+		return instance;
+	}
+
+	private static McpServerDetailInfo serverDetail(String name, String description) {
+		McpServerDetailInfo serverDetail = new McpServerDetailInfo();
+		serverDetail.setName(name);
+		serverDetail.setDescription(description);
+		return serverDetail;
+	}
+
+}
@@ -19,27 +19,42 @@ package com.alibaba.cloud.ai.mcp.discovery.client.tool;
 import com.alibaba.cloud.ai.mcp.discovery.client.transport.DistributedAsyncMcpClient;
 import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.mcp.McpToolsChangedEvent;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.support.ToolUtils;
+import org.springframework.context.ApplicationListener;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiPredicate;
 
 /**
+ * Tool callback provider backed by distributed async MCP clients. The tool catalog is
+ * loaded once and served from memory until an {@link McpToolsChangedEvent} is received,
+ * which happens on MCP {@code notifications/tools/list_changed} or when a new server
+ * version is published to nacos.
+ *
  * @author yingzi
  * @since 2025/10/25
  */
 
-public class DistributedAsyncMcpToolCallbackProvider implements ToolCallbackProvider {
+public class DistributedAsyncMcpToolCallbackProvider
+        implements ToolCallbackProvider, ApplicationListener<McpToolsChangedEvent> {
 
     private final List<DistributedAsyncMcpClient> mcpClients;
 
     private final BiPredicate<McpAsyncClient, McpSchema.Tool> toolFilter;
 
+    private final Lock lock = new ReentrantLock();
+
+    private volatile boolean invalidateCache = true;
+
+    private volatile ToolCallback[] cachedToolCallbacks = new ToolCallback[0];
+
     public DistributedAsyncMcpToolCallbackProvider(BiPredicate<McpAsyncClient, McpSchema.Tool> toolFilter, List<DistributedAsyncMcpClient> mcpClients) {
         Assert.notNull(mcpClients, "mcpClients cannot be null");
         Assert.notNull(toolFilter, "toolFilter cannot be null");
@@ -53,25 +68,60 @@ public class DistributedAsyncMcpToolCallbackProvider implements ToolCallbackProv
 
     @Override
     public ToolCallback[] getToolCallbacks() {
-        List<ToolCallback> toolCallbackList = new ArrayList();
-        Iterator var2 = this.mcpClients.iterator();
-
-        while (var2.hasNext()) {
-            DistributedAsyncMcpClient mcpClient = (DistributedAsyncMcpClient) var2.next();
-            ToolCallback[] toolCallbacks = (ToolCallback[]) mcpClient.listTools().map((response) -> {
-                return (ToolCallback[]) response.tools().stream().filter((tool) -> {
-                    return this.toolFilter.test(mcpClient.getMcpAsyncClient(), tool);
-                }).map((tool) -> {
-                    return new DistributedAsyncMcpToolCallback(mcpClient, tool);
-                }).toArray((x$0) -> {
-                    return new ToolCallback[x$0];
-                });
-            }).block();
+        if (this.invalidateCache) {
+            this.lock.lock();
+            try {
+                if (this.invalidateCache) {
+                    // Reset the flag before loading, so that a change notified while
+                    // loading triggers another reload on the next call
+                    this.invalidateCache = false;
+                    try {
+                        this.cachedToolCallbacks = loadToolCallbacks();
+                    }
+                    catch (RuntimeException e) {
+                        this.invalidateCache = true;
+                        throw e;
+                    }
+                }
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+        return this.cachedToolCallbacks.clone();
+    }
+
+    /**
+     * Drop the cached tool catalog, the next call of {@link #getToolCallbacks()} lists
+     * the tools from the remote servers again.
+     */
+    public void invalidateCache() {
+        this.invalidateCache = true;
+    }
+
+    @Override
+    public void onApplicationEvent(McpToolsChangedEvent event) {
+        invalidateCache();
+    }
+
+    private ToolCallback[] loadToolCallbacks() {
+        List<ToolCallback> toolCallbackList = new ArrayList<>();
+
+        for (DistributedAsyncMcpClient mcpClient : this.mcpClients) {
+            ToolCallback[] toolCallbacks = mcpClient.listTools()
+                    .map(response -> response.tools().stream()
+                            .filter(tool -> this.toolFilter.test(mcpClient.getMcpAsyncClient(), tool))
+                            .map(tool -> new DistributedAsyncMcpToolCallback(mcpClient, tool))
+                            .toArray(ToolCallback[]::new))
+                    .block();
+            if (toolCallbacks == null) {
+                continue;
+            }
             this.validateToolCallbacks(toolCallbacks);
             toolCallbackList.addAll(List.of(toolCallbacks));
         }
 
-        return (ToolCallback[]) toolCallbackList.toArray(new ToolCallback[0]);
+        return toolCallbackList.toArray(new ToolCallback[0]);
     }
 
     private void validateToolCallbacks(ToolCallback[] toolCallbacks) {
@@ -37,20 +37,25 @@ public class DistributedSyncMcpToolCallback implements ToolCallback {
 
     private final McpSchema.Tool tool;
 
+    private final ToolDefinition toolDefinition;
+
     public DistributedSyncMcpToolCallback(DistributedSyncMcpClient distributedSyncMcpClient, McpSchema.Tool tool) {
         Assert.notNull(distributedSyncMcpClient, "distributedSyncClient must not be null");
         Assert.notNull(tool, "tool must not be null");
         this.distributedSyncMcpClient = distributedSyncMcpClient;
         this.tool = tool;
+        // The definition is immutable for the lifetime of the callback, build it once
+        this.toolDefinition = ToolDefinition.builder()
+                .name(McpToolUtils.prefixedToolName(distributedSyncMcpClient.getServerName(), tool.name()))
+                .description(tool.description())
+                .inputSchema(ModelOptionsUtils.toJsonString(tool.inputSchema()))
+                .build();
     }
 
     @Override
     public ToolDefinition getToolDefinition() {
-        return ToolDefinition.builder()
-                .name(McpToolUtils.prefixedToolName(this.distributedSyncMcpClient.getServerName(), this.tool.name()))
-                .description(this.tool.description())
-                .inputSchema(ModelOptionsUtils.toJsonString(this.tool.inputSchema()))
-                .build();    }
+        return this.toolDefinition;
+    }
 
     @Override
     public String call(String toolInput) {
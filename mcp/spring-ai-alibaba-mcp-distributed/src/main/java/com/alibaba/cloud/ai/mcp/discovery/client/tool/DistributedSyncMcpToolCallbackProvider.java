@@ -19,26 +19,42 @@ package com.alibaba.cloud.ai.mcp.discovery.client.tool;
 import com.alibaba.cloud.ai.mcp.discovery.client.transport.DistributedSyncMcpClient;
 import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.mcp.McpToolsChangedEvent;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.support.ToolUtils;
+import org.springframework.context.ApplicationListener;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiPredicate;
 
 /**
+ * Tool callback provider backed by distributed MCP clients. The tool catalog is loaded
+ * once and served from memory until an {@link McpToolsChangedEvent} is received, which
+ * happens on MCP {@code notifications/tools/list_changed} or when a new server version
+ * is published to nacos.
+ *
  * @author yingzi
  * @since 2025/10/25
  */
 
-public class DistributedSyncMcpToolCallbackProvider implements ToolCallbackProvider {
+public class DistributedSyncMcpToolCallbackProvider
+        implements ToolCallbackProvider, ApplicationListener<McpToolsChangedEvent> {
 
     private final List<DistributedSyncMcpClient> mcpClients;
 
     private final BiPredicate<McpSyncClient, McpSchema.Tool> toolFilter;
 
+    private final Lock lock = new ReentrantLock();
+
+    private volatile boolean invalidateCache = true;
+
+    private volatile ToolCallback[] cachedToolCallbacks = new ToolCallback[0];
+
     public DistributedSyncMcpToolCallbackProvider(BiPredicate<McpSyncClient, McpSchema.Tool> toolFilter, List<DistributedSyncMcpClient> mcpClients) {
         Assert.notNull(mcpClients, "mcpClients cannot be null");
         Assert.notNull(toolFilter, "toolFilter cannot be null");
@@ -52,17 +68,52 @@ public class DistributedSyncMcpToolCallbackProvider implements ToolCallbackProvi
 
     @Override
     public ToolCallback[] getToolCallbacks() {
-        ArrayList<Object> toolCallbacks = new ArrayList();
-
-        this.mcpClients.stream().forEach(
-                mcpClint -> {
-                    toolCallbacks.addAll(mcpClint.listTools().tools().stream().filter((tool) -> {
-                        return this.toolFilter.test(mcpClint.getMcpSyncClient(), tool);
-                    }).map((tool) -> {
-                        return new DistributedSyncMcpToolCallback(mcpClint, tool);
-                    }).toList());                }
+        if (this.invalidateCache) {
+            this.lock.lock();
+            try {
+                if (this.invalidateCache) {
+                    // Reset the flag before loading, so that a change notified while
+                    // loading triggers another reload on the next call
+                    this.invalidateCache = false;
+                    try {
+                        this.cachedToolCallbacks = loadToolCallbacks();
+                    }
+                    catch (RuntimeException e) {
+                        this.invalidateCache = true;
+                        throw e;
+                    }
+                }
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+        return this.cachedToolCallbacks.clone();
+    }
+
+    /**
+     * Drop the cached tool catalog, the next call of {@link #getToolCallbacks()} lists
+     * the tools from the remote servers again.
+     */
+    public void invalidateCache() {
+        this.invalidateCache = true;
+    }
+
+    @Override
+    public void onApplicationEvent(McpToolsChangedEvent event) {
+        invalidateCache();
+    }
+
+    private ToolCallback[] loadToolCallbacks() {
+        List<ToolCallback> toolCallbacks = new ArrayList<>();
+
+        this.mcpClients.forEach(
+                mcpClint -> toolCallbacks.addAll(mcpClint.listTools().tools().stream()
+                        .filter(tool -> this.toolFilter.test(mcpClint.getMcpSyncClient(), tool))
+                        .map(tool -> new DistributedSyncMcpToolCallback(mcpClint, tool))
+                        .toList())
         );
-        ToolCallback[] array = (ToolCallback[]) toolCallbacks.toArray(new ToolCallback[0]);
+        ToolCallback[] array = toolCallbacks.toArray(new ToolCallback[0]);
         this.validateToolCallbacks(array);
         return array;
     }
@@ -35,10 +35,12 @@ import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
 import io.modelcontextprotocol.spec.McpSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.mcp.McpToolsChangedEvent;
 import org.springframework.ai.mcp.client.common.autoconfigure.NamedClientMcpTransport;
 import org.springframework.ai.mcp.client.common.autoconfigure.configurer.McpAsyncClientConfigurer;
 import org.springframework.ai.mcp.client.common.autoconfigure.properties.McpClientCommonProperties;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -77,6 +79,8 @@ public class SseWebFluxDistributedAsyncMcpClient implements DistributedAsyncMcpC
 
     private final boolean lazyInit;
 
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     private final AtomicInteger index = new AtomicInteger(0);
 
     private Map<String, McpAsyncClient> keyToClientMap;
@@ -98,6 +102,7 @@ public class SseWebFluxDistributedAsyncMcpClient implements DistributedAsyncMcpC
         this.version = version;
         this.nacosMcpOperationService = nacosMcpOperationService;
         this.lazyInit = lazyInit;
+        this.applicationEventPublisher = applicationContext;
 
         commonProperties = applicationContext.getBean(McpClientCommonProperties.class);
         mcpAsyncClientConfigurer = applicationContext.getBean(McpAsyncClientConfigurer.class);
@@ -219,6 +224,7 @@ public class SseWebFluxDistributedAsyncMcpClient implements DistributedAsyncMcpC
                 updateByAddEndpoint(mcpEndpointInfo, newServerEndpoint.getExportPath());
             }
             this.serverEndpoint = newServerEndpoint;
+            publishToolsChanged();
             return;
         }
         if (!StringUtils.equals(this.serverEndpoint.getExportPath(), newServerEndpoint.getExportPath())
@@ -227,6 +233,9 @@ public class SseWebFluxDistributedAsyncMcpClient implements DistributedAsyncMcpC
                     "[Nacos Mcp Async Client] Mcp server {} exportPath or protocol changed, need to update all endpoints: {}",
                     serverName, newServerEndpoint);
             updateAll(newServerEndpoint);
+            this.serverEndpoint = newServerEndpoint;
+            publishToolsChanged();
+            return;
         }
         else {
             List<McpEndpointInfo> currentMcpEndpointInfoList = this.serverEndpoint.getMcpEndpointInfoList();
@@ -259,6 +268,20 @@ public class SseWebFluxDistributedAsyncMcpClient implements DistributedAsyncMcpC
         this.serverEndpoint = newServerEndpoint;
     }
 
+    /**
+     * Notify tool callback providers that the tool catalog of this server may have
+     * changed, e.g. after a new version was published to nacos. The tool list is left
+     * empty, listeners are expected to reload it on demand.
+     */
+    private void publishToolsChanged() {
+        try {
+            applicationEventPublisher.publishEvent(new McpToolsChangedEvent(serverName, List.of()));
+        }
+        catch (Exception e) {
+            logger.warn("[Nacos Mcp Async Client] Failed to publish tools changed event, serverName: {}", serverName, e);
+        }
+    }
+
     private boolean initServerEndpoint(String serverName, String version) {
         try {
             this.serverEndpoint = this.nacosMcpOperationService.getServerEndpoint(serverName, version);
@@ -35,10 +35,12 @@ import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
 import io.modelcontextprotocol.spec.McpSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.mcp.McpToolsChangedEvent;
 import org.springframework.ai.mcp.client.common.autoconfigure.NamedClientMcpTransport;
 import org.springframework.ai.mcp.client.common.autoconfigure.configurer.McpSyncClientConfigurer;
 import org.springframework.ai.mcp.client.common.autoconfigure.properties.McpClientCommonProperties;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -74,6 +76,8 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
 
     private final boolean lazyInit;
 
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     private final AtomicInteger index = new AtomicInteger(0);
 
     private Map<String, McpSyncClient> keyToClientMap;
@@ -95,6 +99,7 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
         this.version = version;
         this.nacosMcpOperationService = nacosMcpOperationService;
         this.lazyInit = lazyInit;
+        this.applicationEventPublisher = applicationContext;
 
         commonProperties = applicationContext.getBean(McpClientCommonProperties.class);
         mcpSyncClientConfigurer = applicationContext.getBean(McpSyncClientConfigurer.class);
@@ -214,6 +219,7 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
                 updateByAddEndpoint(mcpEndpointInfo, newServerEndpoint.getExportPath());
             }
             this.serverEndpoint = newServerEndpoint;
+            publishToolsChanged();
             return;
         }
         if (!StringUtils.equals(this.serverEndpoint.getExportPath(), newServerEndpoint.getExportPath())
@@ -222,6 +228,9 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
                     "[Nacos Mcp Sync Client] Mcp server {} exportPath or protocol changed, need to update all endpoints: {}",
                     serverName, newServerEndpoint);
             updateAll(newServerEndpoint);
+            this.serverEndpoint = newServerEndpoint;
+            publishToolsChanged();
+            return;
         }
         else {
             List<McpEndpointInfo> currentMcpEndpointInfoList = this.serverEndpoint.getMcpEndpointInfoList();
@@ -254,6 +263,20 @@ public class SseWebFluxDistributedSyncMcpClient implements DistributedSyncMcpCli
         this.serverEndpoint = newServerEndpoint;
     }
 
+    /**
+     * Notify tool callback providers that the tool catalog of this server may have
+     * changed, e.g. after a new version was published to nacos. The tool list is left
+     * empty, listeners are expected to reload it on demand.
+     */
+    private void publishToolsChanged() {
+        try {
+            applicationEventPublisher.publishEvent(new McpToolsChangedEvent(serverName, List.of()));
+        }
+        catch (Exception e) {
+            logger.warn("[Nacos Mcp Sync Client] Failed to publish tools changed event, serverName: {}", serverName, e);
+        }
+    }
+
     protected boolean initServerEndpoint(String serverName, String version) {
         try {
             this.serverEndpoint = this.nacosMcpOperationService.getServerEndpoint(serverName, version);
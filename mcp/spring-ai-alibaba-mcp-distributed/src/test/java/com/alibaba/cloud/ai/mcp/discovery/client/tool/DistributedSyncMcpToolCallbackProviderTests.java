@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.discovery.client.tool;
+
+import com.alibaba.cloud.ai.mcp.discovery.client.transport.DistributedSyncMcpClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.mcp.McpToolsChangedEvent;
+import org.springframework.ai.tool.ToolCallback;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the tool catalog cache of {@link DistributedSyncMcpToolCallbackProvider}.
+ */
+class DistributedSyncMcpToolCallbackProviderTests {
+
+    private DistributedSyncMcpClient mcpClient;
+
+    @BeforeEach
+    void setUp() {
+        mcpClient = mock(DistributedSyncMcpClient.class);
+        when(mcpClient.getServerName()).thenReturn("weather");
+        when(mcpClient.listTools()).thenReturn(toolsResult("forecast"));
+    }
+
+    @Test
+    void toolCallbacksAreListedOnce() {
+        DistributedSyncMcpToolCallbackProvider provider = new DistributedSyncMcpToolCallbackProvider(List.of(mcpClient));
+
+        ToolCallback[] first = provider.getToolCallbacks();
+        ToolCallback[] second = provider.getToolCallbacks();
+
+        verify(mcpClient, times(1)).listTools();
+        assertThat(first).hasSize(1);
+        assertThat(second[0]).isSameAs(first[0]);
+    }
+
+    @Test
+    void toolsChangedEventReloadsCatalog() {
+        DistributedSyncMcpToolCallbackProvider provider = new DistributedSyncMcpToolCallbackProvider(List.of(mcpClient));
+        provider.getToolCallbacks();
+
+        when(mcpClient.listTools()).thenReturn(toolsResult("forecast", "alerts"));
+        provider.onApplicationEvent(new McpToolsChangedEvent("weather", List.of()));
+
+        assertThat(provider.getToolCallbacks()).hasSize(2);
+        verify(mcpClient, times(2)).listTools();
+    }
+
+    @Test
+    void failedLoadIsRetried() {
+        when(mcpClient.listTools()).thenThrow(new IllegalStateException("unavailable"))
+            .thenReturn(toolsResult("forecast"));
+        DistributedSyncMcpToolCallbackProvider provider = new DistributedSyncMcpToolCallbackProvider(List.of(mcpClient));
+
+        assertThatThrownBy(provider::getToolCallbacks).isInstanceOf(IllegalStateException.class);
+        assertThat(provider.getToolCallbacks()).hasSize(1);
+    }
+
+    private static McpSchema.ListToolsResult toolsResult(String... names) {
+        List<McpSchema.Tool> tools = Arrays.stream(names)
+            .map(name -> McpSchema.Tool.builder()
+                .name(name)
+                .description(name)
+                .inputSchema(new McpSchema.JsonSchema("object", null, null, null, null, null))
+                .build())
+            .toList();
+        return new McpSchema.ListToolsResult(tools, null);
+    }
+
+}
@@ -18,7 +18,18 @@ package com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 /**
+ * Request template of a tool. Besides the raw template nodes it holds the parts that
+ * are resolved once when the template is parsed: argument positions, header templates,
+ * the body template and whether the url needs path variable or template processing.
+ *
  * @author Sunrisea
  */
 public class RequestTemplateInfo {
@@ -41,6 +52,16 @@ public class RequestTemplateInfo {
 
 	public JsonNode argsPosition;
 
+	public Map<String, String> argsPositions;
+
+	public List<Map.Entry<String, String>> headerTemplates;
+
+	public String bodyTemplate;
+
+	public boolean urlHasPathVariables;
+
+	public boolean urlHasTemplate;
+
 	public RequestTemplateInfo(String url, String method, boolean argsToUrlParam, boolean argsToJsonBody,
 			boolean argsToFormBody, JsonNode headers, JsonNode body, JsonNode argsPosition, JsonNode rawNode) {
 		this.url = url;
@@ -52,6 +73,51 @@ public class RequestTemplateInfo {
 		this.body = body;
 		this.rawNode = rawNode;
 		this.argsPosition = argsPosition;
+		this.argsPositions = compileArgsPositions(argsPosition);
+		this.headerTemplates = compileHeaderTemplates(headers);
+		this.bodyTemplate = body != null && !body.asText().isEmpty() ? body.asText() : null;
+		this.urlHasPathVariables = url != null && RequestTemplateParser.PATH_VARIABLES_PATTERN.matcher(url).find();
+		this.urlHasTemplate = hasTemplate(url);
+	}
+
+	/**
+	 * Position of the argument, e.g. query, path, header, cookie or body.
+	 * @param argName argument name
+	 * @return the configured position, or {@code null} if not configured
+	 */
+	public String positionOf(String argName) {
+		return this.argsPositions.get(argName);
+	}
+
+	/**
+	 * Whether the value contains {@code {{ }}} markers and needs template processing.
+	 */
+	public static boolean hasTemplate(String value) {
+		return value != null && value.contains("{{");
+	}
+
+	private static Map<String, String> compileArgsPositions(JsonNode argsPosition) {
+		if (argsPosition == null || !argsPosition.isObject() || argsPosition.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, String> positions = new HashMap<>();
+		Iterator<Map.Entry<String, JsonNode>> fields = argsPosition.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			positions.put(field.getKey(), field.getValue().asText());
+		}
+		return Collections.unmodifiableMap(positions);
+	}
+
+	private static List<Map.Entry<String, String>> compileHeaderTemplates(JsonNode headers) {
+		if (headers == null || !headers.isArray() || headers.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Map.Entry<String, String>> headerTemplates = new ArrayList<>(headers.size());
+		for (JsonNode header : headers) {
+			headerTemplates.add(Map.entry(header.path("key").asText(), header.path("value").asText()));
+		}
+		return Collections.unmodifiableList(headerTemplates);
 	}
 
 }
@@ -95,11 +95,8 @@ public class RequestTemplateParser {
 		for (Map.Entry<String, Object> entry : args.entrySet()) {
 			String key = entry.getKey();
 			Object value = entry.getValue();
-			boolean addToQuery = info.argsToUrlParam;
-			if (info.argsPosition != null && info.argsPosition.has(key)) {
-				String position = info.argsPosition.path(key).asText();
-				addToQuery = "query".equals(position);
-			}
+			String position = info.positionOf(key);
+			boolean addToQuery = position != null ? "query".equals(position) : info.argsToUrlParam;
 			if (addToQuery && value != null) {
 				if (value instanceof final Collection<?> collection) {
 					for (Object item : collection) {
@@ -131,17 +128,12 @@ public class RequestTemplateParser {
 			String key = entry.getKey();
 			Object value = entry.getValue();
 
-			if (value != null) {
-				// 检查是否指定了cookie位置
-				if (info.argsPosition != null && info.argsPosition.has(key)) {
-					String position = info.argsPosition.path(key).asText();
-					if ("cookie".equals(position)) {
-						if (!cookieBuilder.isEmpty()) {
-							cookieBuilder.append("; ");
-						}
-						cookieBuilder.append(key).append("=").append(value.toString());
-					}
+			// 检查是否指定了cookie位置
+			if (value != null && "cookie".equals(info.positionOf(key))) {
+				if (!cookieBuilder.isEmpty()) {
+					cookieBuilder.append("; ");
 				}
+				cookieBuilder.append(key).append("=").append(value.toString());
 			}
 		}
 		// 如果有cookie，添加到请求头
@@ -156,29 +148,31 @@ public class RequestTemplateParser {
 			RequestTemplateInfo info, Map<String, Object> args,
 			BiFunction<String, Map<String, Object>, String> templateProcessor) {
 		MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
-		JsonNode headersNode = info.headers;
-		if (headersNode != null && headersNode.isArray()) {
-			for (JsonNode header : headersNode) {
-				String key = header.path("key").asText();
-				String valueTemplate = header.path("value").asText();
-				Map<String, Object> params = new HashMap<>();
-				params.put("args", args);
-				params.put("extendedData", "");
-				String value = templateProcessor.apply(valueTemplate, params);
-				requestSpec.header(key, value);
-				headers.add(key, value);
+		Map<String, Object> params = null;
+		for (Map.Entry<String, String> header : info.headerTemplates) {
+			String key = header.getKey();
+			String value = header.getValue();
+			// Constant headers are used as is, only templated ones are rendered
+			if (RequestTemplateInfo.hasTemplate(value)) {
+				if (params == null) {
+					params = new HashMap<>();
+					params.put("args", args);
+					params.put("extendedData", "");
+				}
+				value = templateProcessor.apply(value, params);
 			}
+			requestSpec.header(key, value);
+			headers.add(key, value);
 		}
 
+		if (info.argsPositions.isEmpty()) {
+			return headers;
+		}
 		handleCookies(requestSpec, headers, info, args);
 		for (Map.Entry<String, Object> entry : args.entrySet()) {
 			String key = entry.getKey();
 			Object value = entry.getValue();
-			boolean addToHeader = false;
-			if (info.argsPosition != null && info.argsPosition.has(key)) {
-				String position = info.argsPosition.path(key).asText();
-				addToHeader = "header".equals(position);
-			}
+			boolean addToHeader = "header".equals(info.positionOf(key));
 			if (addToHeader && value != null) {
 				if (value instanceof final Collection<?> collection) {
 					for (Object item : collection) {
@@ -196,7 +190,7 @@ public class RequestTemplateParser {
 	}
 
 	public static String addPathVariables(String url, RequestTemplateInfo info, Map<String, Object> args) {
-		if (url == null || url.isEmpty() || args == null || args.isEmpty()) {
+		if (url == null || url.isEmpty() || args == null || args.isEmpty() || !info.urlHasPathVariables) {
 			return url;
 		}
 
@@ -205,13 +199,10 @@ public class RequestTemplateParser {
 		StringBuilder result = new StringBuilder();
 		while (matcher.find()) {
 			String variableName = matcher.group(1);
-			if (info.argsPosition != null && info.argsPosition.has(variableName)) {
-				String position = info.argsPosition.path(variableName).asText();
-				if ("path".equals(position)) {
-					Object value = args.get(variableName);
-					String replacement = value != null ? value.toString() : matcher.group(0);
-					matcher.appendReplacement(result, java.util.regex.Matcher.quoteReplacement(replacement));
-				}
+			if ("path".equals(info.positionOf(variableName))) {
+				Object value = args.get(variableName);
+				String replacement = value != null ? value.toString() : matcher.group(0);
+				matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
 			}
 		}
 		matcher.appendTail(result);
@@ -223,7 +214,7 @@ public class RequestTemplateParser {
 			MultiValueMap<String, String> headers, RequestTemplateInfo info, Map<String, Object> args,
 			java.util.function.BiFunction<String, Map<String, Object>, String> templateProcessor,
 			ObjectMapper objectMapper, Logger logger) {
-		boolean hasBody = info.body != null && !info.body.asText().isEmpty();
+		boolean hasBody = info.bodyTemplate != null;
 		int optionCount = (hasBody ? 1 : 0) + (info.argsToJsonBody ? 1 : 0) + (info.argsToFormBody ? 1 : 0)
 				+ (info.argsToUrlParam ? 1 : 0);
 		if (optionCount > 1) {
@@ -231,7 +222,7 @@ public class RequestTemplateParser {
 					"Only one of body, argsToJsonBody, argsToFormBody, or argsToUrlParam should be specified");
 		}
 		if (hasBody) {
-			String bodyTemplate = info.body.asText();
+			String bodyTemplate = info.bodyTemplate;
 			Map<String, Object> params = new HashMap<>();
 			params.put("args", args);
 			params.put("extendedData", "");
@@ -241,8 +232,6 @@ public class RequestTemplateParser {
 		}
 		else {
 			String bodyType = info.argsToFormBody ? "form" : "json";
-			MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
-			Map<String, Object> jsonData = new HashMap<>();
 			if (!info.argsToJsonBody && !info.argsToFormBody) {
 				String contentType = headers.getFirst("Content-Type");
 				if (contentType != null && contentType.contains("application/x-www-form-urlencoded")) {
@@ -252,30 +241,36 @@ public class RequestTemplateParser {
 					bodyType = "json";
 				}
 			}
+			boolean jsonBody = "json".equals(bodyType);
+			MultiValueMap<String, String> formData = jsonBody ? null : new LinkedMultiValueMap<>();
+			Map<String, Object> jsonData = jsonBody ? new HashMap<>() : null;
 			for (Map.Entry<String, Object> entry : args.entrySet()) {
 				String key = entry.getKey();
 				Object value = entry.getValue();
 				if (value == null) {
 					continue;
 				}
-				boolean addToBody = info.argsToFormBody || info.argsToJsonBody;
-				if (info.argsPosition != null && info.argsPosition.has(key)) {
-					String position = info.argsPosition.path(key).asText();
-					addToBody = "body".equals(position);
-				}
+				String position = info.positionOf(key);
+				boolean addToBody = position != null ? "body".equals(position)
+						: info.argsToFormBody || info.argsToJsonBody;
 				if (addToBody) {
-					formData.add(key, value.toString());
-					jsonData.put(key, value);
+					if (jsonBody) {
+						jsonData.put(key, value);
+					}
+					else {
+						formData.add(key, value.toString());
+					}
 				}
 			}
-			if (formData.isEmpty()) {
+			if (jsonBody ? jsonData.isEmpty() : formData.isEmpty()) {
 				return requestSpec;
 			}
-			if ("json".equals(bodyType)) {
+			if (jsonBody) {
 				try {
-					String jsonBody = objectMapper.writeValueAsString(jsonData);
+					// Encode straight to bytes, the byte array encoder writes them as is
+					byte[] body = objectMapper.writeValueAsBytes(jsonData);
 					return requestSpec.contentType(org.springframework.http.MediaType.APPLICATION_JSON)
-						.bodyValue(jsonBody);
+						.bodyValue(body);
 				}
 				catch (com.fasterxml.jackson.core.JsonProcessingException e) {
 					logger.error("Failed to create JSON request body", e);
@@ -101,6 +101,8 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
     
     private final WebClient.Builder webClientBuilder;
     
+    private volatile CompiledRequestTemplate compiledRequestTemplate;
+    
     /**
      * Instantiates a new Nacos mcp gateway tool callback.
      *
@@ -137,44 +139,56 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
         
     }
     
+    /**
+     * Compile the json-go-template of the tool into a request plan. The plan is cached
+     * and only rebuilt when the tool meta carries a different template object.
+     */
+    private CompiledRequestTemplate compileRequestTemplate(Object jsonGoTemplate) {
+        CompiledRequestTemplate compiled = this.compiledRequestTemplate;
+        if (compiled != null && compiled.source() == jsonGoTemplate) {
+            return compiled;
+        }
+        JsonNode toolConfig = objectMapper.valueToTree(jsonGoTemplate);
+        // Validate configuration integrity
+        if (toolConfig == null || toolConfig.isEmpty()) {
+            throw new IllegalArgumentException("Tool configuration is empty or invalid");
+        }
+        JsonNode requestTemplate = toolConfig.path("requestTemplate");
+        String url = requestTemplate.path("url").asText();
+        String method = requestTemplate.path("method").asText();
+        // Check URL and method
+        if (url.isEmpty() || method.isEmpty()) {
+            throw new IllegalArgumentException("URL and method are required in requestTemplate");
+        }
+        // Validate HTTP method
+        HttpMethod httpMethod;
+        try {
+            httpMethod = HttpMethod.valueOf(method.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid HTTP method: " + method);
+        }
+        RequestTemplateInfo info = RequestTemplateParser.parseRequestTemplate(requestTemplate,
+                toolConfig.path("argsPosition"));
+        compiled = new CompiledRequestTemplate(jsonGoTemplate, info, httpMethod, toolConfig.path("responseTemplate"));
+        logger.info("[compileRequestTemplate] tool: {} requestTemplate: {}", this.toolDefinition.name(), requestTemplate);
+        this.compiledRequestTemplate = compiled;
+        return compiled;
+    }
+    
     /**
      * Process tool request
      */
-    private Mono<String> processToolRequest(String configJson, Map<String, Object> args, String baseUrl) {
+    private Mono<String> processToolRequest(Object jsonGoTemplate, Map<String, Object> args, String baseUrl) {
         try {
-            JsonNode toolConfig = objectMapper.readTree(configJson);
-            logger.info("[processToolRequest] toolConfig: {} args: {} baseUrl: {}", toolConfig, args, baseUrl);
-            
-            // Validate configuration integrity
-            if (toolConfig == null || toolConfig.isEmpty()) {
-                return Mono.error(new IllegalArgumentException("Tool configuration is empty or invalid"));
-            }
-            
-            JsonNode requestTemplate = toolConfig.path("requestTemplate");
-            JsonNode argsPosition = toolConfig.path("argsPosition");
-            String url = requestTemplate.path("url").asText();
-            String method = requestTemplate.path("method").asText();
-            logger.info("[processToolRequest] requestTemplate: {} url: {} method: {}", requestTemplate, url, method);
-            
-            // Check URL and method
-            if (url.isEmpty() || method.isEmpty()) {
-                return Mono.error(new IllegalArgumentException("URL and method are required in requestTemplate"));
-            }
-            
-            // Validate HTTP method
-            try {
-                HttpMethod.valueOf(method.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                return Mono.error(new IllegalArgumentException("Invalid HTTP method: " + method));
-            }
+            CompiledRequestTemplate compiled = compileRequestTemplate(jsonGoTemplate);
+            logger.debug("[processToolRequest] args: {} baseUrl: {}", args, baseUrl);
             
             // Create WebClient
             baseUrl = baseUrl != null ? baseUrl : "http://localhost";
             WebClient client = webClientBuilder.baseUrl(baseUrl).build();
             
             // Build and execute request
-            return buildAndExecuteRequest(client, requestTemplate, argsPosition, toolConfig.path("responseTemplate"),
-                    args, baseUrl)
+            return buildAndExecuteRequest(client, compiled, args, baseUrl)
                     .onErrorResume(e -> {
                         logger.error("Failed to execute tool request:", e);
                         return Mono.error(new RuntimeException("Tool execution failed: " + e.getMessage(), e));
@@ -188,20 +202,24 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
     /**
      * Build and execute WebClient request
      */
-    private Mono<String> buildAndExecuteRequest(WebClient client, JsonNode requestTemplate, JsonNode argsPosition,
-                                                JsonNode responseTemplate, Map<String, Object> args, String baseUrl) {
+    private Mono<String> buildAndExecuteRequest(WebClient client, CompiledRequestTemplate compiled,
+                                                Map<String, Object> args, String baseUrl) {
         
-        RequestTemplateInfo info = RequestTemplateParser.parseRequestTemplate(requestTemplate, argsPosition);
+        RequestTemplateInfo info = compiled.info();
+        JsonNode responseTemplate = compiled.responseTemplate();
         String url = info.url;
         String method = info.method;
-        HttpMethod httpMethod = HttpMethod.valueOf(method.toUpperCase());
+        HttpMethod httpMethod = compiled.httpMethod();
         
         // Process path parameters in URL
         String processingUrl = RequestTemplateParser.addPathVariables(url, info, args);
-        Map<String, Object> params = new HashMap<>();
-        params.put("args", args);
-        params.put("extendedData", "");
-        String processedUrl = processTemplateString(processingUrl, params);
+        String processedUrl = processingUrl;
+        if (info.urlHasTemplate) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("args", args);
+            params.put("extendedData", "");
+            processedUrl = processTemplateString(processingUrl, params);
+        }
         logger.info("[buildAndExecuteRequest] original url template: {} processed url: {}", url, processedUrl);
         
         String hostFromUrl = extractHostFromUrl(processedUrl);
@@ -688,18 +706,10 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
         Map<String, Object> templates = toolMeta.getTemplates();
         if (templates != null && templates.containsKey("json-go-template")) {
             Object jsonGoTemplate = templates.get("json-go-template");
-            try {
-                logger.info("[handleHttpHttpsProtocol] json-go-template: {}",
-                        objectMapper.writeValueAsString(jsonGoTemplate));
-            } catch (JsonProcessingException e) {
-                logger.error("[handleHttpHttpsProtocol] Failed to serialize json-go-template", e);
-            }
             try {
                 // Call executeToolRequest
-                String configJson = objectMapper.writeValueAsString(jsonGoTemplate);
-                logger.info("[handleHttpHttpsProtocol] configJson: {} args: {} baseUrl: {}", configJson, args,
-                        baseUrl);
-                return processToolRequest(configJson, args, baseUrl).block();
+                logger.info("[handleHttpHttpsProtocol] args: {} baseUrl: {}", args, baseUrl);
+                return processToolRequest(jsonGoTemplate, args, baseUrl).block();
             } catch (Exception e) {
                 logger.error("Failed to execute tool request", e);
                 return "Error: " + e.getMessage();
@@ -842,4 +852,16 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
         }
     }
     
+    /**
+     * Request plan compiled from a json-go-template.
+     *
+     * @param source the template object the plan was compiled from
+     * @param info the parsed request template
+     * @param httpMethod the http method of the request
+     * @param responseTemplate the response template
+     */
+    private record CompiledRequestTemplate(Object source, RequestTemplateInfo info, HttpMethod httpMethod,
+                                           JsonNode responseTemplate) {
+    }
+    
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.gateway.core.jsontemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTemplateParserTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void shouldCompileTemplateParts() throws Exception {
+		JsonNode requestTemplate = objectMapper.readTree("""
+				{"url": "/users/{id}", "method": "GET",
+				 "headers": [{"key": "X-Token", "value": "{{.args.token}}"}, {"key": "Accept", "value": "application/json"}]}
+				""");
+		JsonNode argsPosition = objectMapper.readTree("{\"id\": \"path\", \"token\": \"header\"}");
+
+		RequestTemplateInfo info = RequestTemplateParser.parseRequestTemplate(requestTemplate, argsPosition);
+
+		assertEquals("path", info.positionOf("id"));
+		assertNull(info.positionOf("name"));
+		assertEquals(2, info.headerTemplates.size());
+		assertEquals("X-Token", info.headerTemplates.get(0).getKey());
+		assertTrue(info.urlHasPathVariables);
+		assertFalse(info.urlHasTemplate);
+		assertNull(info.bodyTemplate);
+		assertTrue(info.argsToUrlParam);
+	}
+
+	@Test
+	void shouldBindPathVariablesAndQueryParams() throws Exception {
+		JsonNode requestTemplate = objectMapper.readTree("{\"url\": \"/users/{id}/orders\", \"method\": \"GET\"}");
+		JsonNode argsPosition = objectMapper.readTree("{\"id\": \"path\", \"status\": \"query\"}");
+		RequestTemplateInfo info = RequestTemplateParser.parseRequestTemplate(requestTemplate, argsPosition);
+		Map<String, Object> args = new LinkedHashMap<>();
+		args.put("id", 42);
+		args.put("status", "paid");
+
+		String url = RequestTemplateParser.addPathVariables(info.url, info, args);
+		URI uri = RequestTemplateParser.buildUri(new DefaultUriBuilderFactory("http://localhost").builder(), url,
+				info, args);
+
+		assertEquals("/users/42/orders", url);
+		assertEquals("http://localhost/users/42/orders?status=paid", uri.toString());
+	}
+
+	@Test
+	void shouldKeepUrlWithoutPathVariables() throws Exception {
+		JsonNode requestTemplate = objectMapper.readTree("{\"url\": \"/weather?city={{.args.city}}\", \"method\": \"GET\"}");
+		RequestTemplateInfo info = RequestTemplateParser.parseRequestTemplate(requestTemplate,
+				objectMapper.createObjectNode());
+
+		assertFalse(info.urlHasPathVariables);
+		assertTrue(info.urlHasTemplate);
+		assertEquals(info.url, RequestTemplateParser.addPathVariables(info.url, info, Map.of("city", "Hangzhou")));
+	}
+
+}
@@ -53,8 +53,11 @@ import org.springframework.context.ApplicationListener;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
@@ -65,6 +68,11 @@ public class NacosMcpRegister implements ApplicationListener<WebServerInitialize
 
 	private static final Logger log = LoggerFactory.getLogger(NacosMcpRegister.class);
 
+	/**
+	 * Instance metadata key prefix of the tool schema digests found compatible.
+	 */
+	public static final String TOOL_SCHEMA_DIGEST_METADATA_PREFIX = "mcp.tool.schema.digest.";
+
 	private String type;
 
 	private NacosMcpRegisterProperties nacosMcpRegistryProperties;
@@ -79,6 +87,17 @@ public class NacosMcpRegister implements ApplicationListener<WebServerInitialize
 
 	private Map<String, McpToolMeta> toolsMeta;
 
+	/**
+	 * Tool definitions in nacos as of the last sync, by tool name.
+	 */
+	private final Map<String, String> toolsInNacosLastSynced = new ConcurrentHashMap<>();
+
+	/**
+	 * Digests of the nacos and local input schemas found compatible, by tool name. They are
+	 * published in the instance metadata, so the next start can skip the same pairs.
+	 */
+	private final Map<String, String> compatibleSchemaDigests = new ConcurrentHashMap<>();
+
 	private McpSchema.ServerCapabilities serverCapabilities;
 
 	private McpServerProperties mcpServerProperties;
@@ -335,7 +354,13 @@ public class NacosMcpRegister implements ApplicationListener<WebServerInitialize
 					continue;
 				}
 				McpSchema.Tool toolInNacos = toolsInNacosMap.get(name);
+				// Only tools whose definition in nacos changed since the last sync need to be merged
+				String toolInNacosStr = JacksonUtils.toJson(toolInNacos);
+				if (toolInNacosStr.equals(this.toolsInNacosLastSynced.get(name))) {
+					continue;
+				}
 				updateToolDescription(toolRegistration, toolInNacos, toolsRegistrationNeedToUpdate);
+				this.toolsInNacosLastSynced.put(name, toolInNacosStr);
 			}
 			if (toolsRegistrationNeedToUpdate.size() > 0) {
 				log.info("[Nacos MCP Register] Update tool description for {} tools",
@@ -392,6 +417,10 @@ public class NacosMcpRegister implements ApplicationListener<WebServerInitialize
 			instance.setIp(host);
 			instance.setPort(port);
 			instance.setEphemeral(this.nacosMcpRegistryProperties.isServiceEphemeral());
+			Map<String, String> metadata = new HashMap<>();
+			this.compatibleSchemaDigests
+					.forEach((toolName, digest) -> metadata.put(TOOL_SCHEMA_DIGEST_METADATA_PREFIX + toolName, digest));
+			instance.setMetadata(metadata);
 			String groupName = StringUtils.isBlank(this.nacosMcpRegistryProperties.getServiceGroup()) ? "DEFAULT_GROUP"
 					: this.nacosMcpRegistryProperties.getServiceGroup();
 			String serviceName = this.getRegisterServiceName();
@@ -423,18 +452,42 @@ public class NacosMcpRegister implements ApplicationListener<WebServerInitialize
 		if (!toolsInNacos.keySet().equals(toolsInLocal.keySet())) {
 			return new CheckCompatibleResult(false, "Local tools list is not compatible with tools list in Nacos");
 		}
+		Set<String> publishedDigests = getPublishedSchemaDigests(
+				serverDetailInfo.getRemoteServerConfig().getServiceRef());
 		for (String toolName : toolsInNacos.keySet()) {
 			String jsonSchemaStringInNacos = JacksonUtils.toJson(toolsInNacos.get(toolName).getInputSchema());
 			String jsonSchemaStringInLocal = JacksonUtils.toJson(toolsInLocal.get(toolName).inputSchema());
-			if (!JsonSchemaUtil.compare(jsonSchemaStringInNacos, jsonSchemaStringInLocal)) {
+			String digest = JsonSchemaUtil.digest(jsonSchemaStringInNacos, jsonSchemaStringInLocal);
+			// Schemas an earlier start already found compatible are not compared again
+			if (!publishedDigests.contains(digest)
+					&& !JsonSchemaUtil.compare(jsonSchemaStringInNacos, jsonSchemaStringInLocal)) {
 				String message = String.format("Input Schema of local tool %s is not compatible with tool in Nacos",
 						toolName);
 				return new CheckCompatibleResult(false, message);
 			}
+			this.compatibleSchemaDigests.put(toolName, digest);
 		}
 		return new CheckCompatibleResult(true);
 	}
 
+	private Set<String> getPublishedSchemaDigests(McpServiceRef serviceRef) {
+		Set<String> digests = new HashSet<>();
+		try {
+			for (Instance instance : this.nacosMcpOperationService.getAllInstances(serviceRef.getServiceName(),
+					serviceRef.getGroupName())) {
+				instance.getMetadata().forEach((key, value) -> {
+					if (key.startsWith(TOOL_SCHEMA_DIGEST_METADATA_PREFIX)) {
+						digests.add(value);
+					}
+				});
+			}
+		}
+		catch (NacosException e) {
+			log.warn("[Nacos MCP Register] Failed to read tool schema digests of registered instances", e);
+		}
+		return digests;
+	}
+
 	private CheckCompatibleResult checkCompatible(McpServerDetailInfo serverDetailInfo) {
 		log.info("[Nacos MCP Register] Checking compatible for mcp server");
 		if (!StringUtils.equals(this.serverInfo.version(), serverDetailInfo.getVersionDetail().getVersion())) {
@@ -19,6 +19,10 @@ package com.alibaba.cloud.ai.mcp.register.utils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -31,6 +35,23 @@ public class JsonSchemaUtil {
 
 	private static final ObjectMapper objectMapper = new ObjectMapper();
 
+	/**
+	 * Digests a pair of serialized schemas, so a pair already found compatible can be
+	 * recognized without comparing it again.
+	 */
+	public static String digest(String origin, String target) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			messageDigest.update(origin.getBytes(StandardCharsets.UTF_8));
+			messageDigest.update((byte) 0);
+			messageDigest.update(target.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(messageDigest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	public static boolean compare(String origin, String target) {
 		try {
 			JsonNode originNode = objectMapper.readTree(origin);
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.mcp.register;
+
+import com.alibaba.cloud.ai.mcp.nacos.NacosMcpProperties;
+import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
+import com.alibaba.cloud.ai.mcp.register.utils.JsonSchemaUtil;
+import com.alibaba.nacos.api.ai.constant.AiConstants;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerRemoteServiceConfig;
+import com.alibaba.nacos.api.ai.model.mcp.McpServiceRef;
+import com.alibaba.nacos.api.ai.model.mcp.McpTool;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
+import com.alibaba.nacos.api.ai.model.mcp.registry.ServerVersionDetail;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.ai.mcp.server.common.autoconfigure.properties.McpServerProperties;
+import org.springframework.ai.mcp.server.common.autoconfigure.properties.McpServerSseProperties;
+import org.springframework.ai.mcp.server.common.autoconfigure.properties.McpServerStreamableHttpProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the tool compatibility check of {@link NacosMcpRegister}.
+ */
+class NacosMcpRegisterTest {
+
+	private static final String SERVICE_NAME = "demo::1.0.0";
+
+	private static final String GROUP_NAME = "DEFAULT_GROUP";
+
+	private NacosMcpOperationService operationService;
+
+	private McpAsyncServer mcpAsyncServer;
+
+	private NacosMcpRegisterProperties registerProperties;
+
+	private McpServerProperties mcpServerProperties;
+
+	private ApplicationContext applicationContext;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.operationService = mock(NacosMcpOperationService.class);
+		when(this.operationService.getServerDetail("demo", "1.0.0")).thenReturn(serverDetail());
+
+		McpSchema.JsonSchema inputSchema = new McpSchema.JsonSchema("object",
+				Map.of("text", Map.of("type", "string", "description", "text to echo")), List.of("text"), null,
+				null, null);
+		McpSchema.Tool tool = new McpSchema.Tool.Builder().name("echo")
+			.description("Echo the text")
+			.inputSchema(inputSchema)
+			.build();
+		this.mcpAsyncServer = McpServer.async(new NoopTransportProvider())
+			.serverInfo("demo", "1.0.0")
+			.capabilities(McpSchema.ServerCapabilities.builder().tools(false).build())
+			.tools(McpServerFeatures.AsyncToolSpecification.builder()
+				.tool(tool)
+				.callHandler((exchange, request) -> Mono.just(new McpSchema.CallToolResult("ok", false)))
+				.build())
+			.build();
+
+		this.registerProperties = new NacosMcpRegisterProperties();
+		this.registerProperties.setPort(8080);
+		this.mcpServerProperties = new McpServerProperties();
+		this.mcpServerProperties.setVersion("1.0.0");
+		this.applicationContext = mock(ApplicationContext.class);
+		when(this.applicationContext.getBean(McpServerStreamableHttpProperties.class))
+			.thenReturn(new McpServerStreamableHttpProperties());
+	}
+
+	@Test
+	void secondStartSkipsToolsFoundCompatibleBefore() throws Exception {
+		when(this.operationService.getAllInstances(SERVICE_NAME, GROUP_NAME)).thenReturn(List.of());
+		try (MockedStatic<JsonSchemaUtil> jsonSchemaUtil = Mockito.mockStatic(JsonSchemaUtil.class,
+				Mockito.CALLS_REAL_METHODS)) {
+			NacosMcpRegister register = newRegister();
+			jsonSchemaUtil.verify(() -> JsonSchemaUtil.compare(anyString(), anyString()), times(1));
+			register.onApplicationEvent(webServerInitializedEvent());
+		}
+		ArgumentCaptor<Instance> registered = ArgumentCaptor.forClass(Instance.class);
+		verify(this.operationService).registerService(eq(SERVICE_NAME), eq(GROUP_NAME), registered.capture());
+		assertThat(registered.getValue().getMetadata())
+			.containsKey(NacosMcpRegister.TOOL_SCHEMA_DIGEST_METADATA_PREFIX + "echo");
+
+		when(this.operationService.getAllInstances(SERVICE_NAME, GROUP_NAME))
+			.thenReturn(List.of(registered.getValue()));
+		try (MockedStatic<JsonSchemaUtil> jsonSchemaUtil = Mockito.mockStatic(JsonSchemaUtil.class,
+				Mockito.CALLS_REAL_METHODS)) {
+			newRegister();
+			jsonSchemaUtil.verify(() -> JsonSchemaUtil.compare(anyString(), anyString()), never());
+		}
+	}
+
+	@Test
+	void changedSchemaInNacosIsComparedAgain() throws Exception {
+		Instance previous = new Instance();
+		previous.setMetadata(Map.of(NacosMcpRegister.TOOL_SCHEMA_DIGEST_METADATA_PREFIX + "echo",
+				JsonSchemaUtil.digest("{\"type\":\"object\"}", "{\"type\":\"object\"}")));
+		when(this.operationService.getAllInstances(SERVICE_NAME, GROUP_NAME)).thenReturn(List.of(previous));
+		try (MockedStatic<JsonSchemaUtil> jsonSchemaUtil = Mockito.mockStatic(JsonSchemaUtil.class,
+				Mockito.CALLS_REAL_METHODS)) {
+			newRegister();
+			jsonSchemaUtil.verify(() -> JsonSchemaUtil.compare(anyString(), anyString()), times(1));
+		}
+	}
+
+	private NacosMcpRegister newRegister() {
+		return new NacosMcpRegister(this.operationService, this.mcpAsyncServer, new NacosMcpProperties(),
+				this.registerProperties, this.mcpServerProperties, new McpServerSseProperties(),
+				this.applicationContext, AiConstants.Mcp.MCP_PROTOCOL_SSE);
+	}
+
+	private static McpServerDetailInfo serverDetail() {
+		McpServerDetailInfo serverDetail = new McpServerDetailInfo();
+		serverDetail.setName("demo");
+		serverDetail.setProtocol(AiConstants.Mcp.MCP_PROTOCOL_SSE);
+		ServerVersionDetail versionDetail = new ServerVersionDetail();
+		versionDetail.setVersion("1.0.0");
+		serverDetail.setVersionDetail(versionDetail);
+		McpServiceRef serviceRef = new McpServiceRef();
+		serviceRef.setNamespaceId("public");
+		serviceRef.setServiceName(SERVICE_NAME);
+		serviceRef.setGroupName(GROUP_NAME);
+		McpServerRemoteServiceConfig remoteServerConfig = new McpServerRemoteServiceConfig();
+		remoteServerConfig.setServiceRef(serviceRef);
+		serverDetail.setRemoteServerConfig(remoteServerConfig);
+		McpTool tool = new McpTool();
+		tool.setName("echo");
+		tool.setDescription("Echo the text");
+		tool.setInputSchema(Map.of("type", "object", "properties",
+				Map.of("text", Map.of("type", "string", "description", "text to echo")), "required", List.of("text")));
+		McpToolSpecification toolSpec = new McpToolSpecification();
+		toolSpec.setTools(List.of(tool));
+		serverDetail.setToolSpec(toolSpec);
+		return serverDetail;
+	}
+
+	private static WebServerInitializedEvent webServerInitializedEvent() {
+		WebServerInitializedEvent event = mock(WebServerInitializedEvent.class);
+		when(event.getApplicationContext()).thenReturn(mock(WebServerApplicationContext.class));
+		return event;
+	}
+
+	private static class NoopTransportProvider implements McpServerTransportProvider {
+
+		@Override
+		public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+		}
+
+		@Override
+		public Mono<Void> notifyClients(String method, Object params) {
+			return Mono.empty();
+		}
+
+		@Override
+		public Mono<Void> closeGracefully() {
+			return Mono.empty();
+		}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.common;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Digests the chat memory repositories store next to each message, so a save can find
+ * which of the new messages are already stored by comparing digests instead of reading
+ * the stored messages back.
+ */
+public final class MessageDigests {
+
+	private MessageDigests() {
+	}
+
+	/**
+	 * SHA-256 of the type and text of a message, Base64 without padding.
+	 */
+	public static String digest(Message message) {
+		MessageDigest sha = sha256();
+		sha.update(message.getMessageType().name().getBytes(StandardCharsets.UTF_8));
+		sha.update((byte) 0);
+		if (message.getText() != null) {
+			sha.update(message.getText().getBytes(StandardCharsets.UTF_8));
+		}
+		return encode(sha.digest());
+	}
+
+	/**
+	 * SHA-256 of an encoded message, Base64 without padding.
+	 */
+	public static String digest(byte[] encodedMessage) {
+		return encode(sha256().digest(encodedMessage));
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String encode(byte[] digest) {
+		return Base64.getEncoder().withoutPadding().encodeToString(digest);
+	}
+
+}
@@ -0,0 +1,434 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.common.serializer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AbstractMessage;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact {@link MessageCodec} writing messages in a schema-based binary layout:
+ * a format byte, the message type, then varint length-prefixed UTF-8 strings for the
+ * text, the metadata entries (sorted by key, values tagged by type) and the tool calls
+ * or tool responses. Field names are never written. Payloads of at least
+ * {@code compressionThreshold} bytes are deflated.
+ * <p>
+ * Payloads that do not start with a binary format byte are decoded as JSON, so
+ * conversations written by {@link JsonMessageCodec} stay readable after switching.
+ */
+public class BinaryMessageCodec implements MessageCodec {
+
+	private static final Logger logger = LoggerFactory.getLogger(BinaryMessageCodec.class);
+
+	/**
+	 * Default payload size in bytes from which messages are compressed.
+	 */
+	public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+	private static final byte FORMAT_PLAIN = 1;
+
+	private static final byte FORMAT_DEFLATE = 2;
+
+	/**
+	 * Largest decompressed payload accepted, far above any chat message.
+	 */
+	static final int MAX_DECOMPRESSED_LENGTH = 64 * 1024 * 1024;
+
+	/**
+	 * Upper bound of the deflate compression ratio.
+	 */
+	private static final int MAX_DEFLATE_RATIO = 1032;
+
+	private static final MessageType[] MESSAGE_TYPES = { MessageType.USER, MessageType.ASSISTANT,
+			MessageType.SYSTEM, MessageType.TOOL };
+
+	private static final byte VALUE_NULL = 0;
+
+	private static final byte VALUE_STRING = 1;
+
+	private static final byte VALUE_INT = 2;
+
+	private static final byte VALUE_LONG = 3;
+
+	private static final byte VALUE_DOUBLE = 4;
+
+	private static final byte VALUE_BOOLEAN = 5;
+
+	private static final byte VALUE_JSON = 6;
+
+	private static final ObjectMapper VALUE_MAPPER = JsonMapper.builder()
+		.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+		.build();
+
+	private final int compressionThreshold;
+
+	private final JsonMessageCodec jsonCodec = new JsonMessageCodec();
+
+	public BinaryMessageCodec() {
+		this(DEFAULT_COMPRESSION_THRESHOLD);
+	}
+
+	/**
+	 * @param compressionThreshold payload size in bytes from which messages are
+	 * compressed, or a non-positive value to disable compression
+	 */
+	public BinaryMessageCodec(int compressionThreshold) {
+		this.compressionThreshold = compressionThreshold > 0 ? compressionThreshold : Integer.MAX_VALUE;
+	}
+
+	@Override
+	public byte[] encode(Message message) {
+		Output body = new Output();
+		MessageType messageType = message.getMessageType();
+		body.writeVarint(typeCode(messageType));
+		body.writeString(message.getText());
+		writeMetadata(body, message.getMetadata());
+		if (message instanceof AssistantMessage assistantMessage) {
+			List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+			body.writeVarint(toolCalls.size());
+			for (AssistantMessage.ToolCall toolCall : toolCalls) {
+				body.writeString(toolCall.id());
+				body.writeString(toolCall.type());
+				body.writeString(toolCall.name());
+				body.writeString(toolCall.arguments());
+			}
+		}
+		else if (message instanceof ToolResponseMessage toolResponseMessage) {
+			List<ToolResponseMessage.ToolResponse> responses = toolResponseMessage.getResponses();
+			body.writeVarint(responses.size());
+			for (ToolResponseMessage.ToolResponse response : responses) {
+				body.writeString(response.id());
+				body.writeString(response.name());
+				body.writeString(response.responseData());
+			}
+		}
+		if (body.size() < compressionThreshold) {
+			return body.toByteArray(FORMAT_PLAIN);
+		}
+		return deflate(body);
+	}
+
+	@Override
+	public Message decode(byte[] data) {
+		if (data.length == 0 || (data[0] != FORMAT_PLAIN && data[0] != FORMAT_DEFLATE)) {
+			return jsonCodec.decode(data);
+		}
+		try {
+			ByteBuffer in = data[0] == FORMAT_PLAIN ? ByteBuffer.wrap(data, 1, data.length - 1) : inflate(data);
+			return readMessage(in);
+		}
+		catch (BufferUnderflowException | IllegalArgumentException | DataFormatException e) {
+			logger.error("Deserialization error for binary message of {} bytes", data.length, e);
+			return null;
+		}
+	}
+
+	private Message readMessage(ByteBuffer in) {
+		int code = readVarint(in);
+		if (code >= MESSAGE_TYPES.length) {
+			throw new IllegalArgumentException("Unknown message type code: " + code);
+		}
+		String text = readString(in);
+		Map<String, Object> metadata = readMetadata(in);
+		return switch (MESSAGE_TYPES[code]) {
+			case USER -> UserMessage.builder().text(text).metadata(metadata).build();
+			case SYSTEM -> SystemMessage.builder().text(text).metadata(metadata).build();
+			case ASSISTANT -> {
+				int size = readVarint(in);
+				List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					toolCalls.add(new AssistantMessage.ToolCall(readString(in), readString(in), readString(in),
+							readString(in)));
+				}
+				yield AssistantMessage.builder().content(text).properties(metadata).toolCalls(toolCalls).build();
+			}
+			case TOOL -> {
+				int size = readVarint(in);
+				List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					responses.add(new ToolResponseMessage.ToolResponse(readString(in), readString(in), readString(in)));
+				}
+				yield ToolResponseMessage.builder().responses(responses).metadata(metadata).build();
+			}
+		};
+	}
+
+	private static int typeCode(MessageType messageType) {
+		for (int i = 0; i < MESSAGE_TYPES.length; i++) {
+			if (MESSAGE_TYPES[i] == messageType) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported message type: " + messageType);
+	}
+
+	private static void writeMetadata(Output out, Map<String, Object> metadata) {
+		// the message type is implied by the type code and restored by the message builders
+		Map<String, Object> entries = new TreeMap<>(metadata);
+		entries.remove(AbstractMessage.MESSAGE_TYPE);
+		out.writeVarint(entries.size());
+		for (Map.Entry<String, Object> entry : entries.entrySet()) {
+			out.writeString(entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	private static Map<String, Object> readMetadata(ByteBuffer in) {
+		int size = readVarint(in);
+		Map<String, Object> metadata = new HashMap<>(Math.max(4, size * 2));
+		for (int i = 0; i < size; i++) {
+			metadata.put(readString(in), readValue(in));
+		}
+		return metadata;
+	}
+
+	private static void writeValue(Output out, Object value) {
+		if (value == null) {
+			out.write(VALUE_NULL);
+		}
+		else if (value instanceof String string) {
+			out.write(VALUE_STRING);
+			out.writeString(string);
+		}
+		else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			out.write(VALUE_INT);
+			out.writeVarint(zigZag(((Number) value).intValue()));
+		}
+		else if (value instanceof Long longValue) {
+			out.write(VALUE_LONG);
+			out.writeVarlong(zigZag(longValue));
+		}
+		else if (value instanceof Double || value instanceof Float) {
+			out.write(VALUE_DOUBLE);
+			out.writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+		}
+		else if (value instanceof Boolean bool) {
+			out.write(VALUE_BOOLEAN);
+			out.write(bool ? 1 : 0);
+		}
+		else if (value instanceof Enum<?> enumValue) {
+			out.write(VALUE_STRING);
+			out.writeString(enumValue.name());
+		}
+		else {
+			try {
+				out.write(VALUE_JSON);
+				out.writeString(VALUE_MAPPER.writeValueAsString(value));
+			}
+			catch (JsonProcessingException e) {
+				throw new RuntimeException("Error serializing message metadata", e);
+			}
+		}
+	}
+
+	private static Object readValue(ByteBuffer in) {
+		byte tag = in.get();
+		return switch (tag) {
+			case VALUE_NULL -> null;
+			case VALUE_STRING -> readString(in);
+			case VALUE_INT -> unZigZag((int) readVarlong(in));
+			case VALUE_LONG -> unZigZag(readVarlong(in));
+			case VALUE_DOUBLE -> Double.longBitsToDouble(in.getLong());
+			case VALUE_BOOLEAN -> in.get() != 0;
+			case VALUE_JSON -> {
+				try {
+					yield VALUE_MAPPER.readValue(readString(in), Object.class);
+				}
+				catch (JsonProcessingException e) {
+					throw new IllegalArgumentException("Malformed metadata value", e);
+				}
+			}
+			default -> throw new IllegalArgumentException("Unknown metadata value tag: " + tag);
+		};
+	}
+
+	private static byte[] deflate(Output body) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			body.setInput(deflater);
+			deflater.finish();
+			Output out = new Output();
+			out.writeVarint(body.size());
+			byte[] chunk = new byte[Math.min(body.size(), 8192)];
+			while (!deflater.finished()) {
+				int length = deflater.deflate(chunk);
+				out.write(chunk, 0, length);
+			}
+			return out.toByteArray(FORMAT_DEFLATE);
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	private static ByteBuffer inflate(byte[] data) throws DataFormatException {
+		ByteBuffer header = ByteBuffer.wrap(data, 1, data.length - 1);
+		int rawLength = readVarint(header);
+		long maxLength = Math.min(MAX_DECOMPRESSED_LENGTH,
+				(long) (data.length - header.position()) * MAX_DEFLATE_RATIO);
+		if (rawLength < 0 || rawLength > maxLength) {
+			throw new DataFormatException("Invalid decompressed length " + rawLength + " for "
+					+ (data.length - header.position()) + " compressed bytes, expected at most " + maxLength);
+		}
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data, header.position(), data.length - header.position());
+			byte[] raw = new byte[rawLength];
+			int read = 0;
+			while (read < rawLength) {
+				int length = inflater.inflate(raw, read, rawLength - read);
+				if (length == 0 && (inflater.finished() || inflater.needsInput())) {
+					throw new DataFormatException("Truncated compressed message");
+				}
+				read += length;
+			}
+			return ByteBuffer.wrap(raw);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private static int zigZag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static int unZigZag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static int readVarint(ByteBuffer in) {
+		long value = readVarlong(in);
+		if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+			throw new IllegalArgumentException("Varint overflow");
+		}
+		return (int) value;
+	}
+
+	private static long readVarlong(ByteBuffer in) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = in.get();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed varint");
+	}
+
+	private static String readString(ByteBuffer in) {
+		int length = readVarint(in);
+		if (length == 0) {
+			return null;
+		}
+		length--;
+		if (length > in.remaining()) {
+			throw new IllegalArgumentException("String length exceeds payload");
+		}
+		String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+		in.position(in.position() + length);
+		return value;
+	}
+
+	/**
+	 * Growable output buffer with varint helpers; position 0 is reserved for the format
+	 * byte so the final array is produced with a single copy.
+	 */
+	private static final class Output extends ByteArrayOutputStream {
+
+		Output() {
+			super(256);
+			this.count = 1;
+		}
+
+		@Override
+		public synchronized int size() {
+			return count - 1;
+		}
+
+		void setInput(Deflater deflater) {
+			deflater.setInput(buf, 1, count - 1);
+		}
+
+		byte[] toByteArray(byte format) {
+			buf[0] = format;
+			return Arrays.copyOf(buf, count);
+		}
+
+		void writeVarint(int value) {
+			writeVarlong(value & 0xFFFFFFFFL);
+		}
+
+		void writeVarlong(long value) {
+			while ((value & ~0x7FL) != 0) {
+				write((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			write((int) value);
+		}
+
+		void writeLong(long value) {
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				write((int) (value >>> shift));
+			}
+		}
+
+		void writeString(String value) {
+			if (value == null) {
+				writeVarint(0);
+				return;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarint(bytes.length + 1);
+			write(bytes, 0, bytes.length);
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.common.serializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Default {@link MessageCodec} storing each message as a JSON document.
+ */
+public class JsonMessageCodec implements MessageCodec {
+
+	private static final Logger logger = LoggerFactory.getLogger(JsonMessageCodec.class);
+
+	private final ObjectMapper objectMapper;
+
+	public JsonMessageCodec() {
+		this.objectMapper = JsonMapper.builder()
+			.configure(MapperFeature.AUTO_DETECT_GETTERS, false)
+			.configure(MapperFeature.AUTO_DETECT_IS_GETTERS, false)
+			.visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+			// stable map ordering keeps re-encoded messages byte-equal to the stored ones
+			.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+			.build();
+		SimpleModule module = new SimpleModule();
+		module.addDeserializer(Message.class, new MessageDeserializer());
+		this.objectMapper.registerModule(module);
+	}
+
+	@Override
+	public byte[] encode(Message message) {
+		try {
+			return objectMapper.writeValueAsBytes(message);
+		}
+		catch (JsonProcessingException e) {
+			throw new RuntimeException("Error serializing message", e);
+		}
+	}
+
+	@Override
+	public Message decode(byte[] data) {
+		try {
+			return objectMapper.readValue(data, Message.class);
+		}
+		catch (IOException e) {
+			logger.error("Deserialization error for message: {}", new String(data, StandardCharsets.UTF_8), e);
+			return null;
+		}
+	}
+
+}
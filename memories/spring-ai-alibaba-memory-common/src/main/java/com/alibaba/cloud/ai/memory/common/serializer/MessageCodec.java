@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.common.serializer;
+
+import org.springframework.ai.chat.messages.Message;
+
+/**
+ * Encodes chat memory messages to and from their stored byte representation.
+ *
+ * @see JsonMessageCodec
+ * @see BinaryMessageCodec
+ */
+public interface MessageCodec {
+
+	/**
+	 * encode a message for storage
+	 * @param message the message to encode
+	 * @return the encoded bytes
+	 */
+	byte[] encode(Message message);
+
+	/**
+	 * decode a stored message
+	 * @param data the encoded bytes
+	 * @return the decoded message, or {@code null} if the bytes cannot be decoded
+	 */
+	Message decode(byte[] data);
+
+}
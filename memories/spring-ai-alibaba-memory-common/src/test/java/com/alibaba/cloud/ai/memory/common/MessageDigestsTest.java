@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MessageDigests}.
+ */
+class MessageDigestsTest {
+
+	@Test
+	void messageDigestDependsOnTypeAndText() {
+		assertThat(MessageDigests.digest(new UserMessage("hello")))
+			.isEqualTo(MessageDigests.digest(new UserMessage("hello")))
+			.isNotEqualTo(MessageDigests.digest(new AssistantMessage("hello")))
+			.isNotEqualTo(MessageDigests.digest(new UserMessage("hello!")));
+	}
+
+	@Test
+	void encodedDigestDependsOnTheBytes() {
+		byte[] first = "first".getBytes(StandardCharsets.UTF_8);
+		assertThat(MessageDigests.digest(first)).isEqualTo(MessageDigests.digest(first.clone()))
+			.isNotEqualTo(MessageDigests.digest("second".getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
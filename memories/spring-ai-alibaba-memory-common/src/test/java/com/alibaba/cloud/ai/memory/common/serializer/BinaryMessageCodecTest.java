@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.common.serializer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryMessageCodecTest {
+
+	private final BinaryMessageCodec codec = new BinaryMessageCodec();
+
+	@Test
+	void roundTripsMessagesWithMetadata() {
+		Map<String, Object> metadata = new LinkedHashMap<>();
+		metadata.put("count", 3);
+		metadata.put("timestamp", -1724572800000L);
+		metadata.put("score", 0.75d);
+		metadata.put("flag", true);
+		metadata.put("nested", Map.of("key", "value"));
+		metadata.put("missing", null);
+		var message = UserMessage.builder().text("你好, memory").metadata(metadata).build();
+
+		Message decoded = codec.decode(codec.encode(message));
+
+		assertThat(decoded).isInstanceOf(UserMessage.class);
+		assertThat(decoded.getText()).isEqualTo("你好, memory");
+		assertThat(decoded.getMessageType()).isEqualTo(MessageType.USER);
+		assertThat(decoded.getMetadata()).containsEntry("count", 3)
+			.containsEntry("timestamp", -1724572800000L)
+			.containsEntry("score", 0.75d)
+			.containsEntry("flag", true)
+			.containsEntry("nested", Map.of("key", "value"))
+			.containsEntry("missing", null);
+	}
+
+	@Test
+	void roundTripsToolCallsAndResponses() {
+		var assistant = AssistantMessage.builder()
+			.content("calling")
+			.toolCalls(List.of(new AssistantMessage.ToolCall("1", "function", "weather", "{\"city\":\"Hangzhou\"}")))
+			.build();
+		var tool = ToolResponseMessage.builder()
+			.responses(List.of(new ToolResponseMessage.ToolResponse("1", "weather", "sunny")))
+			.build();
+
+		var decodedAssistant = (AssistantMessage) codec.decode(codec.encode(assistant));
+		var decodedTool = (ToolResponseMessage) codec.decode(codec.encode(tool));
+
+		assertThat(decodedAssistant.getToolCalls()).containsExactlyElementsOf(assistant.getToolCalls());
+		assertThat(decodedTool.getResponses()).containsExactlyElementsOf(tool.getResponses());
+	}
+
+	@Test
+	void compressesLargePayloadsAndStaysDeterministic() {
+		var message = new UserMessage("lorem ipsum ".repeat(500));
+
+		byte[] encoded = codec.encode(message);
+
+		assertThat(encoded.length).isLessThan(message.getText().length() / 4);
+		assertThat(codec.encode(message)).isEqualTo(encoded);
+		assertThat(codec.decode(encoded).getText()).isEqualTo(message.getText());
+	}
+
+	@Test
+	void decodesJsonWrittenByDefaultCodec() {
+		var message = new UserMessage("stored before switching codecs");
+
+		byte[] json = new JsonMessageCodec().encode(message);
+
+		assertThat(codec.encode(message).length).isLessThan(json.length);
+		assertThat(codec.decode(json).getText()).isEqualTo(message.getText());
+	}
+
+	@Test
+	void rejectsCompressedPayloadsWithInvalidLength() {
+		byte[] encoded = codec.encode(new UserMessage("lorem ipsum ".repeat(500)));
+		byte[] compressed = Arrays.copyOfRange(encoded, 1 + varintSize(encoded), encoded.length);
+
+		// Claims about 2 GB, more than the limit and the compressed bytes can hold.
+		assertThat(codec.decode(concat(new byte[] { 2, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07 },
+				compressed)))
+			.isNull();
+		// A negative length.
+		assertThat(codec.decode(concat(new byte[] { 2, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+				(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x01 }, compressed)))
+			.isNull();
+	}
+
+	private static int varintSize(byte[] encoded) {
+		int size = 1;
+		while ((encoded[size] & 0x80) != 0) {
+			size++;
+		}
+		return size;
+	}
+
+	private static byte[] concat(byte[] header, byte[] body) {
+		byte[] data = Arrays.copyOf(header, header.length + body.length);
+		System.arraycopy(body, 0, data, header.length, body.length);
+		return data;
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.common.serializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encode/decode throughput and encoded size of the {@link MessageCodec}
+ * implementations on a typical tool-calling conversation turn. Run with
+ * {@code main}; encoded sizes per codec are printed before the benchmarks start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCodecBenchmark {
+
+	@Param({ "json", "binary", "binary-uncompressed" })
+	public String codecName;
+
+	private MessageCodec codec;
+
+	private List<Message> messages;
+
+	private List<byte[]> encoded;
+
+	@Setup
+	public void setUp() {
+		codec = codec(codecName);
+		messages = conversation();
+		encoded = messages.stream().map(codec::encode).toList();
+	}
+
+	@Benchmark
+	public void encode(Blackhole blackhole) {
+		for (Message message : messages) {
+			blackhole.consume(codec.encode(message));
+		}
+	}
+
+	@Benchmark
+	public void decode(Blackhole blackhole) {
+		for (byte[] bytes : encoded) {
+			blackhole.consume(codec.decode(bytes));
+		}
+	}
+
+	static MessageCodec codec(String name) {
+		return switch (name) {
+			case "json" -> new JsonMessageCodec();
+			case "binary" -> new BinaryMessageCodec();
+			case "binary-uncompressed" -> new BinaryMessageCodec(0);
+			default -> throw new IllegalArgumentException("Unknown codec: " + name);
+		};
+	}
+
+	static List<Message> conversation() {
+		String toolResult = "{\"city\":\"Hangzhou\",\"forecast\":[" + "{\"day\":\"Mon\",\"high\":28,\"low\":19},".repeat(40)
+				+ "{\"day\":\"Tue\",\"high\":27,\"low\":18}]}";
+		return List.of(new SystemMessage("You are a helpful travel assistant."),
+				UserMessage.builder()
+					.text("What is the weather in Hangzhou this week?")
+					.metadata(Map.of("userId", "u-1024", "timestamp", 1724572800000L))
+					.build(),
+				AssistantMessage.builder()
+					.content("")
+					.toolCalls(List.of(new AssistantMessage.ToolCall("call-1", "function", "weather_forecast",
+							"{\"city\":\"Hangzhou\",\"days\":7}")))
+					.build(),
+				ToolResponseMessage.builder()
+					.responses(List.of(new ToolResponseMessage.ToolResponse("call-1", "weather_forecast", toolResult)))
+					.build(),
+				new AssistantMessage("Expect highs around 28°C and lows around 19°C all week."));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		for (String name : List.of("json", "binary", "binary-uncompressed")) {
+			MessageCodec codec = codec(name);
+			int bytes = conversation().stream().mapToInt(message -> codec.encode(message).length).sum();
+			System.out.printf("%-20s %6d bytes per conversation%n", name, bytes);
+		}
+		new Runner(new OptionsBuilder().include(MessageCodecBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -15,7 +15,14 @@
  */
 package com.alibaba.cloud.ai.memory.elasticsearch;
 
+import com.alibaba.cloud.ai.memory.common.MessageDigests;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregationSource;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
@@ -34,7 +41,10 @@ import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.util.Assert;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -47,13 +57,36 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 
 	private static final String INDEX_NAME = "chat_memory";
 
+	private static final String CONVERSATIONS_AGGREGATION = "conversations";
+
+	private static final String MIN_SEQUENCE_AGGREGATION = "minSequence";
+
+	private static final int CONVERSATION_PAGE_SIZE = 1000;
+
+	private static final int MAX_MESSAGES = 10000;
+
 	// private final ElasticsearchConfig config;
 
 	private final ElasticsearchClient client;
 
 	private final ObjectMapper objectMapper;
 
+	private final Refresh refresh;
+
 	public ElasticsearchChatMemoryRepository(ElasticsearchClient client) {
+		this(client, Refresh.WaitFor);
+	}
+
+	/**
+	 * @param client the Elasticsearch client
+	 * @param refresh refresh policy for bulk writes: {@link Refresh#WaitFor} when
+	 * messages must be visible to the next read (read-your-writes), {@link Refresh#False}
+	 * to leave visibility to the index refresh interval. Deletes by query never force a
+	 * refresh; during a save they run before the bulk write and become visible with it
+	 */
+	public ElasticsearchChatMemoryRepository(ElasticsearchClient client, Refresh refresh) {
+		Assert.notNull(refresh, "refresh cannot be null");
+		this.refresh = refresh;
 		this.objectMapper = new ObjectMapper();
 		// Configure Jackson to ignore unknown properties to handle schema changes
 		this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -70,6 +103,13 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 		if (!client.indices().exists(e -> e.index(INDEX_NAME)).value()) {
 			createIndex();
 		}
+		else {
+			// indices created before messages were sequenced lack the fields
+			client.indices()
+				.putMapping(m -> m.index(INDEX_NAME)
+					.properties("sequence", p -> p.long_(l -> l))
+					.properties("digest", p -> p.keyword(k -> k.index(false))));
+		}
 	}
 
 	private void createIndex() throws IOException {
@@ -78,6 +118,8 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 				.mappings(m -> m.properties("conversationId", p -> p.keyword(k -> k))
 					.properties("messageType", p -> p.keyword(k -> k))
 					.properties("messageText", p -> p.text(t -> t))
+					.properties("sequence", p -> p.long_(l -> l))
+					.properties("digest", p -> p.keyword(k -> k.index(false)))
 					.properties("timestamp", p -> p.date(d -> d))));
 	}
 
@@ -140,15 +182,46 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 
 	@Override
 	public List<String> findConversationIds() {
-		try {
-			SearchResponse<ChatMessage> response = client
-				.search(s -> s.index(INDEX_NAME).size(10000).query(q -> q.matchAll(m -> m)), ChatMessage.class);
+		List<String> conversationIds = new ArrayList<>();
+		String after = null;
+		do {
+			List<String> page = findConversationIds(after, CONVERSATION_PAGE_SIZE);
+			conversationIds.addAll(page);
+			after = page.size() < CONVERSATION_PAGE_SIZE ? null : page.get(page.size() - 1);
+		}
+		while (after != null);
+		return conversationIds;
+	}
 
-			return response.hits()
-				.hits()
+	/**
+	 * Page through conversation ids in id order with a composite aggregation.
+	 * @param afterConversationId the last id of the previous page, or {@code null} for
+	 * the first page
+	 * @param pageSize maximum number of conversation ids to return
+	 * @return the conversation ids following {@code afterConversationId}
+	 */
+	public List<String> findConversationIds(String afterConversationId, int pageSize) {
+		Assert.isTrue(pageSize > 0, "pageSize must be positive");
+		try {
+			SearchResponse<Void> response = client.search(s -> s.index(INDEX_NAME)
+				.size(0)
+				.aggregations(CONVERSATIONS_AGGREGATION, a -> a.composite(c -> {
+					c.size(pageSize)
+						.sources(Map.of("conversationId",
+								CompositeAggregationSource.of(cs -> cs.terms(t -> t.field("conversationId")))));
+					if (afterConversationId != null) {
+						c.after("conversationId", FieldValue.of(afterConversationId));
+					}
+					return c;
+				})), Void.class);
+
+			return response.aggregations()
+				.get(CONVERSATIONS_AGGREGATION)
+				.composite()
+				.buckets()
+				.array()
 				.stream()
-				.map(hit -> hit.source().getConversationId())
-				.distinct()
+				.map(bucket -> bucket.key().get("conversationId").stringValue())
 				.collect(Collectors.toList());
 		}
 		catch (IOException e) {
@@ -160,12 +233,12 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 	public List<Message> findByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		try {
-			logger.info("Finding messages for conversation: {}", conversationId);
+			logger.debug("Finding messages for conversation: {}", conversationId);
 			SearchResponse<ChatMessage> response = client.search(s -> s.index(INDEX_NAME)
+				.size(MAX_MESSAGES)
 				.query(q -> q.term(t -> t.field("conversationId").value(conversationId)))
-				.sort(sort -> sort
-					.field(f -> f.field("timestamp").order(co.elastic.clients.elasticsearch._types.SortOrder.Asc))),
-					ChatMessage.class);
+				.sort(sort -> sort.field(f -> f.field("sequence").order(SortOrder.Asc).missing("_first")))
+				.sort(sort -> sort.field(f -> f.field("timestamp").order(SortOrder.Asc))), ChatMessage.class);
 
 			List<Message> messages = response.hits()
 				.hits()
@@ -174,7 +247,7 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 				.filter(Objects::nonNull)
 				.collect(Collectors.toList());
 
-			logger.info("Found {} messages for conversation: {}", messages.size(), conversationId);
+			logger.debug("Found {} messages for conversation: {}", messages.size(), conversationId);
 			return messages;
 		}
 		catch (IOException e) {
@@ -183,6 +256,14 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 		}
 	}
 
+	/**
+	 * Persist the conversation as a delta against the stored one. Messages keep the
+	 * sequence number they were first stored under, so only the last
+	 * {@code messages.size()} stored digests are read to find which messages are already
+	 * stored; the new ones are indexed after them and the ones that fell out of the
+	 * conversation are deleted in the same bulk request. A delete-by-query is only
+	 * issued for stored messages older than that tail.
+	 */
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
@@ -190,32 +271,72 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 		Assert.noNullElements(messages, "messages cannot contain null elements");
 
 		try {
-			// Delete existing messages first
-			deleteByConversationId(conversationId);
-
-			// Bulk insert new messages
-			BulkRequest.Builder br = new BulkRequest.Builder();
-			for (Message message : messages) {
-				ChatMessage chatMessage = new ChatMessage(conversationId, message);
-				logger.info("Saving message for {}: type={}, text={}", conversationId, chatMessage.getMessageType(),
-						chatMessage.getMessageText());
-				br.operations(op -> op.index(idx -> idx.index(INDEX_NAME).document(chatMessage)));
+			SearchResponse<ChatMessage> response = client.search(s -> s.index(INDEX_NAME)
+				.size(messages.size())
+				.trackTotalHits(t -> t.enabled(true))
+				.query(q -> q.term(t -> t.field("conversationId").value(conversationId)))
+				.source(src -> src.filter(f -> f.includes("sequence", "digest")))
+				.sort(sort -> sort.field(f -> f.field("sequence").order(SortOrder.Desc).missing("_last")))
+				.sort(sort -> sort.field(f -> f.field("timestamp").order(SortOrder.Desc))), ChatMessage.class);
+			long size = response.hits().total() == null ? 0 : response.hits().total().value();
+			List<Hit<ChatMessage>> tail = new ArrayList<>(response.hits().hits());
+			Collections.reverse(tail);
+			List<String> digests = messages.stream().map(MessageDigests::digest).toList();
+
+			int kept = findOverlap(tail, digests);
+			long nextSeq = tail.stream()
+				.map(hit -> hit.source().getSequence())
+				.filter(Objects::nonNull)
+				.max(Long::compare)
+				.map(seq -> seq + 1)
+				.orElse(0L);
+
+			if (size > tail.size()) {
+				// stored messages older than the tail never overlap the new conversation
+				Long oldestSeq = tail.isEmpty() ? null : tail.get(0).source().getSequence();
+				Query missingSequence = Query.of(q -> q.bool(b -> b.mustNot(mn -> mn.exists(e -> e.field("sequence")))));
+				if (tail.isEmpty()) {
+					deleteMessages(conversationId, null);
+				}
+				else if (oldestSeq == null) {
+					deleteMessages(conversationId, missingSequence);
+				}
+				else {
+					deleteMessages(conversationId, Query.of(q -> q.bool(b -> b
+						.should(sh -> sh.range(r -> r.number(n -> n.field("sequence").lt((double) oldestSeq))))
+						.should(missingSequence)
+						.minimumShouldMatch("1"))));
+				}
 			}
 
-			BulkResponse response = client.bulk(br.build());
-			if (response.errors()) {
-				logger.error("Error saving messages: {}",
-						response.items()
-							.stream()
-							.filter(item -> item.error() != null)
-							.map(item -> item.error().reason())
-							.collect(Collectors.joining(", ")));
-				throw new RuntimeException("Error saving messages to Elasticsearch");
+			BulkRequest.Builder br = new BulkRequest.Builder().refresh(refresh);
+			int operations = 0;
+			for (Hit<ChatMessage> hit : tail.subList(0, tail.size() - kept)) {
+				br.operations(op -> op.delete(d -> d.index(INDEX_NAME).id(hit.id())));
+				operations++;
 			}
-
-			// Ensure index is refreshed immediately
-			client.indices().refresh(r -> r.index(INDEX_NAME));
-			logger.info("Successfully saved {} messages for conversation {}", messages.size(), conversationId);
+			for (int i = kept; i < messages.size(); i++) {
+				ChatMessage chatMessage = new ChatMessage(conversationId, nextSeq + i - kept, messages.get(i),
+						digests.get(i));
+				br.operations(op -> op.index(idx -> idx.index(INDEX_NAME)
+					.id(documentId(conversationId, chatMessage.getSequence()))
+					.document(chatMessage)));
+				operations++;
+			}
+			if (operations > 0) {
+				BulkResponse bulkResponse = client.bulk(br.build());
+				if (bulkResponse.errors()) {
+					logger.error("Error saving messages: {}",
+							bulkResponse.items()
+								.stream()
+								.filter(item -> item.error() != null)
+								.map(item -> item.error().reason())
+								.collect(Collectors.joining(", ")));
+					throw new RuntimeException("Error saving messages to Elasticsearch");
+				}
+			}
+			logger.debug("Saved {} new messages and dropped {} for conversation {}", messages.size() - kept,
+					size - kept, conversationId);
 		}
 		catch (IOException e) {
 			logger.error("Error saving messages", e);
@@ -227,53 +348,82 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 	public void deleteByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		try {
-			DeleteByQueryResponse response = client.deleteByQuery(
-					d -> d.index(INDEX_NAME).query(q -> q.term(t -> t.field("conversationId").value(conversationId))));
-
-			if (response.failures().size() > 0) {
-				throw new RuntimeException("Error deleting messages for conversation: " + conversationId);
-			}
+			deleteMessages(conversationId, null);
 		}
 		catch (IOException e) {
 			throw new RuntimeException("Error deleting messages", e);
 		}
 	}
 
+	/**
+	 * Drop the {@code deleteSize} oldest messages once the conversation holds at least
+	 * {@code maxLimit} of them, with a single delete-by-query on the sequence range.
+	 */
 	public void clearOverLimit(String conversationId, int maxLimit, int deleteSize) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		try {
-			SearchResponse<ChatMessage> response = client.search(s -> s.index(INDEX_NAME)
+			SearchResponse<Void> response = client.search(s -> s.index(INDEX_NAME)
+				.size(0)
+				.trackTotalHits(t -> t.enabled(true))
 				.query(q -> q.term(t -> t.field("conversationId").value(conversationId)))
-				.sort(sort -> sort
-					.field(f -> f.field("timestamp").order(co.elastic.clients.elasticsearch._types.SortOrder.Asc))),
-					ChatMessage.class);
+				.aggregations(MIN_SEQUENCE_AGGREGATION, a -> a.min(m -> m.field("sequence"))), Void.class);
 
-			List<ChatMessage> messages = response.hits().hits().stream().map(Hit::source).collect(Collectors.toList());
-
-			if (messages.size() >= maxLimit) {
-				// Delete all messages
-				deleteByConversationId(conversationId);
-
-				// Reinsert messages after skipping the oldest ones
-				List<ChatMessage> messagesToKeep = messages.stream().skip(deleteSize).collect(Collectors.toList());
+			long size = response.hits().total() == null ? 0 : response.hits().total().value();
+			if (size < maxLimit) {
+				return;
+			}
+			double minSequence = response.aggregations().get(MIN_SEQUENCE_AGGREGATION).min().value();
+			double upperBound = Double.isFinite(minSequence) ? minSequence + deleteSize : deleteSize;
+			deleteMessages(conversationId,
+					Query.of(q -> q.range(r -> r.number(n -> n.field("sequence").lt(upperBound)))));
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Error clearing over limit messages", e);
+		}
+	}
 
-				BulkRequest.Builder br = new BulkRequest.Builder();
-				for (ChatMessage message : messagesToKeep) {
-					br.operations(op -> op.index(idx -> idx.index(INDEX_NAME).document(message)));
+	private void deleteMessages(String conversationId, Query filter) throws IOException {
+		Query byConversation = Query.of(q -> q.term(t -> t.field("conversationId").value(conversationId)));
+		DeleteByQueryResponse response = client.deleteByQuery(d -> d.index(INDEX_NAME)
+			.conflicts(Conflicts.Proceed)
+			.query(q -> q.bool(b -> {
+				b.filter(byConversation);
+				if (filter != null) {
+					b.filter(filter);
 				}
+				return b;
+			})));
+		if (!response.failures().isEmpty()) {
+			throw new RuntimeException("Error deleting messages for conversation: " + conversationId);
+		}
+	}
 
-				BulkResponse bulkResponse = client.bulk(br.build());
-				if (bulkResponse.errors()) {
-					throw new RuntimeException("Error saving messages to Elasticsearch");
-				}
+	private static String documentId(String conversationId, long sequence) {
+		return conversationId + ":" + sequence;
+	}
 
-				// Force refresh the index to make changes available immediately
-				client.indices().refresh(r -> r.index(INDEX_NAME));
+	/**
+	 * Find how many of the last stored messages the new conversation starts with.
+	 * @param tail the last stored messages, oldest first
+	 * @param digests the digests of the new messages
+	 * @return the length of the longest suffix of the tail that is a prefix of the new
+	 * messages
+	 */
+	private static int findOverlap(List<Hit<ChatMessage>> tail, List<String> digests) {
+		int size = tail.size();
+		for (int k = Math.max(0, size - digests.size()); k < size; k++) {
+			boolean match = true;
+			for (int i = 0; i < size - k; i++) {
+				if (!Objects.equals(tail.get(k + i).source().getDigest(), digests.get(i))) {
+					match = false;
+					break;
+				}
+			}
+			if (match) {
+				return size - k;
 			}
 		}
-		catch (IOException e) {
-			throw new RuntimeException("Error clearing over limit messages", e);
-		}
+		return 0;
 	}
 
 	@Override
@@ -334,6 +484,10 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 
 		private String messageText;
 
+		private Long sequence;
+
+		private String digest;
+
 		private long timestamp;
 
 		// For backward compatibility with existing data
@@ -342,8 +496,10 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 		public ChatMessage() {
 		}
 
-		public ChatMessage(String conversationId, Message message) {
+		public ChatMessage(String conversationId, long sequence, Message message, String digest) {
 			this.conversationId = conversationId;
+			this.sequence = sequence;
+			this.digest = digest;
 			this.messageType = message.getMessageType().toString();
 			this.messageText = message.getText();
 			this.timestamp = System.currentTimeMillis();
@@ -373,6 +529,22 @@ public class ElasticsearchChatMemoryRepository implements ChatMemoryRepository,
 			this.messageText = messageText;
 		}
 
+		public Long getSequence() {
+			return sequence;
+		}
+
+		public void setSequence(Long sequence) {
+			this.sequence = sequence;
+		}
+
+		public String getDigest() {
+			return digest;
+		}
+
+		public void setDigest(String digest) {
+			this.digest = digest;
+		}
+
 		public long getTimestamp() {
 			return timestamp;
 		}
@@ -267,6 +267,47 @@ class ElasticsearchChatMemoryRepositoryIT {
 		assertThat(foundMessage4).isTrue();
 	}
 
+	@Test
+	void findConversationIdsPagesThroughAggregation() {
+		var repository = (ElasticsearchChatMemoryRepository) chatMemoryRepository;
+		var conversationIds = List.of("conversation-a", "conversation-b", "conversation-c");
+		conversationIds.forEach(id -> repository.saveAll(id, List.of(new UserMessage("Message - " + id))));
+
+		var firstPage = repository.findConversationIds(null, 2);
+		var secondPage = repository.findConversationIds(firstPage.get(firstPage.size() - 1), 2);
+
+		assertThat(firstPage).containsExactly("conversation-a", "conversation-b");
+		assertThat(secondPage).containsExactly("conversation-c");
+		assertThat(repository.findConversationIds()).containsExactlyElementsOf(conversationIds);
+	}
+
+	@Test
+	void saveAllShrinksConversationInPlace() {
+		var conversationId = UUID.randomUUID().toString();
+		chatMemoryRepository.saveAll(conversationId,
+				List.of(new UserMessage("first"), new AssistantMessage("second"), new UserMessage("third")));
+
+		chatMemoryRepository.saveAll(conversationId, List.of(new UserMessage("only")));
+
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).extracting(Message::getText)
+			.containsExactly("only");
+	}
+
+	@Test
+	void saveAllAppendsAfterMessagesThatFellOutOfTheWindow() {
+		var conversationId = UUID.randomUUID().toString();
+		var first = new UserMessage("first");
+		var second = new AssistantMessage("second");
+		var third = new UserMessage("third");
+		var fourth = new AssistantMessage("fourth");
+		chatMemoryRepository.saveAll(conversationId, List.of(first, second, third));
+
+		chatMemoryRepository.saveAll(conversationId, List.of(second, third, fourth));
+
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).extracting(Message::getText)
+			.containsExactly("second", "third", "fourth");
+	}
+
 	@Test
 	void debugElasticsearchQuery() throws Exception {
 		var repo = (ElasticsearchChatMemoryRepository) chatMemoryRepository;
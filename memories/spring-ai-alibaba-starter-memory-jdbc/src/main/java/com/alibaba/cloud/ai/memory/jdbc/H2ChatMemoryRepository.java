@@ -17,15 +17,16 @@ package com.alibaba.cloud.ai.memory.jdbc;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.List;
+
 /**
  * auth: dahua
  */
 public class H2ChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	// H2 specific query statements
-	private static final String H2_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES (?, ?, ?, ?)";
-
-	private static final String H2_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp";
+	private static final String H2_QUERY_ADD = "MERGE INTO ai_chat_memory (conversation_id, seq, content, type, timestamp) "
+			+ "KEY (conversation_id, seq) VALUES (:conversationId, :seq, :content, :type, :timestamp)";
 
 	private H2ChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
@@ -52,27 +53,39 @@ public class H2ChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	@Override
 	protected String hasTableSql(String tableName) {
-		return String.format("SELECT table_name FROM information_schema.tables WHERE table_name = '%s'", tableName);
+		// H2 folds unquoted identifiers to upper case
+		return String.format("SELECT table_name FROM information_schema.tables WHERE UPPER(table_name) = UPPER('%s')",
+				tableName);
 	}
 
 	@Override
 	protected String createTableSql(String tableName) {
 		return String.format(
 				"CREATE TABLE %s (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
-						+ "conversation_id VARCHAR(256) NOT NULL, content LONGTEXT NOT NULL, "
+						+ "conversation_id VARCHAR(256) NOT NULL, seq BIGINT NOT NULL, content LONGTEXT NOT NULL, "
 						+ "type VARCHAR(100) NOT NULL, timestamp TIMESTAMP NOT NULL, "
+						+ "CONSTRAINT uk_ai_chat_memory_seq UNIQUE (conversation_id, seq), "
 						+ "CONSTRAINT chk_message_type CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')))",
 				tableName);
 	}
 
 	@Override
-	protected String getAddSql() {
-		return H2_QUERY_ADD;
+	protected String hasColumnSql(String tableName, String columnName) {
+		return String.format(
+				"SELECT column_name FROM information_schema.columns WHERE UPPER(table_name) = UPPER('%s') AND UPPER(column_name) = UPPER('%s')",
+				tableName, columnName);
 	}
 
 	@Override
-	protected String getGetSql() {
-		return H2_QUERY_GET;
+	protected List<String> migrateTableSql(String tableName) {
+		return List.of(String.format("ALTER TABLE %s ADD COLUMN seq BIGINT", tableName),
+				String.format("UPDATE %s SET seq = id", tableName),
+				String.format("CREATE UNIQUE INDEX uk_ai_chat_memory_seq ON %s (conversation_id, seq)", tableName));
+	}
+
+	@Override
+	protected String getAddSql() {
+		return H2_QUERY_ADD;
 	}
 
 }
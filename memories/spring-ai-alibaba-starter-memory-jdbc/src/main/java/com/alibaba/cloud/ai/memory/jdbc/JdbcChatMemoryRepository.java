@@ -15,21 +15,39 @@
  */
 package com.alibaba.cloud.ai.memory.jdbc;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.*;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Base class of the JDBC chat memory repositories.
+ * <p>
+ * Every message is stored as a row numbered by a {@code seq} column that grows
+ * monotonically within a conversation and is unique together with the conversation
+ * id. Saving a conversation only writes the messages that are not stored yet, through
+ * the dialect specific upsert returned by {@link #getAddSql()}, and drops the messages
+ * that fell out of the window with a single ranged DELETE on {@code seq}.
+ */
 public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 
 	public static final String TABLE_NAME = "ai_chat_memory";
@@ -39,20 +57,40 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 			""";
 
 	private static final String QUERY_ADD = """
-			INSERT INTO ai_chat_memory (conversation_id, content, type, "timestamp") VALUES (?, ?, ?, ?)
+			INSERT INTO ai_chat_memory (conversation_id, seq, content, type, "timestamp")
+			VALUES (:conversationId, :seq, :content, :type, :timestamp)
 			""";
 
 	private static final String QUERY_GET = """
-			SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY "timestamp"
+			SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY seq
+			""";
+
+	private static final String QUERY_GET_TAIL = """
+			SELECT seq, content, type FROM ai_chat_memory WHERE conversation_id = :conversationId ORDER BY seq DESC LIMIT :limit
 			""";
 
+	private static final String QUERY_TRIM = "DELETE FROM ai_chat_memory WHERE conversation_id = ? AND seq < ?";
+
 	private static final String QUERY_CLEAR = "DELETE FROM ai_chat_memory WHERE conversation_id = ?";
 
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final TypeReference<List<ToolResponseMessage.ToolResponse>> TOOL_RESPONSES_TYPE = new TypeReference<>() {
+	};
+
 	private final JdbcTemplate jdbcTemplate;
 
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
 	public JdbcChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		Assert.notNull(jdbcTemplate, "jdbcTemplate cannot be null");
+		Assert.notNull(jdbcTemplate.getDataSource(), "jdbcTemplate must have a dataSource");
 		this.jdbcTemplate = jdbcTemplate;
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.transactionTemplate = new TransactionTemplate(
+				new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
 		checkAndCreateTable();
 	}
 
@@ -60,6 +98,23 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 		if (!jdbcTemplate.query(hasTableSql(TABLE_NAME), ResultSet::next)) {
 			jdbcTemplate.execute(createTableSql(TABLE_NAME));
 		}
+		else if (!hasSeqColumn()) {
+			try {
+				for (String sql : migrateTableSql(TABLE_NAME)) {
+					jdbcTemplate.execute(sql);
+				}
+			}
+			catch (DataAccessException e) {
+				// Another instance starting at the same time may have migrated it first
+				if (!hasSeqColumn()) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	private boolean hasSeqColumn() {
+		return jdbcTemplate.query(hasColumnSql(TABLE_NAME, "seq"), ResultSet::next);
 	}
 
 	@Override
@@ -85,9 +140,47 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		Assert.notNull(messages, "messages cannot be null");
 		Assert.noNullElements(messages, "messages cannot contain null elements");
-		this.deleteByConversationId(conversationId);
-		this.jdbcTemplate.batchUpdate(getAddSql(),
-				new JdbcChatMemoryRepository.AddBatchPreparedStatement(conversationId, messages));
+		if (messages.isEmpty()) {
+			this.deleteByConversationId(conversationId);
+			return;
+		}
+		List<StoredMessage> incoming = messages.stream()
+			.map(message -> new StoredMessage(0, toContent(message), message.getMessageType().name()))
+			.toList();
+		this.transactionTemplate.executeWithoutResult(status -> {
+			// Only the last messages.size() stored rows can overlap the new conversation,
+			// older ones fell out of it
+			List<StoredMessage> tail = new ArrayList<>(this.namedParameterJdbcTemplate.query(getTailSql(),
+					new MapSqlParameterSource().addValue("conversationId", conversationId)
+						.addValue("limit", messages.size()),
+					(rs, i) -> new StoredMessage(rs.getLong(1), rs.getString(2), rs.getString(3))));
+			Collections.reverse(tail);
+
+			long nextSeq = tail.isEmpty() ? 0 : tail.get(tail.size() - 1).seq() + 1;
+			// Stored rows before this index fell out of the window, the rest are the
+			// leading messages of the new conversation
+			int drop = findOverlapStart(tail, incoming);
+			int kept = tail.size() - drop;
+			long keptFromSeq = kept > 0 ? tail.get(drop).seq() : nextSeq;
+
+			if (kept < incoming.size()) {
+				long now = Instant.now().toEpochMilli();
+				SqlParameterSource[] batch = new SqlParameterSource[incoming.size() - kept];
+				for (int i = kept; i < incoming.size(); i++) {
+					StoredMessage message = incoming.get(i);
+					batch[i - kept] = new MapSqlParameterSource().addValue("conversationId", conversationId)
+						.addValue("seq", nextSeq + i - kept)
+						.addValue("content", message.content())
+						.addValue("type", message.type())
+						.addValue("timestamp", new Timestamp(now + i));
+				}
+				this.namedParameterJdbcTemplate.batchUpdate(getAddSql(), batch);
+			}
+			// a full tail may have older rows before it
+			if (drop > 0 || tail.size() == messages.size()) {
+				this.jdbcTemplate.update(QUERY_TRIM, conversationId, keptFromSeq);
+			}
+		});
 	}
 
 	@Override
@@ -97,7 +190,10 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 	}
 
 	/**
-	 * Get the SQL statement used to add records
+	 * Get the SQL statement used to add records. It takes the named parameters
+	 * {@code conversationId}, {@code seq}, {@code content}, {@code type} and
+	 * {@code timestamp}, and should overwrite an existing row with the same conversation
+	 * id and sequence number so that a retried save does not fail.
 	 * @return SQL
 	 */
 	protected String getAddSql() {
@@ -112,27 +208,58 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 		return QUERY_GET;
 	}
 
-	private record AddBatchPreparedStatement(String conversationId, List<Message> messages,
-			AtomicLong instantSeq) implements BatchPreparedStatementSetter {
+	/**
+	 * Get the SQL statement reading the last stored rows of a conversation, newest first.
+	 * It takes the named parameters {@code conversationId} and {@code limit}, the
+	 * maximum number of rows.
+	 * @return SQL
+	 */
+	protected String getTailSql() {
+		return QUERY_GET_TAIL;
+	}
+
+	/**
+	 * Find the first stored row from which the stored messages are a prefix of the new
+	 * ones.
+	 * @param stored the last stored rows, oldest first
+	 * @param incoming the new messages
+	 * @return the number of stored rows to drop, all of them when none overlap
+	 */
+	private static int findOverlapStart(List<StoredMessage> stored, List<StoredMessage> incoming) {
+		int size = stored.size();
+		for (int k = Math.max(0, size - incoming.size()); k < size; k++) {
+			boolean match = true;
+			for (int i = 0; i < size - k; i++) {
+				if (!stored.get(k + i).sameContent(incoming.get(i))) {
+					match = false;
+					break;
+				}
+			}
+			if (match) {
+				return k;
+			}
+		}
+		return size;
+	}
 
-		private AddBatchPreparedStatement(String conversationId, List<Message> messages) {
-			this(conversationId, messages, new AtomicLong(Instant.now().toEpochMilli()));
+	private static String toContent(Message message) {
+		if (message instanceof ToolResponseMessage toolResponseMessage) {
+			try {
+				return OBJECT_MAPPER.writeValueAsString(toolResponseMessage.getResponses());
+			}
+			catch (JsonProcessingException e) {
+				throw new IllegalStateException("Failed to serialize tool responses", e);
+			}
 		}
+		return message.getText() != null ? message.getText() : "";
+	}
 
-		@Override
-		public void setValues(PreparedStatement ps, int i) throws SQLException {
-			var message = this.messages.get(i);
+	private record StoredMessage(long seq, String content, String type) {
 
-			ps.setString(1, this.conversationId);
-			ps.setString(2, message.getText());
-			ps.setString(3, message.getMessageType().name());
-			ps.setTimestamp(4, new Timestamp(instantSeq.getAndIncrement()));
+		boolean sameContent(StoredMessage other) {
+			return this.type.equals(other.type) && this.content.equals(other.content);
 		}
 
-		@Override
-		public int getBatchSize() {
-			return this.messages.size();
-		}
 	}
 
 	private static class MessageRowMapper implements RowMapper<Message> {
@@ -147,17 +274,44 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 				case USER -> new UserMessage(content);
 				case ASSISTANT -> new AssistantMessage(content);
 				case SYSTEM -> new SystemMessage(content);
-				// The content is always stored empty for ToolResponseMessages.
-				// If we want to capture the actual content, we need to extend
-				// AddBatchPreparedStatement to support it.
-				case TOOL -> ToolResponseMessage.builder().responses(List.of()).build();
+				case TOOL -> ToolResponseMessage.builder().responses(readToolResponses(content)).build();
 			};
 		}
 
+		private static List<ToolResponseMessage.ToolResponse> readToolResponses(String content) {
+			// Rows written by earlier versions store tool messages empty
+			if (!StringUtils.hasText(content)) {
+				return List.of();
+			}
+			try {
+				return OBJECT_MAPPER.readValue(content, TOOL_RESPONSES_TYPE);
+			}
+			catch (JsonProcessingException e) {
+				throw new IllegalStateException("Failed to deserialize tool responses", e);
+			}
+		}
+
 	}
 
 	protected abstract String hasTableSql(String tableName);
 
 	protected abstract String createTableSql(String tableName);
 
+	/**
+	 * Get the query returning a row only when the table has the given column.
+	 * @param tableName the table name
+	 * @param columnName the column name
+	 * @return SQL
+	 */
+	protected abstract String hasColumnSql(String tableName, String columnName);
+
+	/**
+	 * Get the statements that add the {@code seq} column to a table created by an
+	 * earlier version, number the existing rows in their insertion order and create
+	 * the unique index on {@code (conversation_id, seq)}.
+	 * @param tableName the table name
+	 * @return the statements, executed in order
+	 */
+	protected abstract List<String> migrateTableSql(String tableName);
+
 }
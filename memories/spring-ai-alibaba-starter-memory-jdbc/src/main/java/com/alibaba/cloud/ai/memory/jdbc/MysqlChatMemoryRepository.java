@@ -17,15 +17,18 @@ package com.alibaba.cloud.ai.memory.jdbc;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.List;
+
 /**
  * MySQL implementation of chat memory repository
  */
 public class MysqlChatMemoryRepository extends JdbcChatMemoryRepository {
 
-	// MySQL specific query statements
-	private static final String MYSQL_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES (?, ?, ?, ?)";
-
-	private static final String MYSQL_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp";
+	// MySQL specific query statements, the batch is sent as a single multi-row insert
+	// when the connection sets rewriteBatchedStatements=true
+	private static final String MYSQL_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, seq, content, type, timestamp) "
+			+ "VALUES (:conversationId, :seq, :content, :type, :timestamp) "
+			+ "ON DUPLICATE KEY UPDATE content = VALUES(content), type = VALUES(type), timestamp = VALUES(timestamp)";
 
 	private MysqlChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
@@ -61,20 +64,30 @@ public class MysqlChatMemoryRepository extends JdbcChatMemoryRepository {
 	protected String createTableSql(String tableName) {
 		return String.format(
 				"CREATE TABLE %s (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
-						+ "conversation_id VARCHAR(256) NOT NULL, content LONGTEXT NOT NULL, "
+						+ "conversation_id VARCHAR(256) NOT NULL, seq BIGINT NOT NULL, content LONGTEXT NOT NULL, "
 						+ "type VARCHAR(100) NOT NULL, timestamp TIMESTAMP NOT NULL, "
+						+ "CONSTRAINT uk_ai_chat_memory_seq UNIQUE (conversation_id, seq), "
 						+ "CONSTRAINT chk_message_type CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')))",
 				tableName);
 	}
 
 	@Override
-	protected String getAddSql() {
-		return MYSQL_QUERY_ADD;
+	protected String hasColumnSql(String tableName, String columnName) {
+		return String.format(
+				"SELECT column_name FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = '%s' AND column_name = '%s'",
+				tableName, columnName);
 	}
 
 	@Override
-	protected String getGetSql() {
-		return MYSQL_QUERY_GET;
+	protected List<String> migrateTableSql(String tableName) {
+		return List.of(String.format("ALTER TABLE %s ADD COLUMN seq BIGINT", tableName),
+				String.format("UPDATE %s SET seq = id", tableName),
+				String.format("CREATE UNIQUE INDEX uk_ai_chat_memory_seq ON %s (conversation_id, seq)", tableName));
+	}
+
+	@Override
+	protected String getAddSql() {
+		return MYSQL_QUERY_ADD;
 	}
 
 }
@@ -17,16 +17,25 @@ package com.alibaba.cloud.ai.memory.jdbc;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.List;
+
 /**
  * Oracle implementation of the chat memory repository
  */
 public class OracleChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	// Oracle specific query statement, not wrapping the 'timestamp' keyword with double
-	// quotes
-	private static final String ORACLE_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES (?, ?, ?, ?)";
-
-	private static final String ORACLE_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp";
+	// quotes. The content is only bound in the DML branches so that values longer than
+	// 4000 bytes can go to the CLOB column
+	private static final String ORACLE_QUERY_ADD = "MERGE INTO ai_chat_memory t "
+			+ "USING (SELECT :conversationId AS conversation_id, :seq AS seq FROM dual) s "
+			+ "ON (t.conversation_id = s.conversation_id AND t.seq = s.seq) "
+			+ "WHEN MATCHED THEN UPDATE SET t.content = :content, t.type = :type, t.timestamp = :timestamp "
+			+ "WHEN NOT MATCHED THEN INSERT (conversation_id, seq, content, type, timestamp) "
+			+ "VALUES (:conversationId, :seq, :content, :type, :timestamp)";
+
+	private static final String ORACLE_QUERY_GET_TAIL = "SELECT seq, content, type FROM ai_chat_memory WHERE conversation_id = :conversationId "
+			+ "ORDER BY seq DESC FETCH FIRST :limit ROWS ONLY";
 
 	private OracleChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
@@ -60,20 +69,35 @@ public class OracleChatMemoryRepository extends JdbcChatMemoryRepository {
 	protected String createTableSql(String tableName) {
 		return String.format(
 				"CREATE TABLE %s (id NUMBER(19) GENERATED ALWAYS AS IDENTITY PRIMARY KEY, "
-						+ "conversation_id VARCHAR2(256) NOT NULL, content CLOB NOT NULL, "
+						+ "conversation_id VARCHAR2(256) NOT NULL, seq NUMBER(19) NOT NULL, content CLOB NOT NULL, "
 						+ "type VARCHAR2(100) NOT NULL, timestamp TIMESTAMP NOT NULL, "
+						+ "CONSTRAINT uk_ai_chat_memory_seq UNIQUE (conversation_id, seq), "
 						+ "CONSTRAINT chk_message_type CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')))",
 				tableName);
 	}
 
 	@Override
-	protected String getAddSql() {
-		return ORACLE_QUERY_ADD;
+	protected String hasColumnSql(String tableName, String columnName) {
+		return String.format(
+				"SELECT column_name FROM all_tab_columns WHERE table_name = UPPER('%s') AND column_name = UPPER('%s')",
+				tableName, columnName);
 	}
 
 	@Override
-	protected String getGetSql() {
-		return ORACLE_QUERY_GET;
+	protected List<String> migrateTableSql(String tableName) {
+		return List.of(String.format("ALTER TABLE %s ADD (seq NUMBER(19))", tableName),
+				String.format("UPDATE %s SET seq = id", tableName),
+				String.format("CREATE UNIQUE INDEX uk_ai_chat_memory_seq ON %s (conversation_id, seq)", tableName));
+	}
+
+	@Override
+	protected String getTailSql() {
+		return ORACLE_QUERY_GET_TAIL;
+	}
+
+	@Override
+	protected String getAddSql() {
+		return ORACLE_QUERY_ADD;
 	}
 
 }
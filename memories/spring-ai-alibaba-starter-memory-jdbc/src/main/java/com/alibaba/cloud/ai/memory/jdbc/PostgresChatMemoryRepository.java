@@ -17,11 +17,14 @@ package com.alibaba.cloud.ai.memory.jdbc;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 
-public class PostgresChatMemoryRepository extends JdbcChatMemoryRepository {
+import java.util.List;
 
-	private static final String POSTGRES_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES (?, ?, ?, ?)";
+public class PostgresChatMemoryRepository extends JdbcChatMemoryRepository {
 
-	private static final String POSTGRES_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp";
+	private static final String POSTGRES_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, seq, content, type, timestamp) "
+			+ "VALUES (:conversationId, :seq, :content, :type, :timestamp) "
+			+ "ON CONFLICT (conversation_id, seq) DO UPDATE "
+			+ "SET content = EXCLUDED.content, type = EXCLUDED.type, timestamp = EXCLUDED.timestamp";
 
 	private PostgresChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
@@ -56,20 +59,30 @@ public class PostgresChatMemoryRepository extends JdbcChatMemoryRepository {
 	protected String createTableSql(String tableName) {
 		return String.format(
 				"CREATE TABLE %s (id BIGSERIAL PRIMARY KEY, "
-						+ "conversation_id VARCHAR(256) NOT NULL, content TEXT NOT NULL, "
+						+ "conversation_id VARCHAR(256) NOT NULL, seq BIGINT NOT NULL, content TEXT NOT NULL, "
 						+ "type VARCHAR(100) NOT NULL, timestamp TIMESTAMP NOT NULL, "
+						+ "CONSTRAINT uk_ai_chat_memory_seq UNIQUE (conversation_id, seq), "
 						+ "CONSTRAINT chk_message_type CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')))",
 				tableName);
 	}
 
 	@Override
-	protected String getAddSql() {
-		return POSTGRES_QUERY_ADD;
+	protected String hasColumnSql(String tableName, String columnName) {
+		return String.format(
+				"SELECT column_name FROM information_schema.columns WHERE table_name = '%s' AND column_name = '%s'",
+				tableName.toLowerCase(), columnName.toLowerCase());
 	}
 
 	@Override
-	protected String getGetSql() {
-		return POSTGRES_QUERY_GET;
+	protected List<String> migrateTableSql(String tableName) {
+		return List.of(String.format("ALTER TABLE %s ADD COLUMN seq BIGINT", tableName),
+				String.format("UPDATE %s SET seq = id", tableName),
+				String.format("CREATE UNIQUE INDEX uk_ai_chat_memory_seq ON %s (conversation_id, seq)", tableName));
+	}
+
+	@Override
+	protected String getAddSql() {
+		return POSTGRES_QUERY_ADD;
 	}
 
 }
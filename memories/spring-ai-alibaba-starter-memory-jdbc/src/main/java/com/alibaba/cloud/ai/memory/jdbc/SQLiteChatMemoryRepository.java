@@ -17,8 +17,15 @@ package com.alibaba.cloud.ai.memory.jdbc;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.List;
+
 public class SQLiteChatMemoryRepository extends JdbcChatMemoryRepository {
 
+	private static final String SQLITE_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, seq, content, type, timestamp) "
+			+ "VALUES (:conversationId, :seq, :content, :type, :timestamp) "
+			+ "ON CONFLICT (conversation_id, seq) DO UPDATE "
+			+ "SET content = excluded.content, type = excluded.type, timestamp = excluded.timestamp";
+
 	private SQLiteChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
 	}
@@ -49,9 +56,27 @@ public class SQLiteChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	@Override
 	protected String createTableSql(String tableName) {
-		return String.format("CREATE TABLE IF NOT EXISTS %s ( conversation_id TEXT NOT NULL,"
+		return String.format("CREATE TABLE IF NOT EXISTS %s ( conversation_id TEXT NOT NULL, seq INTEGER NOT NULL,"
 				+ "    content TEXT NOT NULL, type TEXT NOT NULL, timestamp REAL NOT NULL,"
+				+ "    UNIQUE (conversation_id, seq),"
 				+ "    CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')));", tableName);
 	}
 
+	@Override
+	protected String hasColumnSql(String tableName, String columnName) {
+		return String.format("SELECT name FROM pragma_table_info('%s') WHERE name = '%s'", tableName, columnName);
+	}
+
+	@Override
+	protected List<String> migrateTableSql(String tableName) {
+		return List.of(String.format("ALTER TABLE %s ADD COLUMN seq INTEGER", tableName),
+				String.format("UPDATE %s SET seq = rowid", tableName), String
+					.format("CREATE UNIQUE INDEX IF NOT EXISTS uk_ai_chat_memory_seq ON %s (conversation_id, seq)", tableName));
+	}
+
+	@Override
+	protected String getAddSql() {
+		return SQLITE_QUERY_ADD;
+	}
+
 }
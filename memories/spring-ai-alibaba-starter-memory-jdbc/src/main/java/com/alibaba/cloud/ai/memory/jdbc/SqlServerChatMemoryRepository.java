@@ -17,8 +17,21 @@ package com.alibaba.cloud.ai.memory.jdbc;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.List;
+
 public class SqlServerChatMemoryRepository extends JdbcChatMemoryRepository {
 
+	private static final String SQLSERVER_QUERY_ADD = "MERGE INTO ai_chat_memory WITH (HOLDLOCK) AS t "
+			+ "USING (VALUES (:conversationId, :seq, :content, :type, :timestamp)) "
+			+ "AS s (conversation_id, seq, content, type, timestamp) "
+			+ "ON t.conversation_id = s.conversation_id AND t.seq = s.seq "
+			+ "WHEN MATCHED THEN UPDATE SET content = s.content, type = s.type, timestamp = s.timestamp "
+			+ "WHEN NOT MATCHED THEN INSERT (conversation_id, seq, content, type, timestamp) "
+			+ "VALUES (s.conversation_id, s.seq, s.content, s.type, s.timestamp);";
+
+	private static final String SQLSERVER_QUERY_GET_TAIL = "SELECT TOP (:limit) seq, content, type FROM ai_chat_memory "
+			+ "WHERE conversation_id = :conversationId ORDER BY seq DESC";
+
 	private SqlServerChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
 	}
@@ -49,9 +62,36 @@ public class SqlServerChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	@Override
 	protected String createTableSql(String tableName) {
-		return String.format("CREATE TABLE %s ( conversation_id NVARCHAR(256) NOT NULL,"
+		return String.format("CREATE TABLE %s ( conversation_id NVARCHAR(256) NOT NULL, seq BIGINT NOT NULL,"
 				+ "    content NVARCHAR(MAX) NOT NULL, type VARCHAR(100) NOT NULL, timestamp DATETIME2 NOT NULL,"
+				+ "    CONSTRAINT uk_ai_chat_memory_seq UNIQUE (conversation_id, seq),"
 				+ "    CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')));", tableName);
 	}
 
+	@Override
+	protected String hasColumnSql(String tableName, String columnName) {
+		return String.format("SELECT name FROM sys.columns WHERE object_id = OBJECT_ID('%s') AND name = '%s';", tableName,
+				columnName);
+	}
+
+	@Override
+	protected List<String> migrateTableSql(String tableName) {
+		// The table has no identity column, so existing rows are numbered by timestamp
+		return List.of(String.format("ALTER TABLE %s ADD seq BIGINT", tableName), String.format(
+				"WITH numbered AS (SELECT seq, ROW_NUMBER() OVER (PARTITION BY conversation_id ORDER BY timestamp) AS rn FROM %s) "
+						+ "UPDATE numbered SET seq = rn",
+				tableName),
+				String.format("CREATE UNIQUE INDEX uk_ai_chat_memory_seq ON %s (conversation_id, seq)", tableName));
+	}
+
+	@Override
+	protected String getTailSql() {
+		return SQLSERVER_QUERY_GET_TAIL;
+	}
+
+	@Override
+	protected String getAddSql() {
+		return SQLSERVER_QUERY_ADD;
+	}
+
 }
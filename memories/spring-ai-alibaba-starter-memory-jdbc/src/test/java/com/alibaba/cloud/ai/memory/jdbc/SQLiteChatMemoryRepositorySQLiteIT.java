@@ -140,6 +140,44 @@ class SQLiteChatMemoryRepositorySQLiteIT {
 		assertThat(count).isZero();
 	}
 
+	@Test
+	void saveAllKeepsOverlappingMessagesInOrder() {
+		var conversationId = UUID.randomUUID().toString();
+		var first = new UserMessage("Message 1 from user - " + conversationId);
+		var second = new AssistantMessage("Message 1 from assistant - " + conversationId);
+		var third = new UserMessage("Message 2 from user - " + conversationId);
+		var fourth = new AssistantMessage("Message 2 from assistant - " + conversationId);
+
+		chatMemoryRepository.saveAll(conversationId, List.of(first, second));
+		chatMemoryRepository.saveAll(conversationId, List.of(first, second, third));
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).containsExactly(first, second, third);
+
+		// The window slides past the oldest message
+		chatMemoryRepository.saveAll(conversationId, List.of(second, third, fourth));
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).containsExactly(second, third, fourth);
+		var seqs = jdbcTemplate.queryForList("SELECT seq FROM ai_chat_memory WHERE conversation_id = ? ORDER BY seq",
+				Long.class, conversationId);
+		assertThat(seqs).containsExactly(1L, 2L, 3L);
+
+		// No overlap with the stored messages
+		chatMemoryRepository.saveAll(conversationId, List.of(first));
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).containsExactly(first);
+	}
+
+	@Test
+	void saveToolResponseMessage() {
+		var conversationId = UUID.randomUUID().toString();
+		var toolResponse = ToolResponseMessage.builder()
+			.responses(List.of(new ToolResponseMessage.ToolResponse("call-1", "weather", "{\"temperature\":20}")))
+			.build();
+
+		chatMemoryRepository.saveAll(conversationId, List.of(new UserMessage("What is the weather?"), toolResponse));
+
+		var results = chatMemoryRepository.findByConversationId(conversationId);
+		assertThat(results).hasSize(2);
+		assertThat(((ToolResponseMessage) results.get(1)).getResponses()).isEqualTo(toolResponse.getResponses());
+	}
+
 	@SpringBootConfiguration
 	@ImportAutoConfiguration({ DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class })
 	static class TestConfiguration {
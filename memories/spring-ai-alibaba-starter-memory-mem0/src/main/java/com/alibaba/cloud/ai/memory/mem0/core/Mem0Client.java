@@ -32,6 +32,8 @@ public class Mem0Client {
 
 	private AsyncConfig async = new AsyncConfig();
 
+	private WriteBehindConfig writeBehind = new WriteBehindConfig();
+
 	// 私有构造函数，防止直接实例化
 	private Mem0Client() {
 	}
@@ -43,6 +45,7 @@ public class Mem0Client {
 		this.timeoutSeconds = builder.timeoutSeconds;
 		this.maxRetryAttempts = builder.maxRetryAttempts;
 		this.async = builder.async;
+		this.writeBehind = builder.writeBehind;
 	}
 
 	public static class AsyncConfig {
@@ -99,6 +102,54 @@ public class Mem0Client {
 
 	}
 
+	/**
+	 * Settings of the queue that lets the memory store write added memories in the
+	 * background. Disabled by default, so memories are written before add returns.
+	 */
+	public static class WriteBehindConfig {
+
+		private boolean enabled = false;
+
+		private int queueCapacity = 1000;
+
+		private int maxBatchSize = 50;
+
+		private String threadName = "mem0-write-behind";
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public int getMaxBatchSize() {
+			return maxBatchSize;
+		}
+
+		public void setMaxBatchSize(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+		}
+
+		public String getThreadName() {
+			return threadName;
+		}
+
+		public void setThreadName(String threadName) {
+			this.threadName = threadName;
+		}
+
+	}
+
 
 	public AsyncConfig getAsync() {
 		return async;
@@ -108,6 +159,14 @@ public class Mem0Client {
 		this.async = async;
 	}
 
+	public WriteBehindConfig getWriteBehind() {
+		return writeBehind;
+	}
+
+	public void setWriteBehind(WriteBehindConfig writeBehind) {
+		this.writeBehind = writeBehind;
+	}
+
 	public static Builder builder() {
 		return new Builder();
 	}
@@ -156,6 +215,8 @@ public class Mem0Client {
 
 		private AsyncConfig async = new AsyncConfig();
 
+		private WriteBehindConfig writeBehind = new WriteBehindConfig();
+
 		private Builder() {
 		}
 
@@ -184,6 +245,11 @@ public class Mem0Client {
 			return this;
 		}
 
+		public Builder writeBehind(WriteBehindConfig writeBehind) {
+			this.writeBehind = writeBehind;
+			return this;
+		}
+
 		public Mem0Client build() {
 			return new Mem0Client(this);
 		}
@@ -24,12 +24,17 @@ import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -42,19 +47,36 @@ import static com.alibaba.cloud.ai.memory.mem0.advisor.Mem0ChatMemoryAdvisor.RUN
 import static com.alibaba.cloud.ai.memory.mem0.advisor.Mem0ChatMemoryAdvisor.USER_ID;
 
 /**
+ * Documents added to the store are merged into one Mem0 request per user/agent/run and
+ * metadata, with consecutive messages of the same role joined. When write-behind is
+ * enabled they are queued and sent by a background thread instead of on the caller's
+ * thread.
+ *
  * @author miaoyumeng
  * @since 2025/06/24 14:28
  */
-public class Mem0MemoryStore implements InitializingBean, VectorStore {
+public class Mem0MemoryStore implements InitializingBean, DisposableBean, VectorStore {
+
+	private static final String ROLE = "role";
 
 	private final Mem0ServiceClient mem0Client;
 
+	private final Mem0WriteBehindQueue writeBehindQueue;
+
 	private final ObjectMapper objectMapper;
 
 	private final Mem0FilterExpressionConverter mem0FilterExpressionConverter;
 
 	protected Mem0MemoryStore(Mem0ServiceClient client) {
+		this(client, null);
+	}
+
+	protected Mem0MemoryStore(Mem0ServiceClient client, Mem0Client.WriteBehindConfig writeBehind) {
 		this.mem0Client = client;
+		this.writeBehindQueue = writeBehind != null && writeBehind.isEnabled()
+				? new Mem0WriteBehindQueue(client, writeBehind.getQueueCapacity(), writeBehind.getMaxBatchSize(),
+						writeBehind.getThreadName())
+				: null;
 		this.mem0FilterExpressionConverter = new Mem0FilterExpressionConverter();
 		this.objectMapper = JsonMapper.builder().addModules(JacksonUtils.instantiateAvailableModules()).build();
 	}
@@ -70,22 +92,71 @@ public class Mem0MemoryStore implements InitializingBean, VectorStore {
 
 	@Override
 	public void add(List<Document> documents) {
-		// TODO 将role相同的message合并
-		List<Mem0ServerRequest.MemoryCreate> messages = documents.stream()
-				.map(doc -> Mem0ServerRequest.MemoryCreate.builder()
-						.messages(
-								List.of(new Mem0ServerRequest.Message(doc.getMetadata().get("role")
-										.toString(), doc.getText())))
-						.metadata(doc.getMetadata())
-						.agentId(doc.getMetadata().containsKey(AGENT_ID) ? doc.getMetadata().get(AGENT_ID)
-								.toString() : null)
-						.runId(doc.getMetadata().containsKey(RUN_ID) ? doc.getMetadata().get(RUN_ID).toString() : null)
-						.userId(doc.getMetadata().containsKey(USER_ID) ? doc.getMetadata().get(USER_ID)
-								.toString() : null)
-						.build())
-				.toList();
-		// TODO 增加异步方式
-		messages.forEach(mem0Client::addMemory);
+		if (writeBehindQueue != null) {
+			writeBehindQueue.add(documents);
+		}
+		else {
+			mergeByScope(documents).forEach(mem0Client::addMemory);
+		}
+	}
+
+	/**
+	 * Wait until the memories queued so far have been written to Mem0. Returns
+	 * immediately when write-behind is disabled.
+	 * @param timeout the maximum time to wait
+	 * @return whether all queued memories were written within the timeout
+	 */
+	public boolean flush(Duration timeout) {
+		return writeBehindQueue == null || writeBehindQueue.flush(timeout);
+	}
+
+	/**
+	 * Send the memories still queued before the store is discarded.
+	 */
+	@Override
+	public void destroy() {
+		if (writeBehindQueue != null) {
+			writeBehindQueue.close();
+		}
+	}
+
+	/**
+	 * Merge documents into one request per user/agent/run and metadata, keeping their
+	 * order and joining consecutive messages of the same role. Documents whose metadata
+	 * differs apart from the role are sent in separate requests, so each keeps its own.
+	 */
+	static List<Mem0ServerRequest.MemoryCreate> mergeByScope(List<Document> documents) {
+		Map<Map<String, Object>, List<Document>> byScope = new LinkedHashMap<>();
+		for (Document doc : documents) {
+			Map<String, Object> metadata = new HashMap<>(doc.getMetadata());
+			metadata.remove(ROLE);
+			byScope.computeIfAbsent(metadata, key -> new ArrayList<>()).add(doc);
+		}
+		return byScope.entrySet().stream().map(entry -> {
+			List<Mem0ServerRequest.Message> messages = new ArrayList<>();
+			for (Document doc : entry.getValue()) {
+				String role = doc.getMetadata().get(ROLE).toString();
+				Mem0ServerRequest.Message last = messages.isEmpty() ? null : messages.get(messages.size() - 1);
+				if (last != null && Objects.equals(last.getRole(), role)) {
+					last.setContent(last.getContent() + System.lineSeparator() + doc.getText());
+				}
+				else {
+					messages.add(new Mem0ServerRequest.Message(role, doc.getText()));
+				}
+			}
+			Map<String, Object> metadata = new HashMap<>(entry.getKey());
+			return Mem0ServerRequest.MemoryCreate.builder()
+					.messages(messages)
+					.metadata(metadata)
+					.userId(metadataValue(metadata, USER_ID))
+					.agentId(metadataValue(metadata, AGENT_ID))
+					.runId(metadataValue(metadata, RUN_ID))
+					.build();
+		}).toList();
+	}
+
+	private static String metadataValue(Map<String, Object> metadata, String key) {
+		return metadata.containsKey(key) ? metadata.get(key).toString() : null;
 	}
 
 	@Override
@@ -174,12 +245,23 @@ public class Mem0MemoryStore implements InitializingBean, VectorStore {
 
 		private final Mem0ServiceClient client;
 
+		private Mem0Client.WriteBehindConfig writeBehind;
+
 		public Mem0MemoryStoreBuilder(Mem0ServiceClient client) {
 			this.client = client;
 		}
 
+		/**
+		 * Queue added documents and write them in the background when the given
+		 * configuration is enabled.
+		 */
+		public Mem0MemoryStoreBuilder writeBehind(Mem0Client.WriteBehindConfig writeBehind) {
+			this.writeBehind = writeBehind;
+			return this;
+		}
+
 		public Mem0MemoryStore build() {
-			return new Mem0MemoryStore(client);
+			return new Mem0MemoryStore(client, writeBehind);
 		}
 
 	}
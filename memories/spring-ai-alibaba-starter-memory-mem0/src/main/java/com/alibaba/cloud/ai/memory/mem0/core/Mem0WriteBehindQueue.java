@@ -0,0 +1,210 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.mem0.core;
+
+import com.alibaba.cloud.ai.memory.mem0.model.Mem0ServerRequest;
+
+import org.springframework.ai.document.Document;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded write-behind queue for Mem0 memories.
+ *
+ * A single flusher thread drains whatever has been queued, up to the batch size, and
+ * sends one merged request per user/agent/run through
+ * {@link Mem0ServiceClient#addMemoryAsync}, waiting for all of them before draining
+ * again. Producers wait a bounded time for free capacity and otherwise fall back to
+ * writing on their own thread, so a slow Mem0 server slows callers down instead of
+ * losing memories.
+ */
+class Mem0WriteBehindQueue implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(Mem0WriteBehindQueue.class);
+
+	private static final long POLL_INTERVAL_MILLIS = 100;
+
+	private static final Duration OFFER_TIMEOUT = Duration.ofSeconds(1);
+
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+	private final Mem0ServiceClient mem0Client;
+
+	private final BlockingQueue<Document> queue;
+
+	private final int maxBatchSize;
+
+	private final Thread flusher;
+
+	private final Object progressMonitor = new Object();
+
+	private long enqueued;
+
+	private long completed;
+
+	private volatile boolean running = true;
+
+	Mem0WriteBehindQueue(Mem0ServiceClient mem0Client, int capacity, int maxBatchSize, String threadName) {
+		Assert.isTrue(capacity > 0, "capacity must be positive");
+		Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be positive");
+		this.mem0Client = mem0Client;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.maxBatchSize = maxBatchSize;
+		this.flusher = new Thread(this::drainLoop, threadName);
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	/**
+	 * Queue the documents, writing the ones that find no capacity within the offer
+	 * timeout synchronously.
+	 */
+	void add(List<Document> documents) {
+		List<Document> overflow = new ArrayList<>();
+		for (Document document : documents) {
+			if (!offer(document)) {
+				overflow.add(document);
+			}
+		}
+		if (!overflow.isEmpty()) {
+			logger.warn("Mem0 write-behind queue is full, writing {} memories synchronously", overflow.size());
+			Mem0MemoryStore.mergeByScope(overflow).forEach(mem0Client::addMemory);
+		}
+	}
+
+	private boolean offer(Document document) {
+		if (!running) {
+			return false;
+		}
+		synchronized (progressMonitor) {
+			enqueued++;
+		}
+		try {
+			if (queue.offer(document, OFFER_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		markCompleted(1);
+		return false;
+	}
+
+	/**
+	 * Block until every document queued before this call has been sent.
+	 * @return whether the queue caught up within the timeout
+	 */
+	boolean flush(Duration timeout) {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		synchronized (progressMonitor) {
+			long target = enqueued;
+			while (completed < target) {
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remaining <= 0 || !flusher.isAlive()) {
+					return false;
+				}
+				try {
+					progressMonitor.wait(remaining);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Stop accepting documents and send the ones still queued.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		try {
+			flusher.join(SHUTDOWN_TIMEOUT.toMillis());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (!queue.isEmpty()) {
+			logger.warn("Mem0 write-behind queue closed with {} unsent memories", queue.size());
+		}
+	}
+
+	private void drainLoop() {
+		List<Document> batch = new ArrayList<>(maxBatchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				Document first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, maxBatchSize - 1);
+				send(batch);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (RuntimeException e) {
+				logger.error("Failed to write {} memories to Mem0: {}", batch.size(), e.getMessage(), e);
+			}
+			finally {
+				markCompleted(batch.size());
+				batch.clear();
+			}
+		}
+	}
+
+	private void send(List<Document> batch) {
+		List<Mem0ServerRequest.MemoryCreate> requests = Mem0MemoryStore.mergeByScope(batch);
+		List<CompletableFuture<Void>> futures = requests.stream().map(mem0Client::addMemoryAsync).toList();
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				futures.get(i).join();
+			}
+			catch (RuntimeException e) {
+				logger.error("Failed to write {} messages to Mem0: {}", requests.get(i).getMessages().size(),
+						e.getMessage(), e);
+			}
+		}
+		logger.debug("Wrote {} memories to Mem0 in {} requests", batch.size(), requests.size());
+	}
+
+	private void markCompleted(int count) {
+		if (count == 0) {
+			return;
+		}
+		synchronized (progressMonitor) {
+			completed += count;
+			progressMonitor.notifyAll();
+		}
+	}
+
+}
@@ -22,13 +22,16 @@ import com.alibaba.cloud.ai.memory.mem0.model.Mem0ServerResp;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.filter.Filter;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -38,6 +41,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -228,4 +232,114 @@ class Mem0MemoryStoreTest {
 		verify(mem0Client, never()).deleteMemory(anyString());
 	}
 
+	@Test
+	void testAddMergesDocumentsOfSameScope() {
+		// Given
+		List<Document> documents = List.of(document("user", "hello", "test-user"),
+				document("assistant", "hi", "test-user"), document("assistant", "how can I help?", "test-user"));
+
+		// When
+		memoryStore.add(documents);
+
+		// Then
+		ArgumentCaptor<Mem0ServerRequest.MemoryCreate> captor = ArgumentCaptor
+			.forClass(Mem0ServerRequest.MemoryCreate.class);
+		verify(mem0Client, times(1)).addMemory(captor.capture());
+		Mem0ServerRequest.MemoryCreate request = captor.getValue();
+		assertThat(request.getUserId()).isEqualTo("test-user");
+		assertThat(request.getMessages()).extracting(Mem0ServerRequest.Message::getRole)
+			.containsExactly("user", "assistant");
+		assertThat(request.getMessages().get(1).getContent())
+			.isEqualTo("hi" + System.lineSeparator() + "how can I help?");
+		assertThat(request.getMetadata()).doesNotContainKey("role");
+	}
+
+	@Test
+	void testAddKeepsDifferingMetadataApart() {
+		// Given
+		Document first = new Document("hello",
+				Map.of("role", "user", Mem0ChatMemoryAdvisor.USER_ID, "test-user", "topic", "greeting"));
+		Document second = new Document("hi",
+				Map.of("role", "assistant", Mem0ChatMemoryAdvisor.USER_ID, "test-user", "topic", "reply"));
+
+		// When
+		memoryStore.add(List.of(first, second));
+
+		// Then
+		ArgumentCaptor<Mem0ServerRequest.MemoryCreate> captor = ArgumentCaptor
+			.forClass(Mem0ServerRequest.MemoryCreate.class);
+		verify(mem0Client, times(2)).addMemory(captor.capture());
+		assertThat(captor.getAllValues()).extracting(request -> request.getMetadata().get("topic"))
+			.containsExactly("greeting", "reply");
+		assertThat(captor.getAllValues()).allSatisfy(request -> assertThat(request.getMessages()).hasSize(1));
+	}
+
+	@Test
+	void testWriteBehindDisabledByDefault() {
+		// Given
+		Mem0MemoryStore store = Mem0MemoryStore.builder(mem0Client)
+			.writeBehind(new Mem0Client.WriteBehindConfig())
+			.build();
+
+		// When
+		store.add(List.of(document("user", "hello", "test-user")));
+
+		// Then
+		verify(mem0Client, times(1)).addMemory(any(Mem0ServerRequest.MemoryCreate.class));
+		verify(mem0Client, never()).addMemoryAsync(any(Mem0ServerRequest.MemoryCreate.class));
+	}
+
+	@Test
+	void testWriteBehindSendsInBackground() {
+		// Given
+		Mem0Client.WriteBehindConfig writeBehind = new Mem0Client.WriteBehindConfig();
+		writeBehind.setEnabled(true);
+		Mem0MemoryStore store = Mem0MemoryStore.builder(mem0Client).writeBehind(writeBehind).build();
+		when(mem0Client.addMemoryAsync(any(Mem0ServerRequest.MemoryCreate.class)))
+			.thenReturn(CompletableFuture.completedFuture(null));
+
+		try {
+			// When
+			store.add(List.of(document("user", "hello", "user-1"), document("user", "hello", "user-2")));
+
+			// Then
+			assertThat(store.flush(Duration.ofSeconds(5))).isTrue();
+			verify(mem0Client, times(2)).addMemoryAsync(any(Mem0ServerRequest.MemoryCreate.class));
+			verify(mem0Client, never()).addMemory(any(Mem0ServerRequest.MemoryCreate.class));
+		}
+		finally {
+			store.destroy();
+		}
+	}
+
+	@Test
+	void testDestroySendsQueuedMemories() {
+		// Given
+		CompletableFuture<Void> pending = new CompletableFuture<>();
+		Mem0Client.WriteBehindConfig writeBehind = new Mem0Client.WriteBehindConfig();
+		writeBehind.setEnabled(true);
+		Mem0MemoryStore store = Mem0MemoryStore.builder(mem0Client).writeBehind(writeBehind).build();
+		when(mem0Client.addMemoryAsync(any(Mem0ServerRequest.MemoryCreate.class))).thenReturn(pending)
+			.thenReturn(CompletableFuture.completedFuture(null));
+		store.add(List.of(document("user", "first", "test-user")));
+		verify(mem0Client, timeout(5000)).addMemoryAsync(any(Mem0ServerRequest.MemoryCreate.class));
+		store.add(List.of(document("user", "second", "test-user")));
+		assertThat(store.flush(Duration.ofMillis(200))).isFalse();
+
+		// When
+		pending.complete(null);
+		store.destroy();
+
+		// Then
+		verify(mem0Client, times(2)).addMemoryAsync(any(Mem0ServerRequest.MemoryCreate.class));
+		verify(mem0Client, never()).addMemory(any(Mem0ServerRequest.MemoryCreate.class));
+	}
+
+	private static Document document(String role, String text, String userId) {
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put("role", role);
+		metadata.put(Mem0ChatMemoryAdvisor.USER_ID, userId);
+		return new Document(text, metadata);
+	}
+
 }
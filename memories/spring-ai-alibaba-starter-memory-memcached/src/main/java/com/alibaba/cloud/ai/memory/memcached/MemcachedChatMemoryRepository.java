@@ -15,23 +15,31 @@
  */
 package com.alibaba.cloud.ai.memory.memcached;
 
-import com.alibaba.cloud.ai.memory.memcached.serializer.MessageDeserializer;
+import com.alibaba.cloud.ai.memory.common.serializer.JsonMessageCodec;
+import com.alibaba.cloud.ai.memory.common.serializer.MessageCodec;
 import com.alibaba.cloud.ai.toolcalling.memcached.MemcachedService;
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.databind.module.SimpleModule;
+import net.spy.memcached.CASResponse;
+import net.spy.memcached.CASValue;
+import net.spy.memcached.MemcachedClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.util.Assert;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * Memcached implementation of ChatMemoryRepository auth: dahua
@@ -42,22 +50,48 @@ public class MemcachedChatMemoryRepository implements ChatMemoryRepository, Auto
 
 	private final MemcachedService memcachedService;
 
-	private final ObjectMapper objectMapper;
+	private final MessageCodec messageCodec;
 
 	private static final String DEFAULT_CONVERSATION = "spring_ai_alibaba_chat_memory_conversation";
 
 	private static final String DEFAULT_KEY_PREFIX = "spring_ai_alibaba_chat_memory:";
 
+	/**
+	 * Default number of keys the conversation index is sharded across.
+	 */
+	public static final int DEFAULT_INDEX_SHARDS = 16;
+
+	private static final int MAX_CAS_RETRIES = 16;
+
+	/**
+	 * How long the ids of an index shard read or written by this repository are trusted
+	 * to skip re-indexing a conversation that is saved again.
+	 */
+	private static final long SHARD_SNAPSHOT_TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+	private final int indexShards;
+
+	private final Map<String, ShardSnapshot> shardSnapshots = new ConcurrentHashMap<>();
+
 	public MemcachedChatMemoryRepository(MemcachedService memcachedService) {
+		this(memcachedService, new JsonMessageCodec());
+	}
+
+	public MemcachedChatMemoryRepository(MemcachedService memcachedService, MessageCodec messageCodec) {
+		this(memcachedService, messageCodec, DEFAULT_INDEX_SHARDS);
+	}
+
+	/**
+	 * @param memcachedService the memcached service
+	 * @param messageCodec the codec for stored messages
+	 * @param indexShards number of keys the conversation index is sharded across
+	 */
+	public MemcachedChatMemoryRepository(MemcachedService memcachedService, MessageCodec messageCodec,
+			int indexShards) {
+		Assert.isTrue(indexShards > 0, "indexShards must be positive");
 		this.memcachedService = memcachedService;
-		this.objectMapper = JsonMapper.builder()
-			.configure(MapperFeature.AUTO_DETECT_GETTERS, false)
-			.configure(MapperFeature.AUTO_DETECT_IS_GETTERS, false)
-			.visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
-			.build();
-		SimpleModule module = new SimpleModule();
-		module.addDeserializer(Message.class, new MessageDeserializer());
-		this.objectMapper.registerModule(module);
+		this.messageCodec = messageCodec;
+		this.indexShards = indexShards;
 	}
 
 	@Override
@@ -67,8 +101,22 @@ public class MemcachedChatMemoryRepository implements ChatMemoryRepository, Auto
 
 	@Override
 	public List<String> findConversationIds() {
-		return (List<String>) this.memcachedService.getter()
-			.apply(new MemcachedService.MemcachedServiceGetter.Request(DEFAULT_CONVERSATION));
+		List<String> shardKeys = new ArrayList<>(indexShards + 1);
+		for (int shard = 0; shard < indexShards; shard++) {
+			shardKeys.add(indexShardKey(shard));
+		}
+		// ids indexed before sharding still live in the single legacy key
+		shardKeys.add(DEFAULT_CONVERSATION);
+		Map<String, Object> shards = memcachedService.getMemcachedClient().getBulk(shardKeys);
+		Set<String> conversationIds = new LinkedHashSet<>();
+		for (String shardKey : shardKeys) {
+			Object shard = shards.get(shardKey);
+			if (shard instanceof Collection<?> ids) {
+				ids.forEach(id -> conversationIds.add((String) id));
+				rememberShard(shardKey, ids);
+			}
+		}
+		return new ArrayList<>(conversationIds);
 	}
 
 	@Override
@@ -76,35 +124,25 @@ public class MemcachedChatMemoryRepository implements ChatMemoryRepository, Auto
 		Object apply = this.memcachedService.getter()
 			.apply(new MemcachedService.MemcachedServiceGetter.Request(DEFAULT_KEY_PREFIX + conversationId));
 		if (apply != null) {
-			List<String> messageList = (List<String>) apply;
-			return messageList.stream().map(messageStr -> {
-				try {
-					return objectMapper.readValue(messageStr, Message.class);
-				}
-				catch (JsonProcessingException e) {
-					throw new RuntimeException("Error deserializing message", e);
-				}
-			}).toList();
+			// conversations written before the codec was introduced hold JSON strings
+			List<?> messageList = (List<?>) apply;
+			return messageList.stream()
+				.map(stored -> stored instanceof String json ? json.getBytes(StandardCharsets.UTF_8) : (byte[]) stored)
+				.map(messageCodec::decode)
+				.filter(Objects::nonNull)
+				.toList();
 		}
 		return List.of();
 	}
 
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
-		List<String> conversationIds = findConversationIds() == null ? new ArrayList<>() : findConversationIds();
-		// 保障消息顺序
-		conversationIds.remove(conversationId);
-		conversationIds.add(conversationId);
-		this.memcachedService.setter()
-			.apply(new MemcachedService.MemcachedServiceSetter.Request(DEFAULT_CONVERSATION, conversationIds, 0));
-		List<String> serializingMessage = messages.stream().map(message -> {
-			try {
-				return this.objectMapper.writeValueAsString(message);
-			}
-			catch (JsonProcessingException e) {
-				throw new RuntimeException("Error serializing message", e);
-			}
-		}).toList();
+		String shardKey = indexShardKey(conversationId);
+		ShardSnapshot snapshot = shardSnapshots.get(shardKey);
+		if (snapshot == null || !snapshot.isFresh() || !snapshot.ids().contains(conversationId)) {
+			updateIndex(shardKey, conversationId, true);
+		}
+		List<byte[]> serializingMessage = messages.stream().map(messageCodec::encode).collect(Collectors.toList());
 		this.memcachedService.setter()
 			.apply(new MemcachedService.MemcachedServiceSetter.Request(DEFAULT_KEY_PREFIX + conversationId,
 					serializingMessage, 0));
@@ -112,14 +150,92 @@ public class MemcachedChatMemoryRepository implements ChatMemoryRepository, Auto
 
 	@Override
 	public void deleteByConversationId(String conversationId) {
-		List<String> conversationIds = findConversationIds();
-		conversationIds.remove(conversationId);
-		this.memcachedService.setter()
-			.apply(new MemcachedService.MemcachedServiceSetter.Request(DEFAULT_CONVERSATION, conversationIds, 0));
+		updateIndex(indexShardKey(conversationId), conversationId, false);
+		updateIndex(DEFAULT_CONVERSATION, conversationId, false);
 		this.memcachedService.deleter()
 			.apply(new MemcachedService.MemcachedServiceDeleter.Request(DEFAULT_KEY_PREFIX + conversationId));
 	}
 
+	private String indexShardKey(String conversationId) {
+		return indexShardKey(Math.floorMod(conversationId.hashCode(), indexShards));
+	}
+
+	private String indexShardKey(int shard) {
+		return DEFAULT_CONVERSATION + ":" + shard;
+	}
+
+	/**
+	 * Add or remove a conversation id in an index shard with gets/cas, retrying on
+	 * concurrent modification. Nothing is written when the shard already reflects the
+	 * change. Saves skip this call entirely while the shard this repository last read or
+	 * wrote, within the snapshot TTL, holds the id. A delete made by another instance in
+	 * that time can therefore leave a conversation saved here unlisted until its next
+	 * save after the snapshot expired.
+	 */
+	private void updateIndex(String shardKey, String conversationId, boolean present) {
+		MemcachedClient client = memcachedService.getMemcachedClient();
+		try {
+			for (int attempt = 0; attempt < MAX_CAS_RETRIES; attempt++) {
+				CASValue<Object> current = client.gets(shardKey);
+				if (current == null) {
+					shardSnapshots.remove(shardKey);
+					if (!present) {
+						return;
+					}
+					List<String> ids = new ArrayList<>(List.of(conversationId));
+					if (client.add(shardKey, 0, ids).get()) {
+						rememberShard(shardKey, ids);
+						return;
+					}
+					continue;
+				}
+				List<String> ids = new ArrayList<>();
+				((Collection<?>) current.getValue()).forEach(id -> ids.add((String) id));
+				if (ids.contains(conversationId) == present) {
+					rememberShard(shardKey, ids);
+					return;
+				}
+				if (present) {
+					ids.add(conversationId);
+				}
+				else {
+					ids.remove(conversationId);
+				}
+				if (client.cas(shardKey, current.getCas(), 0, ids) == CASResponse.OK) {
+					rememberShard(shardKey, ids);
+					return;
+				}
+			}
+			shardSnapshots.remove(shardKey);
+			logger.warn("Gave up updating conversation index {} for {} after {} attempts", shardKey, conversationId,
+					MAX_CAS_RETRIES);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.warn("Interrupted while updating conversation index {} for {}", shardKey, conversationId);
+		}
+		catch (Exception e) {
+			logger.error("Update conversation index {} for {} failed", shardKey, conversationId, e);
+		}
+	}
+
+	private void rememberShard(String shardKey, Collection<?> ids) {
+		Set<String> snapshot = new HashSet<>();
+		ids.forEach(id -> snapshot.add((String) id));
+		shardSnapshots.put(shardKey, new ShardSnapshot(snapshot, System.nanoTime()));
+	}
+
+	/**
+	 * The ids of an index shard as last read or written by this repository.
+	 */
+	private record ShardSnapshot(Set<String> ids, long readAt) {
+
+		boolean isFresh() {
+			return System.nanoTime() - readAt < SHARD_SNAPSHOT_TTL_NANOS;
+		}
+
+	}
+
 	public void clearOverLimit(String conversationId, int maxLimit, int deleteSize) {
 		final int finalDeleteSize = deleteSize > maxLimit ? maxLimit : deleteSize;
 		List<Message> messages = findByConversationId(conversationId);
@@ -37,6 +37,7 @@ import org.testcontainers.utility.DockerImageName;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -154,6 +155,19 @@ class MemcachedChatMemoryRepositoryTest {
 		assertThat(results).isEmpty();
 	}
 
+	@Test
+	void concurrentSavesAreAllIndexed() {
+		var conversationIds = IntStream.range(0, 32).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+		conversationIds.parallelStream()
+			.forEach(id -> chatMemoryRepository.saveAll(id, List.of(new UserMessage("Message - " + id))));
+
+		assertThat(chatMemoryRepository.findConversationIds()).containsAll(conversationIds);
+
+		conversationIds.forEach(chatMemoryRepository::deleteByConversationId);
+		assertThat(chatMemoryRepository.findConversationIds()).doesNotContainAnyElementsOf(conversationIds);
+	}
+
 	@Test
 	void clearOverLimit() {
 		var conversationId = UUID.randomUUID().toString();
@@ -15,13 +15,19 @@
  */
 package com.alibaba.cloud.ai.memory.mongodb;
 
+import com.alibaba.cloud.ai.memory.common.MessageDigests;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoCredential;
 import com.mongodb.ServerAddress;
+import com.mongodb.MongoCommandException;
 import com.mongodb.client.*;
+import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
 import io.micrometer.common.util.StringUtils;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -31,16 +37,34 @@ import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.*;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Projections.include;
 import static com.mongodb.client.model.Sorts.ascending;
+import static com.mongodb.client.model.Sorts.descending;
 import static com.mongodb.client.model.Sorts.orderBy;
+import static com.mongodb.client.model.Updates.set;
 
 /**
- * MongoDB implementation of ChatMemoryRepository
+ * MongoDB implementation of ChatMemoryRepository.
+ * <p>
+ * Every message is stored as its own document keyed by {@code conversationId:seq},
+ * where {@code seq} grows monotonically within a conversation. Saving a conversation
+ * only upserts the messages that are not stored yet and drops the ones that fell out
+ * of the window with a range delete on {@code seq}, so the write volume is
+ * proportional to the change rather than to the conversation length.
  */
 public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCloseable {
 
@@ -56,6 +80,20 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 
 	private static final String TIMESTAMP_FIELD = "timestamp";
 
+	private static final String SEQ_FIELD = "seq";
+
+	private static final String DIGEST_FIELD = "digest";
+
+	private static final String LAST_ACTIVITY_FIELD = "lastActivity";
+
+	private static final String TTL_INDEX_NAME = "lastActivity_ttl";
+
+	/**
+	 * Fraction of the time-to-live after which the activity time of stored messages is
+	 * refreshed, bounding the refresh writes to a few per time-to-live period.
+	 */
+	private static final int TTL_REFRESH_DIVISOR = 10;
+
 	private final MongoClient mongoClient;
 
 	private final MongoCollection<Document> collection;
@@ -64,8 +102,22 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 
 	private final String databaseName;
 
+	private final Duration timeToLive;
+
 	public MongoDBChatMemoryRepository(MongoClient mongoClient, String databaseName) {
+		this(mongoClient, databaseName, null);
+	}
+
+	/**
+	 * @param mongoClient the client
+	 * @param databaseName the database holding the chat memory collection
+	 * @param timeToLive how long a conversation may stay idle before MongoDB expires
+	 * it, {@code null} to keep conversations until they are deleted
+	 */
+	public MongoDBChatMemoryRepository(MongoClient mongoClient, String databaseName, Duration timeToLive) {
+		Assert.isTrue(timeToLive == null || timeToLive.toSeconds() > 0, "timeToLive must be at least one second");
 		this.databaseName = databaseName;
+		this.timeToLive = timeToLive;
 		this.objectMapper = new ObjectMapper();
 		this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 		try {
@@ -84,8 +136,16 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 	}
 
 	private void createIndexesIfNotExists() {
-		collection.createIndex(Indexes.ascending(CONVERSATION_ID_FIELD, TIMESTAMP_FIELD));
-		collection.createIndex(Indexes.ascending(CONVERSATION_ID_FIELD));
+		collection.createIndex(Indexes.ascending(CONVERSATION_ID_FIELD, SEQ_FIELD));
+		if (timeToLive != null) {
+			try {
+				collection.createIndex(Indexes.ascending(LAST_ACTIVITY_FIELD),
+						new IndexOptions().name(TTL_INDEX_NAME).expireAfter(timeToLive.toSeconds(), TimeUnit.SECONDS));
+			}
+			catch (MongoCommandException e) {
+				logger.warn("Could not create TTL index {}, keeping the existing one", TTL_INDEX_NAME, e);
+			}
+		}
 	}
 
 	public void recreateCollection() {
@@ -112,9 +172,12 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 	public List<Message> findByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		try {
-			logger.info("Finding messages for conversation: {}", conversationId);
+			logger.debug("Finding messages for conversation: {}", conversationId);
 			Bson filter = eq(CONVERSATION_ID_FIELD, conversationId);
-			FindIterable<Document> documents = collection.find(filter).sort(orderBy(ascending(TIMESTAMP_FIELD)));
+			// Documents written before sequence numbers were introduced have no seq, they
+			// come first and in the order they were written
+			FindIterable<Document> documents = collection.find(filter)
+				.sort(orderBy(ascending(SEQ_FIELD), ascending(TIMESTAMP_FIELD)));
 
 			List<Message> messages = new ArrayList<>();
 			for (Document doc : documents) {
@@ -123,7 +186,7 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 					messages.add(message);
 				}
 			}
-			logger.info("Found {} messages for conversation: {}", messages.size(), conversationId);
+			logger.debug("Found {} messages for conversation: {}", messages.size(), conversationId);
 			return messages;
 		}
 		catch (Exception e) {
@@ -137,15 +200,54 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		Assert.notNull(messages, "messages cannot be null");
 		Assert.noNullElements(messages, "messages cannot contain null elements");
-		try {
+		if (messages.isEmpty()) {
 			deleteByConversationId(conversationId);
-			List<Document> documents = messages.stream()
-				.map(message -> messageToDocument(conversationId, message))
-				.collect(Collectors.toList());
-			if (!documents.isEmpty()) {
-				collection.insertMany(documents);
-				logger.info("Successfully saved {} messages for conversation {}", messages.size(), conversationId);
+			return;
+		}
+		try {
+			// Only the last messages.size() stored documents can overlap the new
+			// conversation, older ones fell out of it
+			List<Document> tail = collection.find(eq(CONVERSATION_ID_FIELD, conversationId))
+				.projection(include(SEQ_FIELD, DIGEST_FIELD))
+				.sort(orderBy(descending(SEQ_FIELD), descending(TIMESTAMP_FIELD)))
+				.limit(messages.size())
+				.into(new ArrayList<>());
+			Collections.reverse(tail);
+			List<String> digests = messages.stream().map(MessageDigests::digest).toList();
+
+			long nextSeq = tail.stream()
+				.map(doc -> doc.getLong(SEQ_FIELD))
+				.filter(Objects::nonNull)
+				.max(Long::compare)
+				.map(seq -> seq + 1)
+				.orElse(0L);
+			int drop = findOverlapStart(tail, digests);
+			int kept = tail.size() - drop;
+			long keptFromSeq = kept > 0 ? tail.get(drop).getLong(SEQ_FIELD) : nextSeq;
+
+			Date now = new Date();
+			List<WriteModel<Document>> writes = new ArrayList<>(messages.size() - kept);
+			for (int i = kept; i < messages.size(); i++) {
+				long seq = nextSeq + i - kept;
+				Document doc = messageToDocument(conversationId, seq, messages.get(i), digests.get(i), now);
+				writes.add(new ReplaceOneModel<>(eq("_id", doc.getString("_id")), doc,
+						new ReplaceOptions().upsert(true)));
+			}
+			if (!writes.isEmpty()) {
+				collection.bulkWrite(writes);
+			}
+			// a full tail may have older documents before it
+			if (drop > 0 || tail.size() == messages.size()) {
+				collection.deleteMany(and(eq(CONVERSATION_ID_FIELD, conversationId),
+						or(lt(SEQ_FIELD, keptFromSeq), exists(SEQ_FIELD, false))));
 			}
+			if (timeToLive != null && kept > 0) {
+				Date staleBefore = new Date(now.getTime() - timeToLive.toMillis() / TTL_REFRESH_DIVISOR);
+				collection.updateMany(
+						and(eq(CONVERSATION_ID_FIELD, conversationId), lt(LAST_ACTIVITY_FIELD, staleBefore)),
+						set(LAST_ACTIVITY_FIELD, now));
+			}
+			logger.debug("Saved {} new messages for conversation {}", writes.size(), conversationId);
 		}
 		catch (Exception e) {
 			logger.error("Error saving messages", e);
@@ -169,16 +271,31 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		try {
 			Bson filter = eq(CONVERSATION_ID_FIELD, conversationId);
-			FindIterable<Document> documents = collection.find(filter).sort(orderBy(ascending(TIMESTAMP_FIELD)));
-			List<Document> messages = documents.into(new ArrayList<>());
-			if (messages.size() >= maxLimit) {
+			if (collection.countDocuments(filter) < maxLimit) {
+				return;
+			}
+			Document boundary = collection.find(filter)
+				.projection(include(SEQ_FIELD))
+				.sort(orderBy(ascending(SEQ_FIELD), ascending(TIMESTAMP_FIELD)))
+				.skip(deleteSize)
+				.limit(1)
+				.first();
+			if (boundary == null) {
 				deleteByConversationId(conversationId);
-				if (deleteSize < messages.size()) {
-					List<Document> messagesToKeep = messages.subList(deleteSize, messages.size());
-					if (!messagesToKeep.isEmpty()) {
-						collection.insertMany(messagesToKeep);
-					}
-				}
+			}
+			else if (boundary.getLong(SEQ_FIELD) != null) {
+				collection.deleteMany(and(filter,
+						or(lt(SEQ_FIELD, boundary.getLong(SEQ_FIELD)), exists(SEQ_FIELD, false))));
+			}
+			else {
+				// Conversation written before sequence numbers were introduced
+				List<Object> ids = collection.find(filter)
+					.projection(include("_id"))
+					.sort(orderBy(ascending(SEQ_FIELD), ascending(TIMESTAMP_FIELD)))
+					.limit(deleteSize)
+					.map(doc -> doc.get("_id"))
+					.into(new ArrayList<>());
+				collection.deleteMany(in("_id", ids));
 			}
 		}
 		catch (Exception e) {
@@ -218,15 +335,43 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 		}
 	}
 
-	private Document messageToDocument(String conversationId, Message message) {
+	private Document messageToDocument(String conversationId, long seq, Message message, String digest, Date now) {
 		Document doc = new Document();
+		doc.put("_id", conversationId + ":" + seq);
 		doc.put(CONVERSATION_ID_FIELD, conversationId);
+		doc.put(SEQ_FIELD, seq);
 		doc.put(MESSAGE_TYPE_FIELD, message.getMessageType().toString());
 		doc.put(MESSAGE_TEXT_FIELD, message.getText());
-		doc.put(TIMESTAMP_FIELD, System.currentTimeMillis());
+		doc.put(DIGEST_FIELD, digest);
+		doc.put(TIMESTAMP_FIELD, now.getTime());
+		doc.put(LAST_ACTIVITY_FIELD, now);
 		return doc;
 	}
 
+	/**
+	 * Find the first stored document from which the stored digests are a prefix of the
+	 * new ones.
+	 * @param stored the last stored documents, oldest first
+	 * @param digests the digests of the new messages
+	 * @return the number of stored documents to drop, all of them when none overlap
+	 */
+	private static int findOverlapStart(List<Document> stored, List<String> digests) {
+		int size = stored.size();
+		for (int k = Math.max(0, size - digests.size()); k < size; k++) {
+			boolean match = true;
+			for (int i = 0; i < size - k; i++) {
+				if (!Objects.equals(stored.get(k + i).getString(DIGEST_FIELD), digests.get(i))) {
+					match = false;
+					break;
+				}
+			}
+			if (match) {
+				return k;
+			}
+		}
+		return size;
+	}
+
 	public static class MongoDBBuilder {
 
 		private String host = "127.0.0.1";
@@ -241,6 +386,8 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 
 		private String databaseName = "spring_ai";
 
+		private Duration timeToLive;
+
 		public MongoDBBuilder host(String host) {
 			this.host = host;
 			return this;
@@ -271,6 +418,15 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 			return this;
 		}
 
+		/**
+		 * Expire conversations that have been idle for the given duration through a TTL
+		 * index, disabled by default.
+		 */
+		public MongoDBBuilder timeToLive(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+			return this;
+		}
+
 		public MongoDBChatMemoryRepository build() {
 			ServerAddress serverAddress = new ServerAddress(host, port);
 			MongoClientSettings.Builder build = MongoClientSettings.builder();
@@ -283,7 +439,7 @@ public class MongoDBChatMemoryRepository implements ChatMemoryRepository, AutoCl
 				.applyToClusterSettings(builder -> builder.hosts(List.of(serverAddress)))
 				.build();
 			MongoClient mongoClient = MongoClients.create(settings);
-			return new MongoDBChatMemoryRepository(mongoClient, databaseName);
+			return new MongoDBChatMemoryRepository(mongoClient, databaseName, timeToLive);
 		}
 
 	}
@@ -16,6 +16,10 @@
 package mongodb;
 
 import com.alibaba.cloud.ai.memory.mongodb.MongoDBChatMemoryRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -176,6 +180,57 @@ class MongoDBChatMemoryRepositoryIT {
 		assertThat(savedMessages.get(2).getText()).isEqualTo(messages.get(4).getText());
 	}
 
+	@Test
+	void saveAllKeepsOverlappingMessagesInOrder() {
+		var conversationId = UUID.randomUUID().toString();
+		var first = new UserMessage("Message 1 from user - " + conversationId);
+		var second = new AssistantMessage("Message 1 from assistant - " + conversationId);
+		var third = new UserMessage("Message 2 from user - " + conversationId);
+		var fourth = new AssistantMessage("Message 2 from assistant - " + conversationId);
+
+		chatMemoryRepository.saveAll(conversationId, List.of(first, second));
+		chatMemoryRepository.saveAll(conversationId, List.of(first, second, third));
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).containsExactly(first, second, third);
+
+		// The window slides past the oldest message
+		chatMemoryRepository.saveAll(conversationId, List.of(second, third, fourth));
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).containsExactly(second, third, fourth);
+
+		// No overlap with the stored messages
+		chatMemoryRepository.saveAll(conversationId, List.of(first));
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).containsExactly(first);
+
+		chatMemoryRepository.saveAll(conversationId, List.of());
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).isEmpty();
+	}
+
+	@Test
+	void legacyDocumentsWithoutSeqComeFirstInWriteOrder() {
+		var conversationId = UUID.randomUUID().toString();
+		try (MongoClient mongoClient = MongoClients.create(mongoDBContainer.getConnectionString())) {
+			MongoCollection<Document> collection = mongoClient.getDatabase("spring_ai").getCollection("chat_memory");
+			// Inserted out of order, the timestamps tell the order they were written in
+			collection.insertOne(legacyDocument(conversationId, "Legacy message 2", 2000L));
+			collection.insertOne(legacyDocument(conversationId, "Legacy message 1", 1000L));
+			collection.insertOne(legacyDocument(conversationId, "Legacy message 3", 3000L));
+			collection.insertOne(legacyDocument(conversationId, "New message", 4000L).append("seq", 0L)
+				.append("_id", conversationId + ":0"));
+		}
+
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).extracting(Message::getText)
+			.containsExactly("Legacy message 1", "Legacy message 2", "Legacy message 3", "New message");
+
+		((MongoDBChatMemoryRepository) chatMemoryRepository).clearOverLimit(conversationId, 3, 2);
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).extracting(Message::getText)
+			.containsExactly("Legacy message 3", "New message");
+	}
+
+	private static Document legacyDocument(String conversationId, String text, long timestamp) {
+		return new Document("conversationId", conversationId).append("messageType", "USER")
+			.append("messageText", text)
+			.append("timestamp", timestamp);
+	}
+
 	@SpringBootConfiguration
 	static class TestConfiguration {
 
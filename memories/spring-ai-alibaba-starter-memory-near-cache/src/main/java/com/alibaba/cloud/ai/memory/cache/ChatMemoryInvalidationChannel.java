@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts conversation changes between near caches that share one backend.
+ *
+ * Implementations deliver a published conversation id to the listeners of every other
+ * instance, but not back to the publishing instance, whose own cache is already up to
+ * date.
+ */
+public interface ChatMemoryInvalidationChannel extends AutoCloseable {
+
+	/**
+	 * Tell the other instances that the conversation changed.
+	 */
+	void publish(String conversationId);
+
+	/**
+	 * Register a listener for conversations changed by other instances.
+	 */
+	void subscribe(Consumer<String> listener);
+
+	@Override
+	default void close() {
+	}
+
+}
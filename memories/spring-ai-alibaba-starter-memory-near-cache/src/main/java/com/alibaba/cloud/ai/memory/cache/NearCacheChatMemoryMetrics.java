@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Binds the {@link NearCacheChatMemoryRepository.Stats} of a near cache to Micrometer,
+ * following the naming of Micrometer's own cache metrics.
+ */
+public class NearCacheChatMemoryMetrics implements MeterBinder {
+
+	private final NearCacheChatMemoryRepository repository;
+
+	private final Tags tags;
+
+	public NearCacheChatMemoryMetrics(NearCacheChatMemoryRepository repository, String cacheName) {
+		this.repository = repository;
+		this.tags = Tags.of(Tag.of("cache", cacheName));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("cache.gets", repository, cache -> cache.stats().hits())
+			.tags(tags)
+			.tag("result", "hit")
+			.description("Conversations answered from the near cache")
+			.register(registry);
+		FunctionCounter.builder("cache.gets", repository, cache -> cache.stats().misses())
+			.tags(tags)
+			.tag("result", "miss")
+			.description("Conversations loaded from the backing repository")
+			.register(registry);
+		FunctionCounter.builder("cache.evictions", repository, cache -> cache.stats().evictions())
+			.tags(tags)
+			.description("Conversations evicted to stay within the weight bound")
+			.register(registry);
+		FunctionCounter.builder("cache.invalidations", repository, cache -> cache.stats().invalidations())
+			.tags(tags)
+			.description("Cached conversations dropped because they changed")
+			.register(registry);
+		Gauge.builder("cache.size", repository, cache -> cache.stats().size())
+			.tags(tags)
+			.description("Number of cached conversations")
+			.register(registry);
+		Gauge.builder("cache.weight", repository, cache -> cache.stats().weight())
+			.tags(tags)
+			.description("Approximate number of cached characters")
+			.register(registry);
+		Gauge.builder("cache.hit.ratio", repository, cache -> cache.stats().hitRate())
+			.tags(tags)
+			.description("Share of lookups answered from the near cache")
+			.register(registry);
+	}
+
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps recently used conversations of a remote {@link ChatMemoryRepository} in local
+ * memory.
+ *
+ * The cache is bounded by an approximate weight, the number of characters of message
+ * text plus a fixed per-message overhead, and evicts the least recently used
+ * conversations first. Local writes replace the cached conversation after the backend
+ * accepted them, or drop it when write-through is disabled or the write failed. When an
+ * {@link ChatMemoryInvalidationChannel} is configured, every local change is broadcast
+ * so that the other instances drop their copy, and changes made elsewhere are dropped
+ * from this cache.
+ *
+ * A load or a write that overlaps another write or an invalidation is not cached, so a
+ * slow read, or a write that reaches the cache after a later one, can never put an older
+ * conversation back into the cache.
+ */
+public class NearCacheChatMemoryRepository implements ChatMemoryRepository {
+
+	private static final Logger logger = LoggerFactory.getLogger(NearCacheChatMemoryRepository.class);
+
+	public static final long DEFAULT_MAX_WEIGHT = 8 * 1024 * 1024;
+
+	/**
+	 * Weight added for every message on top of its text, covering the object and
+	 * metadata overhead.
+	 */
+	static final int MESSAGE_OVERHEAD = 64;
+
+	private final ChatMemoryRepository delegate;
+
+	private final long maxWeight;
+
+	private final long expireAfterWriteNanos;
+
+	private final boolean writeThrough;
+
+	private final ChatMemoryInvalidationChannel invalidationChannel;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long weight;
+
+	private long version;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private final LongAdder invalidations = new LongAdder();
+
+	private NearCacheChatMemoryRepository(Builder builder) {
+		Assert.notNull(builder.delegate, "delegate cannot be null");
+		Assert.isTrue(builder.maxWeight > 0, "maxWeight must be positive");
+		Assert.isTrue(builder.expireAfterWrite == null || !builder.expireAfterWrite.isNegative(),
+				"expireAfterWrite cannot be negative");
+		this.delegate = builder.delegate;
+		this.maxWeight = builder.maxWeight;
+		this.expireAfterWriteNanos = builder.expireAfterWrite != null ? builder.expireAfterWrite.toNanos() : 0;
+		this.writeThrough = builder.writeThrough;
+		this.invalidationChannel = builder.invalidationChannel;
+		if (this.invalidationChannel != null) {
+			this.invalidationChannel.subscribe(this::onRemoteChange);
+		}
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public List<String> findConversationIds() {
+		return delegate.findConversationIds();
+	}
+
+	@Override
+	public List<Message> findByConversationId(String conversationId) {
+		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		long loadVersion;
+		lock.lock();
+		try {
+			Entry entry = entries.get(conversationId);
+			if (entry != null && !isExpired(entry)) {
+				hits.increment();
+				return entry.messages;
+			}
+			if (entry != null) {
+				remove(conversationId);
+			}
+			loadVersion = version;
+		}
+		finally {
+			lock.unlock();
+		}
+		misses.increment();
+		List<Message> messages = List.copyOf(delegate.findByConversationId(conversationId));
+		lock.lock();
+		try {
+			if (loadVersion == version) {
+				put(conversationId, messages);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		return messages;
+	}
+
+	@Override
+	public void saveAll(String conversationId, List<Message> messages) {
+		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		long writeVersion;
+		lock.lock();
+		try {
+			writeVersion = version;
+		}
+		finally {
+			lock.unlock();
+		}
+		try {
+			delegate.saveAll(conversationId, messages);
+		}
+		catch (RuntimeException e) {
+			invalidate(conversationId);
+			throw e;
+		}
+		lock.lock();
+		try {
+			boolean overlapped = writeVersion != version;
+			version++;
+			if (writeThrough && !overlapped) {
+				put(conversationId, List.copyOf(messages));
+			}
+			else {
+				remove(conversationId);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		publish(conversationId);
+	}
+
+	@Override
+	public void deleteByConversationId(String conversationId) {
+		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		try {
+			delegate.deleteByConversationId(conversationId);
+		}
+		finally {
+			invalidate(conversationId);
+			publish(conversationId);
+		}
+	}
+
+	/**
+	 * Drop the cached copy of a conversation, for example after it was changed directly
+	 * in the backend.
+	 */
+	public void invalidate(String conversationId) {
+		lock.lock();
+		try {
+			version++;
+			if (remove(conversationId)) {
+				invalidations.increment();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Drop every cached conversation.
+	 */
+	public void invalidateAll() {
+		lock.lock();
+		try {
+			version++;
+			invalidations.add(entries.size());
+			entries.clear();
+			weight = 0;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public Stats stats() {
+		lock.lock();
+		try {
+			return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), entries.size(), weight);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void onRemoteChange(String conversationId) {
+		logger.debug("Conversation {} changed on another instance, dropping the cached copy", conversationId);
+		invalidate(conversationId);
+	}
+
+	private void publish(String conversationId) {
+		if (invalidationChannel == null) {
+			return;
+		}
+		try {
+			invalidationChannel.publish(conversationId);
+		}
+		catch (RuntimeException e) {
+			logger.warn("Failed to publish invalidation for conversation {}: {}", conversationId, e.getMessage());
+		}
+	}
+
+	private boolean isExpired(Entry entry) {
+		return expireAfterWriteNanos > 0 && System.nanoTime() - entry.writtenAt >= expireAfterWriteNanos;
+	}
+
+	private void put(String conversationId, List<Message> messages) {
+		long entryWeight = weigh(messages);
+		remove(conversationId);
+		if (entryWeight > maxWeight) {
+			return;
+		}
+		entries.put(conversationId, new Entry(messages, entryWeight, System.nanoTime()));
+		weight += entryWeight;
+		Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+		while (weight > maxWeight && eldest.hasNext()) {
+			weight -= eldest.next().getValue().weight;
+			eldest.remove();
+			evictions.increment();
+		}
+	}
+
+	private boolean remove(String conversationId) {
+		Entry removed = entries.remove(conversationId);
+		if (removed == null) {
+			return false;
+		}
+		weight -= removed.weight;
+		return true;
+	}
+
+	static long weigh(List<Message> messages) {
+		long total = 0;
+		for (Message message : messages) {
+			String text = message.getText();
+			total += MESSAGE_OVERHEAD + (text != null ? text.length() : 0);
+		}
+		return total;
+	}
+
+	private record Entry(List<Message> messages, long weight, long writtenAt) {
+	}
+
+	/**
+	 * Point-in-time cache statistics.
+	 *
+	 * @param hits lookups answered from the cache
+	 * @param misses lookups that went to the backend
+	 * @param evictions conversations dropped to stay within the weight bound
+	 * @param invalidations cached conversations dropped because they changed
+	 * @param size the number of cached conversations
+	 * @param weight the current weight of the cache
+	 */
+	public record Stats(long hits, long misses, long evictions, long invalidations, long size, long weight) {
+
+		public double hitRate() {
+			long requests = hits + misses;
+			return requests == 0 ? 1.0 : (double) hits / requests;
+		}
+
+	}
+
+	public static class Builder {
+
+		private ChatMemoryRepository delegate;
+
+		private long maxWeight = DEFAULT_MAX_WEIGHT;
+
+		private Duration expireAfterWrite;
+
+		private boolean writeThrough = true;
+
+		private ChatMemoryInvalidationChannel invalidationChannel;
+
+		private Builder() {
+		}
+
+		public Builder delegate(ChatMemoryRepository delegate) {
+			this.delegate = delegate;
+			return this;
+		}
+
+		/**
+		 * Upper bound of the cache weight, roughly the number of cached characters.
+		 */
+		public Builder maxWeight(long maxWeight) {
+			this.maxWeight = maxWeight;
+			return this;
+		}
+
+		/**
+		 * Drop conversations this long after they were loaded or written, as a safety net
+		 * for changes that are not broadcast.
+		 */
+		public Builder expireAfterWrite(Duration expireAfterWrite) {
+			this.expireAfterWrite = expireAfterWrite;
+			return this;
+		}
+
+		/**
+		 * Whether a successful save replaces the cached conversation. Disable it for
+		 * backends that store something other than the given messages, for example by
+		 * trimming them to a window.
+		 */
+		public Builder writeThrough(boolean writeThrough) {
+			this.writeThrough = writeThrough;
+			return this;
+		}
+
+		public Builder invalidationChannel(ChatMemoryInvalidationChannel invalidationChannel) {
+			this.invalidationChannel = invalidationChannel;
+			return this;
+		}
+
+		public NearCacheChatMemoryRepository build() {
+			return new NearCacheChatMemoryRepository(this);
+		}
+
+	}
+
+}
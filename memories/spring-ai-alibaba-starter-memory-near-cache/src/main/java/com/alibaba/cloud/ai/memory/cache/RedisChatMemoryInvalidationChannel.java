@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.cache;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link ChatMemoryInvalidationChannel} over Redis pub/sub.
+ *
+ * Every message is the publishing instance id and the conversation id separated by a
+ * colon, so each instance can skip its own changes.
+ */
+public class RedisChatMemoryInvalidationChannel implements ChatMemoryInvalidationChannel, MessageListener {
+
+	public static final String DEFAULT_TOPIC = "spring_ai_alibaba_chat_memory:invalidation";
+
+	private static final char SEPARATOR = ':';
+
+	private final String ownPrefix = UUID.randomUUID().toString() + SEPARATOR;
+
+	private final String topic;
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final RedisMessageListenerContainer listenerContainer;
+
+	private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+	public RedisChatMemoryInvalidationChannel(RedisConnectionFactory connectionFactory) {
+		this(connectionFactory, DEFAULT_TOPIC);
+	}
+
+	public RedisChatMemoryInvalidationChannel(RedisConnectionFactory connectionFactory, String topic) {
+		Assert.notNull(connectionFactory, "connectionFactory cannot be null");
+		Assert.hasText(topic, "topic cannot be null or empty");
+		this.topic = topic;
+		this.redisTemplate = new StringRedisTemplate(connectionFactory);
+		this.listenerContainer = new RedisMessageListenerContainer();
+		this.listenerContainer.setConnectionFactory(connectionFactory);
+		this.listenerContainer.addMessageListener(this, new ChannelTopic(topic));
+		this.listenerContainer.afterPropertiesSet();
+		this.listenerContainer.start();
+	}
+
+	@Override
+	public void publish(String conversationId) {
+		redisTemplate.convertAndSend(topic, ownPrefix + conversationId);
+	}
+
+	@Override
+	public void subscribe(Consumer<String> listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+		int separator = body.indexOf(SEPARATOR);
+		if (separator < 0 || body.startsWith(ownPrefix)) {
+			return;
+		}
+		String conversationId = body.substring(separator + 1);
+		listeners.forEach(listener -> listener.accept(conversationId));
+	}
+
+	@Override
+	public void close() {
+		listenerContainer.stop();
+		try {
+			listenerContainer.destroy();
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Failed to stop the invalidation listener", e);
+		}
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link NearCacheChatMemoryRepository}.
+ */
+class NearCacheChatMemoryRepositoryTest {
+
+	private ChatMemoryRepository delegate;
+
+	@BeforeEach
+	void setUp() {
+		delegate = spy(new InMemoryChatMemoryRepository());
+	}
+
+	@Test
+	void repeatedReadsAreServedFromCache() {
+		delegate.saveAll("c1", List.of(new UserMessage("hello")));
+		NearCacheChatMemoryRepository repository = NearCacheChatMemoryRepository.builder().delegate(delegate).build();
+
+		repository.findByConversationId("c1");
+		List<Message> messages = repository.findByConversationId("c1");
+
+		assertThat(messages).extracting(Message::getText).containsExactly("hello");
+		verify(delegate, times(1)).findByConversationId("c1");
+		assertThat(repository.stats().hits()).isEqualTo(1);
+		assertThat(repository.stats().misses()).isEqualTo(1);
+		assertThat(repository.stats().hitRate()).isEqualTo(0.5);
+	}
+
+	@Test
+	void saveAllReplacesCachedConversation() {
+		NearCacheChatMemoryRepository repository = NearCacheChatMemoryRepository.builder().delegate(delegate).build();
+		repository.findByConversationId("c1");
+
+		repository.saveAll("c1", List.of(new UserMessage("hello"), new AssistantMessage("hi")));
+
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("hello", "hi");
+		verify(delegate, times(1)).findByConversationId("c1");
+	}
+
+	@Test
+	void saveAllWithoutWriteThroughDropsCachedConversation() {
+		NearCacheChatMemoryRepository repository = NearCacheChatMemoryRepository.builder()
+			.delegate(delegate)
+			.writeThrough(false)
+			.build();
+		repository.findByConversationId("c1");
+
+		repository.saveAll("c1", List.of(new UserMessage("hello")));
+
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("hello");
+		verify(delegate, times(2)).findByConversationId("c1");
+	}
+
+	@Test
+	void saveOverlappingLaterSaveDropsCachedConversation() {
+		NearCacheChatMemoryRepository repository = NearCacheChatMemoryRepository.builder().delegate(delegate).build();
+		doAnswer(invocation -> {
+			invocation.callRealMethod();
+			// A later save completes before this one reaches the cache.
+			repository.saveAll("c1", List.of(new UserMessage("second")));
+			return null;
+		}).doCallRealMethod().when(delegate).saveAll(anyString(), anyList());
+
+		repository.saveAll("c1", List.of(new UserMessage("first")));
+
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("second");
+		verify(delegate, times(1)).findByConversationId("c1");
+	}
+
+	@Test
+	void failedSaveDropsCachedConversation() {
+		delegate.saveAll("c1", List.of(new UserMessage("hello")));
+		NearCacheChatMemoryRepository repository = NearCacheChatMemoryRepository.builder().delegate(delegate).build();
+		repository.findByConversationId("c1");
+		doThrow(new IllegalStateException("unavailable")).when(delegate).saveAll(anyString(), anyList());
+
+		assertThatThrownBy(() -> repository.saveAll("c1", List.of(new UserMessage("lost"))))
+			.isInstanceOf(IllegalStateException.class);
+
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText).containsExactly("hello");
+		verify(delegate, times(2)).findByConversationId("c1");
+	}
+
+	@Test
+	void deleteDropsCachedConversation() {
+		delegate.saveAll("c1", List.of(new UserMessage("hello")));
+		NearCacheChatMemoryRepository repository = NearCacheChatMemoryRepository.builder().delegate(delegate).build();
+		repository.findByConversationId("c1");
+
+		repository.deleteByConversationId("c1");
+
+		assertThat(repository.findByConversationId("c1")).isEmpty();
+		assertThat(repository.stats().size()).isEqualTo(1);
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedConversationsOverWeight() {
+		long conversationWeight = NearCacheChatMemoryRepository.MESSAGE_OVERHEAD + 10;
+		NearCacheChatMemoryRepository repository = NearCacheChatMemoryRepository.builder()
+			.delegate(delegate)
+			.maxWeight(conversationWeight * 2)
+			.build();
+		repository.saveAll("c1", List.of(new UserMessage("0123456789")));
+		repository.saveAll("c2", List.of(new UserMessage("0123456789")));
+		repository.findByConversationId("c1");
+
+		repository.saveAll("c3", List.of(new UserMessage("0123456789")));
+
+		assertThat(repository.stats().evictions()).isEqualTo(1);
+		assertThat(repository.stats().weight()).isEqualTo(conversationWeight * 2);
+		repository.findByConversationId("c1");
+		repository.findByConversationId("c2");
+		verify(delegate, times(0)).findByConversationId("c1");
+		verify(delegate, times(1)).findByConversationId("c2");
+	}
+
+	@Test
+	void remoteChangesInvalidateAndLocalChangesArePublished() {
+		RecordingChannel channel = new RecordingChannel();
+		NearCacheChatMemoryRepository repository = NearCacheChatMemoryRepository.builder()
+			.delegate(delegate)
+			.invalidationChannel(channel)
+			.build();
+		repository.saveAll("c1", List.of(new UserMessage("hello")));
+		assertThat(channel.published).containsExactly("c1");
+
+		delegate.saveAll("c1", List.of(new UserMessage("changed elsewhere")));
+		channel.listener.accept("c1");
+
+		assertThat(repository.findByConversationId("c1")).extracting(Message::getText)
+			.containsExactly("changed elsewhere");
+		assertThat(repository.stats().invalidations()).isEqualTo(1);
+	}
+
+	@Test
+	void metricsExposeHitsAndMisses() {
+		NearCacheChatMemoryRepository repository = NearCacheChatMemoryRepository.builder().delegate(delegate).build();
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		new NearCacheChatMemoryMetrics(repository, "chat-memory").bindTo(registry);
+
+		repository.findByConversationId("c1");
+		repository.findByConversationId("c1");
+
+		assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+		verify(delegate, times(0)).saveAll(anyString(), any());
+	}
+
+	private static class RecordingChannel implements ChatMemoryInvalidationChannel {
+
+		private final List<String> published = new ArrayList<>();
+
+		private Consumer<String> listener;
+
+		@Override
+		public void publish(String conversationId) {
+			published.add(conversationId);
+		}
+
+		@Override
+		public void subscribe(Consumer<String> listener) {
+			this.listener = listener;
+		}
+
+	}
+
+}
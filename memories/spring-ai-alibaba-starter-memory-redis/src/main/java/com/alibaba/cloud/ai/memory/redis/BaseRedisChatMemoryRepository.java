@@ -15,18 +15,21 @@
  */
 package com.alibaba.cloud.ai.memory.redis;
 
-import com.alibaba.cloud.ai.memory.redis.serializer.MessageDeserializer;
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.alibaba.cloud.ai.memory.common.MessageDigests;
+import com.alibaba.cloud.ai.memory.common.serializer.JsonMessageCodec;
+import com.alibaba.cloud.ai.memory.common.serializer.MessageCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Base class for Redis-based chat memory repositories
@@ -42,39 +45,370 @@ public abstract class BaseRedisChatMemoryRepository implements ChatMemoryReposit
 
     protected static String CUSTOM_KEY_PREFIX;
 
-	protected final ObjectMapper objectMapper;
+	/**
+	 * Suffix of the sorted set indexing conversation ids by last-activity time.
+	 */
+	protected static final String INDEX_KEY_SUFFIX = "__conversation_index__";
+
+	/**
+	 * Suffix of the marker written once the index has been backfilled from a SCAN.
+	 */
+	protected static final String INDEX_READY_SUFFIX = ":ready";
+
+	/**
+	 * COUNT hint for SCAN and batch size for index backfill.
+	 */
+	protected static final int SCAN_BATCH_SIZE = 1000;
+
+	/**
+	 * Infix between the index key and the conversation key of the list holding one hash
+	 * per stored message, kept in step with the message list.
+	 */
+	protected static final String HASHES_KEY_INFIX = ":hashes:";
+
+	/**
+	 * Persists a conversation as a delta against the stored list. KEYS[1] is the message
+	 * list and KEYS[2] the parallel list of message hashes. ARGV[1] is the window size (0
+	 * for unbounded), ARGV[2] the stored tail hash the caller observed, ARGV[3] the
+	 * number of stored messages to keep, followed by the new messages and then their
+	 * hashes. The script drops the stored elements before the kept ones, appends the new
+	 * messages and trims to the window, so readers never observe an empty or partial
+	 * list. Returns the number of appended messages, or -1 when the stored lists no longer
+	 * match what the caller observed.
+	 */
+	protected static final String APPEND_MESSAGES_LUA = """
+			local window = tonumber(ARGV[1])
+			local keep = tonumber(ARGV[3])
+			local size = redis.call('LLEN', KEYS[1])
+			if redis.call('LLEN', KEYS[2]) ~= size or size < keep then
+			  return -1
+			end
+			if size > 0 and redis.call('LINDEX', KEYS[2], -1) ~= ARGV[2] then
+			  return -1
+			end
+			local count = (#ARGV - 3) / 2
+			for k = 1, 2 do
+			  if keep == 0 then
+			    redis.call('DEL', KEYS[k])
+			  elseif keep < size then
+			    redis.call('LTRIM', KEYS[k], size - keep, -1)
+			  end
+			  local first = 4 + (k - 1) * count
+			  local last = first + count - 1
+			  for i = first, last, 1000 do
+			    redis.call('RPUSH', KEYS[k], unpack(ARGV, i, math.min(i + 999, last)))
+			  end
+			  if window > 0 and keep + count > window then
+			    redis.call('LTRIM', KEYS[k], -window, -1)
+			  end
+			end
+			return count
+			""";
+
+	/**
+	 * Replaces the stored conversation. KEYS[1] is the message list and the optional
+	 * KEYS[2] the list of message hashes. ARGV[1] is the window size (0 for unbounded),
+	 * followed by the encoded messages and, with two keys, their hashes. Used when the
+	 * stored lists cannot be appended to, such as data written before hashes were kept.
+	 */
+	protected static final String REPLACE_MESSAGES_LUA = """
+			local window = tonumber(ARGV[1])
+			local count = (#ARGV - 1) / #KEYS
+			redis.call('DEL', unpack(KEYS))
+			for k = 1, #KEYS do
+			  local first = 2 + (k - 1) * count
+			  local last = first + count - 1
+			  for i = first, last, 1000 do
+			    redis.call('RPUSH', KEYS[k], unpack(ARGV, i, math.min(i + 999, last)))
+			  end
+			  if window > 0 and count > window then
+			    redis.call('LTRIM', KEYS[k], -window, -1)
+			  end
+			end
+			return count
+			""";
+
+	/**
+	 * Drops the ARGV[2] oldest messages once the list holds at least ARGV[1] messages,
+	 * checking the size and trimming every list in KEYS in a single atomic step.
+	 */
+	protected static final String CLEAR_OVER_LIMIT_LUA = """
+			if redis.call('LLEN', KEYS[1]) < tonumber(ARGV[1]) then
+			  return 0
+			end
+			for k = 1, #KEYS do
+			  redis.call('LTRIM', KEYS[k], tonumber(ARGV[2]), -1)
+			end
+			return 1
+			""";
+
+	/**
+	 * Removes conversation ids from the index in KEYS[1]. ARGV holds pairs of an id and
+	 * the score it was listed with; an id is only removed while it still has that score,
+	 * so one a concurrent save has just added again stays listed. Returns the number of
+	 * removed ids.
+	 */
+	protected static final String PRUNE_INDEX_LUA = """
+			local removed = 0
+			for i = 1, #ARGV, 2 do
+			  local score = redis.call('ZSCORE', KEYS[1], ARGV[i])
+			  if score and tonumber(score) == tonumber(ARGV[i + 1]) then
+			    removed = removed + redis.call('ZREM', KEYS[1], ARGV[i])
+			  end
+			end
+			return removed
+			""";
+
+	protected final MessageCodec messageCodec;
+
+	private final Map<Message, RememberedHash> messageHashes = new ConcurrentReferenceHashMap<>(256,
+			ConcurrentReferenceHashMap.ReferenceType.WEAK);
 
 	public BaseRedisChatMemoryRepository() {
-		this.objectMapper = JsonMapper.builder()
-			.configure(MapperFeature.AUTO_DETECT_GETTERS, false)
-			.configure(MapperFeature.AUTO_DETECT_IS_GETTERS, false)
-			.visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
-			.build();
-		SimpleModule module = new SimpleModule();
-		module.addDeserializer(Message.class, new MessageDeserializer());
-		this.objectMapper.registerModule(module);
-	}
-
-	protected Message deserializeMessage(String messageStr) {
-		try {
-			return objectMapper.readValue(messageStr, Message.class);
+		this(null);
+	}
+
+	/**
+	 * @param messageCodec the codec for stored messages, JSON when {@code null}
+	 */
+	public BaseRedisChatMemoryRepository(MessageCodec messageCodec) {
+		this.messageCodec = messageCodec != null ? messageCodec : new JsonMessageCodec();
+	}
+
+	protected Message deserializeMessage(byte[] messageBytes) {
+		Message message = messageCodec.decode(messageBytes);
+		if (message != null) {
+			rememberHash(message, messageHash(messageBytes));
 		}
-		catch (JsonProcessingException e) {
-			logger.error("Deserialization error for message: {}", messageStr, e);
-			return null;
+		return message;
+	}
+
+	protected byte[] serializeMessage(Message message) {
+		return messageCodec.encode(message);
+	}
+
+	/**
+	 * The keys a conversation is stored under: the message list followed, when it can
+	 * share the list's cluster slot, by the list of message hashes.
+	 * @param conversationId the conversation ID
+	 * @return the message list key, optionally followed by the hash list key
+	 */
+	protected List<String> getMessageKeys(String conversationId) {
+		String key = getKeyPrefix() + conversationId;
+		String hashesKey = getIndexKey() + HASHES_KEY_INFIX + conversationId;
+		if (!hashTag(hashesKey).equals(hashTag(key))) {
+			hashesKey = getIndexKey() + HASHES_KEY_INFIX + "{" + key + "}";
 		}
+		return hashTag(hashesKey).equals(hashTag(key)) ? List.of(key, hashesKey) : List.of(key);
 	}
 
-	protected String serializeMessage(Message message) {
-		try {
-			return objectMapper.writeValueAsString(message);
+	/**
+	 * Build the {@link #APPEND_MESSAGES_LUA} arguments for the given messages. Only the
+	 * messages not covered by the stored hashes are encoded; the hashes of the others
+	 * come from the bytes they were read from.
+	 * @param messages the full conversation to persist
+	 * @param storedHashes the last {@code messages.size()} stored hashes
+	 * @param maxMessages the window to trim the stored list to, 0 for unbounded
+	 * @return the window size, the observed tail hash and the number of stored messages
+	 * to keep, followed by the new encoded messages and their hashes
+	 */
+	protected byte[][] appendMessagesArgs(List<Message> messages, List<byte[]> storedHashes, int maxMessages) {
+		int size = messages.size();
+		byte[][] encoded = new byte[size][];
+		byte[][] hashes = new byte[size][];
+		for (int i = 0; i < size; i++) {
+			Message message = messages.get(i);
+			hashes[i] = rememberedHash(message);
+			if (hashes[i] == null) {
+				encoded[i] = serializeMessage(message);
+				hashes[i] = messageHash(encoded[i]);
+				rememberHash(message, hashes[i]);
+			}
 		}
-		catch (JsonProcessingException e) {
-			throw new RuntimeException("Error serializing message", e);
+		int keep = storedOverlap(storedHashes, hashes);
+		int count = size - keep;
+		byte[][] args = new byte[3 + 2 * count][];
+		args[0] = String.valueOf(Math.max(maxMessages, 0)).getBytes(StandardCharsets.UTF_8);
+		args[1] = storedHashes.isEmpty() ? new byte[0] : storedHashes.get(storedHashes.size() - 1);
+		args[2] = String.valueOf(keep).getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < count; i++) {
+			int index = keep + i;
+			args[3 + i] = encoded[index] != null ? encoded[index] : serializeMessage(messages.get(index));
+			args[3 + count + i] = hashes[index];
+		}
+		return args;
+	}
+
+	/**
+	 * Build the {@link #REPLACE_MESSAGES_LUA} arguments for the given messages.
+	 * @param messages the full conversation to persist
+	 * @param maxMessages the window to trim the stored list to, 0 for unbounded
+	 * @param withHashes whether the message hashes follow the encoded messages
+	 * @return the window size followed by the encoded messages and their hashes
+	 */
+	protected byte[][] replaceMessagesArgs(List<Message> messages, int maxMessages, boolean withHashes) {
+		int size = messages.size();
+		byte[][] args = new byte[1 + (withHashes ? 2 : 1) * size][];
+		args[0] = String.valueOf(Math.max(maxMessages, 0)).getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < size; i++) {
+			args[1 + i] = serializeMessage(messages.get(i));
+			if (withHashes) {
+				args[1 + size + i] = messageHash(args[1 + i]);
+				rememberHash(messages.get(i), args[1 + size + i]);
+			}
+		}
+		return args;
+	}
+
+	/**
+	 * The length of the longest suffix of the stored hashes that is a prefix of the new
+	 * ones, i.e. how many stored messages the new conversation still starts with.
+	 */
+	static int storedOverlap(List<byte[]> storedHashes, byte[][] hashes) {
+		int size = storedHashes.size();
+		for (int overlap = Math.min(size, hashes.length); overlap > 0; overlap--) {
+			int offset = size - overlap;
+			int i = 0;
+			while (i < overlap && Arrays.equals(storedHashes.get(offset + i), hashes[i])) {
+				i++;
+			}
+			if (i == overlap) {
+				return overlap;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * The {@link MessageDigests#digest(byte[]) digest} of an encoded message, as ASCII
+	 * bytes.
+	 */
+	static byte[] messageHash(byte[] messageBytes) {
+		return MessageDigests.digest(messageBytes).getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * The part of a key Redis Cluster hashes to pick its slot: the first non-empty
+	 * {@code {...}} section, or the whole key.
+	 */
+	static String hashTag(String key) {
+		int open = key.indexOf('{');
+		if (open >= 0) {
+			int close = key.indexOf('}', open + 1);
+			if (close > open + 1) {
+				return key.substring(open + 1, close);
+			}
 		}
+		return key;
+	}
+
+	private byte[] rememberedHash(Message message) {
+		RememberedHash remembered = messageHashes.get(message);
+		return remembered != null && remembered.message().get() == message ? remembered.hash() : null;
+	}
+
+	private void rememberHash(Message message, byte[] hash) {
+		messageHashes.put(message, new RememberedHash(new WeakReference<>(message), hash));
+	}
+
+	/**
+	 * Hash of the bytes a message instance was read from or written as. Messages compare
+	 * by content, so the instance is kept to tell apart equal ones, such as tool
+	 * responses that differ only in their responses.
+	 */
+	private record RememberedHash(WeakReference<Message> message, byte[] hash) {
 	}
 
     protected String getKeyPrefix() {
         return CUSTOM_KEY_PREFIX != null ? CUSTOM_KEY_PREFIX : DEFAULT_KEY_PREFIX;
     }
+
+	protected String getIndexKey() {
+		return getKeyPrefix() + INDEX_KEY_SUFFIX;
+	}
+
+	protected String getIndexReadyKey() {
+		return getIndexKey() + INDEX_READY_SUFFIX;
+	}
+
+	/**
+	 * List conversation ids from the index, most recently active first. Ids whose
+	 * conversation no longer exists, for example because its key expired or was evicted,
+	 * are removed from the index and the listing reads on, so a page stays full.
+	 * @param offset number of live conversation ids to skip
+	 * @param limit maximum number of conversation ids to return
+	 * @return the live conversation ids
+	 */
+	protected List<String> listIndex(int offset, int limit) {
+		List<String> conversationIds = new ArrayList<>();
+		while (conversationIds.size() < limit) {
+			int count = Math.min(limit - conversationIds.size(), SCAN_BATCH_SIZE);
+			List<IndexEntry> entries = readIndex((long) offset + conversationIds.size(), count);
+			if (entries.isEmpty()) {
+				break;
+			}
+			List<Boolean> exist = conversationsExist(entries.stream().map(IndexEntry::conversationId).toList());
+			List<IndexEntry> missing = new ArrayList<>();
+			for (int i = 0; i < entries.size(); i++) {
+				if (Boolean.TRUE.equals(exist.get(i))) {
+					conversationIds.add(entries.get(i).conversationId());
+				}
+				else {
+					missing.add(entries.get(i));
+				}
+			}
+			if (!missing.isEmpty()) {
+				logger.debug("Removing {} conversations that no longer exist from the index", missing.size());
+				pruneIndex(missing);
+			}
+			if (entries.size() < count) {
+				break;
+			}
+		}
+		return conversationIds;
+	}
+
+	/**
+	 * Arguments of {@link #PRUNE_INDEX_LUA} for the given index entries.
+	 */
+	protected static String[] pruneIndexArgs(List<IndexEntry> entries) {
+		String[] args = new String[entries.size() * 2];
+		for (int i = 0; i < entries.size(); i++) {
+			args[2 * i] = entries.get(i).conversationId();
+			args[2 * i + 1] = Double.toString(entries.get(i).score());
+		}
+		return args;
+	}
+
+	/**
+	 * Read {@code count} index entries from rank {@code start}, highest score first.
+	 */
+	protected abstract List<IndexEntry> readIndex(long start, int count);
+
+	/**
+	 * Whether the conversation of each id still exists, in the order of the ids.
+	 */
+	protected abstract List<Boolean> conversationsExist(List<String> conversationIds);
+
+	/**
+	 * Remove the entries from the index with {@link #PRUNE_INDEX_LUA}.
+	 */
+	protected abstract void pruneIndex(List<IndexEntry> entries);
+
+	/**
+	 * A conversation id in the index and its last-activity score.
+	 */
+	protected record IndexEntry(String conversationId, double score) {
+	}
+
+	/**
+	 * Whether a key matched by a prefix SCAN holds a conversation rather than the index.
+	 */
+	protected boolean isConversationKey(String key) {
+		return key.startsWith(getKeyPrefix()) && !key.startsWith(getIndexKey());
+	}
+
+	protected String toConversationId(String key) {
+		return key.substring(getKeyPrefix().length());
+	}
 }
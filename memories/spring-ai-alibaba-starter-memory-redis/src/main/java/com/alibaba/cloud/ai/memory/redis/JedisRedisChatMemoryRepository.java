@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.memory.redis;
 
 import com.alibaba.cloud.ai.memory.redis.builder.RedisChatMemoryBuilder;
+import com.alibaba.cloud.ai.memory.common.serializer.MessageCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.PropertyMapper;
@@ -24,8 +25,15 @@ import org.springframework.boot.ssl.SslOptions;
 import org.springframework.data.redis.connection.*;
 import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
@@ -35,8 +43,10 @@ import org.springframework.ai.chat.messages.Message;
 import org.springframework.util.Assert;
 
 import javax.net.ssl.SSLParameters;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -51,12 +61,22 @@ public class JedisRedisChatMemoryRepository extends BaseRedisChatMemoryRepositor
 
 	private static final Logger logger = LoggerFactory.getLogger(JedisRedisChatMemoryRepository.class);
 
+	private static final RedisScript<Long> APPEND_MESSAGES_SCRIPT = RedisScript.of(APPEND_MESSAGES_LUA, Long.class);
+
+	private static final RedisScript<Long> REPLACE_MESSAGES_SCRIPT = RedisScript.of(REPLACE_MESSAGES_LUA, Long.class);
+
+	private static final RedisSerializer<Long> LONG_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
+	private static final RedisScript<Long> CLEAR_OVER_LIMIT_SCRIPT = RedisScript.of(CLEAR_OVER_LIMIT_LUA, Long.class);
+
+	private static final RedisScript<Long> PRUNE_INDEX_SCRIPT = RedisScript.of(PRUNE_INDEX_LUA, Long.class);
+
 	private final RedisConnectionFactory connectionFactory;
 
 	private final RedisTemplate<String, String> redisTemplate;
 
-	private JedisRedisChatMemoryRepository(RedisConnectionFactory connectionFactory) {
-		super();
+	private JedisRedisChatMemoryRepository(RedisConnectionFactory connectionFactory, MessageCodec messageCodec) {
+		super(messageCodec);
 		Assert.notNull(connectionFactory, "ConnectionFactory cannot be null");
 		this.connectionFactory = connectionFactory;
 		this.redisTemplate = createRedisTemplate(connectionFactory);
@@ -123,7 +143,7 @@ public class JedisRedisChatMemoryRepository extends BaseRedisChatMemoryRepositor
 				jedisConnectionFactory = new JedisConnectionFactory(standaloneConfig, applyConfiguration());
 			}
 			jedisConnectionFactory.afterPropertiesSet();
-			return new JedisRedisChatMemoryRepository(jedisConnectionFactory);
+			return new JedisRedisChatMemoryRepository(jedisConnectionFactory, messageCodec);
 		}
 
 		private JedisPoolConfig getPoolConfigWithDefault() {
@@ -159,44 +179,162 @@ public class JedisRedisChatMemoryRepository extends BaseRedisChatMemoryRepositor
 
 	@Override
 	public List<String> findConversationIds() {
-		Set<String> keys = redisTemplate.keys(getKeyPrefix() + "*");
-		return keys.stream().map(key -> key.substring(getKeyPrefix().length())).collect(Collectors.toList());
+		ensureIndex();
+		return listIndex(0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Page through conversation ids, most recently active first.
+	 * @param offset number of conversation ids to skip
+	 * @param limit maximum number of conversation ids to return
+	 * @return the conversation ids of the requested page
+	 */
+	public List<String> findConversationIds(int offset, int limit) {
+		Assert.isTrue(offset >= 0, "offset must not be negative");
+		Assert.isTrue(limit > 0, "limit must be positive");
+		ensureIndex();
+		return listIndex(offset, limit);
+	}
+
+	@Override
+	protected List<IndexEntry> readIndex(long start, int count) {
+		Set<ZSetOperations.TypedTuple<String>> entries = redisTemplate.opsForZSet()
+			.reverseRangeWithScores(getIndexKey(), start, start + count - 1);
+		if (entries == null) {
+			return Collections.emptyList();
+		}
+		return entries.stream().map(entry -> new IndexEntry(entry.getValue(), entry.getScore())).toList();
+	}
+
+	@Override
+	protected List<Boolean> conversationsExist(List<String> conversationIds) {
+		if (connectionFactory instanceof JedisConnectionFactory jedisFactory && jedisFactory.isRedisClusterAware()) {
+			// Jedis cannot pipeline against a cluster.
+			return conversationIds.stream()
+				.map(conversationId -> Boolean.TRUE.equals(redisTemplate.hasKey(getKeyPrefix() + conversationId)))
+				.toList();
+		}
+		return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			for (String conversationId : conversationIds) {
+				connection.keyCommands().exists((getKeyPrefix() + conversationId).getBytes(StandardCharsets.UTF_8));
+			}
+			return null;
+		}).stream().map(Boolean.TRUE::equals).toList();
+	}
+
+	@Override
+	protected void pruneIndex(List<IndexEntry> entries) {
+		redisTemplate.execute(PRUNE_INDEX_SCRIPT, List.of(getIndexKey()), (Object[]) pruneIndexArgs(entries));
+	}
+
+	/**
+	 * Backfill the conversation index from a cursor-based SCAN the first time it is
+	 * used against a keyspace written before the index existed.
+	 */
+	private void ensureIndex() {
+		if (Boolean.TRUE.equals(redisTemplate.hasKey(getIndexReadyKey()))) {
+			return;
+		}
+		ScanOptions options = ScanOptions.scanOptions().match(getKeyPrefix() + "*").count(SCAN_BATCH_SIZE).build();
+		Set<ZSetOperations.TypedTuple<String>> batch = new HashSet<>();
+		try (RedisConnection connection = connectionFactory.getConnection()) {
+			if (connection instanceof RedisClusterConnection clusterConnection) {
+				for (RedisClusterNode node : clusterConnection.clusterGetNodes()) {
+					if (node.isMaster()) {
+						try (Cursor<byte[]> cursor = clusterConnection.scan(node, options)) {
+							backfillIndex(cursor, batch);
+						}
+					}
+				}
+			}
+			else {
+				try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+					backfillIndex(cursor, batch);
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			redisTemplate.opsForZSet().addIfAbsent(getIndexKey(), batch);
+		}
+		redisTemplate.opsForValue().set(getIndexReadyKey(), "1");
+	}
+
+	private void backfillIndex(Cursor<byte[]> cursor, Set<ZSetOperations.TypedTuple<String>> batch) {
+		while (cursor.hasNext()) {
+			String key = new String(cursor.next(), StandardCharsets.UTF_8);
+			if (!isConversationKey(key)) {
+				continue;
+			}
+			batch.add(ZSetOperations.TypedTuple.of(toConversationId(key), 0d));
+			if (batch.size() >= SCAN_BATCH_SIZE) {
+				redisTemplate.opsForZSet().addIfAbsent(getIndexKey(), batch);
+				batch.clear();
+			}
+		}
 	}
 
 	@Override
 	public List<Message> findByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		String key = getKeyPrefix() + conversationId;
-		List<String> messageStrings = redisTemplate.opsForList().range(key, 0, -1);
-		if (CollectionUtils.isEmpty(messageStrings)) {
+		byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+		List<byte[]> messageBytes = redisTemplate
+			.execute((RedisCallback<List<byte[]>>) connection -> connection.listCommands().lRange(rawKey, 0, -1));
+		if (CollectionUtils.isEmpty(messageBytes)) {
 			return Collections.emptyList();
 		}
-		return messageStrings.stream().map(this::deserializeMessage).collect(Collectors.toList());
+		return messageBytes.stream().map(this::deserializeMessage).collect(Collectors.toList());
 	}
 
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
+		saveAll(conversationId, messages, 0);
+	}
+
+	/**
+	 * Save the conversation, appending only the messages not yet persisted and keeping
+	 * at most {@code maxMessages} of them. The tail of the stored message hashes tells
+	 * which messages are already persisted, so only new ones are encoded and sent; the
+	 * conversation is rewritten when the stored lists changed in between.
+	 * @param conversationId the conversation ID
+	 * @param messages the full conversation
+	 * @param maxMessages the window to trim the stored list to, 0 for unbounded
+	 */
+	public void saveAll(String conversationId, List<Message> messages, int maxMessages) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		Assert.notNull(messages, "messages cannot be null");
 		Assert.noNullElements(messages, "messages cannot contain null elements");
-		String key = getKeyPrefix() + conversationId;
-		List<String> messageJsons = messages.stream().map(this::serializeMessage).toList();
-		try (RedisConnection connection = redisTemplate.getConnectionFactory().getConnection()) {
-			connection.keyCommands().del(key.getBytes());
-			if (!messageJsons.isEmpty()) {
-				byte[][] values = new byte[messageJsons.size()][];
-				for (int i = 0; i < messageJsons.size(); i++) {
-					values[i] = messageJsons.get(i).getBytes();
-				}
-				connection.listCommands().rPush(key.getBytes(), values);
-			}
+		List<String> keys = getMessageKeys(conversationId);
+		Long appended = null;
+		if (keys.size() > 1) {
+			List<byte[]> storedHashes = messages.isEmpty() ? List.of() : readHashes(keys.get(1), messages.size());
+			appended = redisTemplate.execute(APPEND_MESSAGES_SCRIPT, RedisSerializer.byteArray(), LONG_SERIALIZER,
+					keys, (Object[]) appendMessagesArgs(messages, storedHashes, maxMessages));
+		}
+		if (appended == null || appended < 0) {
+			redisTemplate.execute(REPLACE_MESSAGES_SCRIPT, RedisSerializer.byteArray(), LONG_SERIALIZER, keys,
+					(Object[]) replaceMessagesArgs(messages, maxMessages, keys.size() > 1));
 		}
+		if (messages.isEmpty()) {
+			redisTemplate.opsForZSet().remove(getIndexKey(), conversationId);
+		}
+		else {
+			redisTemplate.opsForZSet().add(getIndexKey(), conversationId, System.currentTimeMillis());
+		}
+	}
+
+	private List<byte[]> readHashes(String hashesKey, int count) {
+		byte[] rawKey = hashesKey.getBytes(StandardCharsets.UTF_8);
+		List<byte[]> hashes = redisTemplate
+			.execute((RedisCallback<List<byte[]>>) connection -> connection.listCommands().lRange(rawKey, -count, -1));
+		return hashes != null ? hashes : List.of();
 	}
 
 	@Override
 	public void deleteByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
-		redisTemplate.delete(getKeyPrefix() + conversationId);
+		redisTemplate.delete(getMessageKeys(conversationId));
+		redisTemplate.opsForZSet().remove(getIndexKey(), conversationId);
 	}
 
 	/**
@@ -207,12 +345,8 @@ public class JedisRedisChatMemoryRepository extends BaseRedisChatMemoryRepositor
 	 */
 	public void clearOverLimit(String conversationId, int maxLimit, int deleteSize) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
-		String key = getKeyPrefix() + conversationId;
-		Long size = redisTemplate.opsForList().size(key);
-		if (size < maxLimit) {
-			return;
-		}
-		redisTemplate.opsForList().trim(key, deleteSize, -1);
+		redisTemplate.execute(CLEAR_OVER_LIMIT_SCRIPT, getMessageKeys(conversationId), String.valueOf(maxLimit),
+				String.valueOf(deleteSize));
 	}
 
 	@Override
@@ -16,11 +16,17 @@
 package com.alibaba.cloud.ai.memory.redis;
 
 import com.alibaba.cloud.ai.memory.redis.builder.RedisChatMemoryBuilder;
+import com.alibaba.cloud.ai.memory.common.serializer.MessageCodec;
 import org.redisson.Redisson;
-import org.redisson.api.RKeys;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
+import org.redisson.api.RFuture;
 import org.redisson.api.RList;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.options.KeysScanOptions;
+import org.redisson.client.codec.ByteArrayCodec;
 import org.redisson.client.codec.StringCodec;
 import org.redisson.config.Config;
 import org.slf4j.Logger;
@@ -31,10 +37,13 @@ import org.springframework.boot.ssl.SslManagerBundle;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * Redis implementation of ChatMemoryRepository using Redisson
@@ -48,8 +57,8 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 
 	private final RedissonClient redissonClient;
 
-	private RedissonRedisChatMemoryRepository(RedissonClient redissonClient) {
-		super();
+	private RedissonRedisChatMemoryRepository(RedissonClient redissonClient, MessageCodec messageCodec) {
+		super(messageCodec);
 		Assert.notNull(redissonClient, "redissonClient cannot be null");
 		this.redissonClient = redissonClient;
 	}
@@ -87,7 +96,7 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 				if (redissonConfig.getCodec() == null) {
 					redissonConfig.setCodec(new StringCodec());
 				}
-				return new RedissonRedisChatMemoryRepository(Redisson.create(redissonConfig));
+				return new RedissonRedisChatMemoryRepository(Redisson.create(redissonConfig), messageCodec);
 			}
 			Config config = new Config();
 			config.setCodec(new StringCodec());
@@ -135,7 +144,7 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 					config.useSingleServer().setPassword(password);
 				}
 			}
-			return new RedissonRedisChatMemoryRepository(Redisson.create(config));
+			return new RedissonRedisChatMemoryRepository(Redisson.create(config), messageCodec);
 
 		}
 
@@ -143,18 +152,87 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 
 	@Override
 	public List<String> findConversationIds() {
-		RKeys keys = redissonClient.getKeys();
-		KeysScanOptions scanOptions = KeysScanOptions.defaults().pattern(getKeyPrefix() + "*");
-		Iterable<String> keysIter = keys.getKeys(scanOptions);
-		return StreamSupport.stream(keysIter.spliterator(), false)
-			.map(key -> key.substring(getKeyPrefix().length()))
-			.collect(Collectors.toList());
+		ensureIndex();
+		return listIndex(0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Page through conversation ids, most recently active first.
+	 * @param offset number of conversation ids to skip
+	 * @param limit maximum number of conversation ids to return
+	 * @return the conversation ids of the requested page
+	 */
+	public List<String> findConversationIds(int offset, int limit) {
+		Assert.isTrue(offset >= 0, "offset must not be negative");
+		Assert.isTrue(limit > 0, "limit must be positive");
+		ensureIndex();
+		return listIndex(offset, limit);
+	}
+
+	@Override
+	protected List<IndexEntry> readIndex(long start, int count) {
+		return getIndex().entryRangeReversed((int) start, (int) Math.min(start + count - 1, Integer.MAX_VALUE))
+			.stream()
+			.map(entry -> new IndexEntry(entry.getValue(), entry.getScore()))
+			.toList();
+	}
+
+	@Override
+	protected List<Boolean> conversationsExist(List<String> conversationIds) {
+		RBatch batch = redissonClient.createBatch();
+		List<RFuture<Boolean>> exists = conversationIds.stream()
+			.map(conversationId -> batch.getBucket(getKeyPrefix() + conversationId).isExistsAsync())
+			.toList();
+		batch.execute();
+		return exists.stream().map(RFuture::toCompletableFuture).map(CompletableFuture::join).toList();
+	}
+
+	@Override
+	protected void pruneIndex(List<IndexEntry> entries) {
+		redissonClient.getScript(StringCodec.INSTANCE)
+			.eval(getIndexKey(), RScript.Mode.READ_WRITE, PRUNE_INDEX_LUA, RScript.ReturnType.INTEGER,
+					List.<Object>of(getIndexKey()), (Object[]) pruneIndexArgs(entries));
+	}
+
+	private RScoredSortedSet<String> getIndex() {
+		return redissonClient.getScoredSortedSet(getIndexKey(), StringCodec.INSTANCE);
+	}
+
+	/**
+	 * Backfill the conversation index from a cursor-based SCAN, fanned out over every
+	 * master in cluster mode, the first time it is used against a keyspace written
+	 * before the index existed.
+	 */
+	private void ensureIndex() {
+		RBucket<String> ready = redissonClient.getBucket(getIndexReadyKey(), StringCodec.INSTANCE);
+		if (ready.isExists()) {
+			return;
+		}
+		RScoredSortedSet<String> index = getIndex();
+		KeysScanOptions scanOptions = KeysScanOptions.defaults()
+			.pattern(getKeyPrefix() + "*")
+			.chunkSize(SCAN_BATCH_SIZE);
+		Map<String, Double> batch = new HashMap<>();
+		for (String key : redissonClient.getKeys().getKeys(scanOptions)) {
+			if (!isConversationKey(key)) {
+				continue;
+			}
+			batch.put(toConversationId(key), 0d);
+			if (batch.size() >= SCAN_BATCH_SIZE) {
+				index.addAllIfAbsent(batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			index.addAllIfAbsent(batch);
+		}
+		ready.set("1");
 	}
 
 	@Override
 	public List<Message> findByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
-		RList<String> redisList = redissonClient.getList(getKeyPrefix() + conversationId);
+		RList<byte[]> redisList = redissonClient.getList(getKeyPrefix() + conversationId, ByteArrayCodec.INSTANCE);
 		return redisList.readAll()
 			.parallelStream()
 			.map(this::deserializeMessage)
@@ -164,20 +242,50 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
+		saveAll(conversationId, messages, 0);
+	}
+
+	/**
+	 * Save the conversation, appending only the messages not yet persisted and keeping
+	 * at most {@code maxMessages} of them. The tail of the stored message hashes tells
+	 * which messages are already persisted, so only new ones are encoded and sent; the
+	 * conversation is rewritten when the stored lists changed in between.
+	 * @param conversationId the conversation ID
+	 * @param messages the full conversation
+	 * @param maxMessages the window to trim the stored list to, 0 for unbounded
+	 */
+	public void saveAll(String conversationId, List<Message> messages, int maxMessages) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		Assert.notNull(messages, "messages cannot be null");
 		Assert.noNullElements(messages, "messages cannot contain null elements");
-		RList<String> redisList = redissonClient.getList(getKeyPrefix() + conversationId);
-		redisList.delete();
-		List<String> serializedMessages = messages.stream().map(this::serializeMessage).toList();
-		redisList.addAll(serializedMessages);
+		List<String> keys = getMessageKeys(conversationId);
+		List<Object> scriptKeys = new ArrayList<>(keys);
+		RScript script = redissonClient.getScript(ByteArrayCodec.INSTANCE);
+		Long appended = null;
+		if (keys.size() > 1) {
+			List<byte[]> storedHashes = messages.isEmpty() ? List.of()
+					: redissonClient.<byte[]>getList(keys.get(1), ByteArrayCodec.INSTANCE).range(-messages.size(), -1);
+			appended = script.eval(keys.get(0), RScript.Mode.READ_WRITE, APPEND_MESSAGES_LUA,
+					RScript.ReturnType.INTEGER, scriptKeys,
+					(Object[]) appendMessagesArgs(messages, storedHashes, maxMessages));
+		}
+		if (appended == null || appended < 0) {
+			script.eval(keys.get(0), RScript.Mode.READ_WRITE, REPLACE_MESSAGES_LUA, RScript.ReturnType.INTEGER,
+					scriptKeys, (Object[]) replaceMessagesArgs(messages, maxMessages, keys.size() > 1));
+		}
+		if (messages.isEmpty()) {
+			getIndex().remove(conversationId);
+		}
+		else {
+			getIndex().add(System.currentTimeMillis(), conversationId);
+		}
 	}
 
 	@Override
 	public void deleteByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
-		RList<String> redisList = redissonClient.getList(getKeyPrefix() + conversationId);
-		redisList.delete();
+		redissonClient.getKeys().delete(getMessageKeys(conversationId).toArray(new String[0]));
+		getIndex().remove(conversationId);
 	}
 
 	/**
@@ -188,13 +296,10 @@ public class RedissonRedisChatMemoryRepository extends BaseRedisChatMemoryReposi
 	 */
 	public void clearOverLimit(String conversationId, int maxLimit, int deleteSize) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
-		String key = getKeyPrefix() + conversationId;
-		RList<Object> list = redissonClient.getList(key);
-		int size = list.size();
-		if (size < maxLimit) {
-			return;
-		}
-		list.trim(deleteSize, -1);
+		List<String> keys = getMessageKeys(conversationId);
+		redissonClient.getScript(StringCodec.INSTANCE)
+			.eval(keys.get(0), RScript.Mode.READ_WRITE, CLEAR_OVER_LIMIT_LUA, RScript.ReturnType.INTEGER,
+					new ArrayList<>(keys), String.valueOf(maxLimit), String.valueOf(deleteSize));
 	}
 
 	@Override
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.memory.redis.builder;
 
+import com.alibaba.cloud.ai.memory.common.serializer.MessageCodec;
 import org.springframework.boot.ssl.SslBundles;
 
 import java.util.List;
@@ -54,6 +55,8 @@ public abstract class RedisChatMemoryBuilder<T extends RedisChatMemoryBuilder<T>
 
 	protected SslBundles sslBundles;
 
+	protected MessageCodec messageCodec;
+
 	protected abstract T self();
 
 	public T host(String host) {
@@ -112,4 +115,9 @@ public abstract class RedisChatMemoryBuilder<T extends RedisChatMemoryBuilder<T>
 		return self();
 	}
 
+	public T messageCodec(MessageCodec messageCodec) {
+		this.messageCodec = messageCodec;
+		return self();
+	}
+
 }
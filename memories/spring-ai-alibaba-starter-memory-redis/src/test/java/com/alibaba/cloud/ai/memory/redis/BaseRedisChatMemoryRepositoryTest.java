@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.memory.redis;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaseRedisChatMemoryRepositoryTest {
+
+	@Test
+	void storedOverlapFindsTheStoredSuffixTheConversationStartsWith() {
+		assertThat(BaseRedisChatMemoryRepository.storedOverlap(hashes("a", "b"), array("a", "b", "c"))).isEqualTo(2);
+		assertThat(BaseRedisChatMemoryRepository.storedOverlap(hashes("a", "b", "c"), array("b", "c", "d")))
+			.isEqualTo(2);
+		assertThat(BaseRedisChatMemoryRepository.storedOverlap(hashes("a", "b"), array("c", "d"))).isZero();
+		assertThat(BaseRedisChatMemoryRepository.storedOverlap(hashes(), array("a"))).isZero();
+		assertThat(BaseRedisChatMemoryRepository.storedOverlap(hashes("a", "a"), array("a", "a", "b"))).isEqualTo(2);
+	}
+
+	@Test
+	void hashesKeySharesTheConversationSlot() {
+		assertThat(BaseRedisChatMemoryRepository.hashTag("memory:conversation")).isEqualTo("memory:conversation");
+		assertThat(BaseRedisChatMemoryRepository.hashTag("memory:__index__:hashes:{memory:conversation}"))
+			.isEqualTo("memory:conversation");
+		assertThat(BaseRedisChatMemoryRepository.hashTag("{chat}:conversation")).isEqualTo("chat");
+		assertThat(BaseRedisChatMemoryRepository.hashTag("memory:{}:conversation")).isEqualTo("memory:{}:conversation");
+	}
+
+	@Test
+	void messageHashDependsOnTheEncodedBytes() {
+		byte[] first = "first".getBytes(StandardCharsets.UTF_8);
+		assertThat(BaseRedisChatMemoryRepository.messageHash(first))
+			.isEqualTo(BaseRedisChatMemoryRepository.messageHash(first.clone()))
+			.isNotEqualTo(BaseRedisChatMemoryRepository.messageHash("second".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static List<byte[]> hashes(String... values) {
+		return List.of(array(values));
+	}
+
+	private static byte[][] array(String... values) {
+		byte[][] hashes = new byte[values.length][];
+		for (int i = 0; i < values.length; i++) {
+			hashes[i] = values[i].getBytes(StandardCharsets.UTF_8);
+		}
+		return hashes;
+	}
+
+}
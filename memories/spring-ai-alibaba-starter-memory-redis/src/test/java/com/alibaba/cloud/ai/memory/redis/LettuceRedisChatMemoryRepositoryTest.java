@@ -32,6 +32,7 @@ import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
+import redis.clients.jedis.Jedis;
 
 import java.net.URI;
 import java.util.List;
@@ -124,6 +125,70 @@ public class LettuceRedisChatMemoryRepositoryTest {
 		assertThat(count).isEqualTo(1);
 	}
 
+	@Test
+	void saveAllAppendsOnlyNewMessages() {
+		var conversationId = UUID.randomUUID().toString();
+		var repository = (LettuceRedisChatMemoryRepository) chatMemoryRepository;
+		var first = new UserMessage("first - " + conversationId);
+		var second = new AssistantMessage("second - " + conversationId);
+		var third = new UserMessage("third - " + conversationId);
+		var fourth = new AssistantMessage("fourth - " + conversationId);
+
+		repository.saveAll(conversationId, List.of(first, second));
+		repository.saveAll(conversationId, List.of(first, second, third));
+		assertThat(repository.findByConversationId(conversationId)).extracting(Message::getText)
+			.containsExactly(first.getText(), second.getText(), third.getText());
+
+		repository.saveAll(conversationId, List.of(second, third, fourth));
+		assertThat(repository.findByConversationId(conversationId)).extracting(Message::getText)
+			.containsExactly(second.getText(), third.getText(), fourth.getText());
+
+		repository.saveAll(conversationId, List.of(first, second, third, fourth), 2);
+		assertThat(repository.findByConversationId(conversationId)).extracting(Message::getText)
+			.containsExactly(third.getText(), fourth.getText());
+
+		repository.deleteByConversationId(conversationId);
+	}
+
+	@Test
+	void findConversationIdsPagesByLastActivity() {
+		var repository = (LettuceRedisChatMemoryRepository) chatMemoryRepository;
+		var older = UUID.randomUUID().toString();
+		var newer = UUID.randomUUID().toString();
+		repository.saveAll(older, List.of(new UserMessage("older")));
+		repository.saveAll(newer, List.of(new UserMessage("newer")));
+
+		assertThat(repository.findConversationIds()).contains(older, newer);
+		var firstPage = repository.findConversationIds(0, 1);
+		assertThat(firstPage).hasSize(1);
+		assertThat(repository.findConversationIds(1, 1)).doesNotContainAnyElementsOf(firstPage);
+
+		repository.deleteByConversationId(older);
+		repository.deleteByConversationId(newer);
+		assertThat(repository.findConversationIds()).doesNotContain(older, newer);
+	}
+
+	@Test
+	void findConversationIdsDropsExpiredConversations() throws InterruptedException {
+		var repository = (LettuceRedisChatMemoryRepository) chatMemoryRepository;
+		var live = UUID.randomUUID().toString();
+		var expired = UUID.randomUUID().toString();
+		repository.saveAll(live, List.of(new UserMessage("live")));
+		repository.saveAll(expired, List.of(new UserMessage("expired")));
+
+		try (var jedis = new Jedis(redisContainer.getHost(), redisContainer.getMappedPort(REDIS_PORT))) {
+			jedis.pexpire(repository.getKeyPrefix() + expired, 1);
+			while (jedis.exists(repository.getKeyPrefix() + expired)) {
+				Thread.sleep(5);
+			}
+
+			// The expired conversation is the most recent, so the page reads past it.
+			assertThat(repository.findConversationIds(0, 1)).containsExactly(live);
+			assertThat(jedis.zscore(repository.getIndexKey(), expired)).isNull();
+		}
+		repository.deleteByConversationId(live);
+	}
+
 	@Test
 	void findMessagesByConversationId() {
 		var conversationId = UUID.randomUUID().toString();
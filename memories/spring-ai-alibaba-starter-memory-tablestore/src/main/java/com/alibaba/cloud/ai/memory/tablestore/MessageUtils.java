@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.memory.tablestore;
 
 import com.aliyun.openservices.tablestore.agent.model.Metadata;
+import com.aliyun.openservices.tablestore.agent.util.TimeUtils;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
@@ -163,11 +164,21 @@ public class MessageUtils {
 
 	public static com.aliyun.openservices.tablestore.agent.model.Message toTablestoreMessage(String conversationId,
 			Message springMessage) {
+		return toTablestoreMessage(conversationId, springMessage, TimeUtils.currentTimeMicroseconds());
+	}
+
+	/**
+	 * Convert a message into a row of the given conversation.
+	 * @param createTime the creation time in microseconds, which orders the messages of
+	 * a conversation
+	 */
+	public static com.aliyun.openservices.tablestore.agent.model.Message toTablestoreMessage(String conversationId,
+			Message springMessage, long createTime) {
 		String messageId = UUID.randomUUID().toString();
 		MessageType messageType = springMessage.getMessageType();
 		String text = springMessage.getText();
 		com.aliyun.openservices.tablestore.agent.model.Message message = new com.aliyun.openservices.tablestore.agent.model.Message(
-				conversationId, messageId);
+				conversationId, messageId, createTime);
 		try {
 			Metadata metadata = new Metadata();
 			for (Map.Entry<String, Object> entry : springMessage.getMetadata().entrySet()) {
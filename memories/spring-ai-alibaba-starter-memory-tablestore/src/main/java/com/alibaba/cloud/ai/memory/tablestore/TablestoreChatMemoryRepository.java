@@ -16,24 +16,83 @@
 package com.alibaba.cloud.ai.memory.tablestore;
 
 import com.alicloud.openservices.tablestore.SyncClient;
-import com.aliyun.openservices.tablestore.agent.memory.MemoryStore;
+import com.alicloud.openservices.tablestore.model.Column;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.model.ComputeSplitsBySizeRequest;
+import com.alicloud.openservices.tablestore.model.Direction;
+import com.alicloud.openservices.tablestore.model.GetRangeRequest;
+import com.alicloud.openservices.tablestore.model.GetRangeResponse;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyBuilder;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyValue;
+import com.alicloud.openservices.tablestore.model.RangeRowQueryCriteria;
+import com.alicloud.openservices.tablestore.model.Row;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowDeleteChange;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import com.alicloud.openservices.tablestore.model.Split;
 import com.aliyun.openservices.tablestore.agent.memory.MemoryStoreImpl;
 import com.aliyun.openservices.tablestore.agent.model.MetaType;
-import com.aliyun.openservices.tablestore.agent.model.Session;
 import com.aliyun.openservices.tablestore.agent.util.Pair;
+import com.aliyun.openservices.tablestore.agent.util.TablestoreHelper;
+import com.aliyun.openservices.tablestore.agent.util.TimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.util.Assert;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
- * Tablestore implementation of ChatMemoryRepository
+ * Tablestore implementation of ChatMemoryRepository.
+ *
+ * Saves are incremental: only the last stored messages, as many as are being saved, are
+ * read back. Those the new list still starts with are kept, only the remaining messages
+ * are put and the dropped ones deleted, in batch writes of up to
+ * {@value #BATCH_WRITE_MAX_ROWS} rows. Conversation ids can be listed page by page with a
+ * cursor, or all at once with one range scan per table split run in parallel on a shared
+ * executor.
  */
 public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 
+	private static final Logger logger = LoggerFactory.getLogger(TablestoreChatMemoryRepository.class);
+
+	/**
+	 * Row limit of a single BatchWriteRow request.
+	 */
+	static final int BATCH_WRITE_MAX_ROWS = 200;
+
+	/**
+	 * Request size kept below the 4 MB limit of a single BatchWriteRow request.
+	 */
+	static final int BATCH_WRITE_MAX_BYTES = 3 * 1024 * 1024;
+
+	private static final int LIST_BATCH_SIZE = 5000;
+
+	private static final int DEFAULT_LIST_PARALLELISM = 4;
+
+	private static final String USER_ID = "user_id";
+
+	private static final String SESSION_ID = "session_id";
+
+	private static final String UPDATE_TIME = "update_time";
+
+	private static final String CREATE_TIME = "create_time";
+
+	private static final String MESSAGE_ID = "message_id";
+
+	private static final String CONTENT = "content";
+
 	private SyncClient client;
 
 	private String sessionTableName = "session";
@@ -48,6 +107,10 @@ public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 
 	private MemoryStoreImpl store;
 
+	private int listParallelism = DEFAULT_LIST_PARALLELISM;
+
+	private volatile Executor listExecutor;
+
 	public TablestoreChatMemoryRepository(MemoryStoreImpl store) {
 		this.store = store;
 	}
@@ -86,17 +149,52 @@ public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 		return store;
 	}
 
+	/**
+	 * List every conversation id, scanning the splits of the session table in parallel.
+	 */
 	@Override
 	public List<String> findConversationIds() {
-		MemoryStore store = getStore();
-		Iterator<Session> iterator = store.listAllSessions();
-		List<String> list = new ArrayList<>();
-		while (iterator != null && iterator.hasNext() && list.size() < 10000) {
-			Session next = iterator.next();
-			String sessionId = next.getSessionId();
-			list.add(sessionId);
+		MemoryStoreImpl store = getStore();
+		List<Split> splits = store.getClient()
+			.computeSplitsBySize(new ComputeSplitsBySizeRequest(store.getSessionTableName(), 1))
+			.getSplits();
+		if (splits.size() <= 1 || listParallelism <= 1) {
+			return scanConversationIds(sessionKey(PrimaryKeyValue.INF_MIN, PrimaryKeyValue.INF_MIN),
+					sessionKey(PrimaryKeyValue.INF_MAX, PrimaryKeyValue.INF_MAX));
+		}
+		// At most listParallelism scans run at once, whatever the size of the executor.
+		Queue<Split> pending = new ConcurrentLinkedQueue<>(splits);
+		Executor executor = getListExecutor();
+		List<CompletableFuture<List<String>>> scans = new ArrayList<>();
+		for (int i = 0; i < Math.min(listParallelism, splits.size()); i++) {
+			scans.add(CompletableFuture.supplyAsync(() -> {
+				List<String> conversationIds = new ArrayList<>();
+				for (Split split = pending.poll(); split != null; split = pending.poll()) {
+					conversationIds.addAll(scanConversationIds(split.getLowerBound(), split.getUpperBound()));
+				}
+				return conversationIds;
+			}, executor));
 		}
-		return list;
+		List<String> conversationIds = new ArrayList<>();
+		scans.forEach(scan -> conversationIds.addAll(scan.join()));
+		return conversationIds;
+	}
+
+	/**
+	 * List one page of conversation ids.
+	 * @param nextToken the token of the previous page, {@code null} for the first page
+	 * @param pageSize the maximum number of ids to return
+	 */
+	public ConversationPage findConversationIds(String nextToken, int pageSize) {
+		Assert.isTrue(pageSize > 0, "pageSize must be positive");
+		PrimaryKey start = nextToken != null ? TablestoreHelper.decodeNextPrimaryKeyToken(nextToken)
+				: sessionKey(PrimaryKeyValue.INF_MIN, PrimaryKeyValue.INF_MIN);
+		GetRangeResponse response = getSessionRange(start,
+				sessionKey(PrimaryKeyValue.INF_MAX, PrimaryKeyValue.INF_MAX), pageSize);
+		List<String> conversationIds = response.getRows().stream().map(TablestoreChatMemoryRepository::sessionId).toList();
+		PrimaryKey next = response.getNextStartPrimaryKey();
+		return new ConversationPage(conversationIds,
+				next != null ? TablestoreHelper.encodeNextPrimaryKeyToken(next) : null);
 	}
 
 	@Override
@@ -114,16 +212,49 @@ public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
-		deleteByConversationId(conversationId);
-		String md5UserId = MessageUtils.getMD5UserId(conversationId);
-		Session session = new Session(md5UserId, conversationId);
-		getStore().putSession(session);
-		session.getMetadata().put("messagesCount", messages.size());
-		for (Message message : messages) {
-			com.aliyun.openservices.tablestore.agent.model.Message tablestoreMessage = MessageUtils
-				.toTablestoreMessage(conversationId, message);
-			getStore().putMessage(tablestoreMessage);
+		Assert.hasText(conversationId, "conversationId cannot be null or empty");
+		Assert.notNull(messages, "messages cannot be null");
+		if (messages.isEmpty()) {
+			deleteByConversationId(conversationId);
+			return;
+		}
+		MemoryStoreImpl store = getStore();
+		List<com.aliyun.openservices.tablestore.agent.model.Message> stored = readTail(store, conversationId,
+				messages.size());
+
+		long now = TimeUtils.currentTimeMicroseconds();
+		List<com.aliyun.openservices.tablestore.agent.model.Message> incoming = new ArrayList<>(messages.size());
+		for (int i = 0; i < messages.size(); i++) {
+			incoming.add(MessageUtils.toTablestoreMessage(conversationId, messages.get(i), now + i));
+		}
+		int keptFrom = findOverlapStart(stored, incoming);
+		int overlap = stored.size() - keptFrom;
+
+		List<RowChange> changes = new ArrayList<>();
+		RowPutChange session = new RowPutChange(store.getSessionTableName(),
+				sessionKey(PrimaryKeyValue.fromString(MessageUtils.getMD5UserId(conversationId)),
+						PrimaryKeyValue.fromString(conversationId)));
+		session.addColumn(new Column(UPDATE_TIME, ColumnValue.fromLong(now)));
+		changes.add(session);
+		// New rows sort after every kept row even if the clock went backwards.
+		long base = overlap > 0 ? Math.max(now, stored.get(stored.size() - 1).getCreateTime() + 1) : now;
+		for (int i = overlap; i < incoming.size(); i++) {
+			com.aliyun.openservices.tablestore.agent.model.Message message = incoming.get(i);
+			message.setCreateTime(base + i - overlap);
+			changes.add(putMessageChange(store.getMessageTableName(), message));
+		}
+		if (stored.size() == messages.size()) {
+			// The tail is full, so older messages may precede it and must go as well.
+			scanMessageKeys(store, conversationId, messageKey(stored.get(0)))
+				.forEach(key -> changes.add(new RowDeleteChange(store.getMessageTableName(), key)));
+		}
+		for (int i = 0; i < keptFrom; i++) {
+			changes.add(new RowDeleteChange(store.getMessageTableName(), messageKey(stored.get(i))));
 		}
+		batchWrite(store.getClient(), changes);
+		int added = incoming.size() - overlap;
+		logger.debug("Saved conversation {}: {} messages kept, {} added, {} removed", conversationId, overlap, added,
+				changes.size() - 1 - added);
 	}
 
 	@Override
@@ -132,6 +263,207 @@ public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 		getStore().deleteSessionAndMessages(md5UserId, conversationId);
 	}
 
+	/**
+	 * Parallelism of {@link #findConversationIds()}, one range scan per table split.
+	 */
+	public void setListParallelism(int listParallelism) {
+		Assert.isTrue(listParallelism > 0, "listParallelism must be positive");
+		this.listParallelism = listParallelism;
+	}
+
+	/**
+	 * Executor of the parallel scans of {@link #findConversationIds()}. Defaults to a
+	 * cached pool of daemon threads shared by all calls of this repository.
+	 */
+	public void setListExecutor(Executor listExecutor) {
+		Assert.notNull(listExecutor, "listExecutor cannot be null");
+		this.listExecutor = listExecutor;
+	}
+
+	private Executor getListExecutor() {
+		if (listExecutor == null) {
+			synchronized (this) {
+				if (listExecutor == null) {
+					listExecutor = Executors.newCachedThreadPool(runnable -> {
+						Thread thread = new Thread(runnable, "tablestore-memory-list");
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+			}
+		}
+		return listExecutor;
+	}
+
+	/**
+	 * Read the last messages of a conversation, oldest first.
+	 */
+	private static List<com.aliyun.openservices.tablestore.agent.model.Message> readTail(MemoryStoreImpl store,
+			String conversationId, int limit) {
+		RangeRowQueryCriteria criteria = new RangeRowQueryCriteria(store.getMessageTableName());
+		criteria.setDirection(Direction.BACKWARD);
+		criteria.setInclusiveStartPrimaryKey(messageKey(conversationId, PrimaryKeyValue.INF_MAX));
+		criteria.setExclusiveEndPrimaryKey(messageKey(conversationId, PrimaryKeyValue.INF_MIN));
+		criteria.setMaxVersions(1);
+		List<com.aliyun.openservices.tablestore.agent.model.Message> tail = new ArrayList<>(limit);
+		while (tail.size() < limit) {
+			criteria.setLimit(limit - tail.size());
+			GetRangeResponse response = store.getClient().getRange(new GetRangeRequest(criteria));
+			response.getRows().forEach(row -> tail.add(TablestoreHelper.rowToMessage(row)));
+			if (response.getNextStartPrimaryKey() == null) {
+				break;
+			}
+			criteria.setInclusiveStartPrimaryKey(response.getNextStartPrimaryKey());
+		}
+		Collections.reverse(tail);
+		return tail;
+	}
+
+	/**
+	 * List the keys of the messages of a conversation that sort before the given key.
+	 */
+	private static List<PrimaryKey> scanMessageKeys(MemoryStoreImpl store, String conversationId, PrimaryKey end) {
+		RangeRowQueryCriteria criteria = new RangeRowQueryCriteria(store.getMessageTableName());
+		criteria.setInclusiveStartPrimaryKey(messageKey(conversationId, PrimaryKeyValue.INF_MIN));
+		criteria.setExclusiveEndPrimaryKey(end);
+		criteria.setMaxVersions(1);
+		criteria.setLimit(LIST_BATCH_SIZE);
+		criteria.addColumnsToGet(SESSION_ID);
+		List<PrimaryKey> keys = new ArrayList<>();
+		PrimaryKey next = criteria.getInclusiveStartPrimaryKey();
+		while (next != null) {
+			criteria.setInclusiveStartPrimaryKey(next);
+			GetRangeResponse response = store.getClient().getRange(new GetRangeRequest(criteria));
+			response.getRows().forEach(row -> keys.add(row.getPrimaryKey()));
+			next = response.getNextStartPrimaryKey();
+		}
+		return keys;
+	}
+
+	private List<String> scanConversationIds(PrimaryKey start, PrimaryKey end) {
+		List<String> conversationIds = new ArrayList<>();
+		PrimaryKey next = start;
+		while (next != null) {
+			GetRangeResponse response = getSessionRange(next, end, LIST_BATCH_SIZE);
+			response.getRows().forEach(row -> conversationIds.add(sessionId(row)));
+			next = response.getNextStartPrimaryKey();
+		}
+		return conversationIds;
+	}
+
+	private GetRangeResponse getSessionRange(PrimaryKey start, PrimaryKey end, int limit) {
+		MemoryStoreImpl store = getStore();
+		RangeRowQueryCriteria criteria = new RangeRowQueryCriteria(store.getSessionTableName());
+		criteria.setInclusiveStartPrimaryKey(start);
+		criteria.setExclusiveEndPrimaryKey(end);
+		criteria.setMaxVersions(1);
+		criteria.setLimit(limit);
+		criteria.addColumnsToGet(SESSION_ID);
+		return store.getClient().getRange(new GetRangeRequest(criteria));
+	}
+
+	/**
+	 * Find where the stored messages start to overlap the new ones: the first index from
+	 * which the stored messages are a prefix of the new messages, or the stored size when
+	 * they do not overlap at all.
+	 */
+	static int findOverlapStart(List<com.aliyun.openservices.tablestore.agent.model.Message> stored,
+			List<com.aliyun.openservices.tablestore.agent.model.Message> incoming) {
+		for (int start = Math.max(0, stored.size() - incoming.size()); start < stored.size(); start++) {
+			boolean matches = true;
+			for (int i = start; i < stored.size() && matches; i++) {
+				matches = sameMessage(stored.get(i), incoming.get(i - start));
+			}
+			if (matches) {
+				return start;
+			}
+		}
+		return stored.size();
+	}
+
+	private static boolean sameMessage(com.aliyun.openservices.tablestore.agent.model.Message stored,
+			com.aliyun.openservices.tablestore.agent.model.Message incoming) {
+		return Objects.equals(stored.getContent(), incoming.getContent())
+				&& Objects.equals(metadataString(stored, MessageUtils.MESSAGE_TYPE),
+						metadataString(incoming, MessageUtils.MESSAGE_TYPE))
+				&& Objects.equals(metadataString(stored, MessageUtils.MESSAGE_TOOL_RESPONSE),
+						metadataString(incoming, MessageUtils.MESSAGE_TOOL_RESPONSE));
+	}
+
+	private static String metadataString(com.aliyun.openservices.tablestore.agent.model.Message message, String key) {
+		return message.getMetadata() != null ? message.getMetadata().getString(key) : null;
+	}
+
+	private static RowPutChange putMessageChange(String tableName,
+			com.aliyun.openservices.tablestore.agent.model.Message message) {
+		RowPutChange change = new RowPutChange(tableName, messageKey(message));
+		List<Column> columns = TablestoreHelper.metadataToColumns(message.getMetadata());
+		if (message.getContent() != null) {
+			columns.add(new Column(CONTENT, ColumnValue.fromString(message.getContent())));
+		}
+		change.addColumns(columns);
+		return change;
+	}
+
+	/**
+	 * Write the changes in as few BatchWriteRow requests as the row and size limits allow.
+	 */
+	private static void batchWrite(SyncClient client, List<RowChange> changes) {
+		List<RowChange> batch = new ArrayList<>();
+		int batchBytes = 0;
+		for (RowChange change : changes) {
+			int changeBytes = dataSize(change);
+			if (!batch.isEmpty()
+					&& (batch.size() == BATCH_WRITE_MAX_ROWS || batchBytes + changeBytes > BATCH_WRITE_MAX_BYTES)) {
+				TablestoreHelper.batchWrite(client, batch);
+				batch = new ArrayList<>();
+				batchBytes = 0;
+			}
+			batch.add(change);
+			batchBytes += changeBytes;
+		}
+		if (!batch.isEmpty()) {
+			TablestoreHelper.batchWrite(client, batch);
+		}
+	}
+
+	private static int dataSize(RowChange change) {
+		int size = change.getPrimaryKey().getDataSize();
+		if (change instanceof RowPutChange put) {
+			for (Column column : put.getColumnsToPut()) {
+				size += column.getDataSize();
+			}
+		}
+		return size;
+	}
+
+	private static PrimaryKey sessionKey(PrimaryKeyValue userId, PrimaryKeyValue sessionId) {
+		return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+			.addPrimaryKeyColumn(USER_ID, userId)
+			.addPrimaryKeyColumn(SESSION_ID, sessionId)
+			.build();
+	}
+
+	private static PrimaryKey messageKey(String conversationId, PrimaryKeyValue bound) {
+		return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+			.addPrimaryKeyColumn(SESSION_ID, PrimaryKeyValue.fromString(conversationId))
+			.addPrimaryKeyColumn(CREATE_TIME, bound)
+			.addPrimaryKeyColumn(MESSAGE_ID, bound)
+			.build();
+	}
+
+	private static PrimaryKey messageKey(com.aliyun.openservices.tablestore.agent.model.Message message) {
+		return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+			.addPrimaryKeyColumn(SESSION_ID, PrimaryKeyValue.fromString(message.getSessionId()))
+			.addPrimaryKeyColumn(CREATE_TIME, PrimaryKeyValue.fromLong(message.getCreateTime()))
+			.addPrimaryKeyColumn(MESSAGE_ID, PrimaryKeyValue.fromString(message.getMessageId()))
+			.build();
+	}
+
+	private static String sessionId(Row row) {
+		return row.getPrimaryKey().getPrimaryKeyColumn(SESSION_ID).getValue().asString();
+	}
+
 	public SyncClient getClient() {
 		return client;
 	}
@@ -144,6 +476,10 @@ public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 		return sessionSecondaryIndexName;
 	}
 
+	public int getListParallelism() {
+		return listParallelism;
+	}
+
 	public List<Pair<String, MetaType>> getSessionSecondaryIndexMeta() {
 		return sessionSecondaryIndexMeta;
 	}
@@ -156,4 +492,13 @@ public class TablestoreChatMemoryRepository implements ChatMemoryRepository {
 		return messageSecondaryIndexName;
 	}
 
+	/**
+	 * A page of conversation ids.
+	 *
+	 * @param conversationIds the ids of this page
+	 * @param nextToken the token of the next page, {@code null} after the last page
+	 */
+	public record ConversationPage(List<String> conversationIds, String nextToken) {
+	}
+
 }
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -130,4 +131,67 @@ class TablestoreChatMemoryRepositoryTest {
 		assertThat(conversationIds).isEmpty();
 	}
 
+	@Test
+	void saveAllKeepsOverlappingMessagesInOrder() {
+		var conversationId = UUID.randomUUID().toString();
+		chatMemoryRepository.saveAll(conversationId,
+				List.of(new UserMessage("1"), new AssistantMessage("2"), new UserMessage("3")));
+
+		chatMemoryRepository.saveAll(conversationId, List.of(new AssistantMessage("2"), new UserMessage("3"),
+				new AssistantMessage("4"), new UserMessage("5")));
+
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).extracting(Message::getText)
+			.containsExactly("2", "3", "4", "5");
+	}
+
+	@Test
+	void saveAllRemovesMessagesBeforeTheTail() {
+		var conversationId = UUID.randomUUID().toString();
+		chatMemoryRepository.saveAll(conversationId, List.of(new UserMessage("1"), new AssistantMessage("2"),
+				new UserMessage("3"), new AssistantMessage("4"), new UserMessage("5")));
+
+		chatMemoryRepository.saveAll(conversationId, List.of(new UserMessage("5"), new AssistantMessage("6")));
+
+		assertThat(chatMemoryRepository.findByConversationId(conversationId)).extracting(Message::getText)
+			.containsExactly("5", "6");
+	}
+
+	@Test
+	void findConversationIdsOnInjectedExecutor() {
+		var conversationId = UUID.randomUUID().toString();
+		chatMemoryRepository.saveAll(conversationId, List.of(new UserMessage("Message - " + conversationId)));
+		var repository = new TablestoreChatMemoryRepository(chatMemoryRepository.getStore());
+		AtomicInteger tasks = new AtomicInteger();
+		repository.setListExecutor(task -> {
+			tasks.incrementAndGet();
+			task.run();
+		});
+
+		assertThat(repository.findConversationIds()).contains(conversationId);
+		assertThat(tasks.get()).isLessThanOrEqualTo(repository.getListParallelism());
+	}
+
+	@Test
+	void findConversationIdsByPage() {
+		Set<String> savedConversationIds = new HashSet<>();
+		for (int i = 0; i < 5; i++) {
+			var conversationId = UUID.randomUUID().toString();
+			chatMemoryRepository.saveAll(conversationId, List.of(new UserMessage("Message - " + conversationId)));
+			savedConversationIds.add(conversationId);
+		}
+
+		Set<String> listed = new HashSet<>();
+		String nextToken = null;
+		do {
+			TablestoreChatMemoryRepository.ConversationPage page = chatMemoryRepository.findConversationIds(nextToken,
+					2);
+			assertThat(page.conversationIds()).hasSizeLessThanOrEqualTo(2);
+			listed.addAll(page.conversationIds());
+			nextToken = page.nextToken();
+		}
+		while (nextToken != null);
+
+		assertThat(listed).isEqualTo(savedConversationIds);
+	}
+
 }
@@ -16,7 +16,9 @@
 
 package com.alibaba.cloud.ai.advisor;
 
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -71,6 +73,11 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 
 	private static final int DEFAULT_ORDER = 0;
 
+	/**
+	 * Number of distinct filter texts whose parsed expression is kept.
+	 */
+	private static final int FILTER_EXPRESSION_CACHE_SIZE = 256;
+
 	private final VectorStore vectorStore;
 
 	private final RerankModel rerankModel;
@@ -83,6 +90,16 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 
 	private final int order;
 
+	private final int maxRerankCandidates;
+
+	private final Map<String, Filter.Expression> filterExpressionCache = Collections
+		.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Filter.Expression> eldest) {
+				return size() > FILTER_EXPRESSION_CACHE_SIZE;
+			}
+		});
+
 	public static final String RETRIEVED_DOCUMENTS = "qa_retrieved_documents";
 
 	public static final String FILTER_EXPRESSION = "qa_filter_expression";
@@ -106,10 +123,20 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 
 	public RetrievalRerankAdvisor(VectorStore vectorStore, RerankModel rerankModel, SearchRequest searchRequest,
 			PromptTemplate promptTemplate, Double minScore, int order) {
+		this(vectorStore, rerankModel, searchRequest, promptTemplate, minScore, order, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param maxRerankCandidates the maximum number of retrieved documents sent to the
+	 * rerank model, the most similar ones are kept
+	 */
+	public RetrievalRerankAdvisor(VectorStore vectorStore, RerankModel rerankModel, SearchRequest searchRequest,
+			PromptTemplate promptTemplate, Double minScore, int order, int maxRerankCandidates) {
 		Assert.notNull(vectorStore, "The vectorStore must not be null!");
 		Assert.notNull(rerankModel, "The rerankModel must not be null!");
 		Assert.notNull(searchRequest, "The searchRequest must not be null!");
 		Assert.notNull(promptTemplate, "The userTextAdvise must not be null!");
+		Assert.isTrue(maxRerankCandidates > 0, "The maxRerankCandidates must be positive!");
 
 		this.vectorStore = vectorStore;
 		this.rerankModel = rerankModel;
@@ -117,6 +144,7 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 		this.searchRequest = searchRequest;
 		this.minScore = minScore;
 		this.order = order;
+		this.maxRerankCandidates = maxRerankCandidates;
 	}
 
 	@Override
@@ -130,7 +158,13 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 				|| !StringUtils.hasText(context.get(FILTER_EXPRESSION).toString())) {
 			return this.searchRequest.getFilterExpression();
 		}
-		return new FilterExpressionTextParser().parse(context.get(FILTER_EXPRESSION).toString());
+		String filterExpression = context.get(FILTER_EXPRESSION).toString();
+		Filter.Expression expression = this.filterExpressionCache.get(filterExpression);
+		if (expression == null) {
+			expression = new FilterExpressionTextParser().parse(filterExpression);
+			this.filterExpressionCache.put(filterExpression, expression);
+		}
+		return expression;
 
 	}
 
@@ -139,6 +173,12 @@ public class RetrievalRerankAdvisor implements BaseAdvisor {
 			return documents;
 		}
 
+		if (documents.size() > this.maxRerankCandidates) {
+			logger.debug("reranking the first {} of {} retrieved documents", this.maxRerankCandidates,
+					documents.size());
+			documents = documents.subList(0, this.maxRerankCandidates);
+		}
+
 		var rerankRequest = new RerankRequest(request.prompt().getUserMessage().getText(), documents);
 
 		RerankResponse response = rerankModel.call(rerankRequest);
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.advisor;
+
+import com.alibaba.cloud.ai.document.DocumentWithScore;
+import com.alibaba.cloud.ai.model.RerankModel;
+import com.alibaba.cloud.ai.model.RerankRequest;
+import com.alibaba.cloud.ai.model.RerankResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the filter expression cache and the candidate cap of
+ * {@link RetrievalRerankAdvisor}.
+ */
+class RetrievalRerankAdvisorRequestTests {
+
+	private static final PromptTemplate PROMPT_TEMPLATE = new PromptTemplate("{query} {question_answer_context}");
+
+	private final VectorStore vectorStore = mock(VectorStore.class);
+
+	private final RerankModel rerankModel = mock(RerankModel.class);
+
+	private final AdvisorChain advisorChain = mock(AdvisorChain.class);
+
+	@Test
+	void reranksOnlyTheMostSimilarCandidates() {
+		List<Document> documents = IntStream.range(0, 10).mapToObj(i -> new Document("doc-" + i, "text " + i, Map.of())).toList();
+		when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(documents);
+		when(rerankModel.call(any())).thenReturn(new RerankResponse(List.of(DocumentWithScore.builder()
+			.withDocument(documents.get(1))
+			.withScore(0.9)
+			.build())));
+		var advisor = new RetrievalRerankAdvisor(vectorStore, rerankModel, SearchRequest.builder().topK(10).build(),
+				PROMPT_TEMPLATE, 0.1, 0, 3);
+
+		ChatClientRequest result = advisor.before(request(null), advisorChain);
+
+		ArgumentCaptor<RerankRequest> rerankRequest = ArgumentCaptor.forClass(RerankRequest.class);
+		verify(rerankModel).call(rerankRequest.capture());
+		assertThat(rerankRequest.getValue().getInstructions()).extracting(Document::getId)
+			.containsExactly("doc-0", "doc-1", "doc-2");
+		assertThat(result.prompt().getUserMessage().getText()).contains("text 1").doesNotContain("text 0");
+		assertThat(result.context().get(RetrievalRerankAdvisor.RETRIEVED_DOCUMENTS)).isEqualTo(documents);
+	}
+
+	@Test
+	void sameFilterTextIsParsedOnce() {
+		when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of());
+		var advisor = new RetrievalRerankAdvisor(vectorStore, rerankModel);
+
+		advisor.before(request("country == 'CN' && year >= 2020"), advisorChain);
+		advisor.before(request("country == 'CN' && year >= 2020"), advisorChain);
+
+		ArgumentCaptor<SearchRequest> searchRequest = ArgumentCaptor.forClass(SearchRequest.class);
+		verify(vectorStore, times(2)).similaritySearch(searchRequest.capture());
+		List<SearchRequest> searches = searchRequest.getAllValues();
+		assertThat(searches.get(0).getFilterExpression()).isNotNull()
+			.isSameAs(searches.get(1).getFilterExpression());
+	}
+
+	private static ChatClientRequest request(String filterExpression) {
+		Map<String, Object> context = new HashMap<>();
+		if (filterExpression != null) {
+			context.put(RetrievalRerankAdvisor.FILTER_EXPRESSION, filterExpression);
+		}
+		return ChatClientRequest.builder().prompt(new Prompt("What is Spring AI?")).context(context).build();
+	}
+
+}
@@ -155,6 +155,10 @@ public class MemcachedService {
 
 	}
 
+	public MemcachedClient getMemcachedClient() {
+		return memcachedClient;
+	}
+
 	public MemcachedServiceSetter setter() {
 		return setter;
 	}
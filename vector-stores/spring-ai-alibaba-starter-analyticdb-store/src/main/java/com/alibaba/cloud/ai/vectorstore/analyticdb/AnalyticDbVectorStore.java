@@ -15,14 +15,20 @@
  */
 package com.alibaba.cloud.ai.vectorstore.analyticdb;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
+import com.alibaba.cloud.ai.vectorstore.common.VectorEncoding;
 import com.aliyun.gpdb20160503.Client;
 import com.aliyun.gpdb20160503.models.CreateCollectionRequest;
 import com.aliyun.gpdb20160503.models.CreateNamespaceRequest;
@@ -81,6 +87,14 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 
 	private static final Double DEFAULT_SIMILARITY_THRESHOLD = 0.0;
 
+	public static final int DEFAULT_UPSERT_BATCH_SIZE = 200;
+
+	public static final int DEFAULT_UPSERT_PARALLELISM = 2;
+
+	public static final int DEFAULT_UPSERT_MAX_RETRIES = 2;
+
+	private static final long UPSERT_RETRY_BACKOFF_MILLIS = 200;
+
 	public final FilterExpressionConverter filterExpressionConverter = new AdVectorFilterExpressionConverter();
 
 	// private final boolean initializeSchema;
@@ -97,6 +111,12 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 
 	private final Double defaultSimilarityThreshold;
 
+	private final int upsertBatchSize;
+
+	private final int upsertParallelism;
+
+	private final int upsertMaxRetries;
+
 	protected AnalyticDbVectorStore(Builder builder) throws Exception {
 		super(builder);
 		// collection_name must be updated every time
@@ -106,6 +126,9 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 		this.objectMapper = JsonMapper.builder().addModules(JacksonUtils.instantiateAvailableModules()).build();
 		this.defaultSimilarityThreshold = builder.defaultSimilarityThreshold;
 		this.defaultTopK = builder.defaultTopK;
+		this.upsertBatchSize = builder.upsertBatchSize;
+		this.upsertParallelism = builder.upsertParallelism;
+		this.upsertMaxRetries = builder.upsertMaxRetries;
 	}
 
 	public static Builder builder(String collectionName, AnalyticDbConfig config, Client client,
@@ -200,19 +223,56 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 		}
 	}
 
+	/**
+	 * Embeds and upserts the documents in chunks of {@code upsertBatchSize}. Each chunk is
+	 * embedded while up to {@code upsertParallelism} earlier chunks are being uploaded, so
+	 * only that many chunks of vectors are held in memory at once. Failed uploads are
+	 * retried per chunk.
+	 */
 	@Override
 	public void doAdd(List<Document> documents) {
 		Assert.notNull(documents, "The document list should not be null.");
 		if (CollectionUtils.isEmpty(documents)) {
 			return; // nothing to do;
 		}
+		int chunks = (documents.size() + this.upsertBatchSize - 1) / this.upsertBatchSize;
+		if (chunks == 1) {
+			upsert(toRows(documents));
+			return;
+		}
+		int parallelism = Math.min(this.upsertParallelism, chunks);
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>(parallelism);
+		try {
+			for (int from = 0; from < documents.size(); from += this.upsertBatchSize) {
+				List<Document> chunk = documents.subList(from, Math.min(from + this.upsertBatchSize, documents.size()));
+				List<UpsertCollectionDataRequest.UpsertCollectionDataRequestRows> rows = toRows(chunk);
+				if (inFlight.size() >= parallelism) {
+					inFlight.removeFirst().join();
+				}
+				inFlight.addLast(CompletableFuture.runAsync(() -> upsert(rows), executor));
+			}
+			inFlight.forEach(CompletableFuture::join);
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	private List<UpsertCollectionDataRequest.UpsertCollectionDataRequestRows> toRows(List<Document> documents) {
 		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(),
 				this.batchingStrategy);
 
-		List<UpsertCollectionDataRequest.UpsertCollectionDataRequestRows> rows = new ArrayList<>(10);
+		List<UpsertCollectionDataRequest.UpsertCollectionDataRequestRows> rows = new ArrayList<>(documents.size());
 		for (int i = 0; i < documents.size(); i++) {
 			Document doc = documents.get(i);
-			logger.info("Processing document id = {}", doc.getId());
+			logger.debug("Processing document id = {}", doc.getId());
 
 			Map<String, String> metadata = new HashMap<>();
 			String refDocId;
@@ -228,14 +288,14 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 				throw new RuntimeException("Failed to serialize metadata for document id = " + doc.getId(), e);
 			}
 
-			float[] floatEmbeddings = embeddings.get(i);
-			List<Double> embedding = IntStream.range(0, floatEmbeddings.length)
-				.mapToObj(j -> (double) floatEmbeddings[j])
-				.toList();
-
-			rows.add(new UpsertCollectionDataRequest.UpsertCollectionDataRequestRows().setVector(embedding)
+			rows.add(new UpsertCollectionDataRequest.UpsertCollectionDataRequestRows()
+				.setVector(VectorEncoding.asDoubleList(embeddings.get(i)))
 				.setMetadata(metadata));
 		}
+		return rows;
+	}
+
+	private void upsert(List<UpsertCollectionDataRequest.UpsertCollectionDataRequestRows> rows) {
 		UpsertCollectionDataRequest request = new UpsertCollectionDataRequest()
 			.setDBInstanceId(this.config.getDbInstanceId())
 			.setRegionId(this.config.getRegionId())
@@ -243,12 +303,37 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 			.setNamespacePassword(this.config.getNamespacePassword())
 			.setCollection(this.collectionName)
 			.setRows(rows);
-		try {
-			this.client.upsertCollectionData(request);
+		for (int attempt = 0;; attempt++) {
+			try {
+				this.client.upsertCollectionData(request);
+				return;
+			}
+			catch (Exception e) {
+				if (attempt >= this.upsertMaxRetries || !isRetryable(e)) {
+					throw new RuntimeException("Failed to add collection data by IDs: " + e.getMessage(), e);
+				}
+				logger.warn("Upsert of {} rows failed, retrying ({}/{}): {}", rows.size(), attempt + 1,
+						this.upsertMaxRetries, e.getMessage());
+			}
+			try {
+				Thread.sleep(UPSERT_RETRY_BACKOFF_MILLIS << attempt);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while retrying to add collection data", e);
+			}
 		}
-		catch (Exception e) {
-			throw new RuntimeException("Failed to add collection data by IDs: " + e.getMessage(), e);
+	}
+
+	/**
+	 * Client errors other than throttling are not retried, they would fail again.
+	 */
+	private static boolean isRetryable(Exception e) {
+		if (e instanceof TeaException teaException && teaException.getStatusCode() != null) {
+			int statusCode = teaException.getStatusCode();
+			return statusCode == 429 || statusCode >= 500;
 		}
+		return true;
 	}
 
 	@Override
@@ -384,6 +469,12 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 
 		private Double defaultSimilarityThreshold = DEFAULT_SIMILARITY_THRESHOLD;
 
+		private int upsertBatchSize = DEFAULT_UPSERT_BATCH_SIZE;
+
+		private int upsertParallelism = DEFAULT_UPSERT_PARALLELISM;
+
+		private int upsertMaxRetries = DEFAULT_UPSERT_MAX_RETRIES;
+
 		private Builder(String collectionName, AnalyticDbConfig config, Client client, EmbeddingModel embeddingModel) {
 			super(embeddingModel);
 			Assert.notNull(client, "Client must not be null");
@@ -420,6 +511,42 @@ public class AnalyticDbVectorStore extends AbstractObservationVectorStore implem
 			return this;
 		}
 
+		/**
+		 * Sets the maximum number of rows sent in one upsert request.
+		 * @param upsertBatchSize the number of rows per request
+		 * @return the builder instance
+		 * @throws IllegalArgumentException if upsertBatchSize is not positive
+		 */
+		public Builder upsertBatchSize(int upsertBatchSize) {
+			Assert.isTrue(upsertBatchSize > 0, "The upsertBatchSize should be positive value.");
+			this.upsertBatchSize = upsertBatchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the number of upsert requests in flight while the next chunk is embedded.
+		 * @param upsertParallelism the number of concurrent upsert requests
+		 * @return the builder instance
+		 * @throws IllegalArgumentException if upsertParallelism is not positive
+		 */
+		public Builder upsertParallelism(int upsertParallelism) {
+			Assert.isTrue(upsertParallelism > 0, "The upsertParallelism should be positive value.");
+			this.upsertParallelism = upsertParallelism;
+			return this;
+		}
+
+		/**
+		 * Sets how often a failed upsert request is retried.
+		 * @param upsertMaxRetries the number of retries per request
+		 * @return the builder instance
+		 * @throws IllegalArgumentException if upsertMaxRetries is negative
+		 */
+		public Builder upsertMaxRetries(int upsertMaxRetries) {
+			Assert.isTrue(upsertMaxRetries >= 0, "The upsertMaxRetries should not be negative.");
+			this.upsertMaxRetries = upsertMaxRetries;
+			return this;
+		}
+
 		@Override
 		public AnalyticDbVectorStore build() {
 			try {
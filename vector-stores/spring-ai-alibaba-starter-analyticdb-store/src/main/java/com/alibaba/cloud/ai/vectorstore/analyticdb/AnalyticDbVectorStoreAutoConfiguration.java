@@ -81,7 +81,10 @@ public class AnalyticDbVectorStoreAutoConfiguration {
 		var builder = AnalyticDbVectorStore.builder(properties.getCollectName(), config, client, embeddingModel)
 			.batchingStrategy(batchingStrategy)
 			.observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
-			.customObservationConvention(customObservationConvention.getIfAvailable(() -> null));
+			.customObservationConvention(customObservationConvention.getIfAvailable(() -> null))
+			.upsertBatchSize(properties.getUpsertBatchSize())
+			.upsertParallelism(properties.getUpsertParallelism())
+			.upsertMaxRetries(properties.getUpsertMaxRetries());
 		if (properties.getDefaultTopK() >= 0) {
 			builder.defaultTopK(properties.getDefaultTopK());
 		}
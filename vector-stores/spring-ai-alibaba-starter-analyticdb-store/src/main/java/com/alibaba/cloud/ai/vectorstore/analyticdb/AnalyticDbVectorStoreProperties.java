@@ -57,6 +57,12 @@ public class AnalyticDbVectorStoreProperties extends CommonVectorStoreProperties
 
 	private Double defaultSimilarityThreshold = -1.0;
 
+	private int upsertBatchSize = AnalyticDbVectorStore.DEFAULT_UPSERT_BATCH_SIZE;
+
+	private int upsertParallelism = AnalyticDbVectorStore.DEFAULT_UPSERT_PARALLELISM;
+
+	private int upsertMaxRetries = AnalyticDbVectorStore.DEFAULT_UPSERT_MAX_RETRIES;
+
 	public String getCollectName() {
 		return collectName;
 	}
@@ -169,6 +175,30 @@ public class AnalyticDbVectorStoreProperties extends CommonVectorStoreProperties
 		this.defaultSimilarityThreshold = defaultSimilarityThreshold;
 	}
 
+	public int getUpsertBatchSize() {
+		return upsertBatchSize;
+	}
+
+	public void setUpsertBatchSize(int upsertBatchSize) {
+		this.upsertBatchSize = upsertBatchSize;
+	}
+
+	public int getUpsertParallelism() {
+		return upsertParallelism;
+	}
+
+	public void setUpsertParallelism(int upsertParallelism) {
+		this.upsertParallelism = upsertParallelism;
+	}
+
+	public int getUpsertMaxRetries() {
+		return upsertMaxRetries;
+	}
+
+	public void setUpsertMaxRetries(int upsertMaxRetries) {
+		this.upsertMaxRetries = upsertMaxRetries;
+	}
+
 	public Map<String, Object> toAnalyticDbClientParams() {
 		Map<String, Object> params = new HashMap<>();
 		params.put("accessKeyId", this.accessKeyId);
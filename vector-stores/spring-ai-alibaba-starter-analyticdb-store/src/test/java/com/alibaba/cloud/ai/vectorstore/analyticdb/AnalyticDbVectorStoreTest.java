@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.analyticdb;
+
+import com.alibaba.cloud.ai.vectorstore.common.VectorEncoding;
+import com.aliyun.gpdb20160503.Client;
+import com.aliyun.gpdb20160503.models.UpsertCollectionDataRequest;
+import com.aliyun.gpdb20160503.models.UpsertCollectionDataResponse;
+import com.aliyun.tea.TeaException;
+import com.aliyun.teautil.Common;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the chunked upserts of {@link AnalyticDbVectorStore}.
+ */
+class AnalyticDbVectorStoreTest {
+
+	private final Client client = mock(Client.class);
+
+	private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+
+	@BeforeEach
+	void setUp() {
+		when(embeddingModel.embed(anyList(), any(), any())).thenAnswer(invocation -> {
+			List<Document> documents = invocation.getArgument(0);
+			return documents.stream().map(document -> new float[] { 0.5f, 0.25f }).toList();
+		});
+	}
+
+	@Test
+	void addUpsertsDocumentsInChunks() throws Exception {
+		List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<>());
+		when(client.upsertCollectionData(any())).thenAnswer(invocation -> {
+			chunkSizes.add(invocation.<UpsertCollectionDataRequest>getArgument(0).getRows().size());
+			return new UpsertCollectionDataResponse();
+		});
+		AnalyticDbVectorStore vectorStore = vectorStore().upsertBatchSize(3).upsertParallelism(2).build();
+
+		vectorStore.add(documents(8));
+
+		assertThat(chunkSizes).containsExactlyInAnyOrder(3, 3, 2);
+		verify(embeddingModel, times(3)).embed(anyList(), any(), any());
+	}
+
+	@Test
+	void failedChunkIsRetried() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		when(client.upsertCollectionData(any())).thenAnswer(invocation -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw teaException(503, "busy");
+			}
+			return new UpsertCollectionDataResponse();
+		});
+		AnalyticDbVectorStore vectorStore = vectorStore().build();
+
+		vectorStore.add(documents(2));
+
+		assertThat(attempts).hasValue(2);
+	}
+
+	@Test
+	void clientErrorsAreNotRetried() throws Exception {
+		when(client.upsertCollectionData(any()))
+			.thenThrow(teaException(400, "invalid dimension"));
+		AnalyticDbVectorStore vectorStore = vectorStore().upsertBatchSize(1).upsertParallelism(1).build();
+
+		assertThatThrownBy(() -> vectorStore.add(documents(3))).isInstanceOf(RuntimeException.class)
+			.hasMessageContaining("invalid dimension");
+		verify(client, times(1)).upsertCollectionData(any());
+	}
+
+	@Test
+	void vectorsAreSerializedAsNumbers() {
+		UpsertCollectionDataRequest.UpsertCollectionDataRequestRows row = new UpsertCollectionDataRequest.UpsertCollectionDataRequestRows()
+			.setVector(VectorEncoding.asDoubleList(new float[] { 0.5f, -2f }));
+
+		assertThat(Common.toJSONString(List.of(row))).contains("[0.5,-2.0]");
+	}
+
+	private AnalyticDbVectorStore.Builder vectorStore() {
+		AnalyticDbConfig config = new AnalyticDbConfig().setRegionId("cn-beijing")
+			.setDbInstanceId("gp-test")
+			.setNamespace("test")
+			.setNamespacePassword("test");
+		return AnalyticDbVectorStore.builder("test_collection", config, client, embeddingModel);
+	}
+
+	private static TeaException teaException(int statusCode, String message) {
+		TeaException exception = new TeaException(Map.of("message", message));
+		exception.setStatusCode(statusCode);
+		return exception;
+	}
+
+	private static List<Document> documents(int count) {
+		return IntStream.range(0, count).mapToObj(i -> new Document("doc-" + i, "content " + i, Map.of())).toList();
+	}
+
+}
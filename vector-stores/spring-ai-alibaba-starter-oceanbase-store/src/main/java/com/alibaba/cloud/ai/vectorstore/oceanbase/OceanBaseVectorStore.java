@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.vectorstore.oceanbase;
 
+import com.alibaba.cloud.ai.vectorstore.common.VectorEncoding;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,7 +33,9 @@ import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
@@ -45,7 +48,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.ai.vectorstore.SearchRequest.DEFAULT_TOP_K;
 
@@ -53,7 +63,7 @@ import static org.springframework.ai.vectorstore.SearchRequest.DEFAULT_TOP_K;
  * OceanBase Vector Store implementation with hybrid search support.
  * Supports vector similarity search, vector+fulltext hybrid search, and vector+filter search.
  */
-public class OceanBaseVectorStore extends AbstractObservationVectorStore implements InitializingBean {
+public class OceanBaseVectorStore extends AbstractObservationVectorStore implements InitializingBean, DisposableBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(OceanBaseVectorStore.class);
 
@@ -68,6 +78,16 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 	private static final Double DEFAULT_SIMILARITY_THRESHOLD = 0.0;
 	private static final int DEFAULT_DIMENSION = 384;
 
+	/**
+	 * How long a missing vector index is remembered before the table is checked again.
+	 */
+	private static final long VECTOR_INDEX_RECHECK_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	/**
+	 * Default number of threads running the vector leg of hybrid searches.
+	 */
+	public static final int DEFAULT_HYBRID_SEARCH_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
 	public static final String HYBRID_SEARCH_TYPE_FULLTEXT = "fulltext";
 
 	public static final String INDEX_TYPE_HNSW = "HNSW";
@@ -96,6 +116,9 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 	private final String indexName;
 	private final String fulltextIndexName;
 	private final boolean enableFulltext;
+	private final Executor hybridSearchExecutor;
+	private final ExecutorService ownedHybridSearchExecutor;
+	private volatile VectorIndexCheck vectorIndexCheck;
 
 	protected OceanBaseVectorStore(Builder builder) {
 		super(builder);
@@ -113,6 +136,40 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		this.indexName = generateVectorIndexName(builder.tableName);
 		this.fulltextIndexName = generateFulltextIndexName(builder.tableName);
 		this.enableFulltext = HYBRID_SEARCH_TYPE_FULLTEXT.equalsIgnoreCase(hybridSearchType);
+		this.ownedHybridSearchExecutor = builder.hybridSearchExecutor == null && this.enableFulltext
+				? defaultHybridSearchExecutor(builder.hybridSearchThreads) : null;
+		this.hybridSearchExecutor = builder.hybridSearchExecutor != null ? builder.hybridSearchExecutor
+				: this.ownedHybridSearchExecutor;
+	}
+
+	/**
+	 * Creates the bounded pool the store owns when no executor is supplied. Idle threads
+	 * time out, and once every thread is busy the vector leg runs on the calling thread
+	 * instead of queueing or spawning more threads.
+	 */
+	private static ExecutorService defaultHybridSearchExecutor(int threads) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("oceanbase-hybrid-search-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), threadFactory, (task, pool) -> {
+					if (pool.isShutdown()) {
+						throw new RejectedExecutionException("OceanBase vector store has been destroyed");
+					}
+					task.run();
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Shuts down the hybrid search pool the store created; an executor supplied through
+	 * the builder is left to its owner.
+	 */
+	@Override
+	public void destroy() {
+		if (this.ownedHybridSearchExecutor != null) {
+			this.ownedHybridSearchExecutor.shutdown();
+		}
 	}
 
 	public static Builder builder(String tableName, DataSource dataSource, EmbeddingModel embeddingModel) {
@@ -348,7 +405,7 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 				PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 			for (int i = 0; i < documents.size(); i++) {
 				Document doc = documents.get(i);
-				String vectorString = convertEmbeddingToString(embeddings.get(i));
+				String vectorString = toVectorLiteral(embeddings.get(i));
 				String metadataJson = serializeMetadata(doc.getMetadata());
 
 				pstmt.setString(1, vectorString);
@@ -382,10 +439,12 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		}
 	}
 
-	private String convertEmbeddingToString(float[] embedding) {
-		return Arrays.toString(IntStream.range(0, embedding.length)
-			.mapToObj(i -> embedding[i])
-			.toArray());
+	/**
+	 * Formats an embedding as the vector literal OceanBase parses, e.g. {@code [0.1,0.2]},
+	 * without boxing the components or padding the separators.
+	 */
+	static String toVectorLiteral(float[] embedding) {
+		return VectorEncoding.toText(embedding);
 	}
 
 	@Override
@@ -424,16 +483,20 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 	}
 
 	private List<Document> doVectorSimilaritySearch(SearchRequest searchRequest) {
-		boolean indexExists = checkIndexExists(indexName) || hasVectorIndexOnColumn();
-		boolean useApproximateLimit = indexExists;
+		return doVectorSimilaritySearch(searchRequest, embedQuery(searchRequest.getQuery()));
+	}
+
+	private List<Document> doVectorSimilaritySearch(SearchRequest searchRequest, String vector) {
+		boolean useApproximateLimit = hasVectorIndex();
 
 		try {
-			return executeVectorSimilaritySearch(searchRequest, useApproximateLimit);
+			return executeVectorSimilaritySearch(searchRequest, vector, useApproximateLimit);
 		}
 		catch (Exception e) {
 			if (useApproximateLimit) {
 				logger.info("APPROXIMATE LIMIT failed (index may not exist), retrying with regular LIMIT: {}", e.getMessage());
-				return executeVectorSimilaritySearch(searchRequest, false);
+				this.vectorIndexCheck = new VectorIndexCheck(false, System.nanoTime());
+				return executeVectorSimilaritySearch(searchRequest, vector, false);
 			}
 			logger.error("Failed to perform similarity search", e);
 			throw new RuntimeException("Failed to perform similarity search in OceanBase", e);
@@ -441,14 +504,28 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 	}
 
 
-	private List<Document> executeVectorSimilaritySearch(SearchRequest searchRequest, boolean useApproximateLimit) {
+	/**
+	 * Whether the embedding column is indexed. A found index is remembered until an
+	 * approximate search fails; a missing one is checked again after
+	 * {@link #VECTOR_INDEX_RECHECK_NANOS}.
+	 */
+	private boolean hasVectorIndex() {
+		VectorIndexCheck check = this.vectorIndexCheck;
+		if (check == null || (!check.exists() && System.nanoTime() - check.checkedAt() >= VECTOR_INDEX_RECHECK_NANOS)) {
+			check = new VectorIndexCheck(checkIndexExists(indexName) || hasVectorIndexOnColumn(), System.nanoTime());
+			this.vectorIndexCheck = check;
+		}
+		return check.exists();
+	}
+
+	private List<Document> executeVectorSimilaritySearch(SearchRequest searchRequest, String vector,
+			boolean useApproximateLimit) {
 		String distanceFunc = getDistanceFunctionName(indexMetricType);
 		StringBuilder sql = buildVectorSimilaritySearchSql(searchRequest, distanceFunc, useApproximateLimit);
 
 		List<Document> similarDocuments = new ArrayList<>();
 		try (Connection connection = dataSource.getConnection();
 				PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
-			String vector = convertQueryToVectorBytes(searchRequest.getQuery());
 			pstmt.setString(1, vector);
 			pstmt.setString(2, vector);
 			pstmt.setInt(3, searchRequest.getTopK());
@@ -471,7 +548,7 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 
 	private StringBuilder buildVectorSimilaritySearchSql(SearchRequest searchRequest, String distanceFunc, boolean useApproximateLimit) {
 		StringBuilder sql = new StringBuilder();
-		sql.append("SELECT ").append(ID_FIELD).append(", ").append(EMBEDDING_FIELD).append(", ");
+		sql.append("SELECT ").append(ID_FIELD).append(", ");
 		sql.append(DOCUMENT_FIELD).append(", ").append(METADATA_FIELD).append(", ").append(TIMESTAMP_FIELD).append(", ");
 		sql.append(distanceFunc).append("(").append(EMBEDDING_FIELD).append(", ?) as distance ");
 		sql.append("FROM ").append(tableName);
@@ -495,21 +572,37 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		return sql;
 	}
 
+	/**
+	 * Runs the vector leg on the hybrid search executor while the fulltext leg runs on
+	 * the calling thread, each on its own connection, so the latency is that of the
+	 * slower query rather than their sum. The query is embedded once for both legs.
+	 */
 	private List<Document> doHybridSearchWithFulltext(SearchRequest searchRequest) {
-		List<Document> vectorResults = doVectorSimilaritySearch(SearchRequest.builder()
+		String vector = embedQuery(searchRequest.getQuery());
+		SearchRequest vectorRequest = SearchRequest.builder()
 			.query(searchRequest.getQuery())
 			.topK(searchRequest.getTopK() * 2)
 			.filterExpression(searchRequest.getFilterExpression())
-			.build());
+			.build();
+		CompletableFuture<List<Document>> vectorResults = CompletableFuture
+			.supplyAsync(() -> doVectorSimilaritySearch(vectorRequest, vector), this.hybridSearchExecutor);
 
-		List<Document> fulltextResults = doFulltextSearch(searchRequest);
-		return combineHybridResults(vectorResults, fulltextResults, searchRequest.getTopK());
+		List<Document> fulltextResults = doFulltextSearch(searchRequest, vector);
+		try {
+			return combineHybridResults(vectorResults.join(), fulltextResults, searchRequest.getTopK());
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
 	}
 
-	private List<Document> doFulltextSearch(SearchRequest searchRequest) {
+	private List<Document> doFulltextSearch(SearchRequest searchRequest, String vector) {
 		String distanceFunc = getDistanceFunctionName(indexMetricType);
 		StringBuilder sql = new StringBuilder();
-		sql.append("SELECT ").append(ID_FIELD).append(", ").append(EMBEDDING_FIELD).append(", ");
+		sql.append("SELECT ").append(ID_FIELD).append(", ");
 		sql.append(DOCUMENT_FIELD).append(", ").append(METADATA_FIELD).append(", ").append(TIMESTAMP_FIELD).append(", ");
 		sql.append(distanceFunc).append("(").append(EMBEDDING_FIELD).append(", ?) as distance ");
 		sql.append("FROM ").append(tableName);
@@ -526,7 +619,6 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		List<Document> results = new ArrayList<>();
 		try (Connection connection = dataSource.getConnection();
 				PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
-			String vector = convertQueryToVectorBytes(searchRequest.getQuery());
 			pstmt.setString(1, vector);
 			pstmt.setString(2, searchRequest.getQuery());
 			pstmt.setString(3, vector);
@@ -632,8 +724,8 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		}
 	}
 
-	private String convertQueryToVectorBytes(String query) {
-		return Arrays.toString(this.embeddingModel.embed(query));
+	private String embedQuery(String query) {
+		return toVectorLiteral(this.embeddingModel.embed(query));
 	}
 
 	private void executeUpdate(String sql) {
@@ -696,6 +788,12 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 			.dimensions(this.embeddingModel.dimensions());
 	}
 
+	/**
+	 * Outcome of the last vector index lookup and when it was made.
+	 */
+	private record VectorIndexCheck(boolean exists, long checkedAt) {
+	}
+
 	public static class Builder extends AbstractVectorStoreBuilder<Builder> {
 
 		private final String tableName;
@@ -706,6 +804,8 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 		private String hybridSearchType;
 		private String indexType = INDEX_TYPE_HNSW;
 		private String indexMetricType = METRIC_TYPE_L2;
+		private Executor hybridSearchExecutor;
+		private int hybridSearchThreads = DEFAULT_HYBRID_SEARCH_THREADS;
 
 		private Builder(String tableName, DataSource dataSource, EmbeddingModel embeddingModel) {
 			super(embeddingModel);
@@ -738,6 +838,25 @@ public class OceanBaseVectorStore extends AbstractObservationVectorStore impleme
 			return this;
 		}
 
+		/**
+		 * Executor running the vector leg of hybrid searches. The caller keeps ownership
+		 * and shuts it down. Defaults to a pool of {@link #hybridSearchThreads} daemon
+		 * threads owned by the store and shut down in {@link #destroy()}.
+		 */
+		public Builder hybridSearchExecutor(Executor hybridSearchExecutor) {
+			this.hybridSearchExecutor = hybridSearchExecutor;
+			return this;
+		}
+
+		/**
+		 * Size of the default hybrid search pool; ignored when an executor is supplied.
+		 */
+		public Builder hybridSearchThreads(int hybridSearchThreads) {
+			Assert.isTrue(hybridSearchThreads > 0, "hybridSearchThreads must be positive");
+			this.hybridSearchThreads = hybridSearchThreads;
+			return this;
+		}
+
 		@Override
 		public OceanBaseVectorStore build() {
 			try {
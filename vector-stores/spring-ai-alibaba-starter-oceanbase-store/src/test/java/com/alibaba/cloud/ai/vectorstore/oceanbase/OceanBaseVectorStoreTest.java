@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.oceanbase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import javax.sql.DataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the search queries of {@link OceanBaseVectorStore}, against a mocked
+ * {@link DataSource}.
+ */
+class OceanBaseVectorStoreTest {
+
+	private final DataSource dataSource = mock(DataSource.class);
+
+	private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+
+	private final List<String> searchSql = new CopyOnWriteArrayList<>();
+
+	private final List<String> boundVectors = new CopyOnWriteArrayList<>();
+
+	private final List<String> indexLookups = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Released once both legs of a hybrid search are running.
+	 */
+	private final CountDownLatch legsRunning = new CountDownLatch(2);
+
+	private final List<Boolean> legsOverlapped = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		when(embeddingModel.embed(anyString())).thenReturn(new float[] { 0.5f, -1.0f, 2.0f });
+		when(dataSource.getConnection()).thenAnswer(invocation -> connection());
+	}
+
+	@Test
+	void hybridSearchRunsBothLegsConcurrently() throws Exception {
+		OceanBaseVectorStore vectorStore = OceanBaseVectorStore.builder("docs", dataSource, embeddingModel)
+			.hybridSearchType(OceanBaseVectorStore.HYBRID_SEARCH_TYPE_FULLTEXT)
+			.build();
+
+		List<Document> results = vectorStore.similaritySearch(SearchRequest.builder().query("spring").topK(2).build());
+
+		assertThat(results).isEmpty();
+		assertThat(legsOverlapped).containsExactly(true, true);
+		assertThat(searchSql).hasSize(2).anyMatch(sql -> sql.contains("MATCH(document)"));
+		verify(embeddingModel, times(1)).embed("spring");
+	}
+
+	@Test
+	void destroyShutsDownOnlyTheOwnedHybridSearchPool() {
+		SearchRequest request = SearchRequest.builder().query("spring").topK(2).build();
+		OceanBaseVectorStore owningStore = OceanBaseVectorStore.builder("docs", dataSource, embeddingModel)
+			.hybridSearchType(OceanBaseVectorStore.HYBRID_SEARCH_TYPE_FULLTEXT)
+			.hybridSearchThreads(1)
+			.build();
+		ExecutorService suppliedExecutor = Executors.newSingleThreadExecutor();
+		OceanBaseVectorStore borrowingStore = OceanBaseVectorStore.builder("docs", dataSource, embeddingModel)
+			.hybridSearchType(OceanBaseVectorStore.HYBRID_SEARCH_TYPE_FULLTEXT)
+			.hybridSearchExecutor(suppliedExecutor)
+			.build();
+
+		owningStore.destroy();
+		borrowingStore.destroy();
+
+		assertThatThrownBy(() -> owningStore.similaritySearch(request))
+			.isInstanceOf(RejectedExecutionException.class);
+		assertThat(suppliedExecutor.isShutdown()).isFalse();
+		suppliedExecutor.shutdown();
+	}
+
+	@Test
+	void searchDoesNotSelectEmbeddingsAndBindsCompactVectors() {
+		OceanBaseVectorStore vectorStore = OceanBaseVectorStore.builder("docs", dataSource, embeddingModel).build();
+
+		vectorStore.similaritySearch(SearchRequest.builder().query("spring").topK(2).build());
+
+		assertThat(searchSql).singleElement()
+			.satisfies(sql -> assertThat(sql).startsWith("SELECT id, document, metadata, timestamp, l2_distance"));
+		assertThat(boundVectors).containsOnly("[0.5,-1.0,2.0]");
+	}
+
+	@Test
+	void missingVectorIndexIsNotLookedUpOnEverySearch() {
+		OceanBaseVectorStore vectorStore = OceanBaseVectorStore.builder("docs", dataSource, embeddingModel).build();
+		indexLookups.clear();
+
+		vectorStore.similaritySearch(SearchRequest.builder().query("spring").topK(2).build());
+		vectorStore.similaritySearch(SearchRequest.builder().query("boot").topK(2).build());
+
+		assertThat(searchSql).hasSize(2).noneMatch(sql -> sql.contains("APPROXIMATE"));
+		assertThat(indexLookups).hasSize(2).allMatch(sql -> sql.startsWith("SHOW"));
+	}
+
+	@Test
+	void vectorLiteralHasNoPadding() {
+		assertThat(OceanBaseVectorStore.toVectorLiteral(new float[] { 1.5f, 0f })).isEqualTo("[1.5,0.0]");
+		assertThat(OceanBaseVectorStore.toVectorLiteral(new float[0])).isEqualTo("[]");
+	}
+
+	private Connection connection() throws Exception {
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+		return connection;
+	}
+
+	private PreparedStatement statement(String sql) throws Exception {
+		PreparedStatement statement = mock(PreparedStatement.class);
+		ResultSet resultSet = mock(ResultSet.class);
+		when(statement.executeQuery()).thenAnswer(invocation -> {
+			if (sql.startsWith("SHOW")) {
+				indexLookups.add(sql);
+			}
+			if (sql.contains("distance")) {
+				searchSql.add(sql);
+				legsRunning.countDown();
+				legsOverlapped.add(legsRunning.await(1, TimeUnit.SECONDS));
+			}
+			return resultSet;
+		});
+		doAnswer(invocation -> {
+			String value = invocation.getArgument(1);
+			if (value.startsWith("[")) {
+				boundVectors.add(value);
+			}
+			return null;
+		}).when(statement).setString(anyInt(), anyString());
+		return statement;
+	}
+
+}
@@ -62,6 +62,16 @@ public class OpenSearchApi {
 		}
 	}
 
+	/**
+	 * Initializes a new instance of the OpenSearchApi class on an existing client.
+	 * @param properties basic configuration of the OpenSearch instance.
+	 * @param client the client of the OpenSearch instance.
+	 */
+	public OpenSearchApi(OpenSearchVectorStoreProperties properties, Client client) {
+		this.properties = properties;
+		this.client = client;
+	}
+
 	private String getFullTableName(String tableName) {
 		return this.properties.getInstanceId() + "_" + tableName;
 	}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.opensearch;
+
+import java.util.Map;
+
+/**
+ * Thrown when some of the push requests of an add or delete call failed. The documents
+ * of the remaining requests have been written; {@link #getFailedDocuments()} lists the
+ * ids whose commands were rejected together with the reported error.
+ */
+public class OpenSearchPushException extends RuntimeException {
+
+	private final int totalDocuments;
+
+	private final Map<String, String> failedDocuments;
+
+	public OpenSearchPushException(String command, int totalDocuments, Map<String, String> failedDocuments,
+			Throwable cause) {
+		super(String.format("OpenSearch %s failed for %d of %d documents: %s", command, failedDocuments.size(),
+				totalDocuments, failedDocuments.keySet()), cause);
+		this.totalDocuments = totalDocuments;
+		this.failedDocuments = Map.copyOf(failedDocuments);
+	}
+
+	/**
+	 * @return the number of documents of the call
+	 */
+	public int getTotalDocuments() {
+		return this.totalDocuments;
+	}
+
+	/**
+	 * @return the failed document ids mapped to the error of their push request
+	 */
+	public Map<String, String> getFailedDocuments() {
+		return this.failedDocuments;
+	}
+
+}
@@ -38,6 +38,12 @@ import org.springframework.core.convert.converter.Converter;
 import org.springframework.util.Assert;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -151,35 +157,27 @@ public class OpenSearchVectorStore extends AbstractObservationVectorStore implem
 
 	@Override
 	public void doAdd(List<Document> documents) {
+		List<PushCommand> commands = new ArrayList<>(documents.size());
 		for (Document document : documents) {
-			/*
-			 * Document push outer structure, can add document operation structures. The
-			 * structure supports one or more document operations.
-			 */
-			List<Map<String, ?>> documentToAdd = new ArrayList<>();
-			Map<String, Object> documentMap = new HashMap<>();
-			Map<String, Object> documentFields = new HashMap<>();
-
 			// Insert document content information, key-value pairs matching.
 			// The field_pk field must be consistent with the pkField configuration.
-			documentFields.put(ID_FIELD_NAME, document.getId());
-			documentFields.put(CONTENT_FIELD_NAME, document.getText());
-			// Convert metadata to JSON
+			Map<String, Object> documentFields = new HashMap<>();
+			String metadata;
 			try {
-				documentFields.put(METADATA_FIELD_NAME, objectMapper.writeValueAsString(document.getMetadata()));
+				metadata = objectMapper.writeValueAsString(document.getMetadata());
 			}
 			catch (JsonProcessingException e) {
 				throw new RuntimeException("Failed to serialize JSON", e);
 			}
+			documentFields.put(ID_FIELD_NAME, document.getId());
+			documentFields.put(CONTENT_FIELD_NAME, document.getText());
+			documentFields.put(METADATA_FIELD_NAME, metadata);
 
-			// Add document content to documentEntry structure.
-			documentMap.put("fields", documentFields);
-			// New document command: add
-			documentMap.put("cmd", "add");
-			documentToAdd.add(documentMap);
-
-			openSearchApi.uploadDocument(this.options.getTableName(), this.options.getPrimaryKeyField(), documentToAdd);
+			long bytes = utf8Length(document.getId()) + utf8Length(document.getText()) + utf8Length(metadata);
+			commands.add(new PushCommand(document.getId(), toCommand("add", documentFields), bytes));
 		}
+		push("add", commands, batch -> openSearchApi.uploadDocument(this.options.getTableName(),
+				this.options.getPrimaryKeyField(), batch));
 	}
 
 	/**
@@ -187,21 +185,143 @@ public class OpenSearchVectorStore extends AbstractObservationVectorStore implem
 	 */
 	@Override
 	public void doDelete(List<String> idList) {
+		List<PushCommand> commands = new ArrayList<>(idList.size());
 		for (String id : idList) {
-			List<Map<String, ?>> documentToDelete = new ArrayList<>();
-			Map<String, Object> documentMap = new HashMap<>();
 			Map<String, Object> documentFields = new HashMap<>();
-
 			documentFields.put(this.options.getPrimaryKeyField(), id);
-			documentMap.put("fields", documentFields);
-			documentMap.put("cmd", "delete");
-			documentToDelete.add(documentMap);
+			commands.add(new PushCommand(id, toCommand("delete", documentFields), utf8Length(id)));
+		}
+		push("delete", commands, batch -> openSearchApi.deleteDocument(this.options.getTableName(),
+				this.options.getPrimaryKeyField(), batch));
+	}
+
+	/**
+	 * Document push outer structure: the fields of one document and the command to apply
+	 * to them.
+	 */
+	private static Map<String, ?> toCommand(String cmd, Map<String, Object> fields) {
+		Map<String, Object> documentMap = new HashMap<>();
+		documentMap.put("fields", fields);
+		documentMap.put("cmd", cmd);
+		return documentMap;
+	}
+
+	/**
+	 * Sends the commands in push requests bounded by the configured batch size and
+	 * payload, with up to the configured number of requests in flight. A failed request
+	 * does not stop the others; the ids of its documents are reported together in an
+	 * {@link OpenSearchPushException} once every request has completed.
+	 */
+	private void push(String command, List<PushCommand> commands, Consumer<List<Map<String, ?>>> sender) {
+		List<List<PushCommand>> batches = toBatches(commands, this.options.getPushBatchSize(),
+				this.options.getPushBatchBytes());
+		Map<String, String> failedDocuments = new ConcurrentHashMap<>();
+		AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+		List<Runnable> pushes = batches.stream().<Runnable>map(batch -> () -> {
+			List<Map<String, ?>> body = batch.stream().<Map<String, ?>>map(PushCommand::body).toList();
+			try {
+				sender.accept(body);
+			}
+			catch (RuntimeException e) {
+				logger.warn("OpenSearch {} of {} documents failed: {}", command, batch.size(), e.getMessage());
+				firstFailure.compareAndSet(null, e);
+				String error = Objects.toString(e.getMessage(), e.getClass().getName());
+				batch.forEach(pushCommand -> failedDocuments.put(pushCommand.id(), error));
+			}
+		}).toList();
+
+		int parallelism = Math.min(this.options.getPushParallelism(), pushes.size());
+		if (parallelism <= 1) {
+			pushes.forEach(Runnable::run);
+		}
+		else {
+			ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+			try {
+				CompletableFuture
+					.allOf(pushes.stream()
+						.map(push -> CompletableFuture.runAsync(push, executor))
+						.toArray(CompletableFuture[]::new))
+					.join();
+			}
+			finally {
+				executor.shutdown();
+			}
+		}
 
-			openSearchApi.deleteDocument(this.options.getTableName(), this.options.getPrimaryKeyField(),
-					documentToDelete);
+		if (!failedDocuments.isEmpty()) {
+			throw new OpenSearchPushException(command, commands.size(), failedDocuments, firstFailure.get());
 		}
 	}
 
+	/**
+	 * Groups consecutive commands into batches of at most {@code maxSize} commands and,
+	 * unless a single command exceeds it, at most {@code maxBytes} of estimated payload.
+	 */
+	static List<List<PushCommand>> toBatches(List<PushCommand> commands, int maxSize, long maxBytes) {
+		Assert.isTrue(maxSize > 0, "pushBatchSize must be positive");
+		Assert.isTrue(maxBytes > 0, "pushBatchBytes must be positive");
+		List<List<PushCommand>> batches = new ArrayList<>();
+		List<PushCommand> batch = new ArrayList<>();
+		long batchBytes = 0;
+		for (PushCommand command : commands) {
+			if (!batch.isEmpty() && (batch.size() >= maxSize || batchBytes + command.bytes() > maxBytes)) {
+				batches.add(batch);
+				batch = new ArrayList<>();
+				batchBytes = 0;
+			}
+			batch.add(command);
+			batchBytes += command.bytes();
+		}
+		if (!batch.isEmpty()) {
+			batches.add(batch);
+		}
+		return batches;
+	}
+
+	private static long utf8Length(String text) {
+		if (text == null) {
+			return 0;
+		}
+		long length = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				length++;
+			}
+			else if (c < 0x800) {
+				length += 2;
+			}
+			else if (Character.isHighSurrogate(c)) {
+				length += 4;
+				i++;
+			}
+			else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * One document command of a push request.
+	 *
+	 * @param id the id of the document
+	 * @param body the command as sent to OpenSearch
+	 * @param bytes the estimated payload of the command
+	 */
+	record PushCommand(String id, Map<String, ?> body, long bytes) {
+
+		/**
+		 * Fixed estimate for the JSON structure around the field values.
+		 */
+		static final int OVERHEAD = 64;
+
+		PushCommand {
+			bytes += OVERHEAD;
+		}
+
+	}
+
 	/**
 	 * Perform a similarity search in the vector store.
 	 * @param request The search request containing the query and parameters.
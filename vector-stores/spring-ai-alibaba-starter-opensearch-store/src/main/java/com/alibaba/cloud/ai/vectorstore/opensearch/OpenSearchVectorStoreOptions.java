@@ -33,6 +33,10 @@ public class OpenSearchVectorStoreOptions {
 
 	public static final List<String> DEFAULT_OUTPUT_FIELDS = List.of("content", "metadata");
 
+	public static final int DEFAULT_PUSH_BATCH_SIZE = 100;
+
+	public static final long DEFAULT_PUSH_BATCH_BYTES = 2 * 1024 * 1024;
+
 	public String getMappingJson() {
 		return mappingJson;
 	}
@@ -106,6 +110,22 @@ public class OpenSearchVectorStoreOptions {
 	 */
 	private int dimensions = 1536;
 
+	/**
+	 * The maximum number of document commands sent in one push request.
+	 */
+	private int pushBatchSize = DEFAULT_PUSH_BATCH_SIZE;
+
+	/**
+	 * The approximate maximum payload of one push request in bytes. A single document
+	 * larger than this is sent on its own.
+	 */
+	private long pushBatchBytes = DEFAULT_PUSH_BATCH_BYTES;
+
+	/**
+	 * The number of push requests sent concurrently.
+	 */
+	private int pushParallelism = 1;
+
 	public boolean isInitializeSchema() {
 		return initializeSchema;
 	}
@@ -156,4 +176,28 @@ public class OpenSearchVectorStoreOptions {
 		this.dimensions = dims;
 	}
 
+	public int getPushBatchSize() {
+		return this.pushBatchSize;
+	}
+
+	public void setPushBatchSize(int pushBatchSize) {
+		this.pushBatchSize = pushBatchSize;
+	}
+
+	public long getPushBatchBytes() {
+		return this.pushBatchBytes;
+	}
+
+	public void setPushBatchBytes(long pushBatchBytes) {
+		this.pushBatchBytes = pushBatchBytes;
+	}
+
+	public int getPushParallelism() {
+		return this.pushParallelism;
+	}
+
+	public void setPushParallelism(int pushParallelism) {
+		this.pushParallelism = pushParallelism;
+	}
+
 }
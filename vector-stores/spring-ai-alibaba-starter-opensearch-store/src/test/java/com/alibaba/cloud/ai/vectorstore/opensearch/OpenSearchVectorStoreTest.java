@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.opensearch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the batched pushes of {@link OpenSearchVectorStore}.
+ */
+class OpenSearchVectorStoreTest {
+
+	private final OpenSearchApi openSearchApi = mock(OpenSearchApi.class);
+
+	@Test
+	void addSendsDocumentsInBatchesBoundedBySize() {
+		List<Integer> batchSizes = recordUploads();
+		OpenSearchVectorStore vectorStore = vectorStore(options(3, 4));
+
+		vectorStore.add(documents(7));
+
+		assertThat(batchSizes).containsExactlyInAnyOrder(3, 3, 1);
+	}
+
+	@Test
+	void batchesAreBoundedByPayloadBytes() {
+		List<OpenSearchVectorStore.PushCommand> commands = IntStream.range(0, 5)
+			.mapToObj(i -> new OpenSearchVectorStore.PushCommand("id" + i, Map.of(), 100))
+			.toList();
+		long commandBytes = commands.get(0).bytes();
+
+		List<List<OpenSearchVectorStore.PushCommand>> batches = OpenSearchVectorStore.toBatches(commands, 100,
+				commandBytes * 2);
+
+		assertThat(batches).extracting(List::size).containsExactly(2, 2, 1);
+		assertThat(OpenSearchVectorStore.toBatches(commands, 100, 1)).hasSize(5);
+	}
+
+	@Test
+	void failedBatchesAreReportedPerDocument() {
+		doAnswer(invocation -> {
+			List<Map<String, Map<String, Object>>> body = invocation.getArgument(2);
+			if (body.stream().anyMatch(command -> "doc-3".equals(command.get("fields").get("id")))) {
+				throw new RuntimeException("quota exceeded");
+			}
+			return null;
+		}).when(openSearchApi).uploadDocument(eq(OpenSearchVectorStoreOptions.DEFAULT_TABLE_NAME), eq("id"), anyList());
+		OpenSearchVectorStore vectorStore = vectorStore(options(2, 2));
+
+		assertThatThrownBy(() -> vectorStore.add(documents(6))).isInstanceOfSatisfying(OpenSearchPushException.class,
+				e -> {
+					assertThat(e.getTotalDocuments()).isEqualTo(6);
+					assertThat(e.getFailedDocuments()).containsOnlyKeys("doc-2", "doc-3")
+						.containsValue("quota exceeded");
+				});
+	}
+
+	@Test
+	void deleteSendsIdsInBatches() {
+		List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+		doAnswer(invocation -> {
+			batchSizes.add(invocation.<List<?>>getArgument(2).size());
+			return null;
+		}).when(openSearchApi).deleteDocument(eq(OpenSearchVectorStoreOptions.DEFAULT_TABLE_NAME), eq("id"), anyList());
+		OpenSearchVectorStore vectorStore = vectorStore(options(2, 1));
+
+		vectorStore.delete(List.of("a", "b", "c"));
+
+		assertThat(batchSizes).containsExactly(2, 1);
+	}
+
+	private List<Integer> recordUploads() {
+		List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+		doAnswer(invocation -> {
+			batchSizes.add(invocation.<List<?>>getArgument(2).size());
+			return null;
+		}).when(openSearchApi).uploadDocument(eq(OpenSearchVectorStoreOptions.DEFAULT_TABLE_NAME), eq("id"), anyList());
+		return batchSizes;
+	}
+
+	private OpenSearchVectorStore vectorStore(OpenSearchVectorStoreOptions options) {
+		return OpenSearchVectorStore.builder(openSearchApi, mock(EmbeddingModel.class)).options(options).build();
+	}
+
+	private static OpenSearchVectorStoreOptions options(int batchSize, int parallelism) {
+		OpenSearchVectorStoreOptions options = new OpenSearchVectorStoreOptions();
+		options.setPushBatchSize(batchSize);
+		options.setPushParallelism(parallelism);
+		return options;
+	}
+
+	private static List<Document> documents(int count) {
+		return IntStream.range(0, count)
+			.mapToObj(i -> new Document("doc-" + i, "content " + i, Map.of("index", i)))
+			.toList();
+	}
+
+}
@@ -15,9 +15,20 @@
  */
 package com.alibaba.cloud.ai.vectorstore.tablestore;
 
+import com.alicloud.openservices.tablestore.core.ErrorCode;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowResponse;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
 import com.aliyun.openservices.tablestore.agent.knowledge.KnowledgeStoreImpl;
 import com.aliyun.openservices.tablestore.agent.model.DocumentHit;
 import com.aliyun.openservices.tablestore.agent.model.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingOptions;
@@ -35,20 +46,69 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
  * Tablestore Vector Store.
  */
 public class TablestoreVectorStore extends AbstractObservationVectorStore implements InitializingBean {
 
+	private static final Logger logger = LoggerFactory.getLogger(TablestoreVectorStore.class);
+
+	/**
+	 * The maximum number of rows of one BatchWriteRow request.
+	 */
+	public static final int MAX_BATCH_WRITE_ROWS = 200;
+
+	/**
+	 * The maximum payload of one BatchWriteRow request.
+	 */
+	public static final long MAX_BATCH_WRITE_BYTES = 4 * 1024 * 1024;
+
+	public static final int DEFAULT_WRITE_PARALLELISM = 4;
+
+	public static final int DEFAULT_MAX_RETRIES = 3;
+
+	private static final long RETRY_BACKOFF_MILLIS = 100;
+
+	private static final String OPERATION_PUT = "put";
+
+	private static final String OPERATION_DELETE = "delete";
+
+	private static final Set<String> RETRYABLE_ERROR_CODES = Set.of(ErrorCode.INTERNAL_SERVER_ERROR,
+			ErrorCode.REQUEST_TIMEOUT, ErrorCode.QUOTA_EXHAUSTED, ErrorCode.PARTITION_UNAVAILABLE,
+			ErrorCode.TABLE_NOT_READY, ErrorCode.ROW_OPERATION_CONFLICT, ErrorCode.NOT_ENOUGH_CAPACITY_UNIT,
+			ErrorCode.STORAGE_TIMEOUT, ErrorCode.SERVER_UNAVAILABLE, ErrorCode.SERVER_BUSY);
+
 	private final KnowledgeStoreImpl knowledgeStore;
 
 	private final boolean initializeTable;
 
+	private final int writeBatchSize;
+
+	private final int writeParallelism;
+
+	private final int maxRetries;
+
+	private final WriteMetrics metrics;
+
 	protected TablestoreVectorStore(Builder builder) {
 		super(builder);
+		Assert.isTrue(builder.writeBatchSize > 0 && builder.writeBatchSize <= MAX_BATCH_WRITE_ROWS,
+				"writeBatchSize must be between 1 and " + MAX_BATCH_WRITE_ROWS);
+		Assert.isTrue(builder.writeParallelism > 0, "writeParallelism must be positive");
+		Assert.isTrue(builder.maxRetries >= 0, "maxRetries cannot be negative");
 		this.knowledgeStore = builder.knowledgeStore;
 		this.initializeTable = builder.initializeTable;
+		this.writeBatchSize = builder.writeBatchSize;
+		this.writeParallelism = builder.writeParallelism;
+		this.maxRetries = builder.maxRetries;
+		this.metrics = new WriteMetrics(builder.meterRegistry != null ? builder.meterRegistry
+				: new CompositeMeterRegistry(), builder.knowledgeStore.getTableName());
 	}
 
 	@Override
@@ -56,18 +116,122 @@ public class TablestoreVectorStore extends AbstractObservationVectorStore implem
 		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(),
 				this.batchingStrategy);
 
+		List<RowChange> rows = new ArrayList<>(documents.size());
 		for (int i = 0; i < documents.size(); i++) {
 			Document document = documents.get(i);
 			float[] embedding = embeddings.get(i);
-			knowledgeStore
-				.putDocument(Utils.toTablestoreDocument(knowledgeStore.enableMultiTenant(), embedding, document));
+			rows.add(Utils.toRowPutChange(knowledgeStore,
+					Utils.toTablestoreDocument(knowledgeStore.enableMultiTenant(), embedding, document)));
 		}
+		writeRows(OPERATION_PUT, rows);
 	}
 
 	@Override
 	public void doDelete(List<String> idList) {
+		if (knowledgeStore.enableMultiTenant()) {
+			// ids alone do not identify rows of a multi-tenant store
+			for (String id : idList) {
+				knowledgeStore.deleteDocument(id);
+			}
+			return;
+		}
+		List<RowChange> rows = new ArrayList<>(idList.size());
 		for (String id : idList) {
-			knowledgeStore.deleteDocument(id);
+			rows.add(Utils.toRowDeleteChange(knowledgeStore, id));
+		}
+		writeRows(OPERATION_DELETE, rows);
+	}
+
+	/**
+	 * Writes the rows in batch requests of at most {@link #writeBatchSize} rows and
+	 * {@link #MAX_BATCH_WRITE_BYTES}, with up to {@link #writeParallelism} requests in
+	 * flight.
+	 */
+	private void writeRows(String operation, List<RowChange> rows) {
+		List<List<RowChange>> batches = new ArrayList<>();
+		List<RowChange> batch = new ArrayList<>();
+		long batchBytes = 0;
+		for (RowChange row : rows) {
+			long rowBytes = row instanceof RowPutChange put ? put.getDataSize() : 0;
+			if (!batch.isEmpty() && (batch.size() >= writeBatchSize || batchBytes + rowBytes > MAX_BATCH_WRITE_BYTES)) {
+				batches.add(batch);
+				batch = new ArrayList<>();
+				batchBytes = 0;
+			}
+			batch.add(row);
+			batchBytes += rowBytes;
+		}
+		if (!batch.isEmpty()) {
+			batches.add(batch);
+		}
+
+		int parallelism = Math.min(writeParallelism, batches.size());
+		if (parallelism <= 1) {
+			batches.forEach(rowBatch -> writeBatch(operation, rowBatch));
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			CompletableFuture
+				.allOf(batches.stream()
+					.map(rowBatch -> CompletableFuture.runAsync(() -> writeBatch(operation, rowBatch), executor))
+					.toArray(CompletableFuture[]::new))
+				.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Sends one batch request and re-sends only the rows that failed with a retryable
+	 * error, up to {@link #maxRetries} times.
+	 */
+	private void writeBatch(String operation, List<RowChange> rows) {
+		BatchWriteRowRequest request = new BatchWriteRowRequest();
+		rows.forEach(request::addRowChange);
+		for (int attempt = 0;; attempt++) {
+			BatchWriteRowRequest attemptRequest = request;
+			BatchWriteRowResponse response = metrics.time(operation,
+					() -> knowledgeStore.getClient().batchWriteRow(attemptRequest));
+			List<BatchWriteRowResponse.RowResult> failedRows = response.getFailedRows();
+			metrics.succeeded(operation, request.getRowsCount() - failedRows.size());
+			if (failedRows.isEmpty()) {
+				return;
+			}
+			boolean retryable = failedRows.stream().allMatch(row -> isRetryable(row.getError()));
+			if (!retryable || attempt >= maxRetries) {
+				metrics.failed(operation, failedRows.size());
+				BatchWriteRowResponse.RowResult failedRow = failedRows.get(0);
+				throw new IllegalStateException(String.format("Failed to %s %d of %d rows in table %s, first error: %s",
+						operation, failedRows.size(), rows.size(), knowledgeStore.getTableName(),
+						failedRow.getError()));
+			}
+			logger.warn("Retrying {} of {} rows in table {} ({}/{}), first error: {}", failedRows.size(), rows.size(),
+					knowledgeStore.getTableName(), attempt + 1, maxRetries, failedRows.get(0).getError());
+			metrics.retried(operation, failedRows.size());
+			sleepBeforeRetry(attempt);
+			request = request.createRequestForRetry(failedRows);
+		}
+	}
+
+	private static boolean isRetryable(com.alicloud.openservices.tablestore.model.Error error) {
+		return error != null && RETRYABLE_ERROR_CODES.contains(error.getCode());
+	}
+
+	private static void sleepBeforeRetry(int attempt) {
+		try {
+			Thread.sleep(RETRY_BACKOFF_MILLIS << attempt);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while retrying batch write", e);
 		}
 	}
 
@@ -131,6 +295,14 @@ public class TablestoreVectorStore extends AbstractObservationVectorStore implem
 
 		private boolean initializeTable = false;
 
+		private int writeBatchSize = MAX_BATCH_WRITE_ROWS;
+
+		private int writeParallelism = DEFAULT_WRITE_PARALLELISM;
+
+		private int maxRetries = DEFAULT_MAX_RETRIES;
+
+		private MeterRegistry meterRegistry;
+
 		public Builder(KnowledgeStoreImpl knowledgeStore, EmbeddingModel embeddingModel) {
 			super(embeddingModel);
 			this.knowledgeStore = knowledgeStore;
@@ -141,6 +313,39 @@ public class TablestoreVectorStore extends AbstractObservationVectorStore implem
 			return this;
 		}
 
+		/**
+		 * The maximum number of rows per BatchWriteRow request, at most
+		 * {@link TablestoreVectorStore#MAX_BATCH_WRITE_ROWS}.
+		 */
+		public Builder writeBatchSize(int writeBatchSize) {
+			this.writeBatchSize = writeBatchSize;
+			return this;
+		}
+
+		/**
+		 * The number of BatchWriteRow requests sent concurrently.
+		 */
+		public Builder writeParallelism(int writeParallelism) {
+			this.writeParallelism = writeParallelism;
+			return this;
+		}
+
+		/**
+		 * How often rows that failed with a retryable error are sent again.
+		 */
+		public Builder maxRetries(int maxRetries) {
+			this.maxRetries = maxRetries;
+			return this;
+		}
+
+		/**
+		 * Registry for the row and request metrics of writes and deletes.
+		 */
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
 		@Override
 		public TablestoreVectorStore build() {
 			return new TablestoreVectorStore(this);
@@ -156,4 +361,55 @@ public class TablestoreVectorStore extends AbstractObservationVectorStore implem
 		return initializeTable;
 	}
 
+	/**
+	 * Meters of the batched writes, tagged with the table and the operation.
+	 */
+	private static final class WriteMetrics {
+
+		private final MeterRegistry registry;
+
+		private final String tableName;
+
+		private WriteMetrics(MeterRegistry registry, String tableName) {
+			this.registry = registry;
+			this.tableName = tableName;
+		}
+
+		<T> T time(String operation, Supplier<T> request) {
+			return Timer.builder("tablestore.vector.store.batch.requests")
+				.description("BatchWriteRow requests of the vector store")
+				.tag("table", tableName)
+				.tag("operation", operation)
+				.register(registry)
+				.record(request);
+		}
+
+		void succeeded(String operation, int rows) {
+			rows(operation, "success").increment(rows);
+		}
+
+		void failed(String operation, int rows) {
+			rows(operation, "failure").increment(rows);
+		}
+
+		void retried(String operation, int rows) {
+			Counter.builder("tablestore.vector.store.row.retries")
+				.description("Rows sent again after a retryable error")
+				.tag("table", tableName)
+				.tag("operation", operation)
+				.register(registry)
+				.increment(rows);
+		}
+
+		private Counter rows(String operation, String outcome) {
+			return Counter.builder("tablestore.vector.store.rows")
+				.description("Rows written or deleted by the vector store")
+				.tag("table", tableName)
+				.tag("operation", operation)
+				.tag("outcome", outcome)
+				.register(registry);
+		}
+
+	}
+
 }
@@ -15,14 +15,70 @@
  */
 package com.alibaba.cloud.ai.vectorstore.tablestore;
 
+import com.alibaba.cloud.ai.vectorstore.common.VectorEncoding;
+import com.alicloud.openservices.tablestore.model.Column;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.model.Condition;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyBuilder;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyValue;
+import com.alicloud.openservices.tablestore.model.RowDeleteChange;
+import com.alicloud.openservices.tablestore.model.RowExistenceExpectation;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import com.aliyun.openservices.tablestore.agent.knowledge.KnowledgeStoreImpl;
 import com.aliyun.openservices.tablestore.agent.model.Document;
 import com.aliyun.openservices.tablestore.agent.model.DocumentHit;
 import com.aliyun.openservices.tablestore.agent.model.Metadata;
+import com.aliyun.openservices.tablestore.agent.util.TablestoreHelper;
 
+import java.util.List;
 import java.util.Map;
 
 class Utils {
 
+	/**
+	 * Builds the row {@link KnowledgeStoreImpl#putDocument} writes for the document, so
+	 * documents can be written in batches. The embedding is written in the same JSON array
+	 * form, without going through an {@code ObjectMapper}.
+	 */
+	static RowPutChange toRowPutChange(KnowledgeStoreImpl knowledgeStore, Document document) {
+		float[] embedding = document.getEmbedding();
+		if (embedding != null && embedding.length != knowledgeStore.getEmbeddingDimension()) {
+			throw new IllegalArgumentException(String.format(
+					"document's embedding length:%s is not the same as the knowledge store dimension:%s, document id:%s",
+					embedding.length, knowledgeStore.getEmbeddingDimension(), document.getDocumentId()));
+		}
+		RowPutChange rowPutChange = new RowPutChange(knowledgeStore.getTableName(),
+				toPrimaryKey(document.getDocumentId(), document.getTenantId()));
+		List<Column> columns = TablestoreHelper.metadataToColumns(document.getMetadata());
+		if (document.getText() != null) {
+			columns.add(new Column(knowledgeStore.getTextField(), ColumnValue.fromString(document.getText())));
+		}
+		if (embedding != null) {
+			columns.add(new Column(knowledgeStore.getEmbeddingField(),
+					ColumnValue.fromString(VectorEncoding.toText(embedding))));
+		}
+		return rowPutChange.addColumns(columns);
+	}
+
+	/**
+	 * Builds the row deletion {@link KnowledgeStoreImpl#deleteDocument(String)} issues for
+	 * a document of the default tenant.
+	 */
+	static RowDeleteChange toRowDeleteChange(KnowledgeStoreImpl knowledgeStore, String documentId) {
+		RowDeleteChange rowDeleteChange = new RowDeleteChange(knowledgeStore.getTableName(),
+				toPrimaryKey(documentId, Document.DOCUMENT_DEFAULT_TENANT_ID));
+		rowDeleteChange.setCondition(new Condition(RowExistenceExpectation.IGNORE));
+		return rowDeleteChange;
+	}
+
+	private static PrimaryKey toPrimaryKey(String documentId, String tenantId) {
+		return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+			.addPrimaryKeyColumn(Document.DOCUMENT_DOCUMENT_ID, PrimaryKeyValue.fromString(documentId))
+			.addPrimaryKeyColumn(Document.DOCUMENT_TENANT_ID, PrimaryKeyValue.fromString(tenantId))
+			.build();
+	}
+
 	static Document toTablestoreDocument(boolean enableMultiTenant, float[] embedding,
 			org.springframework.ai.document.Document springAiDocument) {
 		if (springAiDocument.getMedia() != null) {
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.tablestore;
+
+import com.alicloud.openservices.tablestore.SyncClient;
+import com.alicloud.openservices.tablestore.core.ErrorCode;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowResponse;
+import com.alicloud.openservices.tablestore.model.CapacityUnit;
+import com.alicloud.openservices.tablestore.model.ConsumedCapacity;
+import com.alicloud.openservices.tablestore.model.Error;
+import com.alicloud.openservices.tablestore.model.Response;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import com.aliyun.openservices.tablestore.agent.knowledge.KnowledgeStoreImpl;
+import com.aliyun.openservices.tablestore.agent.util.TablestoreHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the batched writes of {@link TablestoreVectorStore} against a mocked
+ * {@link SyncClient}.
+ */
+class TablestoreVectorStoreBatchWriteTest {
+
+	private static final int DIMENSION = 3;
+
+	private final SyncClient client = mock(SyncClient.class);
+
+	private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+
+	private final KnowledgeStoreImpl knowledgeStore = KnowledgeStoreImpl.builder()
+		.client(client)
+		.embeddingDimension(DIMENSION)
+		.enableMultiTenant(false)
+		.build();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final List<Integer> requestSizes = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	void addWritesDocumentsInBatches() {
+		answerBatchWrites(() -> Set.of());
+		TablestoreVectorStore vectorStore = vectorStore().writeBatchSize(4).writeParallelism(2).build();
+
+		vectorStore.add(documents(10));
+
+		assertThat(requestSizes).containsExactlyInAnyOrder(4, 4, 2);
+		assertThat(meterRegistry.get("tablestore.vector.store.rows").tag("outcome", "success").counter().count())
+			.isEqualTo(10);
+	}
+
+	@Test
+	void onlyFailedRowsAreRetried() {
+		answerBatchWrites(() -> requestSizes.size() == 1 ? Set.of(1, 3) : Set.of());
+		TablestoreVectorStore vectorStore = vectorStore().build();
+
+		vectorStore.add(documents(5));
+
+		assertThat(requestSizes).containsExactly(5, 2);
+		assertThat(meterRegistry.get("tablestore.vector.store.row.retries").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get("tablestore.vector.store.rows").tag("outcome", "success").counter().count())
+			.isEqualTo(5);
+	}
+
+	@Test
+	void embeddingsAreWrittenInTheFormTheKnowledgeStoreReads() {
+		List<RowChange> rows = Collections.synchronizedList(new ArrayList<>());
+		when(client.batchWriteRow(any())).thenAnswer(invocation -> {
+			BatchWriteRowRequest request = invocation.getArgument(0);
+			request.getRowChange().values().forEach(rows::addAll);
+			return response(request, Set.of(), ErrorCode.SERVER_BUSY);
+		});
+		TablestoreVectorStore vectorStore = vectorStore().build();
+
+		vectorStore.add(documents(1));
+
+		RowPutChange row = (RowPutChange) rows.get(0);
+		String embedding = row.getColumnsToPut(knowledgeStore.getEmbeddingField()).get(0).getValue().asString();
+		assertThat(embedding).isEqualTo("[0.1,0.2,0.3]");
+		assertThat(TablestoreHelper.decodeEmbedding(embedding)).containsExactly(0.1f, 0.2f, 0.3f);
+	}
+
+	@Test
+	void rowsFailingWithNonRetryableErrorsAreReported() {
+		when(client.batchWriteRow(any())).thenAnswer(invocation -> {
+			BatchWriteRowRequest request = invocation.getArgument(0);
+			return response(request, Set.of(0), ErrorCode.INVALID_PARAMETER);
+		});
+		TablestoreVectorStore vectorStore = vectorStore().build();
+
+		assertThatThrownBy(() -> vectorStore.delete(List.of("a", "b"))).isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("Failed to delete 1 of 2 rows");
+		assertThat(meterRegistry.get("tablestore.vector.store.rows").tag("outcome", "failure").counter().count())
+			.isEqualTo(1);
+	}
+
+	private TablestoreVectorStore.Builder vectorStore() {
+		when(embeddingModel.embed(anyList(), any(), any())).thenAnswer(invocation -> {
+			List<Document> documents = invocation.getArgument(0);
+			return documents.stream().map(document -> new float[] { 0.1f, 0.2f, 0.3f }).toList();
+		});
+		return TablestoreVectorStore.builder(knowledgeStore, embeddingModel).meterRegistry(meterRegistry);
+	}
+
+	/**
+	 * Answers every batch request, failing the rows at the supplied indexes with a
+	 * retryable error.
+	 */
+	private void answerBatchWrites(Supplier<Set<Integer>> failedIndexes) {
+		when(client.batchWriteRow(any())).thenAnswer(invocation -> {
+			BatchWriteRowRequest request = invocation.getArgument(0);
+			requestSizes.add(request.getRowsCount());
+			return response(request, failedIndexes.get(), ErrorCode.SERVER_BUSY);
+		});
+	}
+
+	private static BatchWriteRowResponse response(BatchWriteRowRequest request, Set<Integer> failedIndexes,
+			String errorCode) {
+		BatchWriteRowResponse response = new BatchWriteRowResponse(new Response("request-id"));
+		for (Map.Entry<String, List<RowChange>> table : request.getRowChange().entrySet()) {
+			for (int i = 0; i < table.getValue().size(); i++) {
+				response.addRowResult(failedIndexes.contains(i)
+						? new BatchWriteRowResponse.RowResult(table.getKey(), null, new Error(errorCode, "rejected"), i)
+						: new BatchWriteRowResponse.RowResult(table.getKey(), null,
+								new ConsumedCapacity(new CapacityUnit(0, 1)), i));
+			}
+		}
+		return response;
+	}
+
+	private static List<Document> documents(int count) {
+		return IntStream.range(0, count)
+			.mapToObj(i -> new Document("doc-" + i, "content " + i, new HashMap<>(Map.of("index", i))))
+			.toList();
+	}
+
+}
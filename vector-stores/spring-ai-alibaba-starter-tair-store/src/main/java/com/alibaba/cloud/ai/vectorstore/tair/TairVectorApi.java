@@ -16,9 +16,13 @@
 package com.alibaba.cloud.ai.vectorstore.tair;
 
 import com.aliyun.tair.tairvector.TairVector;
+import com.aliyun.tair.tairvector.TairVectorPipeline;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Provides an API for interacting with Tair Vector, extending the functionality of the
  * {@link TairVector} class. This class is designed to manage vector operations using a
@@ -37,6 +41,10 @@ import redis.clients.jedis.JedisPool;
  */
 public class TairVectorApi extends TairVector {
 
+	private final Jedis jedis;
+
+	private final JedisPool jedisPool;
+
 	/**
 	 * Constructs a new instance of the {@link TairVectorApi} class using a single Jedis
 	 * instance.
@@ -44,6 +52,8 @@ public class TairVectorApi extends TairVector {
 	 */
 	public TairVectorApi(Jedis jedis) {
 		super(jedis);
+		this.jedis = jedis;
+		this.jedisPool = null;
 	}
 
 	/**
@@ -54,6 +64,43 @@ public class TairVectorApi extends TairVector {
 	 */
 	public TairVectorApi(JedisPool jedisPool) {
 		super(jedisPool);
+		this.jedis = null;
+		this.jedisPool = jedisPool;
+	}
+
+	/**
+	 * Queues the commands issued by the given callback on a single pipeline and sends
+	 * them in one round trip. With a connection pool every call borrows its own
+	 * connection, so pipelines may run concurrently; a single Jedis connection is used by
+	 * one pipeline at a time.
+	 * @param commands the callback issuing the pipelined commands
+	 * @return the replies in command order, with failed commands represented by their
+	 * exception
+	 */
+	public List<Object> pipelined(Consumer<TairVectorPipeline> commands) {
+		if (jedisPool != null) {
+			try (Jedis pooled = jedisPool.getResource()) {
+				return runPipeline(pooled, commands);
+			}
+		}
+		synchronized (jedis) {
+			return runPipeline(jedis, commands);
+		}
+	}
+
+	/**
+	 * Whether pipelines can run concurrently, that is the API is backed by a pool.
+	 * @return {@code true} when backed by a {@link JedisPool}
+	 */
+	public boolean isPooled() {
+		return jedisPool != null;
+	}
+
+	private static List<Object> runPipeline(Jedis connection, Consumer<TairVectorPipeline> commands) {
+		try (TairVectorPipeline pipeline = new TairVectorPipeline(connection)) {
+			commands.accept(pipeline);
+			return pipeline.syncAndReturnAll();
+		}
 	}
 
 }
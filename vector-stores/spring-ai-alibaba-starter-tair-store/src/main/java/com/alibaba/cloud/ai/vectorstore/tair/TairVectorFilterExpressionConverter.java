@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.tair;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.Filter.Expression;
+import org.springframework.ai.vectorstore.filter.converter.AbstractFilterExpressionConverter;
+
+import java.util.List;
+
+/**
+ * Converts {@link Expression} into the filter string of TairVector KNN searches, for
+ * example {@code metadata_country == "CN" && metadata_year >= 2020}.
+ * <p>
+ * Keys refer to the attributes {@link TairVectorStore} writes for scalar metadata
+ * values, named after the metadata key with the {@link #METADATA_FIELD_PREFIX}. IN and
+ * NIN are expanded into chains of equality comparisons.
+ * </p>
+ */
+public class TairVectorFilterExpressionConverter extends AbstractFilterExpressionConverter {
+
+	/**
+	 * Prefix of the attributes holding scalar metadata values.
+	 */
+	public static final String METADATA_FIELD_PREFIX = "metadata_";
+
+	@Override
+	protected void doExpression(Expression expression, StringBuilder context) {
+		switch (expression.type()) {
+			case IN -> doMembership(expression, " == ", " || ", context);
+			case NIN -> doMembership(expression, " != ", " && ", context);
+			default -> {
+				convertOperand(expression.left(), context);
+				context.append(getOperationSymbol(expression));
+				convertOperand(expression.right(), context);
+			}
+		}
+	}
+
+	private void doMembership(Expression expression, String comparison, String joiner, StringBuilder context) {
+		if (!(expression.left() instanceof Filter.Key key) || !(expression.right() instanceof Filter.Value value)
+				|| !(value.value() instanceof List<?> values) || values.isEmpty()) {
+			throw new IllegalArgumentException(
+					expression.type() + " expects a key and a non-empty list of values: " + expression);
+		}
+		context.append("(");
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				context.append(joiner);
+			}
+			doKey(key, context);
+			context.append(comparison);
+			doSingleValue(values.get(i), context);
+		}
+		context.append(")");
+	}
+
+	private String getOperationSymbol(Expression expression) {
+		return switch (expression.type()) {
+			case AND -> " && ";
+			case OR -> " || ";
+			case EQ -> " == ";
+			case NE -> " != ";
+			case LT -> " < ";
+			case LTE -> " <= ";
+			case GT -> " > ";
+			case GTE -> " >= ";
+			default -> throw new UnsupportedOperationException("Not supported expression type: " + expression.type());
+		};
+	}
+
+	@Override
+	protected void doKey(Filter.Key key, StringBuilder context) {
+		String identifier = hasOuterQuotes(key.key()) ? removeOuterQuotes(key.key()) : key.key();
+		context.append(METADATA_FIELD_PREFIX).append(identifier.trim());
+	}
+
+	@Override
+	protected void doSingleValue(Object value, StringBuilder context) {
+		if (value instanceof Number) {
+			context.append(value);
+			return;
+		}
+		context.append('"');
+		String text = String.valueOf(value);
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '"' || c == '\\') {
+				context.append('\\');
+			}
+			context.append(c);
+		}
+		context.append('"');
+	}
+
+	@Override
+	protected void doStartGroup(Filter.Group group, StringBuilder context) {
+		context.append("(");
+	}
+
+	@Override
+	protected void doEndGroup(Filter.Group group, StringBuilder context) {
+		context.append(")");
+	}
+
+}
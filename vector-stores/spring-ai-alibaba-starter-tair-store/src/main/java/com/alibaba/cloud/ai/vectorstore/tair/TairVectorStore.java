@@ -15,26 +15,36 @@
  */
 package com.alibaba.cloud.ai.vectorstore.tair;
 
+import com.alibaba.cloud.ai.vectorstore.common.VectorEncoding;
 import com.aliyun.tair.tairvector.factory.VectorBuilderFactory;
+import com.aliyun.tair.tairvector.factory.VectorBuilderFactory.KnnFieldItem;
 import com.aliyun.tair.tairvector.factory.VectorBuilderFactory.KnnItem;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
 import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationConvention;
 import org.springframework.util.Assert;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Provides an API for interacting with Tair Vector, extending the functionality of the
@@ -80,8 +90,19 @@ public class TairVectorStore extends AbstractObservationVectorStore {
 
 	protected final BatchingStrategy batchingStrategy;
 
+	/**
+	 * The attributes returned with every KNN hit.
+	 */
+	private static final List<String> RESULT_FIELDS = List.of(ID_FIELD_NAME, CONTENT_FIELD_NAME,
+			METADATA_FIELD_NAME);
+
 	private final ObjectMapper objectMapper = new ObjectMapper();
 
+	private final ObjectReader metadataReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {
+	});
+
+	private final FilterExpressionConverter filterExpressionConverter = new TairVectorFilterExpressionConverter();
+
 	/**
 	 * Constructs a new instance of TairVectorStore with the specified parameters.
 	 * @param tairVectorApi The API client used to interact with Tair.
@@ -140,27 +161,114 @@ public class TairVectorStore extends AbstractObservationVectorStore {
 			throw new IllegalArgumentException("Documents list cannot be empty");
 		}
 
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.builder().build(),
+				this.batchingStrategy);
+
+		int batchSize = Math.max(1, options.getWriteBatchSize());
+		List<Runnable> writes = new ArrayList<>();
+		for (int from = 0; from < documents.size(); from += batchSize) {
+			int to = Math.min(from + batchSize, documents.size());
+			List<Document> batch = documents.subList(from, to);
+			List<float[]> batchEmbeddings = embeddings.subList(from, to);
+			writes.add(() -> writeBatch(batch, batchEmbeddings));
+		}
+
+		int parallelism = this.tairVectorApi.isPooled() ? Math.min(options.getWriteParallelism(), writes.size()) : 1;
+		if (parallelism <= 1) {
+			writes.forEach(Runnable::run);
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			CompletableFuture
+				.allOf(writes.stream()
+					.map(write -> CompletableFuture.runAsync(write, executor))
+					.toArray(CompletableFuture[]::new))
+				.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Writes one batch of documents in a single pipeline.
+	 * @param documents the documents to write
+	 * @param embeddings the embeddings of the documents, in the same order
+	 */
+	protected void writeBatch(List<Document> documents, List<float[]> embeddings) {
+		byte[] index = options.getIndexName().getBytes(StandardCharsets.UTF_8);
+		List<byte[][]> attributes = new ArrayList<>(documents.size());
 		for (Document document : documents) {
-			logger.info("Calling EmbeddingModel for document id = {}", document.getId());
-			float[] embedding = this.embeddingModel.embed(document);
-			String embeddingString = null;
-			try {
-				embeddingString = objectMapper.writeValueAsString(embedding);
-
-				List<String> params = new ArrayList<>();
-				params.add(ID_FIELD_NAME);
-				params.add(document.getId());
-				params.add(CONTENT_FIELD_NAME);
-				params.add(document.getText());
-				params.add(METADATA_FIELD_NAME);
-				params.add(objectMapper.writeValueAsString(document.getMetadata()));
-				this.tairVectorApi.tvshset(options.getIndexName(), document.getId(), embeddingString,
-						params.toArray(new String[0]));
+			attributes.add(toAttributes(document));
+		}
+		List<Object> replies = this.tairVectorApi.pipelined(pipeline -> {
+			for (int i = 0; i < documents.size(); i++) {
+				Document document = documents.get(i);
+				pipeline.tvshset(index, document.getId().getBytes(StandardCharsets.UTF_8),
+						VectorEncoding.toTextBytes(embeddings.get(i)), attributes.get(i));
 			}
-			catch (JsonProcessingException e) {
-				throw new RuntimeException("Error serializing message", e);
+		});
+		int failed = 0;
+		Exception firstFailure = null;
+		for (Object reply : replies) {
+			if (reply instanceof Exception e) {
+				failed++;
+				firstFailure = firstFailure != null ? firstFailure : e;
 			}
 		}
+		if (failed > 0) {
+			throw new IllegalStateException(String.format("Failed to write %d of %d documents to Tair index %s",
+					failed, documents.size(), options.getIndexName()), firstFailure);
+		}
+		logger.debug("Wrote {} documents to Tair index {}", documents.size(), options.getIndexName());
+	}
+
+	/**
+	 * Builds the attributes stored with a document: its id, content and metadata JSON,
+	 * plus one {@link TairVectorFilterExpressionConverter#METADATA_FIELD_PREFIX prefixed}
+	 * attribute per scalar metadata value so that searches can filter on it. The
+	 * attributes are encoded as UTF-8 for the binary pipeline commands.
+	 */
+	private byte[][] toAttributes(Document document) {
+		List<String> attributes = new ArrayList<>(6 + document.getMetadata().size() * 2);
+		attributes.add(ID_FIELD_NAME);
+		attributes.add(document.getId());
+		attributes.add(CONTENT_FIELD_NAME);
+		attributes.add(document.getText());
+		attributes.add(METADATA_FIELD_NAME);
+		try {
+			attributes.add(objectMapper.writeValueAsString(document.getMetadata()));
+		}
+		catch (JsonProcessingException e) {
+			throw new RuntimeException("Error serializing message", e);
+		}
+		document.getMetadata().forEach((key, value) -> {
+			if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+				attributes.add(TairVectorFilterExpressionConverter.METADATA_FIELD_PREFIX + key);
+				attributes.add(String.valueOf(value));
+			}
+		});
+		byte[][] encoded = new byte[attributes.size()][];
+		for (int i = 0; i < encoded.length; i++) {
+			encoded[i] = attributes.get(i).getBytes(StandardCharsets.UTF_8);
+		}
+		return encoded;
+	}
+
+	/**
+	 * Formats a vector in the text form TairVector accepts, {@code [v1,v2,...]}.
+	 * @param vector the vector to format
+	 * @return the formatted vector
+	 */
+	static String toVectorString(float[] vector) {
+		return VectorEncoding.toText(vector);
 	}
 
 	@Override
@@ -170,16 +278,17 @@ public class TairVectorStore extends AbstractObservationVectorStore {
 
 	@Override
 	public List<Document> doSimilaritySearch(SearchRequest request) {
-		float[] userQueryEmbedding = getUserQueryEmbedding(request.getQuery());
-		String embeddingString = null;
-		try {
-			embeddingString = objectMapper.writeValueAsString(userQueryEmbedding);
+		String vector = toVectorString(getUserQueryEmbedding(request.getQuery()));
+		long topK = request.getTopK();
+		VectorBuilderFactory.KnnField<String> result;
+		if (request.hasFilterExpression()) {
+			String filter = this.filterExpressionConverter.convertExpression(request.getFilterExpression());
+			result = this.tairVectorApi.tvsknnsearchfilterfield(options.getIndexName(), topK, vector, RESULT_FIELDS,
+					filter);
 		}
-		catch (JsonProcessingException e) {
-			throw new RuntimeException("Failed to serialize JSON", e);
+		else {
+			result = this.tairVectorApi.tvsknnsearchfield(options.getIndexName(), topK, vector, RESULT_FIELDS);
 		}
-		VectorBuilderFactory.Knn<String> result = this.tairVectorApi.tvsknnsearch(options.getIndexName(),
-				(long) request.getTopK(), embeddingString);
 
 		return result.getKnnResults()
 			.stream()
@@ -189,26 +298,41 @@ public class TairVectorStore extends AbstractObservationVectorStore {
 			.toList();
 	}
 
+	/**
+	 * Builds a document from a KNN hit that carries its attributes.
+	 * @param item The KnnFieldItem returned by the search.
+	 * @return The document corresponding to the hit.
+	 */
+	protected Document mapToDocument(KnnFieldItem<String> item) {
+		Map<String, String> fields = item.getFields();
+		String id = fields.getOrDefault(ID_FIELD_NAME, item.getId());
+		return new Document(id, fields.get(CONTENT_FIELD_NAME), parseMetadata(fields.get(METADATA_FIELD_NAME)));
+	}
+
 	/**
 	 * Retrieves a document from the vector store based on a KnnItem.
 	 * @param item The KnnItem containing the document ID.
 	 * @return The document corresponding to the KnnItem.
+	 * @deprecated searches return the attributes with every hit, use
+	 * {@link #mapToDocument(KnnFieldItem)} instead of fetching them per hit
 	 */
+	@Deprecated
 	protected Document mapToDocument(KnnItem<String> item) {
 		List<String> detail = this.tairVectorApi.tvshmget(options.getIndexName(), item.getId(), ID_FIELD_NAME,
 				CONTENT_FIELD_NAME, METADATA_FIELD_NAME);
-		String id = detail.get(0);
-		String content = detail.get(1);
-		String metadataStr = detail.get(2);
-		Map<String, Object> metaData = null;
+		return new Document(detail.get(0), detail.get(1), parseMetadata(detail.get(2)));
+	}
+
+	private Map<String, Object> parseMetadata(String metadata) {
+		if (metadata == null || metadata.isEmpty()) {
+			return new HashMap<>();
+		}
 		try {
-			metaData = objectMapper.readValue(metadataStr, new TypeReference<Map<String, Object>>() {
-			});
+			return metadataReader.readValue(metadata);
 		}
 		catch (JsonProcessingException e) {
 			throw new RuntimeException("Failed to parse JSON", e);
 		}
-		return new Document(id, content, metaData);
 	}
 
 	/**
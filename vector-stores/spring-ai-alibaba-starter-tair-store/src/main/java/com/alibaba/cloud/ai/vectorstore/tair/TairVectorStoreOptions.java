@@ -76,6 +76,17 @@ public class TairVectorStoreOptions {
 	 */
 	private Integer expireSeconds = 600;
 
+	/**
+	 * The number of documents written in a single pipeline.
+	 */
+	private int writeBatchSize = 100;
+
+	/**
+	 * The number of pipelines written concurrently when adding documents. Values above 1
+	 * only take effect when the {@link TairVectorApi} is backed by a connection pool.
+	 */
+	private int writeParallelism = 1;
+
 	/**
 	 * The expiration time for the index, in seconds.
 	 */
@@ -171,4 +182,36 @@ public class TairVectorStoreOptions {
 		this.expireSeconds = expireSeconds;
 	}
 
+	/**
+	 * Returns the number of documents written in a single pipeline.
+	 * @return the write batch size
+	 */
+	public int getWriteBatchSize() {
+		return writeBatchSize;
+	}
+
+	/**
+	 * Sets the number of documents written in a single pipeline.
+	 * @param writeBatchSize the write batch size to set
+	 */
+	public void setWriteBatchSize(int writeBatchSize) {
+		this.writeBatchSize = writeBatchSize;
+	}
+
+	/**
+	 * Returns the number of pipelines written concurrently.
+	 * @return the write parallelism
+	 */
+	public int getWriteParallelism() {
+		return writeParallelism;
+	}
+
+	/**
+	 * Sets the number of pipelines written concurrently.
+	 * @param writeParallelism the write parallelism to set
+	 */
+	public void setWriteParallelism(int writeParallelism) {
+		this.writeParallelism = writeParallelism;
+	}
+
 }
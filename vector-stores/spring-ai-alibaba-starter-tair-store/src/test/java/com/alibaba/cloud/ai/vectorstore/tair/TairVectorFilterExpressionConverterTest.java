@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.tair;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TairVectorFilterExpressionConverterTest {
+
+	private final FilterExpressionConverter converter = new TairVectorFilterExpressionConverter();
+
+	private final FilterExpressionBuilder b = new FilterExpressionBuilder();
+
+	@Test
+	void convertsComparisonsAndGroups() {
+		String filter = converter.convertExpression(
+				b.and(b.group(b.or(b.eq("genre", "drama"), b.lt("year", 2000))), b.ne("author", "x\"y")).build());
+
+		assertThat(filter).isEqualTo(
+				"(metadata_genre == \"drama\" || metadata_year < 2000) && metadata_author != \"x\\\"y\"");
+	}
+
+	@Test
+	void expandsInAndNin() {
+		assertThat(converter.convertExpression(b.in("country", "CN", "US").build()))
+			.isEqualTo("(metadata_country == \"CN\" || metadata_country == \"US\")");
+		assertThat(converter.convertExpression(b.nin("year", 2020, 2021).build()))
+			.isEqualTo("(metadata_year != 2020 && metadata_year != 2021)");
+	}
+
+	@Test
+	void quotesBooleans() {
+		assertThat(converter.convertExpression(b.eq("published", true).build()))
+			.isEqualTo("metadata_published == \"true\"");
+	}
+
+}
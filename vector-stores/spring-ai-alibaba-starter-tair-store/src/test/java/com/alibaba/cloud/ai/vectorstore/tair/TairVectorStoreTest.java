@@ -15,12 +15,38 @@
  */
 package com.alibaba.cloud.ai.vectorstore.tair;
 
+import com.aliyun.tair.tairvector.TairVectorPipeline;
+import com.aliyun.tair.tairvector.factory.VectorBuilderFactory;
 import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Test class for TairVectorStore to verify the fix for createObservationContextBuilder
@@ -88,4 +114,82 @@ class TairVectorStoreTest {
 		assertThat(context.getSimilarityMetric()).isEqualTo("IP");
 	}
 
+	@Test
+	void testAddEmbedsThroughBatchingStrategyAndPipelinesWrites() {
+		TairVectorApi mockTairVectorApi = mock(TairVectorApi.class);
+		EmbeddingModel mockEmbeddingModel = mock(EmbeddingModel.class);
+		BatchingStrategy batchingStrategy = mock(BatchingStrategy.class);
+		TairVectorPipeline pipeline = mock(TairVectorPipeline.class);
+		List<Document> documents = List.of(new Document("1", "one", Map.of()),
+				new Document("2", "two", Map.of()), new Document("3", "three", Map.of()));
+		when(mockEmbeddingModel.embed(eq(documents), any(), eq(batchingStrategy)))
+			.thenReturn(List.of(new float[] { 1f, 2f }, new float[] { 3f, 4f }, new float[] { 5f, 6f }));
+		List<Integer> pipelineSizes = new ArrayList<>();
+		when(mockTairVectorApi.pipelined(any())).thenAnswer(invocation -> {
+			Consumer<TairVectorPipeline> commands = invocation.getArgument(0);
+			int before = mockingDetails(pipeline).getInvocations().size();
+			commands.accept(pipeline);
+			int size = mockingDetails(pipeline).getInvocations().size() - before;
+			pipelineSizes.add(size);
+			return new ArrayList<>(Collections.nCopies(size, 1L));
+		});
+		TairVectorStoreOptions options = new TairVectorStoreOptions();
+		options.setWriteBatchSize(2);
+
+		TairVectorStore vectorStore = TairVectorStore.builder(mockTairVectorApi, mockEmbeddingModel)
+			.options(options)
+			.batchingStrategy(batchingStrategy)
+			.build();
+		vectorStore.add(documents);
+
+		assertThat(pipelineSizes).containsExactly(2, 1);
+		byte[] index = options.getIndexName().getBytes(StandardCharsets.UTF_8);
+		verify(pipeline).tvshset(aryEq(index), aryEq(utf8("1")), aryEq(utf8("[1.0,2.0]")), any(byte[][].class));
+		verify(pipeline).tvshset(aryEq(index), aryEq(utf8("3")), aryEq(utf8("[5.0,6.0]")), any(byte[][].class));
+		verify(mockEmbeddingModel, times(1)).embed(anyList(), any(), eq(batchingStrategy));
+	}
+
+	@Test
+	void testAddReportsFailedPipelineReplies() {
+		TairVectorApi mockTairVectorApi = mock(TairVectorApi.class);
+		EmbeddingModel mockEmbeddingModel = mock(EmbeddingModel.class);
+		when(mockEmbeddingModel.embed(anyList(), any(), any())).thenReturn(List.of(new float[] { 1f }));
+		when(mockTairVectorApi.pipelined(any()))
+			.thenReturn(List.of(new JedisDataException("ERR dimension mismatch")));
+
+		TairVectorStore vectorStore = TairVectorStore.builder(mockTairVectorApi, mockEmbeddingModel).build();
+
+		assertThatThrownBy(() -> vectorStore.add(List.of(new Document("1", "one", Map.of()))))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("1 of 1");
+	}
+
+	@Test
+	void testSimilaritySearchReturnsAttributesWithHitsAndFiltersOnServer() {
+		TairVectorApi mockTairVectorApi = mock(TairVectorApi.class);
+		EmbeddingModel mockEmbeddingModel = mock(EmbeddingModel.class);
+		when(mockEmbeddingModel.embed("query")).thenReturn(new float[] { 0.5f, 0.25f });
+		VectorBuilderFactory.KnnField<String> knn = new VectorBuilderFactory.KnnField<>();
+		knn.add(new VectorBuilderFactory.KnnFieldItem<>("doc-1", 0.9, "doc-1",
+				Map.of("id", "doc-1", "content", "hello", "metadata", "{\"country\":\"CN\"}")));
+		when(mockTairVectorApi.tvsknnsearchfilterfield(anyString(), anyLong(), anyString(), anyCollection(),
+				anyString()))
+			.thenReturn(knn);
+
+		TairVectorStore vectorStore = TairVectorStore.builder(mockTairVectorApi, mockEmbeddingModel).build();
+		List<Document> results = vectorStore.similaritySearch(
+				SearchRequest.builder().query("query").topK(5).filterExpression("country == 'CN' && year >= 2020").build());
+
+		assertThat(results).hasSize(1);
+		assertThat(results.get(0).getText()).isEqualTo("hello");
+		assertThat(results.get(0).getMetadata()).containsEntry("country", "CN");
+		verify(mockTairVectorApi).tvsknnsearchfilterfield(eq("spring_ai_tair_vector_store"), eq(5L), eq("[0.5,0.25]"),
+				eq(List.of("id", "content", "metadata")), eq("metadata_country == \"CN\" && metadata_year >= 2020"));
+		verify(mockTairVectorApi, never()).tvshmget(anyString(), anyString(), any(String[].class));
+	}
+
+	private static byte[] utf8(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
 }
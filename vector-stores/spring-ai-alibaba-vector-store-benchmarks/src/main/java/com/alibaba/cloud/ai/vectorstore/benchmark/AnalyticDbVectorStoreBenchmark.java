@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import com.alibaba.cloud.ai.vectorstore.analyticdb.AnalyticDbConfig;
+import com.alibaba.cloud.ai.vectorstore.analyticdb.AnalyticDbVectorStore;
+import com.aliyun.gpdb20160503.models.QueryCollectionDataResponseBody;
+import com.aliyun.gpdb20160503.models.QueryCollectionDataResponseBody.QueryCollectionDataResponseBodyMatches;
+import com.aliyun.gpdb20160503.models.QueryCollectionDataResponseBody.QueryCollectionDataResponseBodyMatchesMatch;
+import com.aliyun.teaopenapi.models.Config;
+import com.aliyun.teautil.Common;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link VectorStoreBenchmark} of the {@link AnalyticDbVectorStore}, on a
+ * {@link FakeAnalyticDbClient} that accepts every upsert and answers queries with canned
+ * matches.
+ */
+public class AnalyticDbVectorStoreBenchmark extends VectorStoreBenchmark {
+
+	@Override
+	protected VectorStore createVectorStore(FakeEmbeddingModel embeddingModel, List<Document> hits)
+			throws Exception {
+		List<QueryCollectionDataResponseBodyMatchesMatch> matches = new ArrayList<>(hits.size());
+		for (int i = 0; i < hits.size(); i++) {
+			Document hit = hits.get(i);
+			matches.add(new QueryCollectionDataResponseBodyMatchesMatch().setId(hit.getId())
+				.setScore(1.0 - 0.01 * i)
+				.setMetadata(Map.of("content", hit.getText(), "metadata",
+						ModelOptionsUtils.toJsonString(hit.getMetadata()))));
+		}
+		QueryCollectionDataResponseBody queryResponse = new QueryCollectionDataResponseBody().setRequestId("benchmark")
+			.setStatus("success")
+			.setMatches(new QueryCollectionDataResponseBodyMatches().setMatch(matches));
+		Config clientConfig = new Config().setAccessKeyId("benchmark")
+			.setAccessKeySecret("benchmark")
+			.setRegionId("cn-hangzhou")
+			.setEndpoint("gpdb.aliyuncs.com");
+		FakeAnalyticDbClient client = new FakeAnalyticDbClient(clientConfig,
+				Map.of("UpsertCollectionData", "{\"RequestId\":\"benchmark\",\"Status\":\"success\"}",
+						"QueryCollectionData", Common.toJSONString(queryResponse.toMap())));
+		AnalyticDbConfig config = new AnalyticDbConfig().setRegionId("cn-hangzhou")
+			.setDbInstanceId("gp-benchmark")
+			.setNamespace("benchmark")
+			.setNamespacePassword("benchmark");
+		return AnalyticDbVectorStore.builder("benchmark", config, client, embeddingModel).build();
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates reproducible documents shaped like the chunks of a typical ingestion: a few
+ * hundred characters of text and a handful of scalar metadata values.
+ */
+public final class BenchmarkDocuments {
+
+	private static final String[] WORDS = { "vector", "store", "embedding", "query", "index", "document", "chunk",
+			"search", "latency", "throughput", "cluster", "tenant", "metadata", "filter", "score", "batch",
+			"pipeline", "request", "response", "model" };
+
+	private static final String[] CATEGORIES = { "guide", "reference", "faq", "release-notes" };
+
+	private static final int WORDS_PER_DOCUMENT = 80;
+
+	private BenchmarkDocuments() {
+	}
+
+	/**
+	 * Generates the documents; the same count and seed always give the same documents.
+	 * @param count the number of documents
+	 * @param seed the seed of the generated text and metadata
+	 * @return the documents, with ids {@code doc-0} to {@code doc-<count - 1>}
+	 */
+	public static List<Document> generate(int count, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<Document> documents = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			StringBuilder text = new StringBuilder(WORDS_PER_DOCUMENT * 10);
+			for (int w = 0; w < WORDS_PER_DOCUMENT; w++) {
+				if (w > 0) {
+					text.append(' ');
+				}
+				text.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			Map<String, Object> metadata = new HashMap<>(Map.of("source", "handbook-" + random.nextInt(16) + ".md", "page",
+					random.nextInt(1, 400), "category", CATEGORIES[random.nextInt(CATEGORIES.length)]));
+			documents.add(new Document("doc-" + i, text.toString(), metadata));
+		}
+		return documents;
+	}
+
+}
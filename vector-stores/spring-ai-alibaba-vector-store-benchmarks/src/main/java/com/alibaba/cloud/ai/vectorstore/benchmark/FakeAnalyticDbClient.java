@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import com.aliyun.credentials.models.CredentialModel;
+import com.aliyun.gpdb20160503.Client;
+import com.aliyun.tea.Tea;
+import com.aliyun.tea.TeaConverter;
+import com.aliyun.tea.TeaPair;
+import com.aliyun.tea.TeaRequest;
+import com.aliyun.teaopenapi.models.Config;
+import com.aliyun.teaopenapi.models.OpenApiRequest;
+import com.aliyun.teaopenapi.models.Params;
+import com.aliyun.teautil.Common;
+import com.aliyun.teautil.models.RuntimeOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AnalyticDB {@link Client} that builds and signs every request the way the SDK does,
+ * form body, content hash and ACS3 signature included, and then answers it with the
+ * canned JSON response body of its action instead of sending it.
+ */
+public class FakeAnalyticDbClient extends Client {
+
+	private static final String SIGNATURE_ALGORITHM = "ACS3-HMAC-SHA256";
+
+	private final Map<String, byte[]> responses = new HashMap<>();
+
+	/**
+	 * Creates the client.
+	 * @param config the client configuration, with the credentials to sign with
+	 * @param responses the JSON response bodies by action, such as
+	 * {@code QueryCollectionData}
+	 */
+	public FakeAnalyticDbClient(Config config, Map<String, String> responses) throws Exception {
+		super(config);
+		responses.forEach((action, body) -> this.responses.put(action, body.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Override
+	public Map<String, ?> doRequest(Params params, OpenApiRequest request, RuntimeOptions runtime) throws Exception {
+		byte[] response = responses.get(params.action);
+		if (response == null) {
+			throw new IllegalStateException("No response for action " + params.action);
+		}
+
+		TeaRequest httpRequest = new TeaRequest();
+		httpRequest.protocol = Common.defaultString(_protocol, params.protocol);
+		httpRequest.method = params.method;
+		httpRequest.pathname = params.pathname;
+		httpRequest.query = TeaConverter.merge(String.class, request.query);
+		httpRequest.headers = TeaConverter.merge(String.class,
+				TeaConverter.buildMap(new TeaPair("host", _endpoint), new TeaPair("x-acs-version", params.version),
+						new TeaPair("x-acs-action", params.action), new TeaPair("user-agent", getUserAgent()),
+						new TeaPair("x-acs-date", com.aliyun.openapiutil.Client.getTimestamp()),
+						new TeaPair("x-acs-signature-nonce", Common.getNonce()),
+						new TeaPair("accept", "application/json")),
+				request.headers);
+		String body = "";
+		if (!Common.isUnset(request.body)) {
+			body = com.aliyun.openapiutil.Client.toForm(Common.assertAsMap(request.body));
+			httpRequest.headers.put("content-type", "application/x-www-form-urlencoded");
+		}
+		String payloadHash = com.aliyun.openapiutil.Client
+			.hexEncode(com.aliyun.openapiutil.Client.hash(Common.toBytes(body), SIGNATURE_ALGORITHM));
+		httpRequest.body = Tea.toReadable(body);
+		httpRequest.headers.put("x-acs-content-sha256", payloadHash);
+		CredentialModel credential = _credential.getCredential();
+		httpRequest.headers.put("Authorization", com.aliyun.openapiutil.Client.getAuthorization(httpRequest,
+				SIGNATURE_ALGORITHM, payloadHash, credential.accessKeyId, credential.accessKeySecret));
+		httpRequest.body.transferTo(OutputStream.nullOutputStream());
+
+		return TeaConverter.buildMap(
+				new TeaPair("body", Common.assertAsMap(Common.readAsJSON(new ByteArrayInputStream(response)))),
+				new TeaPair("headers", Map.of()), new TeaPair("statusCode", 200));
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * {@link EmbeddingModel} that derives a unit vector from the hash of the text, so the
+ * same text always gets the same embedding without calling a model service.
+ */
+public class FakeEmbeddingModel implements EmbeddingModel {
+
+	private final int dimensions;
+
+	public FakeEmbeddingModel(int dimensions) {
+		Assert.isTrue(dimensions > 0, "dimensions must be positive");
+		this.dimensions = dimensions;
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		List<String> texts = request.getInstructions();
+		List<Embedding> embeddings = new ArrayList<>(texts.size());
+		for (int i = 0; i < texts.size(); i++) {
+			embeddings.add(new Embedding(embed(texts.get(i)), i));
+		}
+		return new EmbeddingResponse(embeddings);
+	}
+
+	@Override
+	public float[] embed(Document document) {
+		return embed(document.getText());
+	}
+
+	@Override
+	public float[] embed(String text) {
+		SplittableRandom random = new SplittableRandom(text.hashCode());
+		float[] vector = new float[dimensions];
+		double norm = 0;
+		for (int i = 0; i < dimensions; i++) {
+			vector[i] = (float) (random.nextDouble() * 2 - 1);
+			norm += vector[i] * vector[i];
+		}
+		float scale = (float) (1 / Math.sqrt(norm));
+		for (int i = 0; i < dimensions; i++) {
+			vector[i] *= scale;
+		}
+		return vector;
+	}
+
+	@Override
+	public int dimensions() {
+		return dimensions;
+	}
+
+}
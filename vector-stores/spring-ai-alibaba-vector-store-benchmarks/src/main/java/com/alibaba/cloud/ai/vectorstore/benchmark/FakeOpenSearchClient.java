@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import com.aliyun.ha3engine.vector.Client;
+import com.aliyun.ha3engine.vector.models.Config;
+import com.aliyun.tea.Tea;
+import com.aliyun.tea.TeaConverter;
+import com.aliyun.tea.TeaPair;
+import com.aliyun.tea.TeaRequest;
+import com.aliyun.teautil.Common;
+import com.aliyun.teautil.models.RuntimeOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * OpenSearch vector engine {@link Client} that builds every request the way the SDK
+ * does, headers, credentials and JSON body included, and then answers it with a canned
+ * response body instead of sending it: document pushes are accepted and queries get the
+ * configured search response.
+ */
+public class FakeOpenSearchClient extends Client {
+
+	private static final byte[] PUSH_RESPONSE = "{\"errors\":[],\"status\":\"OK\",\"code\":200}"
+		.getBytes(StandardCharsets.UTF_8);
+
+	private final byte[] searchResponse;
+
+	public FakeOpenSearchClient(Config config, String searchResponse) throws Exception {
+		super(config);
+		this.searchResponse = searchResponse.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public Map<String, ?> _request(String method, String pathname, Map<String, ?> query, Map<String, String> headers,
+			Object body, RuntimeOptions runtime) throws Exception {
+		TeaRequest request = new TeaRequest();
+		request.protocol = Common.defaultString(_protocol, "HTTP");
+		request.method = method;
+		request.pathname = pathname;
+		request.headers = TeaConverter.merge(String.class,
+				TeaConverter.buildMap(new TeaPair("user-agent", getUserAgent()),
+						new TeaPair("host", Common.defaultString(_endpoint, _instanceId + "." + _domainsuffix)),
+						new TeaPair("authorization", "Basic " + _credential),
+						new TeaPair("content-type", "application/json; charset=utf-8")),
+				headers);
+		if (!Common.isUnset(query)) {
+			request.query = Common.stringifyMapValue(query);
+		}
+		request.headers.put("X-Opensearch-Request-ID", Common.getNonce());
+		request.body = Tea.toReadable(Common.toJSONString(body));
+		request.body.transferTo(OutputStream.nullOutputStream());
+
+		byte[] response = pathname.endsWith("/actions/bulk") ? PUSH_RESPONSE : searchResponse;
+		return TeaConverter.buildMap(new TeaPair("body", Common.readAsString(new ByteArrayInputStream(response))),
+				new TeaPair("headers", Map.of()));
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.SyncClient;
+import com.alicloud.openservices.tablestore.core.ResponseContentWithMeta;
+import com.alicloud.openservices.tablestore.core.protocol.OTSProtocolBuilder;
+import com.alicloud.openservices.tablestore.core.protocol.OtsInternalApi;
+import com.alicloud.openservices.tablestore.core.protocol.ResponseFactory;
+import com.alicloud.openservices.tablestore.core.protocol.Search;
+import com.alicloud.openservices.tablestore.core.protocol.SearchProtocolBuilder;
+import com.alicloud.openservices.tablestore.core.utils.Base64;
+import com.alicloud.openservices.tablestore.core.utils.BinaryUtil;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowRequest;
+import com.alicloud.openservices.tablestore.model.BatchWriteRowResponse;
+import com.alicloud.openservices.tablestore.model.Response;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.search.SearchRequest;
+import com.alicloud.openservices.tablestore.model.search.SearchResponse;
+import com.aliyun.ots.thirdparty.com.google.protobuf.Message;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tablestore {@link SyncClient} that encodes batch writes and searches to their protocol
+ * buffer form, with the content MD5, the way the SDK does, and then decodes a protocol
+ * buffer response through the SDK's response factory instead of sending anything: every
+ * row is written and searches get the configured response.
+ */
+public class FakeTablestoreClient extends SyncClient {
+
+	private static final String REQUEST_ID = "benchmark";
+
+	private static final OtsInternalApi.ConsumedCapacity WRITE_CAPACITY = OtsInternalApi.ConsumedCapacity.newBuilder()
+		.setCapacityUnit(OtsInternalApi.CapacityUnit.newBuilder().setWrite(1))
+		.build();
+
+	private final byte[] searchResponse;
+
+	/**
+	 * Content MD5 of the last request, kept so that encoding it cannot be optimized away.
+	 */
+	private String contentMd5;
+
+	public FakeTablestoreClient(Search.SearchResponse searchResponse) {
+		super("https://benchmark.cn-hangzhou.ots.aliyuncs.com", "benchmark", "benchmark", "benchmark");
+		this.searchResponse = searchResponse.toByteArray();
+	}
+
+	@Override
+	public BatchWriteRowResponse batchWriteRow(BatchWriteRowRequest request) {
+		send(OTSProtocolBuilder.buildBatchWriteRowRequest(request));
+		OtsInternalApi.BatchWriteRowResponse.Builder response = OtsInternalApi.BatchWriteRowResponse.newBuilder();
+		for (Map.Entry<String, List<RowChange>> table : request.getRowChange().entrySet()) {
+			OtsInternalApi.TableInBatchWriteRowResponse.Builder tableResponse = response.addTablesBuilder()
+				.setTableName(table.getKey());
+			for (int i = 0; i < table.getValue().size(); i++) {
+				tableResponse.addRowsBuilder().setIsOk(true).setConsumed(WRITE_CAPACITY);
+			}
+		}
+		try {
+			OtsInternalApi.BatchWriteRowResponse message = OtsInternalApi.BatchWriteRowResponse
+				.parseFrom(response.build().toByteArray());
+			return ResponseFactory.createBatchWriteRowResponse(
+					new ResponseContentWithMeta(message, new Response(REQUEST_ID)), message);
+		}
+		catch (IOException e) {
+			throw new ClientException("Failed to decode the BatchWriteRow response", e);
+		}
+	}
+
+	@Override
+	public SearchResponse search(SearchRequest request) {
+		send(SearchProtocolBuilder.buildSearchRequest(request));
+		try {
+			Search.SearchResponse message = Search.SearchResponse.parseFrom(searchResponse);
+			return ResponseFactory.createSearchResponse(new ResponseContentWithMeta(message, new Response(REQUEST_ID)),
+					message);
+		}
+		catch (IOException e) {
+			throw new ClientException("Failed to decode the Search response", e);
+		}
+	}
+
+	private void send(Message request) {
+		contentMd5 = Base64.toBase64String(BinaryUtil.calculateMd5(request.toByteArray()));
+	}
+
+}
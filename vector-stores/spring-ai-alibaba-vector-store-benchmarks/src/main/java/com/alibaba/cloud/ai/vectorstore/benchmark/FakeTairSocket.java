@@ -0,0 +1,269 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory {@link Socket} standing in for a Tair server, so that a Jedis client still
+ * encodes its commands and decodes the replies. The RESP commands written to the socket
+ * are read only as far as their name, and every complete command is answered with the
+ * canned RESP reply registered for that name, or with an error reply when there is none.
+ * {@code PING}, used by the pool to validate idle connections, is always answered.
+ * <p>
+ * Like a real connection, the socket is used by one thread at a time.
+ * </p>
+ */
+public class FakeTairSocket extends Socket {
+
+	private static final byte[] PONG = "+PONG\r\n".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] UNKNOWN_COMMAND = "-ERR unknown command\r\n".getBytes(StandardCharsets.US_ASCII);
+
+	private final byte[][] commands;
+
+	private final byte[][] replies;
+
+	private final Deque<byte[]> pendingReplies = new ArrayDeque<>();
+
+	private final OutputStream outputStream = new CommandStream();
+
+	private final InputStream inputStream = new ReplyStream();
+
+	private int soTimeout;
+
+	private boolean closed;
+
+	/**
+	 * Creates a connected socket.
+	 * @param replies the RESP replies by command name, matched case-insensitively
+	 */
+	public FakeTairSocket(Map<String, byte[]> replies) {
+		this.commands = new byte[replies.size() + 1][];
+		this.replies = new byte[replies.size() + 1][];
+		int i = 0;
+		for (Map.Entry<String, byte[]> reply : replies.entrySet()) {
+			this.commands[i] = reply.getKey().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+			this.replies[i++] = reply.getValue();
+		}
+		this.commands[i] = "ping".getBytes(StandardCharsets.US_ASCII);
+		this.replies[i] = PONG;
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		return outputStream;
+	}
+
+	@Override
+	public InputStream getInputStream() {
+		return inputStream;
+	}
+
+	@Override
+	public int getSoTimeout() {
+		return soTimeout;
+	}
+
+	@Override
+	public void setSoTimeout(int timeout) {
+		this.soTimeout = timeout;
+	}
+
+	@Override
+	public boolean isConnected() {
+		return true;
+	}
+
+	@Override
+	public boolean isBound() {
+		return true;
+	}
+
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	private byte[] replyTo(byte[] name, int length) {
+		for (int i = 0; i < commands.length; i++) {
+			if (equalsIgnoreCase(commands[i], name, length)) {
+				return replies[i];
+			}
+		}
+		return UNKNOWN_COMMAND;
+	}
+
+	private static boolean equalsIgnoreCase(byte[] lowerCase, byte[] name, int length) {
+		if (lowerCase.length != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			byte b = name[i];
+			if ((b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b) != lowerCase[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Follows the RESP arrays of bulk strings the client sends, keeping the first bulk
+	 * string of each array, the command name, and queues a reply whenever an array is
+	 * complete.
+	 */
+	private final class CommandStream extends OutputStream {
+
+		private final byte[] name = new byte[32];
+
+		private final byte[] single = new byte[1];
+
+		private int nameLength;
+
+		private byte header;
+
+		private long number;
+
+		private long arguments;
+
+		private long bulkRemaining;
+
+		private boolean firstArgument;
+
+		@Override
+		public void write(int b) {
+			single[0] = (byte) b;
+			write(single, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			int end = off + len;
+			while (off < end) {
+				if (bulkRemaining > 0) {
+					int n = (int) Math.min(bulkRemaining, end - off);
+					if (firstArgument) {
+						int copy = (int) Math.min(Math.min(n, bulkRemaining - 2), name.length - nameLength);
+						if (copy > 0) {
+							System.arraycopy(b, off, name, nameLength, copy);
+							nameLength += copy;
+						}
+					}
+					bulkRemaining -= n;
+					off += n;
+					if (bulkRemaining == 0) {
+						argumentEnd();
+					}
+				}
+				else {
+					lineByte(b[off++]);
+				}
+			}
+		}
+
+		private void lineByte(byte b) {
+			if (b == '*' || b == '$') {
+				header = b;
+				number = 0;
+			}
+			else if (b >= '0' && b <= '9') {
+				number = number * 10 + (b - '0');
+			}
+			else if (b == '\n') {
+				if (header == '*') {
+					arguments = number;
+					firstArgument = true;
+					nameLength = 0;
+				}
+				else {
+					// the argument bytes are followed by CRLF
+					bulkRemaining = number + 2;
+				}
+			}
+		}
+
+		private void argumentEnd() {
+			firstArgument = false;
+			if (--arguments == 0) {
+				pendingReplies.add(replyTo(name, nameLength));
+			}
+		}
+
+	}
+
+	/**
+	 * Serves the queued replies in command order, reporting the end of the stream when
+	 * there is none left.
+	 */
+	private final class ReplyStream extends InputStream {
+
+		private byte[] reply;
+
+		private int position;
+
+		@Override
+		public int read() {
+			if (!nextReply()) {
+				return -1;
+			}
+			return reply[position++] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!nextReply()) {
+				return -1;
+			}
+			int n = Math.min(len, reply.length - position);
+			System.arraycopy(reply, position, b, off, n);
+			position += n;
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return reply != null ? reply.length - position : 0;
+		}
+
+		private boolean nextReply() {
+			while (reply == null || position == reply.length) {
+				reply = pendingReplies.poll();
+				position = 0;
+				if (reply == null) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import com.alibaba.cloud.ai.vectorstore.oceanbase.OceanBaseVectorStore;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import javax.sql.DataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link VectorStoreBenchmark} of the {@link OceanBaseVectorStore}, with an in-memory
+ * {@link DataSource} stand-in: batches are accepted, the vector index is reported as
+ * present and distance queries return canned rows.
+ */
+public class OceanBaseVectorStoreBenchmark extends VectorStoreBenchmark {
+
+	@Override
+	protected VectorStore createVectorStore(FakeEmbeddingModel embeddingModel, List<Document> hits) {
+		List<Map<String, String>> rows = new ArrayList<>(hits.size());
+		for (int i = 0; i < hits.size(); i++) {
+			Document hit = hits.get(i);
+			rows.add(Map.of("id", hit.getId(), "document", hit.getText(), "metadata",
+					ModelOptionsUtils.toJsonString(hit.getMetadata()), "distance", String.valueOf(0.01 * i)));
+		}
+		DataSource dataSource = proxy(DataSource.class, (proxy, method, args) -> switch (method.getName()) {
+			case "getConnection" -> connection(rows);
+			default -> defaultValue(method.getReturnType());
+		});
+		return OceanBaseVectorStore.builder("benchmark", dataSource, embeddingModel).build();
+	}
+
+	private static Connection connection(List<Map<String, String>> rows) {
+		return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+			case "prepareStatement" -> statement((String) args[0], rows);
+			case "getAutoCommit" -> true;
+			default -> defaultValue(method.getReturnType());
+		});
+	}
+
+	private static PreparedStatement statement(String sql, List<Map<String, String>> rows) {
+		// SHOW INDEX queries get a single row, so the vector index is found
+		List<Map<String, String>> result = sql.contains("distance") ? rows : List.of(Map.of());
+		int[] batches = new int[1];
+		return proxy(PreparedStatement.class, (proxy, method, args) -> switch (method.getName()) {
+			case "executeQuery" -> resultSet(result);
+			case "addBatch" -> {
+				batches[0]++;
+				yield null;
+			}
+			case "executeBatch" -> new int[batches[0]];
+			default -> defaultValue(method.getReturnType());
+		});
+	}
+
+	private static ResultSet resultSet(List<Map<String, String>> rows) {
+		Iterator<Map<String, String>> iterator = rows.iterator();
+		Object[] current = new Object[1];
+		return proxy(ResultSet.class, (proxy, method, args) -> switch (method.getName()) {
+			case "next" -> {
+				current[0] = iterator.hasNext() ? iterator.next() : null;
+				yield current[0] != null;
+			}
+			case "getString" -> args[0] instanceof String label ? ((Map<?, ?>) current[0]).get(label) : null;
+			default -> defaultValue(method.getReturnType());
+		});
+	}
+
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(OceanBaseVectorStoreBenchmark.class.getClassLoader(),
+				new Class<?>[] { type }, handler));
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) {
+			return false;
+		}
+		if (type == int.class) {
+			return 0;
+		}
+		if (type == long.class) {
+			return 0L;
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import com.alibaba.cloud.ai.vectorstore.opensearch.OpenSearchApi;
+import com.alibaba.cloud.ai.vectorstore.opensearch.OpenSearchVectorStore;
+import com.alibaba.cloud.ai.vectorstore.opensearch.OpenSearchVectorStoreProperties;
+import com.aliyun.ha3engine.vector.models.Config;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.util.List;
+
+/**
+ * {@link VectorStoreBenchmark} of the {@link OpenSearchVectorStore}, on a
+ * {@link FakeOpenSearchClient} that accepts every push and answers queries with JSON hits
+ * shaped like the service's.
+ */
+public class OpenSearchVectorStoreBenchmark extends VectorStoreBenchmark {
+
+	@Override
+	protected VectorStore createVectorStore(FakeEmbeddingModel embeddingModel, List<Document> hits)
+			throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		ObjectNode searchResponse = objectMapper.createObjectNode().put("totalCount", hits.size());
+		ArrayNode result = searchResponse.putArray("result");
+		for (int i = 0; i < hits.size(); i++) {
+			Document hit = hits.get(i);
+			ObjectNode item = result.addObject().put("id", hit.getId()).put("score", 1.0 - 0.01 * i);
+			item.putObject("fields")
+				.put("content", hit.getText())
+				.put("metadata", ModelOptionsUtils.toJsonString(hit.getMetadata()));
+		}
+		OpenSearchVectorStoreProperties properties = new OpenSearchVectorStoreProperties();
+		properties.setInstanceId("ha-cn-benchmark");
+		properties.setEndpoint("ha-cn-benchmark.public.ha.aliyuncs.com");
+		properties.setAccessUserName("benchmark");
+		properties.setAccessPassWord("benchmark");
+		FakeOpenSearchClient client = new FakeOpenSearchClient(Config.build(properties.toClientParams()),
+				objectMapper.writeValueAsString(searchResponse));
+		return OpenSearchVectorStore.builder(new OpenSearchApi(properties, client), embeddingModel).build();
+	}
+
+}
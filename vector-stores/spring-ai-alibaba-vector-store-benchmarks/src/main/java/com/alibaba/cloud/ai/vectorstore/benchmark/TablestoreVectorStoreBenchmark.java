@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import com.alibaba.cloud.ai.vectorstore.tablestore.TablestoreVectorStore;
+import com.alicloud.openservices.tablestore.core.protocol.PlainBufferBuilder;
+import com.alicloud.openservices.tablestore.core.protocol.Search;
+import com.alicloud.openservices.tablestore.model.Column;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyBuilder;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyValue;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import com.aliyun.openservices.tablestore.agent.knowledge.KnowledgeStoreImpl;
+import com.aliyun.openservices.tablestore.agent.model.Metadata;
+import com.aliyun.openservices.tablestore.agent.util.TablestoreHelper;
+import com.aliyun.ots.thirdparty.com.google.protobuf.ByteString;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.util.List;
+
+/**
+ * {@link VectorStoreBenchmark} of the {@link TablestoreVectorStore}, whose knowledge
+ * store runs on a {@link FakeTablestoreClient} that accepts every row and answers vector
+ * searches with canned rows.
+ */
+public class TablestoreVectorStoreBenchmark extends VectorStoreBenchmark {
+
+	private static final String TABLE_NAME = "benchmark";
+
+	private static final String TEXT_FIELD = "text";
+
+	@Override
+	protected VectorStore createVectorStore(FakeEmbeddingModel embeddingModel, List<Document> hits)
+			throws Exception {
+		Search.SearchResponse.Builder searchResponse = Search.SearchResponse.newBuilder()
+			.setTotalHits(hits.size())
+			.setIsAllSucceeded(true);
+		for (int i = 0; i < hits.size(); i++) {
+			Document hit = hits.get(i);
+			RowPutChange row = new RowPutChange(TABLE_NAME, PrimaryKeyBuilder.createPrimaryKeyBuilder()
+				.addPrimaryKeyColumn(com.aliyun.openservices.tablestore.agent.model.Document.DOCUMENT_DOCUMENT_ID,
+						PrimaryKeyValue.fromString(hit.getId()))
+				.addPrimaryKeyColumn(com.aliyun.openservices.tablestore.agent.model.Document.DOCUMENT_TENANT_ID,
+						PrimaryKeyValue
+							.fromString(com.aliyun.openservices.tablestore.agent.model.Document.DOCUMENT_DEFAULT_TENANT_ID))
+				.build());
+			row.addColumns(TablestoreHelper.metadataToColumns(new Metadata(hit.getMetadata())));
+			row.addColumn(new Column(TEXT_FIELD, ColumnValue.fromString(hit.getText())));
+			searchResponse.addRows(ByteString.copyFrom(PlainBufferBuilder.buildRowPutChangeWithHeader(row)))
+				.addSearchHits(Search.SearchHit.newBuilder().setScore(1.0 - 0.01 * i));
+		}
+		KnowledgeStoreImpl knowledgeStore = KnowledgeStoreImpl.builder()
+			.client(new FakeTablestoreClient(searchResponse.build()))
+			.tableName(TABLE_NAME)
+			.textField(TEXT_FIELD)
+			.embeddingDimension(embeddingModel.dimensions())
+			.enableMultiTenant(false)
+			.build();
+		return TablestoreVectorStore.builder(knowledgeStore, embeddingModel).build();
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import com.alibaba.cloud.ai.vectorstore.tair.TairVectorApi;
+import com.alibaba.cloud.ai.vectorstore.tair.TairVectorStore;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.vectorstore.VectorStore;
+import redis.clients.jedis.ClientSetInfoConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link VectorStoreBenchmark} of the {@link TairVectorStore}, on a pooled
+ * {@link TairVectorApi} whose connections are {@link FakeTairSocket}s: every
+ * {@code TVS.HSET} is accepted and k-NN searches get canned hits.
+ */
+public class TairVectorStoreBenchmark extends VectorStoreBenchmark {
+
+	@Override
+	protected VectorStore createVectorStore(FakeEmbeddingModel embeddingModel, List<Document> hits) {
+		ByteArrayOutputStream searchReply = new ByteArrayOutputStream();
+		header(searchReply, '*', hits.size());
+		for (int i = 0; i < hits.size(); i++) {
+			Document hit = hits.get(i);
+			header(searchReply, '*', 8);
+			bulk(searchReply, hit.getId());
+			bulk(searchReply, String.valueOf(0.1 * i));
+			bulk(searchReply, "id");
+			bulk(searchReply, hit.getId());
+			bulk(searchReply, "content");
+			bulk(searchReply, hit.getText());
+			bulk(searchReply, "metadata");
+			bulk(searchReply, ModelOptionsUtils.toJsonString(hit.getMetadata()));
+		}
+		Map<String, byte[]> replies = Map.of("TVS.HSET", ":1\r\n".getBytes(StandardCharsets.US_ASCII),
+				"TVS.KNNSEARCHFIELD", searchReply.toByteArray());
+		JedisPool jedisPool = new JedisPool(new JedisPoolConfig(), () -> new FakeTairSocket(replies),
+				DefaultJedisClientConfig.builder().clientSetInfoConfig(ClientSetInfoConfig.DISABLED).build());
+		return TairVectorStore.builder(new TairVectorApi(jedisPool), embeddingModel).build();
+	}
+
+	private static void header(ByteArrayOutputStream reply, char type, int number) {
+		reply.writeBytes((type + String.valueOf(number) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static void bulk(ByteArrayOutputStream reply, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		header(reply, '$', bytes.length);
+		reply.writeBytes(bytes);
+		reply.writeBytes("\r\n".getBytes(StandardCharsets.US_ASCII));
+	}
+
+}
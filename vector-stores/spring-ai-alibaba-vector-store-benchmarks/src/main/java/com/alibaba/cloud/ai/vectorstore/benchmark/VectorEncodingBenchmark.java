@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import com.alibaba.cloud.ai.vectorstore.common.VectorEncoding;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encodes a single embedding the way the stores used to and the way they do now through
+ * {@link VectorEncoding}. With the GC profiler the allocation per vector
+ * ({@code gc.alloc.rate.norm}) of each pair can be compared directly:
+ * <ul>
+ * <li>TairVector: a Jackson string the client then encodes to bytes, against
+ * {@link VectorEncoding#toTextBytes}.</li>
+ * <li>Tablestore and OceanBase: a Jackson string, an {@link Arrays#toString} of boxed
+ * components and a pre-sized {@link StringBuilder} per call, against
+ * {@link VectorEncoding#toText}.</li>
+ * <li>AnalyticDB: a list of boxed doubles, against {@link VectorEncoding#asDoubleList},
+ * which defers boxing to the request serializer.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VectorEncodingBenchmark {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Param({ "1024", "3072" })
+	public int dimensions;
+
+	private float[] vector;
+
+	@Setup
+	public void setUp() {
+		vector = new FakeEmbeddingModel(dimensions).embed("how are documents filtered by tenant metadata");
+	}
+
+	@Benchmark
+	public byte[] jacksonTextBytes() throws JsonProcessingException {
+		return objectMapper.writeValueAsString(vector).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public byte[] pooledTextBytes() {
+		return VectorEncoding.toTextBytes(vector);
+	}
+
+	@Benchmark
+	public String jacksonText() throws JsonProcessingException {
+		return objectMapper.writeValueAsString(vector);
+	}
+
+	@Benchmark
+	public String boxedText() {
+		return Arrays.toString(IntStream.range(0, vector.length).mapToObj(i -> vector[i]).toArray());
+	}
+
+	@Benchmark
+	public String presizedBuilderText() {
+		StringBuilder text = new StringBuilder(vector.length * 12 + 2).append('[');
+		for (int i = 0; i < vector.length; i++) {
+			if (i > 0) {
+				text.append(',');
+			}
+			text.append(vector[i]);
+		}
+		return text.append(']').toString();
+	}
+
+	@Benchmark
+	public String pooledText() {
+		return VectorEncoding.toText(vector);
+	}
+
+	@Benchmark
+	public List<Double> boxedDoubleList() {
+		return IntStream.range(0, vector.length).mapToObj(i -> (double) vector[i]).toList();
+	}
+
+	@Benchmark
+	public List<Double> doubleListView() {
+		return VectorEncoding.asDoubleList(vector);
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingestion and query benchmarks shared by all vector stores. Each subclass builds its
+ * store on a fake of the backend client that still encodes every request the way the
+ * SDK does, but answers it with a canned response instead of sending it, so the numbers
+ * cover the work done in the caller's process: embedding through the
+ * {@link FakeEmbeddingModel}, encoding vectors and metadata, serializing the requests,
+ * batching, and decoding and mapping hits back to documents.
+ * <p>
+ * {@link #add} is reported in documents per second through the {@code documents}
+ * counter, {@link #similaritySearch} as a latency distribution with its percentiles. Run
+ * with the GC profiler, as {@link VectorStoreBenchmarks} does, to get the allocation
+ * per operation ({@code gc.alloc.rate.norm}).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class VectorStoreBenchmark {
+
+	/**
+	 * Number of hits the fakes return for a query.
+	 */
+	protected static final int TOP_K = 10;
+
+	private static final long DOCUMENT_SEED = 42;
+
+	@Param({ "1024", "3072" })
+	public int dimensions;
+
+	@Param({ "100" })
+	public int batchSize;
+
+	private VectorStore vectorStore;
+
+	private List<Document> documents;
+
+	private SearchRequest searchRequest;
+
+	@Setup
+	public void setUp() throws Exception {
+		documents = BenchmarkDocuments.generate(batchSize, DOCUMENT_SEED);
+		searchRequest = SearchRequest.builder()
+			.query("how are documents filtered by tenant metadata")
+			.topK(TOP_K)
+			.similarityThresholdAll()
+			.build();
+		vectorStore = createVectorStore(new FakeEmbeddingModel(dimensions), documents.subList(0, TOP_K));
+	}
+
+	/**
+	 * Builds the store under test.
+	 * @param embeddingModel the embedding model the store must use
+	 * @param hits the documents the fake returns for every query
+	 * @return the vector store
+	 */
+	protected abstract VectorStore createVectorStore(FakeEmbeddingModel embeddingModel, List<Document> hits)
+			throws Exception;
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void add(IngestCounters counters) {
+		vectorStore.add(documents);
+		counters.documents += documents.size();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public List<Document> similaritySearch() {
+		return vectorStore.similaritySearch(searchRequest);
+	}
+
+	/**
+	 * Counts the ingested documents, reported by JMH as a rate next to the primary
+	 * result.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class IngestCounters {
+
+		public long documents;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			documents = 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the vector store benchmarks with the GC profiler attached, so every result comes
+ * with its allocation per operation. Accepts the regular JMH command line; without a
+ * benchmark pattern all vector store benchmarks and the {@link VectorEncodingBenchmark}
+ * run. For example, after
+ * {@code mvn -pl vector-stores/spring-ai-alibaba-vector-store-benchmarks -am package -DskipTests}:
+ * <pre>
+ * java -jar vector-stores/spring-ai-alibaba-vector-store-benchmarks/target/benchmarks.jar Tair -p dimensions=1024
+ * </pre>
+ */
+public final class VectorStoreBenchmarks {
+
+	private VectorStoreBenchmarks() {
+	}
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class);
+		if (commandLine.getIncludes().isEmpty()) {
+			String benchmarks = VectorStoreBenchmark.class.getPackageName();
+			options.include(benchmarks + ".*VectorStoreBenchmark").include(benchmarks + ".VectorEncodingBenchmark");
+		}
+		new Runner(options.build()).run();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.ai.document.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Runs every benchmark operation once, so the fakes stay in line with the stores and
+ * the encodings compared produce the same vector.
+ */
+class VectorStoreBenchmarkTest {
+
+	@ParameterizedTest
+	@ValueSource(classes = { AnalyticDbVectorStoreBenchmark.class, OceanBaseVectorStoreBenchmark.class,
+			OpenSearchVectorStoreBenchmark.class, TablestoreVectorStoreBenchmark.class,
+			TairVectorStoreBenchmark.class })
+	void benchmarkOperationsRun(Class<? extends VectorStoreBenchmark> type) throws Exception {
+		VectorStoreBenchmark benchmark = type.getDeclaredConstructor().newInstance();
+		benchmark.dimensions = 8;
+		benchmark.batchSize = 20;
+		benchmark.setUp();
+		VectorStoreBenchmark.IngestCounters counters = new VectorStoreBenchmark.IngestCounters();
+
+		benchmark.add(counters);
+
+		assertThat(counters.documents).isEqualTo(20);
+		assertThat(benchmark.similaritySearch()).hasSize(VectorStoreBenchmark.TOP_K)
+			.extracting(Document::getText)
+			.doesNotContainNull();
+	}
+
+	@Test
+	void encodingBenchmarksAgreeOnTheVector() throws Exception {
+		VectorEncodingBenchmark benchmark = new VectorEncodingBenchmark();
+		benchmark.dimensions = 8;
+		benchmark.setUp();
+
+		assertThat(benchmark.pooledText()).isEqualTo(benchmark.jacksonText())
+			.isEqualTo(benchmark.presizedBuilderText())
+			.isEqualTo(benchmark.boxedText().replace(", ", ","));
+		assertThat(benchmark.pooledTextBytes()).isEqualTo(benchmark.jacksonTextBytes());
+		assertThat(benchmark.doubleListView()).isEqualTo(benchmark.boxedDoubleList());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 8, 1024 })
+	void fakeEmbeddingsAreDeterministicUnitVectors(int dimensions) {
+		FakeEmbeddingModel embeddingModel = new FakeEmbeddingModel(dimensions);
+
+		float[] embedding = embeddingModel.embed("vector store");
+
+		assertThat(embedding).hasSize(dimensions).containsExactly(embeddingModel.embed("vector store"));
+		double norm = 0;
+		for (float value : embedding) {
+			norm += value * value;
+		}
+		assertThat(norm).isCloseTo(1.0, within(1e-4));
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.common;
+
+import java.util.List;
+
+/**
+ * Outcome of one window of a {@link VectorStoreIngestor streaming ingestion}, together
+ * with the running totals of the ingestion at the time the window completed.
+ *
+ * @param window the zero-based index of the window in the document stream
+ * @param windowDocuments the number of documents in the window
+ * @param ingestedDocuments the number of documents written so far
+ * @param failedDocuments the number of documents whose window failed so far
+ * @param failedDocumentIds the ids of the documents of this window when it failed, empty
+ * otherwise
+ * @param error the failure of this window, {@code null} when it was written
+ */
+public record IngestionProgress(long window, int windowDocuments, long ingestedDocuments, long failedDocuments,
+		List<String> failedDocumentIds, Throwable error) {
+
+	public boolean isFailed() {
+		return error != null;
+	}
+
+}
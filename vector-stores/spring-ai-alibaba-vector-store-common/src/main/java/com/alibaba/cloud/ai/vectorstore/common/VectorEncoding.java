@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.common;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Encodes embeddings into the forms the vector store backends accept without
+ * intermediate copies.
+ * <p>
+ * The text form {@code [v1,v2,...]}, used by TairVector, OceanBase and Tablestore, is
+ * written into a per-thread buffer that is reused across calls, so the encoded
+ * {@link String} or byte array is the only allocation per vector. Values are formatted
+ * like {@link Float#toString(float)}, which is also what Jackson writes for a
+ * {@code float[]}. Backends that take a {@code List<Double>} get a view over the
+ * {@code float[]} instead of a list of boxed copies.
+ * </p>
+ */
+public final class VectorEncoding {
+
+	/**
+	 * Initial capacity of the per-thread buffer, enough for a 1024-dimension vector.
+	 */
+	static final int INITIAL_BUFFER_CAPACITY = 16 * 1024;
+
+	/**
+	 * Characters reserved per component before encoding: a sign, a digit, the point,
+	 * up to eight fraction digits and the separator cover typical normalized embeddings.
+	 */
+	static final int CHARS_PER_COMPONENT = 13;
+
+	/**
+	 * Capacity above which a grown buffer is dropped after use rather than kept for the
+	 * thread, so that one oversized vector does not pin memory on every pooled thread.
+	 * It leaves room for a 3072-dimension vector in the longest float notation.
+	 */
+	static final int MAX_POOLED_BUFFER_CAPACITY = 128 * 1024;
+
+	static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal
+		.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+	private VectorEncoding() {
+	}
+
+	/**
+	 * Formats a vector as text, {@code [v1,v2,...]}.
+	 * @param vector the vector to format
+	 * @return the formatted vector
+	 */
+	public static String toText(float[] vector) {
+		StringBuilder buffer = encode(vector);
+		try {
+			return buffer.toString();
+		}
+		finally {
+			release(buffer);
+		}
+	}
+
+	/**
+	 * Formats a vector as text, {@code [v1,v2,...]}, and returns its US-ASCII bytes, for
+	 * clients that write binary arguments directly to the wire.
+	 * @param vector the vector to format
+	 * @return the bytes of the formatted vector
+	 */
+	public static byte[] toTextBytes(float[] vector) {
+		StringBuilder buffer = encode(vector);
+		try {
+			byte[] bytes = new byte[buffer.length()];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = (byte) buffer.charAt(i);
+			}
+			return bytes;
+		}
+		finally {
+			release(buffer);
+		}
+	}
+
+	/**
+	 * Returns a read-only {@code List<Double>} view of a vector. Elements are widened when
+	 * read, so the list costs no copy of the vector; changes to the array show through.
+	 * @param vector the vector to view
+	 * @return the view of the vector
+	 */
+	public static List<Double> asDoubleList(float[] vector) {
+		return new DoubleListView(vector);
+	}
+
+	private static StringBuilder encode(float[] vector) {
+		StringBuilder buffer = BUFFER.get();
+		buffer.setLength(0);
+		buffer.ensureCapacity(vector.length * CHARS_PER_COMPONENT + 2);
+		buffer.append('[');
+		for (int i = 0; i < vector.length; i++) {
+			if (i > 0) {
+				buffer.append(',');
+			}
+			buffer.append(vector[i]);
+		}
+		return buffer.append(']');
+	}
+
+	private static void release(StringBuilder buffer) {
+		if (buffer.capacity() > MAX_POOLED_BUFFER_CAPACITY) {
+			BUFFER.remove();
+		}
+	}
+
+	private static final class DoubleListView extends AbstractList<Double> implements RandomAccess {
+
+		private final float[] vector;
+
+		DoubleListView(float[] vector) {
+			this.vector = vector;
+		}
+
+		@Override
+		public Double get(int index) {
+			return (double) this.vector[index];
+		}
+
+		@Override
+		public int size() {
+			return this.vector.length;
+		}
+
+	}
+
+}
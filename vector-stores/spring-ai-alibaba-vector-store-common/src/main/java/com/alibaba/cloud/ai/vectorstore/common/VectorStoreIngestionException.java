@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.common;
+
+/**
+ * Ends a {@link VectorStoreIngestor streaming ingestion} that does not continue on
+ * errors, carrying the progress of the window that failed.
+ */
+public class VectorStoreIngestionException extends RuntimeException {
+
+	private final IngestionProgress progress;
+
+	public VectorStoreIngestionException(IngestionProgress progress) {
+		super(String.format("Failed to ingest window %d (%d documents) after %d documents were written",
+				progress.window(), progress.windowDocuments(), progress.ingestedDocuments()), progress.error());
+		this.progress = progress;
+	}
+
+	public IngestionProgress getProgress() {
+		return progress;
+	}
+
+}
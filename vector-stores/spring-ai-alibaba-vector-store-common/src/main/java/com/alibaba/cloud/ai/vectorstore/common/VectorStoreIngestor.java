@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.common;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams documents into a {@link VectorStore} in fixed-size windows, so that a corpus
+ * of any size is ingested in bounded memory.
+ *
+ * Every window is handed to {@link VectorStore#add(List)}, which embeds it through the
+ * store's {@link org.springframework.ai.embedding.BatchingStrategy} and writes it with
+ * the store's own batching. Up to {@code parallelism} windows are in flight at a time,
+ * so one window is embedded while others are written, and no more documents are
+ * requested from the source than those windows need. The returned flux emits one
+ * {@link IngestionProgress} per window, in completion order; a failed window is
+ * reported with its document ids and the ingestion goes on, unless
+ * {@link Builder#continueOnError(boolean)} is disabled.
+ */
+public class VectorStoreIngestor {
+
+	private static final Logger logger = LoggerFactory.getLogger(VectorStoreIngestor.class);
+
+	public static final int DEFAULT_WINDOW_SIZE = 256;
+
+	public static final int DEFAULT_PARALLELISM = 4;
+
+	private final VectorStore vectorStore;
+
+	private final int windowSize;
+
+	private final int parallelism;
+
+	private final Scheduler scheduler;
+
+	private final boolean continueOnError;
+
+	private VectorStoreIngestor(Builder builder) {
+		Assert.notNull(builder.vectorStore, "vectorStore cannot be null");
+		Assert.isTrue(builder.windowSize > 0, "windowSize must be positive");
+		Assert.isTrue(builder.parallelism > 0, "parallelism must be positive");
+		Assert.notNull(builder.scheduler, "scheduler cannot be null");
+		this.vectorStore = builder.vectorStore;
+		this.windowSize = builder.windowSize;
+		this.parallelism = builder.parallelism;
+		this.scheduler = builder.scheduler;
+		this.continueOnError = builder.continueOnError;
+	}
+
+	public static Builder builder(VectorStore vectorStore) {
+		return new Builder(vectorStore);
+	}
+
+	/**
+	 * Ingests the documents once the returned flux is subscribed to.
+	 * @param documents the documents to ingest
+	 * @return the progress of every window, completing after the last window was
+	 * written
+	 */
+	public Flux<IngestionProgress> ingest(Publisher<Document> documents) {
+		return Flux.defer(() -> {
+			AtomicLong ingested = new AtomicLong();
+			AtomicLong failed = new AtomicLong();
+			return Flux.from(documents)
+				.buffer(windowSize)
+				.index()
+				.flatMap(window -> write(window.getT1(), window.getT2(), ingested, failed), parallelism, 1);
+		});
+	}
+
+	private Mono<IngestionProgress> write(long window, List<Document> documents, AtomicLong ingested,
+			AtomicLong failed) {
+		return Mono.fromCallable(() -> {
+			vectorStore.add(documents);
+			return new IngestionProgress(window, documents.size(), ingested.addAndGet(documents.size()),
+					failed.get(), List.of(), null);
+		}).subscribeOn(scheduler).onErrorResume(e -> {
+			List<String> ids = documents.stream().map(Document::getId).toList();
+			IngestionProgress progress = new IngestionProgress(window, documents.size(), ingested.get(),
+					failed.addAndGet(documents.size()), ids, e);
+			if (!continueOnError) {
+				return Mono.error(new VectorStoreIngestionException(progress));
+			}
+			logger.warn("Failed to ingest window {} ({} documents): {}", window, documents.size(), e.getMessage());
+			return Mono.just(progress);
+		});
+	}
+
+	public static class Builder {
+
+		private final VectorStore vectorStore;
+
+		private int windowSize = DEFAULT_WINDOW_SIZE;
+
+		private int parallelism = DEFAULT_PARALLELISM;
+
+		private Scheduler scheduler = Schedulers.boundedElastic();
+
+		private boolean continueOnError = true;
+
+		private Builder(VectorStore vectorStore) {
+			this.vectorStore = vectorStore;
+		}
+
+		/**
+		 * Number of documents handed to the store at once. Larger windows let the store
+		 * batch more, at the cost of memory.
+		 */
+		public Builder windowSize(int windowSize) {
+			this.windowSize = windowSize;
+			return this;
+		}
+
+		/**
+		 * Maximum number of windows being embedded or written at the same time.
+		 */
+		public Builder parallelism(int parallelism) {
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * Scheduler the blocking writes run on, {@link Schedulers#boundedElastic()} by
+		 * default.
+		 */
+		public Builder scheduler(Scheduler scheduler) {
+			this.scheduler = scheduler;
+			return this;
+		}
+
+		/**
+		 * Whether a failed window is only reported and the ingestion goes on, or ends
+		 * the ingestion with a {@link VectorStoreIngestionException}.
+		 */
+		public Builder continueOnError(boolean continueOnError) {
+			this.continueOnError = continueOnError;
+			return this;
+		}
+
+		public VectorStoreIngestor build() {
+			return new VectorStoreIngestor(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link VectorEncoding}.
+ */
+class VectorEncodingTest {
+
+	@Test
+	void vectorsAreFormattedWithoutPadding() {
+		assertThat(VectorEncoding.toText(new float[] { 1f, -2.5f, 1.0E-10f })).isEqualTo("[1.0,-2.5,1.0E-10]");
+		assertThat(VectorEncoding.toText(new float[0])).isEqualTo("[]");
+		assertThat(VectorEncoding.toTextBytes(new float[] { 1f, 2f }))
+			.isEqualTo("[1.0,2.0]".getBytes(StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	void textMatchesJacksonForRoundTrips() throws Exception {
+		float[] vector = { 0.1f, -0.333333f, Float.MIN_VALUE, 123456.78f };
+		ObjectMapper objectMapper = new ObjectMapper();
+
+		String text = VectorEncoding.toText(vector);
+
+		assertThat(text).isEqualTo(objectMapper.writeValueAsString(vector));
+		assertThat(objectMapper.readValue(text, float[].class)).isEqualTo(vector);
+	}
+
+	@Test
+	void buffersForLargeEmbeddingsStayPooled() {
+		float[] vector = new float[3072];
+		Arrays.fill(vector, -1.2345678E-5f);
+		StringBuilder buffer = VectorEncoding.BUFFER.get();
+
+		String text = VectorEncoding.toText(vector);
+
+		assertThat(text).hasSizeGreaterThan(vector.length * VectorEncoding.CHARS_PER_COMPONENT);
+		assertThat(VectorEncoding.BUFFER.get()).isSameAs(buffer);
+		assertThat(buffer.capacity()).isLessThanOrEqualTo(VectorEncoding.MAX_POOLED_BUFFER_CAPACITY);
+	}
+
+	@Test
+	void oversizedBuffersAreNotKept() {
+		float[] large = new float[VectorEncoding.MAX_POOLED_BUFFER_CAPACITY / 4];
+		Arrays.fill(large, -0.123456f);
+
+		StringBuilder buffer = VectorEncoding.BUFFER.get();
+
+		String text = VectorEncoding.toText(large);
+
+		assertThat(text).hasSizeGreaterThan(VectorEncoding.MAX_POOLED_BUFFER_CAPACITY);
+		assertThat(VectorEncoding.BUFFER.get()).isNotSameAs(buffer);
+		assertThat(VectorEncoding.toText(new float[] { 3f })).isEqualTo("[3.0]");
+	}
+
+	@Test
+	void doubleListIsAReadOnlyView() {
+		float[] vector = { 0.5f, -2f };
+		List<Double> view = VectorEncoding.asDoubleList(vector);
+
+		vector[1] = 4f;
+
+		assertThat(view).containsExactly(0.5, 4.0);
+		assertThatThrownBy(() -> view.set(0, 1.0)).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.vectorstore.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link VectorStoreIngestor}.
+ */
+class VectorStoreIngestorTest {
+
+	private final VectorStore vectorStore = mock(VectorStore.class);
+
+	private final List<Integer> windowSizes = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	void documentsAreWrittenInWindows() {
+		recordWindows();
+		VectorStoreIngestor ingestor = VectorStoreIngestor.builder(vectorStore).windowSize(3).parallelism(2).build();
+
+		List<IngestionProgress> progress = ingestor.ingest(documents(10)).collectList().block(Duration.ofSeconds(5));
+
+		assertThat(windowSizes).containsExactlyInAnyOrder(3, 3, 3, 1);
+		assertThat(progress).hasSize(4).noneMatch(IngestionProgress::isFailed);
+		assertThat(progress).extracting(IngestionProgress::ingestedDocuments).contains(10L);
+	}
+
+	@Test
+	void failedWindowIsReportedAndIngestionGoesOn() {
+		doAnswer(invocation -> {
+			List<Document> window = invocation.getArgument(0);
+			if (window.stream().anyMatch(document -> document.getId().equals("doc-4"))) {
+				throw new IllegalStateException("throttled");
+			}
+			return null;
+		}).when(vectorStore).add(anyList());
+		VectorStoreIngestor ingestor = VectorStoreIngestor.builder(vectorStore).windowSize(3).parallelism(1).build();
+
+		List<IngestionProgress> progress = ingestor.ingest(documents(10)).collectList().block(Duration.ofSeconds(5));
+
+		assertThat(progress).hasSize(4).filteredOn(IngestionProgress::isFailed).singleElement().satisfies(failed -> {
+			assertThat(failed.window()).isEqualTo(1);
+			assertThat(failed.failedDocumentIds()).containsExactly("doc-3", "doc-4", "doc-5");
+			assertThat(failed.error()).hasMessage("throttled");
+		});
+		IngestionProgress last = progress.get(progress.size() - 1);
+		assertThat(last.ingestedDocuments()).isEqualTo(7);
+		assertThat(last.failedDocuments()).isEqualTo(3);
+	}
+
+	@Test
+	void failedWindowEndsIngestionWhenNotContinuingOnError() {
+		doAnswer(invocation -> {
+			throw new IllegalStateException("unavailable");
+		}).when(vectorStore).add(anyList());
+		VectorStoreIngestor ingestor = VectorStoreIngestor.builder(vectorStore)
+			.windowSize(3)
+			.continueOnError(false)
+			.build();
+
+		StepVerifier.create(ingestor.ingest(documents(10)))
+			.expectErrorSatisfies(error -> assertThat(error).isInstanceOf(VectorStoreIngestionException.class)
+				.hasRootCauseMessage("unavailable"))
+			.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void sourceIsOnlyReadAsFarAsTheWindowsInFlight() throws Exception {
+		CountDownLatch windowsStarted = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			windowsStarted.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return null;
+		}).when(vectorStore).add(anyList());
+		AtomicInteger produced = new AtomicInteger();
+		Flux<Document> source = Flux.range(0, 1000)
+			.map(i -> new Document("doc-" + i, "content " + i, Map.of()))
+			.doOnNext(document -> produced.incrementAndGet());
+		VectorStoreIngestor ingestor = VectorStoreIngestor.builder(vectorStore).windowSize(10).parallelism(2).build();
+
+		var ingestion = ingestor.ingest(source).count().toFuture();
+
+		assertThat(windowsStarted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(produced.get()).isLessThanOrEqualTo(30);
+		release.countDown();
+		assertThat(ingestion.get(5, TimeUnit.SECONDS)).isEqualTo(100);
+		assertThat(produced.get()).isEqualTo(1000);
+	}
+
+	private void recordWindows() {
+		doAnswer(invocation -> {
+			windowSizes.add(invocation.<List<?>>getArgument(0).size());
+			return null;
+		}).when(vectorStore).add(anyList());
+	}
+
+	private static Flux<Document> documents(int count) {
+		return Flux.range(0, count).map(i -> new Document("doc-" + i, "content " + i, Map.of()));
+	}
+
+}